@@ -7,8 +7,12 @@ import com.alibaba.cola.exception.Assert;
 import com.alibaba.excel.EasyExcel;
 import com.github.zavier.dto.*;
 import com.github.zavier.dto.data.ExpenseProjectMemberDTO;
+import com.github.zavier.dto.data.ExpenseRecordBatchResultDTO;
 import com.github.zavier.dto.data.ExpenseRecordDTO;
+import com.github.zavier.dto.data.ExpenseRecordImportResultDTO;
+import com.github.zavier.dto.data.ExpenseSearchResultDTO;
 import com.github.zavier.dto.data.ProjectDTO;
+import com.github.zavier.dto.data.UserDashboardDTO;
 import com.github.zavier.dto.data.UserSharingDTO;
 import com.github.zavier.project.ExpenseApplicationService;
 import com.github.zavier.project.executor.bo.ExpenseRecordExcelBO;
@@ -20,10 +24,13 @@ import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.annotation.Resource;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
@@ -44,6 +51,13 @@ public class ExpenseController {
         return ResponseVo.buildFromResponse(response);
     }
 
+    @PostMapping("/project/rename")
+    public ResponseVo renameProject(@RequestBody ProjectRenameCmd projectRenameCmd) {
+        projectRenameCmd.setOperatorId(UserHolder.getUser().getUserId());
+        final Response response = expenseApplicationService.renameProject(projectRenameCmd);
+        return ResponseVo.buildFromResponse(response);
+    }
+
     @PostMapping("/project/addRecord")
     public ResponseVo saveExpenseRecord(@RequestBody ExpenseRecordAddCmd expenseRecordAddCmd) {
         expenseRecordAddCmd.setOperatorId(UserHolder.getUser().getUserId());
@@ -65,6 +79,27 @@ public class ExpenseController {
         return ResponseVo.buildFromResponse(response);
     }
 
+    @PostMapping("/project/batchAddRecord")
+    public SingleResponseVo<ExpenseRecordBatchResultDTO> batchAddExpenseRecord(@RequestBody ExpenseRecordBatchAddCmd batchAddCmd) {
+        batchAddCmd.setOperatorId(UserHolder.getUser().getUserId());
+        final SingleResponse<ExpenseRecordBatchResultDTO> response = expenseApplicationService.batchAddExpenseRecord(batchAddCmd);
+        return SingleResponseVo.buildFromSingleResponse(response);
+    }
+
+    @PostMapping("/project/batchUpdateRecord")
+    public SingleResponseVo<ExpenseRecordBatchResultDTO> batchUpdateExpenseRecord(@RequestBody ExpenseRecordBatchUpdateCmd batchUpdateCmd) {
+        batchUpdateCmd.setOperatorId(UserHolder.getUser().getUserId());
+        final SingleResponse<ExpenseRecordBatchResultDTO> response = expenseApplicationService.batchUpdateExpenseRecord(batchUpdateCmd);
+        return SingleResponseVo.buildFromSingleResponse(response);
+    }
+
+    @PostMapping("/project/batchDeleteRecord")
+    public SingleResponseVo<ExpenseRecordBatchResultDTO> batchDeleteExpenseRecord(@RequestBody ExpenseRecordBatchDeleteCmd batchDeleteCmd) {
+        batchDeleteCmd.setOperatorId(UserHolder.getUser().getUserId());
+        final SingleResponse<ExpenseRecordBatchResultDTO> response = expenseApplicationService.batchDeleteExpenseRecord(batchDeleteCmd);
+        return SingleResponseVo.buildFromSingleResponse(response);
+    }
+
     @GetMapping("/project/listRecord")
     public SingleResponseVo<Map<String, List<ExpenseRecordDTO>>> listRecord(ExpenseRecordQry expenseRecordQry) {
         expenseRecordQry.setOperatorId(UserHolder.getUser().getUserId());
@@ -75,6 +110,19 @@ public class ExpenseController {
     }
 
 
+    @GetMapping("/record/search")
+    public SingleResponseVo<ExpenseSearchResultDTO> searchExpenseRecords(ExpenseSearchQry expenseSearchQry) {
+        expenseSearchQry.setOperatorId(UserHolder.getUser().getUserId());
+        final SingleResponse<ExpenseSearchResultDTO> response = expenseApplicationService.searchExpenseRecords(expenseSearchQry);
+        return SingleResponseVo.buildFromSingleResponse(response);
+    }
+
+    @GetMapping("/dashboard")
+    public SingleResponseVo<UserDashboardDTO> getUserDashboard() {
+        final SingleResponse<UserDashboardDTO> response = expenseApplicationService.getUserDashboard(UserHolder.getUser().getUserId());
+        return SingleResponseVo.buildFromSingleResponse(response);
+    }
+
     @PostMapping("/project/delete")
     public ResponseVo deleteProject(@RequestBody ProjectDeleteCmd projectDeleteCmd) {
         projectDeleteCmd.setOperatorId(UserHolder.getUser().getUserId());
@@ -82,6 +130,13 @@ public class ExpenseController {
         return ResponseVo.buildFromResponse(response);
     }
 
+    @PostMapping("/project/lock")
+    public ResponseVo lockProject(@RequestBody ProjectLockCmd projectLockCmd) {
+        projectLockCmd.setOperatorId(UserHolder.getUser().getUserId());
+        final Response response = expenseApplicationService.lockProject(projectLockCmd);
+        return ResponseVo.buildFromResponse(response);
+    }
+
     @PostMapping("/project/addMember")
     public ResponseVo addProjectMember(@RequestBody ProjectMemberAddCmd projectMemberAddCmd) {
         projectMemberAddCmd.setOperatorId(UserHolder.getUser().getUserId());
@@ -129,6 +184,17 @@ public class ExpenseController {
         return SingleResponseVo.of(map);
     }
 
+    @PostMapping("/project/record/import")
+    public SingleResponseVo<ExpenseRecordImportResultDTO> importFeeRecord(@RequestParam Integer projectId,
+                                                                          @RequestParam("file") MultipartFile file) throws IOException {
+        Assert.isTrue(file != null && !file.isEmpty(), "导入文件不能为空");
+        try (InputStream inputStream = file.getInputStream()) {
+            final SingleResponse<ExpenseRecordImportResultDTO> response = expenseApplicationService.importExpenseRecords(
+                    projectId, UserHolder.getUser().getUserId(), inputStream, file.getOriginalFilename());
+            return SingleResponseVo.buildFromSingleResponse(response);
+        }
+    }
+
     @GetMapping("/project/record/export")
     public void exportFeeRecordDetail(@RequestParam Integer projectId, HttpServletResponse response) throws Exception {
         final SingleResponse<List<ExpenseRecordExcelBO>> execute = expenseApplicationService.exportRecords(projectId, UserHolder.getUser().getUserId());
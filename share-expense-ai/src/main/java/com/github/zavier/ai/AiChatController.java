@@ -1,6 +1,7 @@
 package com.github.zavier.ai;
 
 import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.ai.concurrent.AiBulkhead;
 import com.github.zavier.ai.dto.AiChatRequest;
 import com.github.zavier.ai.dto.AiChatResponse;
 import com.github.zavier.ai.dto.SuggestionsResponse;
@@ -8,6 +9,8 @@ import jakarta.annotation.Resource;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/expense/api/ai")
 public class AiChatController {
@@ -15,16 +18,20 @@ public class AiChatController {
     @Resource
     private AiChatService aiChatService;
 
+    @Resource
+    private AiBulkhead aiBulkhead;
+
+    /**
+     * 对话和建议都要调用模型，在隔离舱中异步执行，不占用 Tomcat 工作线程
+     */
     @PostMapping("/chat")
-    public SingleResponse<AiChatResponse> chat(@Valid @RequestBody AiChatRequest request) {
-        AiChatResponse response = aiChatService.chat(request);
-        return SingleResponse.of(response);
+    public CompletableFuture<SingleResponse<AiChatResponse>> chat(@Valid @RequestBody AiChatRequest request) {
+        return aiBulkhead.submit(() -> SingleResponse.of(aiChatService.chat(request)));
     }
 
     @GetMapping("/suggestions")
-    public SingleResponse<SuggestionsResponse> getSuggestions(
+    public CompletableFuture<SingleResponse<SuggestionsResponse>> getSuggestions(
             @RequestParam(value = "conversationId", required = false) String conversationId) {
-        SuggestionsResponse response = aiChatService.getSuggestions(conversationId);
-        return SingleResponse.of(response);
+        return aiBulkhead.submit(() -> SingleResponse.of(aiChatService.getSuggestions(conversationId)));
     }
 }
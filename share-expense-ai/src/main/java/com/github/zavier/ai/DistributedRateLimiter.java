@@ -0,0 +1,214 @@
+package com.github.zavier.ai;
+
+import com.github.zavier.ai.entity.RateLimitCounterEntity;
+import com.github.zavier.ai.repository.RateLimitCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分布式限流（多节点共享同一份额度）
+ * <p>
+ * 每个节点为每个用户维护一个本地令牌桶，令牌用完时从数据库计数表按批租用（条件更新 used + n <= 上限），
+ * 大部分请求只在本地扣减，数据库访问次数约为 请求数 / 批量大小。
+ * <p>
+ * 窗口为固定窗口（按窗口大小对齐），所有节点租出的总数不超过上限，不会多放行；
+ * 误差是少放行：其他节点租到但没用完的令牌本节点用不了，每个节点最多滞留 批量大小 - 1 个。
+ * 剩余额度不足一批时改为逐个租用，减小窗口末尾的滞留。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.ai.rate-limit.mode", havingValue = "distributed")
+public class DistributedRateLimiter {
+
+    /**
+     * 额度用完后，该时间内不再访问数据库，直接拒绝
+     */
+    private static final long EXHAUSTED_RECHECK_MILLIS = 1000;
+
+    private final RateLimitCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final Map<Integer, LocalBucket> buckets = new ConcurrentHashMap<>();
+
+    // 租用次数（访问数据库的次数），用于观察批量效果
+    private final AtomicLong leaseCount = new AtomicLong();
+
+    public DistributedRateLimiter(RateLimitCounterRepository counterRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.ai.rate-limit.lease-batch-size:5}") int batchSize) {
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 尝试消耗一个请求额度
+     *
+     * @param userId        用户ID
+     * @param limit         每个窗口的请求上限（所有节点合计）
+     * @param windowSeconds 窗口大小（秒）
+     */
+    public boolean tryAcquire(Integer userId, int limit, long windowSeconds) {
+        final long window = currentWindow(windowSeconds);
+        final LocalBucket bucket = buckets.computeIfAbsent(userId, k -> new LocalBucket());
+
+        bucket.lock.lock();
+        try {
+            bucket.rollTo(window);
+            bucket.lastAccess = System.currentTimeMillis();
+            if (bucket.tokens == 0) {
+                if (bucket.exhaustedUntil > bucket.lastAccess) {
+                    return false;
+                }
+                final int leased = lease(userId, window, limit);
+                if (leased == 0) {
+                    bucket.exhaustedUntil = bucket.lastAccess + EXHAUSTED_RECHECK_MILLIS;
+                    log.warn("[速率限制] 用户 {} 窗口额度已用完（所有节点合计）, limit={}", userId, limit);
+                    return false;
+                }
+                bucket.tokens = leased;
+            }
+            bucket.tokens--;
+            return true;
+        } finally {
+            bucket.lock.unlock();
+        }
+    }
+
+    /**
+     * 当前窗口的剩余额度：上限 - 所有节点已租出的 + 本节点未用完的
+     * 其他节点未用完的令牌不计入，结果偏保守
+     */
+    public int getRemaining(Integer userId, int limit, long windowSeconds) {
+        final long window = currentWindow(windowSeconds);
+        final int used = counterRepository.findByUserIdAndWindowStart(userId, window)
+                .map(RateLimitCounterEntity::getUsed)
+                .orElse(0);
+        int localTokens = 0;
+        final LocalBucket bucket = buckets.get(userId);
+        if (bucket != null) {
+            bucket.lock.lock();
+            try {
+                bucket.rollTo(window);
+                localTokens = bucket.tokens;
+            } finally {
+                bucket.lock.unlock();
+            }
+        }
+        return Math.max(0, limit - used) + localTokens;
+    }
+
+    public long getSecondsUntilReset(long windowSeconds) {
+        final long now = Instant.now().getEpochSecond();
+        return currentWindow(windowSeconds) + windowSeconds - now;
+    }
+
+    /**
+     * 清除用户在所有节点共享的计数；其他节点本地剩余的令牌和已用完标记最多保留到下一次检查
+     */
+    public void reset(Integer userId) {
+        buckets.remove(userId);
+        transactionTemplate.execute(status -> counterRepository.deleteByUser(userId));
+    }
+
+    /**
+     * 清理过期窗口的计数和不活跃用户的本地令牌桶
+     */
+    public void cleanup(long windowSeconds, long inactiveSeconds) {
+        final long now = System.currentTimeMillis();
+        buckets.entrySet().removeIf(entry -> now - entry.getValue().lastAccess > inactiveSeconds * 1000);
+        final long expiredBefore = currentWindow(windowSeconds) - windowSeconds;
+        final Integer deleted = transactionTemplate.execute(status ->
+                counterRepository.deleteWindowsBefore(expiredBefore));
+        if (deleted != null && deleted > 0) {
+            log.debug("[速率限制] 清理过期窗口计数: {}", deleted);
+        }
+    }
+
+    public long getLeaseCount() {
+        return leaseCount.get();
+    }
+
+    /**
+     * 从计数表租用令牌：先按批，剩余不足一批时逐个；窗口第一次租用时插入计数行
+     *
+     * @return 租到的令牌数，0 表示额度已用完
+     */
+    private int lease(Integer userId, long window, int limit) {
+        if (limit <= 0) {
+            return 0;
+        }
+        leaseCount.incrementAndGet();
+        final int batch = Math.min(batchSize, limit);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            for (int count : batch > 1 ? new int[]{batch, 1} : new int[]{1}) {
+                final Integer updated = transactionTemplate.execute(status ->
+                        counterRepository.lease(userId, window, count, LocalDateTime.now(), limit));
+                if (updated != null && updated > 0) {
+                    return count;
+                }
+            }
+            if (counterRepository.findByUserIdAndWindowStart(userId, window).isPresent()) {
+                return 0;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> counterRepository.saveAndFlush(
+                        RateLimitCounterEntity.builder()
+                                .userId(userId)
+                                .windowStart(window)
+                                .used(batch)
+                                .createdAt(LocalDateTime.now())
+                                .updatedAt(LocalDateTime.now())
+                                .build()));
+                return batch;
+            } catch (DataIntegrityViolationException e) {
+                // 其他节点同时插入了本窗口的计数行，重新按条件更新租用
+                log.debug("[速率限制] 计数行已由其他节点创建, userId={}, window={}", userId, window);
+            }
+        }
+        return 0;
+    }
+
+    private static long currentWindow(long windowSeconds) {
+        final long now = Instant.now().getEpochSecond();
+        return now - now % windowSeconds;
+    }
+
+    /**
+     * 单个用户在本节点的令牌桶
+     */
+    private static class LocalBucket {
+        // 使用 ReentrantLock 而不是 synchronized，虚拟线程在锁上等待时不会占住载体线程
+        final ReentrantLock lock = new ReentrantLock();
+        long window;
+        int tokens;
+        long exhaustedUntil;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        /**
+         * 进入新窗口时丢弃上个窗口剩余的令牌
+         */
+        void rollTo(long newWindow) {
+            if (window != newWindow) {
+                window = newWindow;
+                tokens = 0;
+                exhaustedUntil = 0;
+            }
+        }
+    }
+}
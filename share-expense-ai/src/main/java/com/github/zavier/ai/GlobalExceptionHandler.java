@@ -1,6 +1,7 @@
 package com.github.zavier.ai;
 
 import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.ai.exception.AiBusyException;
 import com.github.zavier.ai.exception.AuthenticationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,6 +21,11 @@ public class GlobalExceptionHandler {
         return SingleResponse.buildFailure("AUTH_ERROR", e.getMessage());
     }
 
+    @ExceptionHandler(AiBusyException.class)
+    public SingleResponse<Void> handleAiBusyException(AiBusyException e) {
+        return SingleResponse.buildFailure("AI_BUSY", e.getMessage());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public SingleResponse<Void> handleIllegalArgumentException(IllegalArgumentException e) {
         log.warn("[AI模块] 参数校验失败: {}", e.getMessage());
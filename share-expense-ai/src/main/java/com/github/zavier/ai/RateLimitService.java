@@ -1,6 +1,7 @@
 package com.github.zavier.ai;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -8,10 +9,14 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 速率限制服务
  * 使用滑动窗口算法防止 API 滥用
+ *
+ * 多节点部署时配置 app.ai.rate-limit.mode=distributed，改由 {@link DistributedRateLimiter}
+ * 按固定窗口在所有节点间共享额度，否则每个节点各自计数，用户实际可用额度是节点数倍
  */
 @Slf4j
 @Service
@@ -24,6 +29,9 @@ public class RateLimitService {
     private final int maxRequestsPerWindow;
     private final long windowSizeSeconds;
 
+    // 分布式模式下的共享额度限流器，单机模式为空
+    private DistributedRateLimiter distributedRateLimiter;
+
     /**
      * 构造函数，可从配置文件读取参数
      * 默认值：每分钟最多 20 次请求
@@ -36,6 +44,12 @@ public class RateLimitService {
         startCleanupTask();
     }
 
+    @Autowired(required = false)
+    void setDistributedRateLimiter(DistributedRateLimiter distributedRateLimiter) {
+        this.distributedRateLimiter = distributedRateLimiter;
+        log.info("[速率限制] 使用分布式限流，所有节点共享额度: {}/{}s", maxRequestsPerWindow, windowSizeSeconds);
+    }
+
     /**
      * 检查用户是否允许发起请求
      *
@@ -48,6 +62,10 @@ public class RateLimitService {
             return false;
         }
 
+        if (distributedRateLimiter != null) {
+            return distributedRateLimiter.tryAcquire(userId, maxRequestsPerWindow, windowSizeSeconds);
+        }
+
         long now = Instant.now().getEpochSecond();
         long windowStart = now - windowSizeSeconds;
 
@@ -57,7 +75,8 @@ public class RateLimitService {
             k -> new UserRequestHistory()
         );
 
-        synchronized (history) {
+        history.lock.lock();
+        try {
             // 清理窗口外的旧请求记录
             cleanupOldRequests(history, windowStart);
 
@@ -75,6 +94,8 @@ public class RateLimitService {
             log.debug("[速率限制] 用户 {} 请求通过，窗口内请求数: {}/{}",
                 userId, history.requestTimestamps.size(), maxRequestsPerWindow);
             return true;
+        } finally {
+            history.lock.unlock();
         }
     }
 
@@ -89,17 +110,24 @@ public class RateLimitService {
             return 0;
         }
 
+        if (distributedRateLimiter != null) {
+            return distributedRateLimiter.getRemaining(userId, maxRequestsPerWindow, windowSizeSeconds);
+        }
+
         UserRequestHistory history = userHistories.get(userId);
         if (history == null) {
             return maxRequestsPerWindow;
         }
 
-        synchronized (history) {
+        history.lock.lock();
+        try {
             long now = Instant.now().getEpochSecond();
             long windowStart = now - windowSizeSeconds;
             cleanupOldRequests(history, windowStart);
 
             return Math.max(0, maxRequestsPerWindow - history.requestTimestamps.size());
+        } finally {
+            history.lock.unlock();
         }
     }
 
@@ -114,16 +142,26 @@ public class RateLimitService {
             return 0;
         }
 
+        if (distributedRateLimiter != null) {
+            return distributedRateLimiter.getSecondsUntilReset(windowSizeSeconds);
+        }
+
         UserRequestHistory history = userHistories.get(userId);
-        if (history == null || history.requestTimestamps.isEmpty()) {
+        if (history == null) {
             return 0;
         }
 
-        synchronized (history) {
+        history.lock.lock();
+        try {
+            if (history.requestTimestamps.isEmpty()) {
+                return 0;
+            }
             long now = Instant.now().getEpochSecond();
             long oldestRequest = history.requestTimestamps.getFirst();
             long resetTime = oldestRequest + windowSizeSeconds;
             return Math.max(0, resetTime - now);
+        } finally {
+            history.lock.unlock();
         }
     }
 
@@ -135,6 +173,9 @@ public class RateLimitService {
     public void resetUserLimit(Integer userId) {
         if (userId != null) {
             userHistories.remove(userId);
+            if (distributedRateLimiter != null) {
+                distributedRateLimiter.reset(userId);
+            }
             log.info("[速率限制] 已重置用户 {} 的速率限制", userId);
         }
     }
@@ -154,22 +195,21 @@ public class RateLimitService {
 
     /**
      * 启动定期清理任务
+     * 清理线程绝大部分时间在 sleep，使用虚拟线程，不占用平台线程
      */
     private void startCleanupTask() {
-        Thread cleanupThread = new Thread(() -> {
+        Thread.ofVirtual().name("rate-limit-cleanup").start(() -> {
             while (true) {
                 try {
                     Thread.sleep(60000); // 每分钟清理一次
                     cleanupInactiveUsers();
+                    cleanupDistributedCounters();
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
                 }
             }
         });
-        cleanupThread.setName("rate-limit-cleanup");
-        cleanupThread.setDaemon(true);
-        cleanupThread.start();
     }
 
     /**
@@ -181,16 +221,33 @@ public class RateLimitService {
 
         userHistories.entrySet().removeIf(entry -> {
             UserRequestHistory history = entry.getValue();
-            synchronized (history) {
+            history.lock.lock();
+            try {
                 if (history.lastRequestTime < now - inactiveThreshold) {
                     log.debug("[速率限制] 清理不活跃用户: {}", entry.getKey());
                     return true;
                 }
                 return false;
+            } finally {
+                history.lock.unlock();
             }
         });
     }
 
+    /**
+     * 清理分布式模式下过期窗口的计数，数据库异常不影响清理线程继续运行
+     */
+    private void cleanupDistributedCounters() {
+        if (distributedRateLimiter == null) {
+            return;
+        }
+        try {
+            distributedRateLimiter.cleanup(windowSizeSeconds, 300);
+        } catch (RuntimeException e) {
+            log.warn("[速率限制] 清理分布式计数失败", e);
+        }
+    }
+
     /**
      * 从环境变量读取最大请求数，默认 20
      */
@@ -225,6 +282,8 @@ public class RateLimitService {
      * 用户请求历史记录
      */
     private static class UserRequestHistory {
+        // 使用 ReentrantLock 而不是 synchronized，虚拟线程在锁上等待时不会占住载体线程
+        final ReentrantLock lock = new ReentrantLock();
         // 使用 LinkedList 存储时间戳，便于删除旧记录
         final LinkedList<Long> requestTimestamps = new LinkedList<>();
         long lastRequestTime;
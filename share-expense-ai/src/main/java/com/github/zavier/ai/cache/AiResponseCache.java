@@ -0,0 +1,207 @@
+package com.github.zavier.ai.cache;
+
+import com.github.zavier.ai.context.AiTurnReadContext;
+import com.github.zavier.ai.resolver.ProjectIdentifierResolver;
+import com.github.zavier.domain.expense.ProjectCacheListener;
+import com.github.zavier.project.ExpenseApplicationService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 只读问题的 AI 回答缓存
+ * <p>
+ * 用户经常重复问同样的只读问题（如"看看周末聚餐的结算"），每次都要完整走一遍大模型。
+ * 每轮对话结束后记录模型实际调用的工具计划（工具名 + 参数）以及涉及项目的版本号：
+ * <ul>
+ *   <li>问题（规范化后）→ 工具计划：同一用户再问同样的问题时，可以在调用模型前就知道对应的工具计划</li>
+ *   <li>工具计划 → 回答：不同问法得到相同工具计划时共用同一份回答</li>
+ * </ul>
+ * 命中时重新解析项目标识符、核对项目版本号，全部一致才直接返回之前的回答。
+ * 项目变更的失效通知到达时（包括其他节点上的修改）提前移除涉及该项目的回答。
+ * <p>
+ * 以下情况不缓存：本轮调用过写工具、没有调用任何工具、有项目未找到、依赖了无法用版本号校验的数据（如项目列表）、
+ * 问题中没有直接出现工具参数里的项目名称（多半是依赖上下文的追问，换个会话含义就不同了）。
+ */
+@Slf4j
+@Component
+public class AiResponseCache implements ProjectCacheListener {
+
+    public static final String HIT = "HIT";
+    public static final String MISS = "MISS";
+
+    @Value("${app.ai.response-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.ai.response-cache.max-entries:1000}")
+    private int maxEntries = 1000;
+
+    @Value("${app.ai.response-cache.ttl-minutes:30}")
+    private long ttlMinutes = 30;
+
+    @Resource
+    private ProjectIdentifierResolver projectIdentifierResolver;
+
+    @Resource
+    private ExpenseApplicationService expenseApplicationService;
+
+    /**
+     * (用户, 规范化问题) → 工具计划
+     */
+    private final Map<QuestionKey, String> questionPlans = lruMap();
+
+    /**
+     * 工具计划 → 回答
+     */
+    private final Map<String, CachedAnswer> answers = lruMap();
+
+    private record QuestionKey(Integer userId, String question) {
+    }
+
+    private record CachedAnswer(String answer,
+                                Map<String, Integer> resolvedProjects,
+                                Map<Integer, Integer> projectVersions,
+                                long createdAt) {
+    }
+
+    /**
+     * 查找可复用的回答
+     *
+     * @param userId  用户ID
+     * @param message 用户问题
+     * @return 之前的回答；没有或涉及的项目已变化时为空
+     */
+    public Optional<String> lookup(Integer userId, String message) {
+        if (!enabled || userId == null) {
+            return Optional.empty();
+        }
+        final String question = normalize(message);
+        if (question.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final String planKey = questionPlans.get(new QuestionKey(userId, question));
+        if (planKey == null) {
+            return Optional.empty();
+        }
+        final CachedAnswer cached = answers.get(planKey);
+        if (cached == null) {
+            return Optional.empty();
+        }
+
+        if (isExpired(cached) || !isStillValid(userId, cached)) {
+            answers.remove(planKey, cached);
+            log.debug("[AI响应缓存] 回答已失效, userId={}, plan={}", userId, planKey);
+            return Optional.empty();
+        }
+
+        log.info("[AI响应缓存] 命中, userId={}, plan={}", userId, planKey);
+        return Optional.of(cached.answer());
+    }
+
+    /**
+     * 一轮对话结束后尝试缓存回答
+     *
+     * @return 是否已缓存
+     */
+    public boolean store(Integer userId, String message, AiTurnReadContext turn, String answer) {
+        if (!enabled || userId == null || turn == null || answer == null || answer.isBlank()) {
+            return false;
+        }
+        if (turn.isWrote() || turn.isUncacheable() || turn.getToolCalls().isEmpty()) {
+            return false;
+        }
+
+        final String question = normalize(message);
+        final Map<String, Integer> resolvedProjects = turn.getResolvedProjects();
+        final Map<Integer, Integer> projectVersions = turn.getProjectVersions();
+        if (question.isEmpty() || resolvedProjects.isEmpty()) {
+            return false;
+        }
+        for (Map.Entry<String, Integer> entry : resolvedProjects.entrySet()) {
+            // 项目名称没有出现在问题里，说明问题依赖上下文（如"那明细呢"），不能跨会话复用
+            if (!question.contains(normalize(entry.getKey()))) {
+                return false;
+            }
+            // 未找到项目（回答里是候选列表），或没有读到版本号，无法判断之后是否变化
+            if (entry.getValue() == null || !projectVersions.containsKey(entry.getValue())) {
+                return false;
+            }
+        }
+
+        final String planKey = planKey(userId, turn.getToolCalls());
+        answers.put(planKey, new CachedAnswer(answer, resolvedProjects, projectVersions, System.currentTimeMillis()));
+        questionPlans.put(new QuestionKey(userId, question), planKey);
+        log.debug("[AI响应缓存] 缓存回答, userId={}, plan={}, versions={}", userId, planKey, projectVersions);
+        return true;
+    }
+
+    /**
+     * 移除涉及该项目的回答，问题到工具计划的映射保留，下次查找时找不到回答即未命中
+     */
+    @Override
+    public void evictProject(Integer projectId, Integer createUserId) {
+        if (projectId == null) {
+            return;
+        }
+        synchronized (answers) {
+            answers.values().removeIf(cached -> cached.projectVersions().containsKey(projectId));
+        }
+    }
+
+    private boolean isExpired(CachedAnswer cached) {
+        return System.currentTimeMillis() - cached.createdAt() > TimeUnit.MINUTES.toMillis(ttlMinutes);
+    }
+
+    /**
+     * 项目标识符仍解析到同一个项目，且项目版本号没有变化
+     */
+    private boolean isStillValid(Integer userId, CachedAnswer cached) {
+        try {
+            for (Map.Entry<String, Integer> entry : cached.resolvedProjects().entrySet()) {
+                final Integer projectId = projectIdentifierResolver.resolve(entry.getKey(), userId);
+                if (!Objects.equals(projectId, entry.getValue())) {
+                    return false;
+                }
+            }
+            for (Map.Entry<Integer, Integer> entry : cached.projectVersions().entrySet()) {
+                final var response = expenseApplicationService.getProjectVersion(entry.getKey(), userId);
+                if (!response.isSuccess() || !Objects.equals(response.getData(), entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("[AI响应缓存] 校验缓存失败, userId={}", userId, e);
+            return false;
+        }
+    }
+
+    private static String planKey(Integer userId, List<String> toolCalls) {
+        // 同一轮内工具调用顺序可能不同，去重排序后作为计划
+        return userId + "|" + String.join(";", new TreeSet<>(toolCalls));
+    }
+
+    /**
+     * 忽略大小写、空白和标点
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("[\\p{P}\\p{S}\\s]+", "");
+    }
+
+    private <K, V> Map<K, V> lruMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.zavier.ai.cache;
+
+import com.github.zavier.ai.context.AiTurnReadContext;
+import com.github.zavier.ai.monitoring.dto.RenderCacheStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * AI 查询工具 Markdown 输出的渲染缓存
+ * <p>
+ * 费用明细、结算、项目列表工具每次都要加载全部记录再拼接 Markdown，而项目没有变化时结果完全相同。
+ * 这里按 (工具, 项目ID, 项目版本号, section, 返回格式, page_size) 缓存渲染结果：
+ * <ul>
+ *   <li>项目的成员或费用记录每次变更都会使版本号递增，旧版本的 key 不会再被访问</li>
+ *   <li>观察到某个项目出现更高的版本号时，立即清理该项目旧版本的缓存</li>
+ *   <li>按访问顺序做 LRU 淘汰，同时限制条目数和总字节数</li>
+ * </ul>
+ * 命中/未命中次数同时记入本轮对话上下文，由监控 Advisor 写入 ai_monitoring_log。
+ */
+@Slf4j
+@Component
+public class ToolRenderCache {
+
+    /**
+     * 每个条目的估算固定开销（key、节点等）
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    private final int maxEntries;
+
+    private final long maxBytes;
+
+    /**
+     * accessOrder=true，迭代顺序即 LRU 顺序
+     */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * 每个项目已观察到的最新版本号
+     */
+    private final Map<Integer, Integer> latestVersions = new HashMap<>();
+
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    public ToolRenderCache(@Value("${app.ai.render-cache.max-entries:512}") int maxEntries,
+                           @Value("${app.ai.render-cache.max-bytes:4194304}") long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 缓存键
+     *
+     * @param tool      工具名称
+     * @param projectId 项目ID，不针对单个项目时为null
+     * @param version   项目版本号，不针对单个项目时为null
+     * @param section   返回内容
+     * @param format    返回格式
+     * @param pageSize  返回数量限制
+     * @param variant   其他会影响输出的参数（如标题中的项目名称、列表的过滤条件）
+     */
+    public record Key(String tool, Integer projectId, Integer version, String section, String format,
+                      int pageSize, String variant) {
+    }
+
+    private record Entry(String value, long bytes, long renderNanos) {
+    }
+
+    /**
+     * 读取缓存，未命中时调用 renderer 渲染并缓存
+     */
+    public String getOrRender(Key key, Supplier<String> renderer) {
+        final Entry cached = get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            savedNanos.addAndGet(cached.renderNanos());
+            AiTurnReadContext.recordRenderCacheHit();
+            log.debug("[AI渲染缓存] 命中, key={}", key);
+            return cached.value();
+        }
+
+        misses.incrementAndGet();
+        AiTurnReadContext.recordRenderCacheMiss();
+        final long start = System.nanoTime();
+        final String value = renderer.get();
+        final long renderNanos = System.nanoTime() - start;
+        if (value != null) {
+            put(key, new Entry(value, estimateBytes(value), renderNanos));
+        }
+        return value;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        entries.clear();
+        latestVersions.clear();
+        currentBytes = 0;
+    }
+
+    public RenderCacheStatsDto stats() {
+        final long hitCount = hits.get();
+        final long missCount = misses.get();
+        final long total = hitCount + missCount;
+        final int entryCount;
+        final long bytes;
+        synchronized (this) {
+            entryCount = entries.size();
+            bytes = currentBytes;
+        }
+        return new RenderCacheStatsDto(
+                hitCount,
+                missCount,
+                total == 0 ? 0 : (double) hitCount / total,
+                entryCount,
+                bytes,
+                evictions.get(),
+                TimeUnit.NANOSECONDS.toMillis(savedNanos.get())
+        );
+    }
+
+    private synchronized Entry get(Key key) {
+        observeVersion(key);
+        return entries.get(key);
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        if (entry.bytes() > maxBytes / 4) {
+            log.debug("[AI渲染缓存] 结果过大不缓存, key={}, bytes={}", key, entry.bytes());
+            return;
+        }
+        // 渲染期间项目又被修改，旧版本结果不再缓存
+        if (key.projectId() != null && key.version() != null
+                && key.version() < latestVersions.getOrDefault(key.projectId(), Integer.MIN_VALUE)) {
+            return;
+        }
+
+        final Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            currentBytes -= previous.bytes();
+        }
+        currentBytes += entry.bytes();
+        evictIfNecessary();
+    }
+
+    /**
+     * 出现更高版本号时清理该项目旧版本的缓存
+     */
+    private void observeVersion(Key key) {
+        if (key.projectId() == null || key.version() == null) {
+            return;
+        }
+        final Integer latest = latestVersions.get(key.projectId());
+        if (latest != null && latest >= key.version()) {
+            return;
+        }
+        latestVersions.put(key.projectId(), key.version());
+        if (latest == null) {
+            return;
+        }
+
+        final Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Key, Entry> next = iterator.next();
+            if (Objects.equals(next.getKey().projectId(), key.projectId())
+                    && !Objects.equals(next.getKey().version(), key.version())) {
+                currentBytes -= next.getValue().bytes();
+                iterator.remove();
+            }
+        }
+        log.debug("[AI渲染缓存] 项目版本变化，清理旧版本, projectId={}, version={}", key.projectId(), key.version());
+    }
+
+    private void evictIfNecessary() {
+        final Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || currentBytes > maxBytes) && iterator.hasNext()) {
+            final Map.Entry<Key, Entry> eldest = iterator.next();
+            currentBytes -= eldest.getValue().bytes();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+        if (latestVersions.size() > maxEntries * 4) {
+            latestVersions.keySet().retainAll(entries.keySet().stream().map(Key::projectId).toList());
+        }
+    }
+
+    private static long estimateBytes(String value) {
+        return ENTRY_OVERHEAD_BYTES + (long) value.length() * Character.BYTES;
+    }
+}
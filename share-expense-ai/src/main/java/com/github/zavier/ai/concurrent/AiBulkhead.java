@@ -0,0 +1,139 @@
+package com.github.zavier.ai.concurrent;
+
+import com.alibaba.ttl.threadpool.TtlExecutors;
+import com.github.zavier.ai.exception.AiBusyException;
+import com.github.zavier.ai.monitoring.dto.AiBulkheadStatsDto;
+import com.github.zavier.infrastructure.db.ConnectionBudget;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * AI 请求隔离舱
+ * <p>
+ * AI 对话一次要等模型数秒到数十秒，如果在 Tomcat 工作线程中同步执行，AI 流量一多就会占满工作线程，
+ * 查询费用记录这类简单接口也跟着卡住。这里把 AI 请求交给独立的线程执行（异步 Servlet），
+ * Tomcat 线程提交后立即释放：
+ * <ul>
+ *   <li>同时执行的 AI 请求数和排队数都由信号量限制，超过时直接返回"繁忙"，不继续堆积</li>
+ *   <li>AI 请求在独立的数据库连接配额内执行，最多占用 db-connections 个连接，其余连接留给核心接口</li>
+ * </ul>
+ * 开启虚拟线程时每个请求使用一个虚拟线程，排队的请求只是挂起的虚拟线程，不占用平台线程。
+ */
+@Slf4j
+@Component
+public class AiBulkhead {
+
+    private final int maxConcurrent;
+
+    private final int queueCapacity;
+
+    /**
+     * 准入许可：执行中 + 排队中的请求数上限
+     */
+    private final Semaphore admission;
+
+    /**
+     * 执行许可：同时执行的请求数上限
+     */
+    private final Semaphore running;
+
+    private final ExecutorService threadPool;
+
+    /**
+     * TTL 包装，传递登录用户等上下文
+     */
+    private final ExecutorService executor;
+
+    private final ConnectionBudget connectionBudget;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AiBulkhead(@Value("${app.ai.bulkhead.max-concurrent:16}") int maxConcurrent,
+                      @Value("${app.ai.bulkhead.queue-capacity:32}") int queueCapacity,
+                      @Value("${app.ai.bulkhead.db-connections:4}") int dbConnections,
+                      @Value("${app.ai.bulkhead.db-acquire-timeout-ms:3000}") long dbAcquireTimeoutMs,
+                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.admission = new Semaphore(maxConcurrent + queueCapacity);
+        this.running = new Semaphore(maxConcurrent, true);
+        this.threadPool = AiExecutors.newExecutor("ai-bulkhead-", virtualThreads);
+        this.executor = TtlExecutors.getTtlExecutorService(threadPool);
+        this.connectionBudget = new ConnectionBudget("ai", dbConnections, dbAcquireTimeoutMs);
+    }
+
+    /**
+     * 在隔离舱中执行 AI 请求
+     *
+     * @return 请求结果，由 Spring MVC 以异步方式写回响应
+     * @throws AiBusyException 隔离舱已满
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (!admission.tryAcquire()) {
+            return reject();
+        }
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                T result = null;
+                Throwable error = null;
+                try {
+                    running.acquire();
+                    try {
+                        result = connectionBudget.call(task::get);
+                    } finally {
+                        running.release();
+                    }
+                } catch (Throwable e) {
+                    error = e;
+                } finally {
+                    admission.release();
+                }
+                // 先归还许可再返回结果，调用方拿到结果后立即重试不会被误判为繁忙
+                if (error == null) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(error);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            return reject();
+        }
+        return future;
+    }
+
+    public AiBulkheadStatsDto stats() {
+        final int active = maxConcurrent - running.availablePermits();
+        final int admitted = maxConcurrent + queueCapacity - admission.availablePermits();
+        return new AiBulkheadStatsDto(
+                active,
+                Math.max(0, admitted - active),
+                maxConcurrent,
+                queueCapacity,
+                rejected.get(),
+                connectionBudget.getInUse(),
+                connectionBudget.getMaxConnections()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+
+    private <T> CompletableFuture<T> reject() {
+        rejected.incrementAndGet();
+        log.warn("[AI隔离舱] 请求已满，拒绝请求, stats={}", stats());
+        throw new AiBusyException("AI助手繁忙，请稍后再试");
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.zavier.ai.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * AI 模块内部线程池
+ * <p>
+ * AI 相关任务大部分时间阻塞在模型 HTTP 调用和数据库查询上。开启 spring.threads.virtual.enabled 时
+ * 每个任务使用一个虚拟线程，阻塞时不占用平台线程；未开启时使用平台线程的缓存线程池。
+ * 并发上限由调用方自行控制（如 {@link AiBulkhead} 的信号量）。
+ */
+public final class AiExecutors {
+
+    private AiExecutors() {
+    }
+
+    /**
+     * @param namePrefix     线程名前缀
+     * @param virtualThreads 是否使用虚拟线程
+     */
+    public static ExecutorService newExecutor(String namePrefix, boolean virtualThreads) {
+        if (virtualThreads) {
+            final ThreadFactory factory = Thread.ofVirtual().name(namePrefix, 1).factory();
+            return Executors.newThreadPerTaskExecutor(factory);
+        }
+        final ThreadFactory factory = Thread.ofPlatform().name(namePrefix, 1).daemon(true).factory();
+        return Executors.newCachedThreadPool(factory);
+    }
+}
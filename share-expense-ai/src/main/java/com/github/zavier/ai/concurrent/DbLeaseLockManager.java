@@ -0,0 +1,190 @@
+package com.github.zavier.ai.concurrent;
+
+import com.github.zavier.ai.entity.DistributedLockEntity;
+import com.github.zavier.ai.repository.DistributedLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 基于数据库租约表的分布式锁管理器
+ * 多个节点共用同一个数据库时，同一个键同一时刻只有一个节点（一个线程）持有锁
+ *
+ * 工作原理：
+ * - 加锁：插入 (lock_key, owner, expires_at)，主键冲突说明已被持有；已到期的行用条件更新接管
+ * - 释放：按 (lock_key, owner) 删除，租约已被接管时不会删掉新持有者的行
+ * - 每次数据库操作在独立事务中立即提交，不受调用方事务影响
+ * - 节点宕机未释放的锁在租约到期后自动失效，租约时长需大于临界区的最长执行时间
+ *
+ * 与本地锁的区别：
+ * - 不可重入，同一线程对同一个键重复加锁会等待到超时
+ * - 等待期间按固定间隔重试，不是排队唤醒
+ * - 到期时间使用各节点本地时钟，节点间时钟需同步
+ */
+@Slf4j
+public class DbLeaseLockManager implements LockManager {
+
+    // 默认超时时间：10秒
+    private static final long DEFAULT_TIMEOUT_SECONDS = 10;
+
+    // 等待锁时的重试间隔
+    private static final long RETRY_INTERVAL_MILLIS = 50;
+
+    private final DistributedLockRepository lockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long leaseMillis;
+    private final String nodeId = resolveNodeId();
+
+    // 本节点持有的锁：键 → 租约，用于 releaseLock(key)
+    private final Map<String, LeaseLock> heldLocks = new ConcurrentHashMap<>();
+
+    public DbLeaseLockManager(DistributedLockRepository lockRepository,
+                              PlatformTransactionManager transactionManager,
+                              long leaseMillis) {
+        this.lockRepository = lockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseMillis = leaseMillis;
+    }
+
+    @Override
+    public LockContext acquireLock(String key) throws TimeoutException, InterruptedException {
+        return acquireLock(key, DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public LockContext acquireLock(String key, long timeout, TimeUnit unit)
+            throws TimeoutException, InterruptedException {
+
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Lock key cannot be null or empty");
+        }
+
+        final long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        while (true) {
+            final LeaseLock lock = tryAcquire(key);
+            if (lock != null) {
+                log.debug("Successfully acquired lease lock for key: {}", key);
+                return new LockContext(key, lock::unlock, this, true);
+            }
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new TimeoutException("Failed to acquire lock for key: " + key +
+                    " within " + timeout + " " + unit);
+            }
+            Thread.sleep(Math.min(RETRY_INTERVAL_MILLIS, remaining));
+        }
+    }
+
+    @Override
+    public LockContext tryLock(String key) {
+        final LeaseLock lock = tryAcquire(key);
+        if (lock != null) {
+            log.debug("Successfully acquired lease lock (tryLock) for key: {}", key);
+            return new LockContext(key, lock::unlock, this, true);
+        }
+        return new LockContext(key, null, this, false);
+    }
+
+    @Override
+    public boolean isLocked(String key) {
+        return lockRepository.existsByLockKeyAndExpiresAtGreaterThan(key, System.currentTimeMillis());
+    }
+
+    @Override
+    public void releaseLock(String key) {
+        final LeaseLock lock = heldLocks.get(key);
+        if (lock != null && lock.holder == Thread.currentThread()) {
+            lock.unlock();
+            log.debug("Manually released lease lock for key: {}", key);
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        final Integer deleted = transactionTemplate.execute(status ->
+                lockRepository.deleteExpired(System.currentTimeMillis()));
+        if (deleted != null && deleted > 0) {
+            log.debug("Cleaned up {} expired lease locks", deleted);
+        }
+    }
+
+    /**
+     * 插入或接管一次，不等待
+     *
+     * @return 获取成功时返回租约，否则返回 null
+     */
+    private LeaseLock tryAcquire(String key) {
+        final String owner = nodeId + ":" + UUID.randomUUID();
+        final long now = System.currentTimeMillis();
+        final long expiresAt = now + leaseMillis;
+
+        Integer takenOver = transactionTemplate.execute(status ->
+                lockRepository.takeOverExpired(key, owner, expiresAt, LocalDateTime.now(), now));
+        if (takenOver == null || takenOver == 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> lockRepository.saveAndFlush(
+                        DistributedLockEntity.builder()
+                                .lockKey(key)
+                                .owner(owner)
+                                .expiresAt(expiresAt)
+                                .createdAt(LocalDateTime.now())
+                                .updatedAt(LocalDateTime.now())
+                                .build()));
+            } catch (DataIntegrityViolationException e) {
+                // 其他节点持有中
+                return null;
+            }
+        }
+
+        final LeaseLock lock = new LeaseLock(key, owner);
+        heldLocks.put(key, lock);
+        return lock;
+    }
+
+    private static String resolveNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * 一次加锁得到的租约，LockContext 关闭时调用 unlock 删除租约行
+     */
+    private final class LeaseLock {
+        private final String key;
+        private final String owner;
+        private final Thread holder = Thread.currentThread();
+        private volatile boolean released = false;
+
+        private LeaseLock(String key, String owner) {
+            this.key = key;
+            this.owner = owner;
+        }
+
+        void unlock() {
+            if (released) {
+                return;
+            }
+            released = true;
+            heldLocks.remove(key, this);
+            final Integer deleted = transactionTemplate.execute(status -> lockRepository.release(key, owner));
+            if (deleted == null || deleted == 0) {
+                // 租约已到期并被其他节点接管，临界区执行时间超过了租约时长
+                log.warn("Lease lock for key: {} expired before release", key);
+            }
+        }
+    }
+}
@@ -2,8 +2,6 @@ package com.github.zavier.ai.concurrent;
 
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.concurrent.locks.Lock;
-
 /**
  * 锁上下文，支持 try-with-resources 模式自动释放锁
  *
@@ -18,7 +16,7 @@ import java.util.concurrent.locks.Lock;
 public class LockContext implements AutoCloseable {
 
     private final String key;
-    private final Lock lock;
+    private final Runnable release;
     private final LockManager lockManager;
     private final boolean acquired;
     private volatile boolean closed = false;
@@ -27,13 +25,13 @@ public class LockContext implements AutoCloseable {
      * 创建锁上下文
      *
      * @param key 锁的键
-     * @param lock 实际的锁对象
+     * @param release 释放锁的操作，例如本地锁的 unlock 或删除数据库租约
      * @param lockManager 锁管理器
      * @param acquired 是否成功获取锁
      */
-    public LockContext(String key, Lock lock, LockManager lockManager, boolean acquired) {
+    public LockContext(String key, Runnable release, LockManager lockManager, boolean acquired) {
         this.key = key;
-        this.lock = lock;
+        this.release = release;
         this.lockManager = lockManager;
         this.acquired = acquired;
     }
@@ -73,9 +71,9 @@ public class LockContext implements AutoCloseable {
         }
 
         try {
-            if (acquired && lock != null) {
+            if (acquired && release != null) {
                 log.debug("Releasing lock for key: {}", key);
-                lock.unlock();
+                release.run();
             }
         } finally {
             closed = true;
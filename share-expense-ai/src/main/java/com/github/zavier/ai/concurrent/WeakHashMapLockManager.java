@@ -63,7 +63,7 @@ public class WeakHashMapLockManager implements LockManager, LockContext.CleanupA
         }
 
         log.debug("Successfully acquired lock for key: {}", key);
-        return new LockContext(key, lock, this, true);
+        return new LockContext(key, lock::unlock, this, true);
     }
 
     @Override
@@ -78,9 +78,9 @@ public class WeakHashMapLockManager implements LockManager, LockContext.CleanupA
         if (acquired) {
             lockHoldCount.merge(key, 1, Integer::sum);
             log.debug("Successfully acquired lock (tryLock) for key: {}", key);
-            return new LockContext(key, lock, this, true);
+            return new LockContext(key, lock::unlock, this, true);
         } else {
-            return new LockContext(key, lock, this, false);
+            return new LockContext(key, lock::unlock, this, false);
         }
     }
 
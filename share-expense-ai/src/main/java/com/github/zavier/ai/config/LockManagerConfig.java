@@ -1,28 +1,48 @@
 package com.github.zavier.ai.config;
 
+import com.github.zavier.ai.concurrent.DbLeaseLockManager;
 import com.github.zavier.ai.concurrent.LockManager;
 import com.github.zavier.ai.concurrent.WeakHashMapLockManager;
+import com.github.zavier.ai.repository.DistributedLockRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * 锁管理器配置类
  *
- * 配置：
- * - 使用 WeakHashMapLockManager
- * - 自动 GC 回收未使用的锁，防止内存泄漏
- * - 无需手动维护
+ * 配置（app.ai.lock.type）：
+ * - local（默认）：使用 WeakHashMapLockManager，只在单个 JVM 内互斥
+ * - db：使用 DbLeaseLockManager，多节点共用数据库租约表互斥
  */
 @Configuration
 public class LockManagerConfig {
 
+    /**
+     * 数据库租约锁管理器
+     * 多节点部署时保证同一会话的建议只在一个节点上生成
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.ai.lock.type", havingValue = "db")
+    public LockManager dbLeaseLockManager(DistributedLockRepository distributedLockRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${app.ai.lock.lease-seconds:60}") long leaseSeconds) {
+        return new DbLeaseLockManager(distributedLockRepository, transactionManager,
+                TimeUnit.SECONDS.toMillis(leaseSeconds));
+    }
+
     /**
      * WeakHashMap 锁管理器
      * 自动 GC 回收未使用的锁，防止内存泄漏
      */
     @Bean
     @ConditionalOnMissingBean(LockManager.class)
+    @ConditionalOnProperty(name = "app.ai.lock.type", havingValue = "local", matchIfMissing = true)
     public LockManager lockManager() {
         return new WeakHashMapLockManager();
     }
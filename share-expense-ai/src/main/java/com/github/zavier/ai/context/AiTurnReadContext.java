@@ -0,0 +1,239 @@
+package com.github.zavier.ai.context;
+
+import com.alibaba.ttl.TransmittableThreadLocal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * AI 单轮对话的只读缓存上下文
+ * <p>
+ * 一次 callAi 中模型经常连续调用 listProjects、getSettlement、getExpenseDetails，
+ * 每个工具都会重新解析项目、重新加载聚合。这里在一轮对话内缓存项目解析结果、
+ * 成员列表和费用/结算查询结果，写工具成功后整体失效。
+ * <p>
+ * 通过 TransmittableThreadLocal 传递，工具在 TTL 包装的线程池中执行时同样可见；
+ * 未开启上下文时（如 REST 直接调用工具）退化为每次直接加载。
+ */
+@Slf4j
+public final class AiTurnReadContext {
+
+    private static final TransmittableThreadLocal<AiTurnReadContext> HOLDER = new TransmittableThreadLocal<>();
+
+    /**
+     * 缓存空结果的占位符（ConcurrentHashMap 不允许 null）
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    private final Map<String, Object> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 实际执行的加载次数
+     */
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * 命中缓存而省掉的加载次数
+     */
+    private final AtomicInteger savedLoads = new AtomicInteger();
+
+    /**
+     * 工具输出命中/未命中渲染缓存的次数
+     */
+    private final AtomicInteger renderCacheHits = new AtomicInteger();
+    private final AtomicInteger renderCacheMisses = new AtomicInteger();
+
+    /**
+     * 本轮调用过的工具及参数（按调用顺序），供响应缓存判断问题对应的工具调用计划
+     */
+    private final List<String> toolCalls = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * 本轮解析过的项目标识符 → 项目ID（未找到为null）
+     */
+    private final Map<String, Integer> resolvedProjects = Collections.synchronizedMap(new HashMap<>());
+
+    /**
+     * 本轮读取到的项目ID → 版本号
+     */
+    private final Map<Integer, Integer> projectVersions = new ConcurrentHashMap<>();
+
+    /**
+     * 本轮是否调用过写工具
+     */
+    private volatile boolean wrote;
+
+    /**
+     * 本轮结果是否不能被响应缓存复用（依赖了无法用版本号校验的数据）
+     */
+    private volatile boolean uncacheable;
+
+    /**
+     * 响应缓存状态：HIT / MISS，未经过响应缓存时为null
+     */
+    private volatile String responseCacheStatus;
+
+    private AiTurnReadContext() {
+    }
+
+    /**
+     * 开启一轮对话的上下文
+     */
+    public static AiTurnReadContext open() {
+        AiTurnReadContext context = new AiTurnReadContext();
+        HOLDER.set(context);
+        return context;
+    }
+
+    /**
+     * 结束当前轮次
+     */
+    public static void close() {
+        AiTurnReadContext context = HOLDER.get();
+        if (context != null) {
+            log.debug("[AI轮次缓存] 结束, loads={}, savedLoads={}", context.getLoads(), context.getSavedLoads());
+        }
+        HOLDER.remove();
+    }
+
+    public static Optional<AiTurnReadContext> current() {
+        return Optional.ofNullable(HOLDER.get());
+    }
+
+    /**
+     * 读取缓存，未命中时调用 loader 加载并缓存；无上下文时直接加载
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getOrLoad(String key, Supplier<T> loader) {
+        AiTurnReadContext context = HOLDER.get();
+        if (context == null) {
+            return loader.get();
+        }
+
+        Object cached = context.cache.get(key);
+        if (cached != null) {
+            context.savedLoads.incrementAndGet();
+            log.debug("[AI轮次缓存] 命中, key={}", key);
+            return cached == NULL_VALUE ? null : (T) cached;
+        }
+
+        T value = loader.get();
+        context.loads.incrementAndGet();
+        context.cache.put(key, value == null ? NULL_VALUE : value);
+        return value;
+    }
+
+    /**
+     * 预先放入已知结果（如 listProjects 返回的名称→ID），不计入加载次数；已有结果时不覆盖
+     */
+    public static void put(String key, Object value) {
+        AiTurnReadContext context = HOLDER.get();
+        if (context != null) {
+            context.cache.putIfAbsent(key, value == null ? NULL_VALUE : value);
+        }
+    }
+
+    /**
+     * 写操作后清空本轮缓存
+     */
+    public static void invalidate() {
+        AiTurnReadContext context = HOLDER.get();
+        if (context != null) {
+            log.debug("[AI轮次缓存] 写操作失效, size={}", context.cache.size());
+            context.cache.clear();
+        }
+    }
+
+    public static void recordRenderCacheHit() {
+        current().ifPresent(context -> context.renderCacheHits.incrementAndGet());
+    }
+
+    public static void recordRenderCacheMiss() {
+        current().ifPresent(context -> context.renderCacheMisses.incrementAndGet());
+    }
+
+    /**
+     * 记录一次工具调用
+     *
+     * @param call  规范化后的工具名和参数
+     * @param write 是否为写工具
+     */
+    public static void recordToolCall(String call, boolean write) {
+        current().ifPresent(context -> {
+            context.toolCalls.add(call);
+            if (write) {
+                context.wrote = true;
+            }
+        });
+    }
+
+    public static void recordResolvedProject(String identifier, Integer projectId) {
+        current().ifPresent(context -> context.resolvedProjects.put(identifier, projectId));
+    }
+
+    public static void recordProjectVersion(Integer projectId, Integer version) {
+        if (projectId != null && version != null) {
+            current().ifPresent(context -> context.projectVersions.put(projectId, version));
+        }
+    }
+
+    public static void markUncacheable() {
+        current().ifPresent(context -> context.uncacheable = true);
+    }
+
+    public int getLoads() {
+        return loads.get();
+    }
+
+    public int getSavedLoads() {
+        return savedLoads.get();
+    }
+
+    public int getRenderCacheHits() {
+        return renderCacheHits.get();
+    }
+
+    public int getRenderCacheMisses() {
+        return renderCacheMisses.get();
+    }
+
+    public List<String> getToolCalls() {
+        synchronized (toolCalls) {
+            return List.copyOf(toolCalls);
+        }
+    }
+
+    public Map<String, Integer> getResolvedProjects() {
+        synchronized (resolvedProjects) {
+            return new HashMap<>(resolvedProjects);
+        }
+    }
+
+    public Map<Integer, Integer> getProjectVersions() {
+        return Map.copyOf(projectVersions);
+    }
+
+    public boolean isWrote() {
+        return wrote;
+    }
+
+    public boolean isUncacheable() {
+        return uncacheable;
+    }
+
+    public String getResponseCacheStatus() {
+        return responseCacheStatus;
+    }
+
+    public void setResponseCacheStatus(String responseCacheStatus) {
+        this.responseCacheStatus = responseCacheStatus;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.zavier.ai.dto;
+
+import org.springframework.ai.tool.annotation.ToolParam;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 批量记账工具中的单笔费用
+ */
+public record ExpenseBatchItem(
+        @ToolParam(description = "付款人姓名，必须是项目成员") String payer,
+        @ToolParam(description = "金额，数字类型，单位元，必须大于0") BigDecimal amount,
+        @ToolParam(description = "费用类型，如餐饮、交通、住宿、娱乐等") String expenseType,
+        @ToolParam(description = "参与消费的成员列表，必须是项目成员，至少1人") List<String> consumers,
+        @ToolParam(description = "消费日期，格式yyyy-MM-dd，不填默认今天", required = false) String payDate,
+        @ToolParam(description = "备注说明（可选）", required = false) String remark
+) {
+}
@@ -0,0 +1,60 @@
+package com.github.zavier.ai.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分布式锁租约实体
+ * <p>
+ * 一个锁键一行，持有者在租约到期前释放（删除）；到期未释放的行可以被其他节点接管
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "distributed_lock")
+public class DistributedLockEntity implements Persistable<String> {
+
+    @Id
+    @Column(name = "lock_key", length = 128)
+    private String lockKey;
+
+    /**
+     * 持有者标识（节点 + 本次加锁的随机令牌）
+     */
+    @Column(name = "owner", nullable = false, length = 128)
+    private String owner;
+
+    /**
+     * 租约到期时间（毫秒）
+     */
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Override
+    public String getId() {
+        return lockKey;
+    }
+
+    /**
+     * 只通过 save 插入新行（主键冲突即加锁失败），接管和释放走条件更新/删除，
+     * 避免 save 对已存在的行做 merge 覆盖其他节点的租约
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.zavier.ai.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 分布式限流计数实体
+ * <p>
+ * 每个用户每个固定窗口一行，used 为各节点已租出的请求数（不是已处理的请求数），
+ * 只通过条件更新累加，保证所有节点租出的总数不超过上限
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ai_rate_limit_counter")
+@IdClass(RateLimitCounterEntity.CounterKey.class)
+public class RateLimitCounterEntity implements Persistable<RateLimitCounterEntity.CounterKey> {
+
+    @Id
+    @Column(name = "user_id")
+    private Integer userId;
+
+    /**
+     * 窗口开始时间（秒）
+     */
+    @Id
+    @Column(name = "window_start")
+    private Long windowStart;
+
+    @Column(name = "used", nullable = false)
+    private Integer used;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Override
+    public CounterKey getId() {
+        return new CounterKey(userId, windowStart);
+    }
+
+    /**
+     * 只通过 save 插入窗口的第一行（主键冲突说明其他节点已插入），累加走条件更新
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CounterKey implements Serializable {
+        private Integer userId;
+        private Long windowStart;
+    }
+}
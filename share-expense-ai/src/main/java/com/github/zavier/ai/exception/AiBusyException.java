@@ -0,0 +1,12 @@
+package com.github.zavier.ai.exception;
+
+/**
+ * AI 服务繁忙异常
+ * 并发的 AI 请求超过隔离舱容量时直接拒绝，避免排队拖垮其他接口
+ */
+public class AiBusyException extends RuntimeException {
+
+    public AiBusyException(String message) {
+        super(message);
+    }
+}
@@ -1,16 +1,21 @@
 package com.github.zavier.ai.function;
 
+import com.github.zavier.ai.cache.ToolRenderCache;
+import com.github.zavier.ai.context.AiTurnReadContext;
 import com.github.zavier.ai.resolver.ProjectIdentifierResolver;
 import com.github.zavier.domain.user.domainservice.CurrentUserProvider;
 import com.github.zavier.project.ExpenseApplicationService;
 import com.github.zavier.dto.ProjectMemberListQry;
 import com.github.zavier.dto.data.ExpenseProjectMemberDTO;
+import com.github.zavier.dto.data.ProjectNameCandidateDTO;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.util.Assert;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +39,9 @@ public abstract class BaseExpenseFunction {
     @Resource
     private CurrentUserProvider currentUserProvider;
 
+    @Resource
+    private ToolRenderCache toolRenderCache;
+
     /**
      * 解析项目标识符（ID或名称）
      * <p>
@@ -47,7 +55,11 @@ public abstract class BaseExpenseFunction {
             log.warn("[项目标识符解析] 标识符为空");
             return null;
         }
-        return projectIdentifierResolver.resolve(projectIdentifier, getCurrentUserId());
+        Integer userId = getCurrentUserId();
+        Integer projectId = AiTurnReadContext.getOrLoad(projectKey(userId, projectIdentifier),
+                () -> projectIdentifierResolver.resolve(projectIdentifier, userId));
+        AiTurnReadContext.recordResolvedProject(projectIdentifier, projectId);
+        return projectId;
     }
 
     /**
@@ -66,6 +78,10 @@ public abstract class BaseExpenseFunction {
      * @return 成员名称列表
      */
     protected List<String> getProjectMembers(Integer projectId) {
+        return memoizeTurnRead("members:" + projectId, () -> loadProjectMembers(projectId));
+    }
+
+    private List<String> loadProjectMembers(Integer projectId) {
         ProjectMemberListQry qry = new ProjectMemberListQry();
         qry.setProjectId(projectId);
         qry.setOperatorId(getCurrentUserId());
@@ -79,6 +95,102 @@ public abstract class BaseExpenseFunction {
         return List.of();
     }
 
+    /**
+     * 在当前对话轮次内缓存只读查询结果，同一轮内相同 key 只加载一次
+     *
+     * @param key    缓存键，需包含项目ID等区分条件
+     * @param loader 实际加载逻辑
+     * @return 查询结果
+     */
+    protected <T> T memoizeTurnRead(String key, Supplier<T> loader) {
+        return AiTurnReadContext.getOrLoad(key, loader);
+    }
+
+    /**
+     * 按项目版本号缓存工具输出，项目没有变化时直接返回上次渲染的结果
+     * <p>
+     * 查不到版本号（项目不存在、无权限）时不走缓存，由 renderer 自行处理。
+     *
+     * @param tool      工具名称
+     * @param projectId 项目ID
+     * @param section   返回内容
+     * @param format    返回格式
+     * @param pageSize  返回数量限制
+     * @param variant   其他会影响输出的参数
+     * @param renderer  加载数据并渲染输出
+     * @return 工具输出
+     */
+    protected String renderProjectWithCache(String tool, Integer projectId, String section, String format,
+                                            int pageSize, String variant, Supplier<String> renderer) {
+        Integer version = getProjectVersion(projectId);
+        if (version == null) {
+            return renderer.get();
+        }
+        return toolRenderCache.getOrRender(
+                new ToolRenderCache.Key(tool, projectId, version, section, format, pageSize, variant), renderer);
+    }
+
+    /**
+     * 缓存不针对单个项目的工具输出（如项目列表），key 中需自行包含相关项目的版本号
+     */
+    protected String renderWithCache(ToolRenderCache.Key key, Supplier<String> renderer) {
+        return toolRenderCache.getOrRender(key, renderer);
+    }
+
+    private Integer getProjectVersion(Integer projectId) {
+        Integer version = memoizeTurnRead("version:" + projectId, () -> {
+            var response = expenseApplicationService.getProjectVersion(projectId, getCurrentUserId());
+            return response.isSuccess() ? response.getData() : null;
+        });
+        AiTurnReadContext.recordProjectVersion(projectId, version);
+        return version;
+    }
+
+    /**
+     * 记录只读工具的调用及参数，相同的调用计划可复用之前的回答
+     */
+    protected void recordReadToolCall(String tool, Object... args) {
+        AiTurnReadContext.recordToolCall(formatToolCall(tool, args), false);
+    }
+
+    /**
+     * 记录写工具的调用，本轮回答不会被缓存复用
+     */
+    protected void recordWriteToolCall(String tool, Object... args) {
+        AiTurnReadContext.recordToolCall(formatToolCall(tool, args), true);
+    }
+
+    /**
+     * 本轮回答依赖了无法用项目版本号校验的数据，不允许被响应缓存复用
+     */
+    protected void markTurnUncacheable() {
+        AiTurnReadContext.markUncacheable();
+    }
+
+    private static String formatToolCall(String tool, Object... args) {
+        return tool + Arrays.stream(args)
+                .map(arg -> arg == null ? "" : arg.toString().trim())
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    /**
+     * 记录已知的项目名称 → ID 映射，后续同名解析直接命中
+     */
+    protected void rememberProjectIdentifier(String projectName, Integer projectId) {
+        AiTurnReadContext.put(projectKey(getCurrentUserId(), projectName), projectId);
+    }
+
+    /**
+     * 写操作成功后调用，清空本轮已缓存的读结果
+     */
+    protected void invalidateTurnReads() {
+        AiTurnReadContext.invalidate();
+    }
+
+    private static String projectKey(Integer userId, String projectIdentifier) {
+        return "project:" + userId + ":" + projectIdentifier;
+    }
+
     /**
      * 构建项目未找到的错误响应
      *
@@ -86,6 +198,22 @@ public abstract class BaseExpenseFunction {
      * @return 错误消息
      */
     protected String buildProjectNotFoundResponse(String identifier) {
+        final List<ProjectNameCandidateDTO> candidates = identifier == null || identifier.matches("\\d+")
+                ? List.of()
+                : projectIdentifierResolver.suggest(identifier, getCurrentUserId());
+        if (!candidates.isEmpty()) {
+            final String candidateLines = candidates.stream()
+                    .map(it -> String.format("- %s（ID: %d，相似度: %.2f）", it.getProjectName(), it.getProjectId(), it.getScore()))
+                    .collect(Collectors.joining("\n"));
+            return String.format("""
+                    ❌ 无法确定项目"%s"
+
+                    可能是以下项目之一：
+                    %s
+
+                    请向用户确认具体是哪个项目，再使用项目名称或项目ID重试
+                    """, identifier, candidateLines);
+        }
         return String.format("""
                 ❌ 未找到项目"%s"
 
@@ -86,6 +86,7 @@ public class ExpenseAddExpenseFunction extends BaseExpenseFunction {
 
         log.info("[AI工具] 开始执行 addExpense, 参数: projectIdentifier={}, payer={}, amount={}, expenseType={}, consumers={}, payDate={}, remark={}, userId={}",
                 projectIdentifier, payer, amount, expenseType, consumers, payDate, remark, getCurrentUserId());
+        recordWriteToolCall("addExpense", projectIdentifier);
 
         // 1. 解析项目标识符
         Integer projectId = resolveProjectIdentifier(projectIdentifier);
@@ -150,6 +151,8 @@ public class ExpenseAddExpenseFunction extends BaseExpenseFunction {
 
         // 8. 调用业务逻辑
         Response response = expenseApplicationService.addExpenseRecord(cmd);
+        // 写操作后本轮已缓存的读结果失效
+        invalidateTurnReads();
         if (!response.isSuccess()) {
             log.error("[AI工具] addExpense 执行失败: {}", response.getErrMessage());
             return "❌ 添加费用记录失败: " + response.getErrMessage();
@@ -65,6 +65,7 @@ public class ExpenseAddMembersFunction extends BaseExpenseFunction {
 
         log.info("[AI工具] 开始执行 addMembers, 参数: projectIdentifier={}, members={}, userId={}",
                 projectIdentifier, members, getCurrentUserId());
+        recordWriteToolCall("addMembers", projectIdentifier);
 
         // 1. 解析项目标识符
         Integer projectId = resolveProjectIdentifier(projectIdentifier);
@@ -97,6 +98,8 @@ public class ExpenseAddMembersFunction extends BaseExpenseFunction {
 
         // 4. 调用业务逻辑
         Response response = expenseApplicationService.addProjectMember(cmd);
+        // 写操作后本轮已缓存的读结果失效
+        invalidateTurnReads();
 
         if (!response.isSuccess()) {
             log.error("[AI工具] addMembers 执行失败: {}", response.getErrMessage());
@@ -0,0 +1,159 @@
+package com.github.zavier.ai.function;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.ai.dto.ExpenseBatchItem;
+import com.github.zavier.dto.ExpenseRecordAddCmd;
+import com.github.zavier.dto.ExpenseRecordBatchAddCmd;
+import com.github.zavier.dto.data.ExpenseRecordBatchItemDTO;
+import com.github.zavier.dto.data.ExpenseRecordBatchResultDTO;
+import com.github.zavier.project.ExpenseApplicationService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量添加费用记录的工具方法
+ * <p>
+ * 多笔费用只加载、校验、保存一次项目，且整批原子生效：任意一笔失败则全部不保存。
+ */
+@Slf4j
+@Component
+public class ExpenseBatchAddExpensesFunction extends BaseExpenseFunction {
+
+    @Resource
+    private ExpenseApplicationService expenseApplicationService;
+
+    /**
+     * 一次向指定项目添加多笔费用记录。
+     *
+     * @param projectIdentifier 项目名称或项目ID
+     * @param expenses          费用列表
+     * @return 逐笔添加结果
+     */
+    @Tool(description = """
+            一次向指定项目添加多笔费用记录（2笔及以上时优先使用本工具，而不是多次调用 addExpense）。
+
+            参数说明：
+            - project_identifier: 项目名称或项目ID（如"周末聚餐"或"5"）
+            - expenses: 费用列表，每笔包含 payer、amount、expense_type、consumers，以及可选的 pay_date（yyyy-MM-dd）和 remark
+
+            使用场景：
+            - 用户说"把这五张小票都记上"
+            - 用户一次描述了多笔支出，如"Alice付了午饭80，Bob付了打车30，都是3个人AA"
+
+            注意事项：
+            - 所有付款人和消费成员必须在项目成员列表中
+            - 整批原子生效：只要有一笔校验失败，所有费用都不会保存，需要修正后整批重试
+            - 单次最多200笔
+
+            错误处理：
+            - 返回每一笔的成功/失败情况及失败原因
+            """)
+    public String batchAddExpenses(
+            @ToolParam(description = "项目名称或项目ID") String projectIdentifier,
+            @ToolParam(description = "费用列表，至少1笔") List<ExpenseBatchItem> expenses) {
+
+        log.info("[AI工具] 开始执行 batchAddExpenses, 参数: projectIdentifier={}, size={}, userId={}",
+                projectIdentifier, expenses == null ? 0 : expenses.size(), getCurrentUserId());
+        recordWriteToolCall("batchAddExpenses", projectIdentifier);
+
+        Integer projectId = resolveProjectIdentifier(projectIdentifier);
+        if (projectId == null) {
+            log.warn("[AI工具] batchAddExpenses 未找到项目: projectIdentifier={}", projectIdentifier);
+            return buildProjectNotFoundResponse(projectIdentifier);
+        }
+
+        if (expenses == null || expenses.isEmpty()) {
+            return buildMissingParamResponse("expenses（费用列表）");
+        }
+
+        ExpenseRecordBatchAddCmd batchAddCmd = new ExpenseRecordBatchAddCmd();
+        batchAddCmd.setProjectId(projectId);
+        batchAddCmd.setOperatorId(getCurrentUserId());
+        List<ExpenseRecordAddCmd> records = new ArrayList<>(expenses.size());
+        for (int i = 0; i < expenses.size(); i++) {
+            ExpenseBatchItem item = expenses.get(i);
+            LocalDate date = parseDate(item.payDate());
+            if (date == null) {
+                log.warn("[AI工具] batchAddExpenses 日期格式错误: index={}, payDate={}", i, item.payDate());
+                return buildInvalidParamFormatResponse("第" + (i + 1) + "笔的 pay_date", "yyyy-MM-dd（如 2024-01-15）或留空使用今天");
+            }
+            records.add(toAddCmd(item, date));
+        }
+        batchAddCmd.setRecords(records);
+
+        SingleResponse<ExpenseRecordBatchResultDTO> response = expenseApplicationService.batchAddExpenseRecord(batchAddCmd);
+        // 写操作后本轮已缓存的读结果失效
+        invalidateTurnReads();
+        if (!response.isSuccess()) {
+            log.error("[AI工具] batchAddExpenses 执行失败: {}", response.getErrMessage());
+            return "❌ 批量添加费用记录失败: " + response.getErrMessage();
+        }
+
+        String result = formatResult(expenses, response.getData());
+        log.info("[AI工具] batchAddExpenses 执行完成: saved={}, failCount={}",
+                response.getData().getSaved(), response.getData().getFailCount());
+        return result;
+    }
+
+    private ExpenseRecordAddCmd toAddCmd(ExpenseBatchItem item, LocalDate date) {
+        ExpenseRecordAddCmd cmd = new ExpenseRecordAddCmd();
+        cmd.setPayMember(item.payer());
+        cmd.setAmount(item.amount());
+        cmd.setExpenseType(item.expenseType());
+        cmd.setRemark(item.remark());
+        if (item.consumers() != null) {
+            cmd.setConsumerMembers(new ArrayList<>(item.consumers()));
+        }
+        cmd.setDate(date.atStartOfDay(ZoneId.systemDefault()).toEpochSecond());
+        return cmd;
+    }
+
+    private String formatResult(List<ExpenseBatchItem> expenses, ExpenseRecordBatchResultDTO result) {
+        StringBuilder sb = new StringBuilder();
+        if (Boolean.TRUE.equals(result.getSaved())) {
+            sb.append(String.format("✅ 已批量添加 %d 笔费用记录！\n\n", result.getTotal()));
+        } else {
+            sb.append(String.format("❌ 批量添加失败：%d 笔中有 %d 笔未通过校验，所有费用均未保存\n\n",
+                    result.getTotal(), result.getFailCount()));
+        }
+        for (ExpenseRecordBatchItemDTO itemResult : result.getItems()) {
+            ExpenseBatchItem item = expenses.get(itemResult.getIndex());
+            String payer = item.payer();
+            String consumers = item.consumers() == null ? "" : String.join("、", item.consumers());
+            if (Boolean.TRUE.equals(itemResult.getSuccess())) {
+                sb.append(String.format("%d. %s 付 %s 元（%s），消费成员：%s\n",
+                        itemResult.getIndex() + 1, payer, item.amount(), item.expenseType(), consumers));
+            } else {
+                sb.append(String.format("%d. ❌ %s 付 %s 元：%s\n",
+                        itemResult.getIndex() + 1, payer, item.amount(), itemResult.getMessage()));
+            }
+        }
+        if (!Boolean.TRUE.equals(result.getSaved())) {
+            sb.append("\n请修正失败的费用后重新提交整批。");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 解析日期
+     */
+    private LocalDate parseDate(String dateStr) {
+        if (dateStr == null || dateStr.isBlank()) {
+            return LocalDate.now();
+        }
+        try {
+            return LocalDate.parse(dateStr);
+        } catch (Exception e) {
+            log.warn("[AI工具] 日期解析失败: dateStr={}", dateStr);
+            return null;
+        }
+    }
+}
@@ -69,6 +69,7 @@ public class ExpenseCreateProjectFunction extends BaseExpenseFunction {
 
         log.info("[AI工具] 开始执行 createProject, 参数: projectName={}, description={}, members={}, userId={}",
                 projectName, description, members, getCurrentUserId());
+        recordWriteToolCall("createProject", projectName);
 
         // 1. 验证项目名称
         if (projectName == null || projectName.isBlank()) {
@@ -102,6 +103,8 @@ public class ExpenseCreateProjectFunction extends BaseExpenseFunction {
 
         // 4. 调用业务逻辑
         SingleResponse<Integer> response = expenseApplicationService.createProject(cmd);
+        // 写操作后本轮已缓存的读结果失效
+        invalidateTurnReads();
 
         if (!response.isSuccess()) {
             log.error("[AI工具] createProject 执行失败: {}", response.getErrMessage());
@@ -0,0 +1,138 @@
+package com.github.zavier.ai.function;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.dto.data.ExpenseCategoryDTO;
+import com.github.zavier.dto.data.ExpenseRecordDTO;
+import com.github.zavier.dto.data.MemberBalanceDTO;
+import com.github.zavier.dto.data.ProjectSummaryDTO;
+import com.github.zavier.dto.data.UserDashboardDTO;
+import com.github.zavier.project.ExpenseApplicationService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 用户所有项目总览的工具方法
+ * <p>
+ * 数据来自项目汇总表，一次调用即可回答跨项目的总花费、待结清金额和常见类型，不需要逐个项目查询结算。
+ */
+@Slf4j
+@Component
+public class ExpenseDashboardFunction extends BaseExpenseFunction {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    @Resource
+    private ExpenseApplicationService expenseApplicationService;
+
+    /**
+     * 查询用户所有项目的总览。
+     *
+     * @return 总览、各项目净收支、常见类型和最近的费用
+     */
+    @Tool(description = """
+            查询用户所有项目的总览：总花费、待结清金额、每个项目的成员净收支、花费最多的类型和最近的几笔费用。
+
+            使用场景：
+            - 用户说"我一共花了多少钱" / "还有多少没结清"
+            - 用户说"看看我所有项目的情况" / "最近都花了什么"
+
+            注意事项：
+            - 不需要参数，也不需要先查询项目列表
+            - 单个项目的结算明细请使用 getSettlement
+            """)
+    public String getDashboard() {
+        log.info("[AI工具] 开始执行 getDashboard, userId={}", getCurrentUserId());
+        recordReadToolCall("getDashboard");
+        // 结果涉及多个项目，无法只凭单个项目的版本号判断是否变化
+        markTurnUncacheable();
+
+        Integer userId = getCurrentUserId();
+        SingleResponse<UserDashboardDTO> response = memoizeTurnRead(
+                "dashboard:" + userId,
+                () -> expenseApplicationService.getUserDashboard(userId));
+        if (!response.isSuccess()) {
+            log.warn("[AI工具] getDashboard 执行失败: {}", response.getErrMessage());
+            return "❌ 查询总览失败：" + response.getErrMessage();
+        }
+
+        String result = buildDashboardResult(response.getData());
+        log.info("[AI工具] getDashboard 执行成功, projectCount={}", response.getData().getProjectCount());
+        return result;
+    }
+
+    private String buildDashboardResult(UserDashboardDTO data) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# 我的项目总览\n\n");
+        if (data.getProjectCount() == 0) {
+            sb.append("还没有创建任何项目");
+            return sb.toString();
+        }
+
+        sb.append("## 总览\n");
+        sb.append(String.format("- 项目数：%d 个\n", data.getProjectCount()));
+        sb.append(String.format("- 总花费：%.2f 元，%d 笔\n", data.getTotalAmount(), data.getRecordCount()));
+        sb.append(String.format("- 待结清：%.2f 元\n\n", data.getUnsettledAmount()));
+
+        sb.append("## 各项目情况\n");
+        for (ProjectSummaryDTO project : data.getProjects()) {
+            rememberProjectIdentifier(project.getProjectName(), project.getProjectId());
+            sb.append(String.format("### %s（ID: %d）%s\n",
+                    project.getProjectName(), project.getProjectId(),
+                    Boolean.TRUE.equals(project.getLocked()) ? "【已锁定】" : ""));
+            sb.append(String.format("- 总花费：%.2f 元，%d 笔，待结清：%.2f 元\n",
+                    project.getTotalAmount(), project.getRecordCount(), project.getUnsettledAmount()));
+            for (MemberBalanceDTO balance : project.getBalances()) {
+                if (balance.getNetAmount().signum() == 0) {
+                    continue;
+                }
+                sb.append(String.format("- %s：%s %.2f 元\n",
+                        balance.getMember(),
+                        balance.getNetAmount().signum() > 0 ? "应收" : "应付",
+                        balance.getNetAmount().abs()));
+            }
+        }
+
+        if (!data.getTopCategories().isEmpty()) {
+            sb.append("\n## 花费最多的类型\n");
+            for (ExpenseCategoryDTO category : data.getTopCategories()) {
+                sb.append(String.format("- %s：%.2f 元，%d 笔\n",
+                        category.getExpenseType() == null || category.getExpenseType().isEmpty() ? "未分类" : category.getExpenseType(),
+                        category.getTotalAmount(), category.getRecordCount()));
+            }
+        }
+
+        if (!data.getRecentRecords().isEmpty()) {
+            Map<Integer, String> projectNames = data.getProjects().stream()
+                    .collect(Collectors.toMap(ProjectSummaryDTO::getProjectId, ProjectSummaryDTO::getProjectName, (a, b) -> a));
+            sb.append(String.format("\n## 最近 %d 笔费用\n", data.getRecentRecords().size()));
+            for (int i = 0; i < data.getRecentRecords().size(); i++) {
+                ExpenseRecordDTO record = data.getRecentRecords().get(i);
+                sb.append(String.format("%d. %s，%s，付款人：%s，金额：%.2f 元，类型：%s，备注：%s\n",
+                        i + 1,
+                        formatDate(record.getDate()),
+                        projectNames.getOrDefault(record.getExpenseProjectId(), "未知项目"),
+                        record.getPayMember(),
+                        record.getAmount() == null ? BigDecimal.ZERO : record.getAmount(),
+                        record.getExpenseType(),
+                        record.getRemark() == null || record.getRemark().isEmpty() ? "无" : record.getRemark()));
+            }
+        }
+        return sb.toString();
+    }
+
+    private String formatDate(Long timestamp) {
+        if (timestamp == null || timestamp == 0) {
+            return "未知";
+        }
+        return Instant.ofEpochSecond(timestamp).atZone(ZoneId.systemDefault()).format(DATE_FORMATTER);
+    }
+}
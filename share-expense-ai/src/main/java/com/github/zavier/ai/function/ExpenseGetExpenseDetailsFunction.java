@@ -84,6 +84,7 @@ public class ExpenseGetExpenseDetailsFunction extends BaseExpenseFunction {
 
         log.info("[AI工具] 开始执行 getExpenseDetails, 参数: projectIdentifier={}, section={}, responseFormat={}, pageSize={}, userId={}",
                 projectIdentifier, section, responseFormat, pageSize, getCurrentUserId());
+        recordReadToolCall("getExpenseDetails", projectIdentifier, section, responseFormat, pageSize);
 
         // 1. 解析项目标识符
         Integer projectId = resolveProjectIdentifier(projectIdentifier);
@@ -97,14 +98,27 @@ public class ExpenseGetExpenseDetailsFunction extends BaseExpenseFunction {
         ExpenseResponseFormat format = parseResponseFormat(responseFormat);
         int limit = parsePageSize(pageSize);
 
-        // 3. 查询费用记录
+        // 3. 按项目版本号缓存渲染结果，项目未变化时不再加载记录
+        String result = renderProjectWithCache("getExpenseDetails", projectId, detailSection.name(), format.name(), limit,
+                projectIdentifier, () -> renderExpenseDetails(projectId, projectIdentifier, detailSection, format, limit));
+
+        log.info("[AI工具] getExpenseDetails 执行成功, projectId={}", projectId);
+        return result;
+    }
+
+    /**
+     * 查询费用记录并构建响应
+     */
+    private String renderExpenseDetails(Integer projectId, String projectIdentifier, ExpenseDetailSection detailSection,
+                                        ExpenseResponseFormat format, int limit) {
+        // 1. 查询费用记录
         List<ExpenseRecordDTO> records = fetchExpenseRecords(projectId);
         if (records == null || records.isEmpty()) {
             log.info("[AI工具] getExpenseDetails 项目无费用记录: projectId={}", projectId);
             return String.format("# %s 的费用信息\n\n该项目暂无费用记录", projectIdentifier);
         }
 
-        // 4. 限制记录数量（仅对records和all模式生效）
+        // 2. 限制记录数量（仅对records和all模式生效）
         if (detailSection == ExpenseDetailSection.RECORDS || detailSection == ExpenseDetailSection.ALL) {
             if (records.size() > limit) {
                 records = records.subList(0, limit);
@@ -112,7 +126,7 @@ public class ExpenseGetExpenseDetailsFunction extends BaseExpenseFunction {
             }
         }
 
-        // 5. 构建响应
+        // 3. 构建响应
         StringBuilder result = new StringBuilder();
 
         if (detailSection == ExpenseDetailSection.SUMMARY || detailSection == ExpenseDetailSection.ALL) {
@@ -126,7 +140,7 @@ public class ExpenseGetExpenseDetailsFunction extends BaseExpenseFunction {
             result.append(buildExpenseRecords(records, format));
         }
 
-        log.info("[AI工具] getExpenseDetails 执行成功, projectId={}, recordCount={}", projectId, records.size());
+        log.info("[AI工具] getExpenseDetails 渲染完成, projectId={}, recordCount={}", projectId, records.size());
         return result.toString();
     }
 
@@ -178,6 +192,10 @@ public class ExpenseGetExpenseDetailsFunction extends BaseExpenseFunction {
      * 查询费用记录
      */
     private List<ExpenseRecordDTO> fetchExpenseRecords(Integer projectId) {
+        return memoizeTurnRead("records:" + projectId, () -> loadExpenseRecords(projectId));
+    }
+
+    private List<ExpenseRecordDTO> loadExpenseRecords(Integer projectId) {
         ExpenseRecordQry qry = new ExpenseRecordQry();
         qry.setProjectId(projectId);
         qry.setOperatorId(getCurrentUserId());
@@ -68,6 +68,7 @@ public class ExpenseGetSettlementFunction extends BaseExpenseFunction {
 
         log.info("[AI工具] 开始执行 getSettlement, 参数: projectIdentifier={}, responseFormat={}, userId={}",
                 projectIdentifier, responseFormat, getCurrentUserId());
+        recordReadToolCall("getSettlement", projectIdentifier, responseFormat);
 
         // 1. 解析项目标识符
         Integer projectId = resolveProjectIdentifier(projectIdentifier);
@@ -79,14 +80,24 @@ public class ExpenseGetSettlementFunction extends BaseExpenseFunction {
         // 2. 解析响应格式
         ExpenseResponseFormat format = parseResponseFormat(responseFormat);
 
-        // 3. 查询结算数据
+        // 3. 按项目版本号缓存渲染结果，项目未变化时不再重新计算结算
+        String result = renderProjectWithCache("getSettlement", projectId, "settlement", format.name(), 0,
+                projectIdentifier, () -> renderSettlement(projectId, projectIdentifier, format));
+
+        log.info("[AI工具] getSettlement 执行成功, projectId={}", projectId);
+        return result;
+    }
+
+    /**
+     * 查询结算数据并构建响应
+     */
+    private String renderSettlement(Integer projectId, String projectIdentifier, ExpenseResponseFormat format) {
         List<UserSharingDTO> settlements = fetchSettlements(projectId);
         if (settlements == null || settlements.isEmpty()) {
             log.info("[AI工具] getSettlement 项目无结算数据: projectId={}", projectId);
             return String.format("# %s 的结算情况\n\n该项目暂无结算数据", projectIdentifier);
         }
 
-        // 4. 构建响应
         String result;
         if (format == ExpenseResponseFormat.CONCISE) {
             result = buildConciseSettlement(projectIdentifier, settlements);
@@ -94,7 +105,7 @@ public class ExpenseGetSettlementFunction extends BaseExpenseFunction {
             result = buildDetailedSettlement(projectId, settlements);
         }
 
-        log.info("[AI工具] getSettlement 执行成功, projectId={}, settlementCount={}", projectId, settlements.size());
+        log.info("[AI工具] getSettlement 渲染完成, projectId={}, settlementCount={}", projectId, settlements.size());
         return result;
     }
 
@@ -117,6 +128,10 @@ public class ExpenseGetSettlementFunction extends BaseExpenseFunction {
      * 查询结算数据
      */
     private List<UserSharingDTO> fetchSettlements(Integer projectId) {
+        return memoizeTurnRead("settlement:" + projectId, () -> loadSettlements(projectId));
+    }
+
+    private List<UserSharingDTO> loadSettlements(Integer projectId) {
         ProjectSharingQry qry = new ProjectSharingQry();
         qry.setProjectId(projectId);
         qry.setOperatorId(getCurrentUserId());
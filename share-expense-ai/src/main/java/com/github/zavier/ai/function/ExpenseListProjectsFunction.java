@@ -2,6 +2,7 @@ package com.github.zavier.ai.function;
 
 import com.alibaba.cola.dto.PageResponse;
 import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.ai.cache.ToolRenderCache;
 import com.github.zavier.ai.dto.ExpenseResponseFormat;
 import com.github.zavier.project.ExpenseApplicationService;
 import com.github.zavier.dto.ProjectListQry;
@@ -14,8 +15,10 @@ import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 查询用户项目列表的工具方法（v2.0优化版）
@@ -68,6 +71,9 @@ public class ExpenseListProjectsFunction extends BaseExpenseFunction {
 
         log.info("[AI工具] 开始执行 listProjects, 参数: name={}, includeMembers={}, pageSize={}, userId={}",
                 name, includeMembers, pageSize, getCurrentUserId());
+        recordReadToolCall("listProjects", name, includeMembers, pageSize);
+        // 列表结果还取决于用户新建/删除了哪些项目，无法只凭项目版本号判断是否变化
+        markTurnUncacheable();
 
         // 1. 解析参数
         int limit = parsePageSize(pageSize);
@@ -80,7 +86,8 @@ public class ExpenseListProjectsFunction extends BaseExpenseFunction {
         qry.setPage(1);
         qry.setSize(limit);
 
-        PageResponse<ProjectDTO> response = expenseApplicationService.pageProject(qry);
+        PageResponse<ProjectDTO> response = memoizeTurnRead("projects:" + qry.getOperatorId() + ":" + name + ":" + limit,
+                () -> expenseApplicationService.pageProject(qry));
 
         if (!response.isSuccess() || response.getData() == null || response.getData().isEmpty()) {
             String result = "# 您的项目列表\n\n暂无项目";
@@ -89,21 +96,35 @@ public class ExpenseListProjectsFunction extends BaseExpenseFunction {
         }
 
         List<ProjectDTO> projects = response.getData();
+        // 模型通常紧接着按名称调用其他工具，提前记下名称 → ID
+        projects.forEach(project -> rememberProjectIdentifier(project.getProjectName(), project.getProjectId()));
 
-        // 3. 如果需要包含成员，预查询每个项目的成员列表
-        java.util.Map<Integer, List<String>> projectMembersMap = new java.util.HashMap<>();
-        if (includeMembersFlag) {
+        // 3. 按本页项目的版本号缓存渲染结果，项目未变化时不再逐个查询成员
+        String versions = projects.stream()
+                .map(project -> project.getProjectId() + "@" + project.getVersion())
+                .collect(Collectors.joining(","));
+        ToolRenderCache.Key key = new ToolRenderCache.Key("listProjects", null, null,
+                includeMembersFlag ? "members" : "basic", null, limit, qry.getOperatorId() + "|" + name + "|" + versions);
+        String result = renderWithCache(key, () -> renderProjectList(projects, includeMembersFlag));
+
+        log.info("[AI工具] listProjects 执行成功, projectCount={}", projects.size());
+        return result;
+    }
+
+    /**
+     * 查询成员（如需要）并构建响应
+     */
+    private String renderProjectList(List<ProjectDTO> projects, boolean includeMembers) {
+        // 如果需要包含成员，预查询每个项目的成员列表
+        Map<Integer, List<String>> projectMembersMap = new HashMap<>();
+        if (includeMembers) {
             for (ProjectDTO project : projects) {
                 List<String> members = getProjectMembers(project.getProjectId());
                 projectMembersMap.put(project.getProjectId(), members);
             }
         }
 
-        // 4. 构建响应
-        String result = buildProjectList(projects, includeMembersFlag, projectMembersMap);
-
-        log.info("[AI工具] listProjects 执行成功, projectCount={}", projects.size());
-        return result;
+        return buildProjectList(projects, includeMembers, projectMembersMap);
     }
 
     /**
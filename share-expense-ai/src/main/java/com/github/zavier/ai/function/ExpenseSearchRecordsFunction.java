@@ -0,0 +1,134 @@
+package com.github.zavier.ai.function;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.dto.ExpenseSearchQry;
+import com.github.zavier.dto.data.ExpenseSearchGroupDTO;
+import com.github.zavier.dto.data.ExpenseSearchHitDTO;
+import com.github.zavier.dto.data.ExpenseSearchResultDTO;
+import com.github.zavier.project.ExpenseApplicationService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 跨项目搜索费用记录的工具方法
+ * <p>
+ * 按备注和费用类型在用户的所有项目中搜索，直接返回汇总金额，不需要先列出项目再逐个查询明细。
+ */
+@Slf4j
+@Component
+public class ExpenseSearchRecordsFunction extends BaseExpenseFunction {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    @Resource
+    private ExpenseApplicationService expenseApplicationService;
+
+    /**
+     * 在用户的所有项目中按关键字搜索费用记录。
+     *
+     * @param keyword  关键字，匹配备注和费用类型
+     * @param pageSize 返回的明细条数，默认10，最大50
+     * @return 汇总和最近的明细
+     */
+    @Tool(description = """
+            在用户的所有项目中按关键字搜索费用记录，返回匹配记录的总金额、按项目和按类型的汇总，以及最近的几条明细。
+
+            参数说明：
+            - keyword: 关键字，匹配费用备注和费用类型（如"打车"、"机票"、"住宿"）
+            - page_size: 返回的明细条数，默认10，最大50；汇总金额始终基于全部匹配记录
+
+            使用场景：
+            - 用户说"所有旅行里打车一共花了多少" → keyword="打车"
+            - 用户说"我在哪些项目里买过机票" → keyword="机票"
+
+            注意事项：
+            - 不需要先查询项目列表，也不需要逐个项目查询明细
+            - 只针对单个项目的统计请使用 getExpenseDetails
+            """)
+    public String searchExpenses(
+            @ToolParam(description = "关键字，匹配备注和费用类型") String keyword,
+            @ToolParam(description = "返回的明细条数，默认10，最大50", required = false) Integer pageSize) {
+
+        log.info("[AI工具] 开始执行 searchExpenses, 参数: keyword={}, pageSize={}, userId={}",
+                keyword, pageSize, getCurrentUserId());
+        recordReadToolCall("searchExpenses", keyword, pageSize);
+        // 结果涉及多个项目，无法只凭单个项目的版本号判断是否变化
+        markTurnUncacheable();
+
+        if (keyword == null || keyword.isBlank()) {
+            return buildMissingParamResponse("keyword");
+        }
+        int limit = pageSize == null || pageSize <= 0 ? 10 : Math.min(pageSize, 50);
+
+        ExpenseSearchQry qry = new ExpenseSearchQry();
+        qry.setOperatorId(getCurrentUserId());
+        qry.setKeyword(keyword.trim());
+        qry.setLimit(limit);
+        SingleResponse<ExpenseSearchResultDTO> response = memoizeTurnRead(
+                "search:" + qry.getOperatorId() + ":" + qry.getKeyword() + ":" + limit,
+                () -> expenseApplicationService.searchExpenseRecords(qry));
+        if (!response.isSuccess()) {
+            log.warn("[AI工具] searchExpenses 执行失败: {}", response.getErrMessage());
+            return "❌ 搜索失败：" + response.getErrMessage();
+        }
+
+        String result = buildSearchResult(response.getData());
+        log.info("[AI工具] searchExpenses 执行成功, keyword={}, recordCount={}", keyword, response.getData().getRecordCount());
+        return result;
+    }
+
+    private String buildSearchResult(ExpenseSearchResultDTO data) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("# \"%s\" 的搜索结果\n\n", data.getKeyword()));
+        if (data.getRecordCount() == 0) {
+            sb.append("没有找到匹配的费用记录");
+            return sb.toString();
+        }
+
+        sb.append("## 总览\n");
+        sb.append(String.format("- 总金额：%.2f 元\n", data.getTotalAmount()));
+        sb.append(String.format("- 总笔数：%d 笔\n", data.getRecordCount()));
+        sb.append(String.format("- 涉及项目：%d 个\n\n", data.getProjects().size()));
+
+        sb.append("## 按项目统计\n");
+        for (ExpenseSearchGroupDTO project : data.getProjects()) {
+            rememberProjectIdentifier(project.getProjectName(), project.getProjectId());
+            sb.append(String.format("- %s（ID: %d）：%.2f 元，%d 笔\n",
+                    project.getProjectName(), project.getProjectId(), project.getTotalAmount(), project.getRecordCount()));
+        }
+        sb.append("\n## 按类型统计\n");
+        for (ExpenseSearchGroupDTO type : data.getExpenseTypes()) {
+            sb.append(String.format("- %s：%.2f 元，%d 笔\n",
+                    type.getExpenseType() == null || type.getExpenseType().isEmpty() ? "未分类" : type.getExpenseType(),
+                    type.getTotalAmount(), type.getRecordCount()));
+        }
+
+        sb.append(String.format("\n## 最近 %d 条明细\n", data.getRecords().size()));
+        for (int i = 0; i < data.getRecords().size(); i++) {
+            ExpenseSearchHitDTO hit = data.getRecords().get(i);
+            sb.append(String.format("%d. %s，%s，付款人：%s，金额：%.2f 元，类型：%s，备注：%s\n",
+                    i + 1,
+                    formatDate(hit.getDate()),
+                    hit.getProjectName(),
+                    hit.getPayMember(),
+                    hit.getAmount(),
+                    hit.getExpenseType(),
+                    hit.getRemark() == null || hit.getRemark().isEmpty() ? "无" : hit.getRemark()));
+        }
+        return sb.toString();
+    }
+
+    private String formatDate(Long timestamp) {
+        if (timestamp == null || timestamp == 0) {
+            return "未知";
+        }
+        return Instant.ofEpochSecond(timestamp).atZone(ZoneId.systemDefault()).format(DATE_FORMATTER);
+    }
+}
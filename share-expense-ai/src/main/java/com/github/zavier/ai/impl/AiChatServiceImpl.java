@@ -1,6 +1,8 @@
 package com.github.zavier.ai.impl;
 
 import com.github.zavier.ai.*;
+import com.github.zavier.ai.cache.AiResponseCache;
+import com.github.zavier.ai.context.AiTurnReadContext;
 import com.github.zavier.ai.domain.MessageRole;
 import com.github.zavier.ai.dto.AiChatRequest;
 import com.github.zavier.ai.dto.AiChatResponse;
@@ -8,7 +10,9 @@ import com.github.zavier.ai.dto.SuggestionsResponse;
 import com.github.zavier.ai.exception.AuthenticationException;
 import com.github.zavier.ai.function.*;
 import com.github.zavier.ai.monitoring.advisor.AiMonitoringAdvisor;
+import com.github.zavier.ai.monitoring.service.AiMonitoringService;
 import com.github.zavier.ai.provider.AiPromptProvider;
+import com.github.zavier.ai.router.LocalIntentRouter;
 import com.github.zavier.ai.service.ChatModelProvider;
 import com.github.zavier.ai.service.MessagePersister;
 import com.github.zavier.ai.service.SuggestionGenerator;
@@ -24,6 +28,7 @@ import org.springframework.ai.chat.messages.Message;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.github.zavier.ai.monitoring.advisor.AiMonitoringAdvisor.CONVERSATION_ID_KEY;
@@ -48,7 +53,7 @@ public class AiChatServiceImpl implements AiChatService {
     @Resource
     private AiSessionService aiSessionService;
 
-    // AI 工具函数（v2.0优化版 - 6个）
+    // AI 工具函数（v2.0优化版 - 9个）
     @Resource
     private ExpenseCreateProjectFunction expenseCreateProjectFunction;
 
@@ -58,6 +63,9 @@ public class AiChatServiceImpl implements AiChatService {
     @Resource
     private ExpenseAddExpenseFunction expenseAddExpenseFunction;
 
+    @Resource
+    private ExpenseBatchAddExpensesFunction expenseBatchAddExpensesFunction;
+
     @Resource
     private ExpenseGetSettlementFunction expenseGetSettlementFunction;
 
@@ -67,6 +75,12 @@ public class AiChatServiceImpl implements AiChatService {
     @Resource
     private ExpenseGetExpenseDetailsFunction expenseGetExpenseDetailsFunction;
 
+    @Resource
+    private ExpenseSearchRecordsFunction expenseSearchRecordsFunction;
+
+    @Resource
+    private ExpenseDashboardFunction expenseDashboardFunction;
+
     // 辅助服务组件
     @Resource
     private AiPromptProvider promptProvider;
@@ -86,6 +100,15 @@ public class AiChatServiceImpl implements AiChatService {
     @Resource
     private AiMonitoringAdvisor aiMonitoringAdvisor;
 
+    @Resource
+    private AiResponseCache aiResponseCache;
+
+    @Resource
+    private LocalIntentRouter localIntentRouter;
+
+    @Resource
+    private AiMonitoringService aiMonitoringService;
+
     @PostConstruct
     public void init() {
         this.chatClient = ChatClient.builder(chatModelProvider.selectChatModel())
@@ -95,13 +118,16 @@ public class AiChatServiceImpl implements AiChatService {
                         expenseCreateProjectFunction,
                         expenseAddMembersFunction,
                         expenseAddExpenseFunction,
+                        expenseBatchAddExpensesFunction,
                         expenseGetSettlementFunction,
                         expenseListProjectsFunction,
-                        expenseGetExpenseDetailsFunction
+                        expenseGetExpenseDetailsFunction,
+                        expenseSearchRecordsFunction,
+                        expenseDashboardFunction
                 )
                 .build();
 
-        log.info("[AI聊天服务] 初始化完成 - 使用v2.0优化版AI函数（6个工具）");
+        log.info("[AI聊天服务] 初始化完成 - 使用v2.0优化版AI函数（9个工具）");
     }
 
     @Override
@@ -134,8 +160,8 @@ public class AiChatServiceImpl implements AiChatService {
             aiSessionService.ensureSessionExists(context.conversationId(), request.message());
         }
 
-        // 6. 调用 AI 处理
-        String response = callAi(context.conversationId());
+        // 6. 调用 AI 处理（相同的只读问题且涉及项目未变化时直接复用之前的回答）
+        String response = respond(context, request.message());
 
         // 7. 保存 AI 回复并更新会话
         messagePersister.save(context.conversationId(), MessageRole.ASSISTANT, response);
@@ -211,10 +237,54 @@ public class AiChatServiceImpl implements AiChatService {
         }
     }
 
+    /**
+     * 依次尝试本地意图路由、响应缓存，都未命中再调用模型，并在本轮只读时缓存回答
+     */
+    private String respond(ChatContext context, String message) {
+        long startMillis = System.currentTimeMillis();
+        Optional<String> local = localIntentRouter.route(message);
+        if (local.isPresent()) {
+            log.info("[AI聊天] 本地意图路由处理, conversationId={}", context.conversationId());
+            aiMonitoringService.recordLocalTurn(context.conversationId(), context.userId(), startMillis,
+                    "local-router", null, message, local.get());
+            return local.get();
+        }
+
+        Optional<String> cached = aiResponseCache.lookup(context.userId(), message);
+        if (cached.isPresent()) {
+            log.info("[AI聊天] 响应缓存命中, conversationId={}", context.conversationId());
+            aiMonitoringService.recordLocalTurn(context.conversationId(), context.userId(), startMillis,
+                    "response-cache", AiResponseCache.HIT, message, cached.get());
+            return cached.get();
+        }
+
+        AiTurnReadContext turn = AiTurnReadContext.open();
+        turn.setResponseCacheStatus(AiResponseCache.MISS);
+        try {
+            long modelStart = System.currentTimeMillis();
+            String response = prompt(context.conversationId());
+            localIntentRouter.recordModelTurn(System.currentTimeMillis() - modelStart);
+            aiResponseCache.store(context.userId(), message, turn, response);
+            return response;
+        } finally {
+            AiTurnReadContext.close();
+        }
+    }
+
     /**
      * 调用 AI 处理
      */
     public String callAi(String conversationId) {
+        // 开启本轮只读缓存，同一轮内多个工具共享项目解析和查询结果
+        AiTurnReadContext.open();
+        try {
+            return prompt(conversationId);
+        } finally {
+            AiTurnReadContext.close();
+        }
+    }
+
+    private String prompt(String conversationId) {
         List<Message> messages = messagePersister.findAllByConversationId(conversationId);
 
         log.debug("[AI聊天] 调用AI, conversationId={}, 历史消息数={}", conversationId, messages.size());
@@ -6,6 +6,7 @@ import com.github.zavier.ai.dto.SessionDto;
 import com.github.zavier.ai.entity.AiSessionEntity;
 import com.github.zavier.ai.entity.ConversationEntity;
 import com.github.zavier.ai.exception.AuthenticationException;
+import com.github.zavier.ai.partition.AiLogTimeRange;
 import com.github.zavier.ai.repository.AiSessionRepository;
 import com.github.zavier.ai.repository.ConversationRepository;
 import com.github.zavier.domain.user.domainservice.CurrentUserProvider;
@@ -90,7 +91,7 @@ public class AiSessionServiceImpl implements AiSessionService {
         // 删除会话元数据
         sessionRepository.deleteByConversationId(conversationId);
 
-        // 删除会话的所有消息
+        // 删除会话的所有消息，不带时间下界，早于会话创建时间的消息也要删除
         List<ConversationEntity> messages = conversationRepository.findByConversationIdOrderByCreatedAtAsc(conversationId);
         conversationRepository.deleteAll(messages);
 
@@ -116,6 +117,7 @@ public class AiSessionServiceImpl implements AiSessionService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MessageDto> getSessionMessages(String conversationId) {
         Integer userId = getCurrentUserId();
 
@@ -127,7 +129,8 @@ public class AiSessionServiceImpl implements AiSessionService {
             throw new AuthenticationException("无权访问该会话");
         }
 
-        List<ConversationEntity> entities = conversationRepository.findByConversationIdOrderByCreatedAtAsc(conversationId);
+        List<ConversationEntity> entities = conversationRepository
+                .findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(conversationId, AiLogTimeRange.since(session));
 
         return entities.stream()
                 .map(this::toMessageDto)
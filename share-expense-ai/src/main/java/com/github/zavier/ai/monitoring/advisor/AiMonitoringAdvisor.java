@@ -1,7 +1,9 @@
 package com.github.zavier.ai.monitoring.advisor;
 
+import com.github.zavier.ai.context.AiTurnReadContext;
 import com.github.zavier.ai.monitoring.entity.AiMonitoringLogEntity;
 import com.github.zavier.ai.monitoring.service.AiMonitoringService;
+import com.github.zavier.ai.service.RoutingChatModel;
 import com.github.zavier.domain.user.domainservice.CurrentUserProvider;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -46,6 +48,8 @@ public class AiMonitoringAdvisor implements CallAdvisor, StreamAdvisor {
     @Override
     public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
         log.info("[AI监控] adviseCall");
+        // 清除上一次未被取走的路由记录
+        RoutingChatModel.takeLastRoute();
         final Object conversationId = chatClientRequest.context().get(CONVERSATION_ID_KEY);
         long startTime = System.currentTimeMillis();
         Optional<ChatResponseMetadata> metadataOptional = Optional.empty();
@@ -61,6 +65,8 @@ public class AiMonitoringAdvisor implements CallAdvisor, StreamAdvisor {
 
             // 记录成功调用
             final long endTime = System.currentTimeMillis();
+            final String modelRoute = RoutingChatModel.takeLastRoute();
+            log.info("[AI监控] 模型路由: conversationId={}, route={}", conversationId, modelRoute);
 
             final AiMonitoringLogEntity monitoringLog = AiMonitoringLogEntity.builder()
                     .userId(currentUserProvider.getCurrentUserId())
@@ -73,6 +79,11 @@ public class AiMonitoringAdvisor implements CallAdvisor, StreamAdvisor {
                     .completionTokens(usageOptional.map(Usage::getCompletionTokens).orElse(0))
                     .totalTokens(usageOptional.map(Usage::getTotalTokens).orElse(0))
                     .status("SUCCESS")
+                    .savedGatewayLoads(currentSavedLoads())
+                    .renderCacheHits(currentRenderCacheHits())
+                    .renderCacheMisses(currentRenderCacheMisses())
+                    .responseCacheStatus(AiTurnReadContext.current().map(AiTurnReadContext::getResponseCacheStatus).orElse(null))
+                    .modelRoute(max500(modelRoute))
                     .userMessagePreview(max500(chatClientRequest.prompt().getContents()))
                     .assistantMessagePreview(getResponseMax500Len(chatClientResponse))
                     .createdAt(LocalDateTime.now())
@@ -84,6 +95,8 @@ public class AiMonitoringAdvisor implements CallAdvisor, StreamAdvisor {
         } catch (Exception e) {
             log.error("[AI监控] 调用失败", e);
             final long endTime = System.currentTimeMillis();
+            final String modelRoute = RoutingChatModel.takeLastRoute();
+            log.info("[AI监控] 模型路由: conversationId={}, route={}", conversationId, modelRoute);
             final AiMonitoringLogEntity monitoringLog = AiMonitoringLogEntity.builder()
                     .userId(currentUserProvider.getCurrentUserId())
                     .conversationId(conversationId == null ? "-1" : conversationId.toString())
@@ -95,6 +108,11 @@ public class AiMonitoringAdvisor implements CallAdvisor, StreamAdvisor {
                     .completionTokens(usageOptional.map(Usage::getCompletionTokens).orElse(0))
                     .totalTokens(usageOptional.map(Usage::getTotalTokens).orElse(0))
                     .status("FAILED")
+                    .savedGatewayLoads(currentSavedLoads())
+                    .renderCacheHits(currentRenderCacheHits())
+                    .renderCacheMisses(currentRenderCacheMisses())
+                    .responseCacheStatus(AiTurnReadContext.current().map(AiTurnReadContext::getResponseCacheStatus).orElse(null))
+                    .modelRoute(max500(modelRoute))
                     .errorMessage(e.getMessage())
                     .userMessagePreview(max500(chatClientRequest.prompt().getContents()))
                     .assistantMessagePreview(getResponseMax500Len(chatClientResponse))
@@ -112,6 +130,18 @@ public class AiMonitoringAdvisor implements CallAdvisor, StreamAdvisor {
         return streamAdvisorChain.nextStream(chatClientRequest);
     }
 
+    private static int currentSavedLoads() {
+        return AiTurnReadContext.current().map(AiTurnReadContext::getSavedLoads).orElse(0);
+    }
+
+    private static int currentRenderCacheHits() {
+        return AiTurnReadContext.current().map(AiTurnReadContext::getRenderCacheHits).orElse(0);
+    }
+
+    private static int currentRenderCacheMisses() {
+        return AiTurnReadContext.current().map(AiTurnReadContext::getRenderCacheMisses).orElse(0);
+    }
+
     private static String getResponseMax500Len(ChatClientResponse chatClientResponse) {
         if (chatClientResponse == null) {
             return "";
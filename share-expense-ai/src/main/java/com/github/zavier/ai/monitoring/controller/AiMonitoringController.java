@@ -1,9 +1,23 @@
 package com.github.zavier.ai.monitoring.controller;
 
+import com.github.zavier.ai.cache.ToolRenderCache;
+import com.github.zavier.ai.concurrent.AiBulkhead;
+import com.github.zavier.ai.router.LocalIntentRouter;
+import com.github.zavier.ai.monitoring.dto.AiBulkheadStatsDto;
 import com.github.zavier.ai.monitoring.dto.AiMonitoringLogDto;
+import com.github.zavier.ai.monitoring.dto.LocalRouterStatsDto;
+import com.github.zavier.ai.monitoring.dto.RenderCacheStatsDto;
 
 import com.github.zavier.ai.monitoring.service.AiMonitoringService;
 import com.github.zavier.domain.user.domainservice.CurrentUserProvider;
+import com.github.zavier.domain.utils.SingleFlight;
+import com.github.zavier.domain.utils.SingleFlightOwner;
+import com.github.zavier.dto.data.CacheInvalidationStatsDTO;
+import com.github.zavier.dto.data.HttpPoolStatsDTO;
+import com.github.zavier.dto.data.SingleFlightStatsDTO;
+import com.github.zavier.infrastructure.cache.CacheInvalidationBus;
+import com.github.zavier.infrastructure.http.PooledHttpClient;
+import com.alibaba.cola.dto.MultiResponse;
 import com.alibaba.cola.dto.SingleResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -25,10 +39,26 @@ public class AiMonitoringController {
 
     private final AiMonitoringService monitoringService;
     private final CurrentUserProvider currentUserProvider;
+    private final ToolRenderCache toolRenderCache;
+    private final LocalIntentRouter localIntentRouter;
+    private final List<PooledHttpClient> httpClients;
+    private final AiBulkhead aiBulkhead;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final List<SingleFlightOwner> singleFlightOwners;
 
-    public AiMonitoringController(AiMonitoringService monitoringService, CurrentUserProvider currentUserProvider) {
+    public AiMonitoringController(AiMonitoringService monitoringService, CurrentUserProvider currentUserProvider,
+                                  ToolRenderCache toolRenderCache, LocalIntentRouter localIntentRouter,
+                                  List<PooledHttpClient> httpClients, AiBulkhead aiBulkhead,
+                                  CacheInvalidationBus cacheInvalidationBus,
+                                  List<SingleFlightOwner> singleFlightOwners) {
         this.monitoringService = monitoringService;
         this.currentUserProvider = currentUserProvider;
+        this.toolRenderCache = toolRenderCache;
+        this.localIntentRouter = localIntentRouter;
+        this.httpClients = httpClients;
+        this.aiBulkhead = aiBulkhead;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.singleFlightOwners = singleFlightOwners;
     }
 
     /**
@@ -50,6 +80,56 @@ public class AiMonitoringController {
         return SingleResponse.of(history);
     }
 
+    /**
+     * 获取工具渲染缓存的命中统计
+     */
+    @GetMapping("/render-cache/stats")
+    public SingleResponse<RenderCacheStatsDto> getRenderCacheStats() {
+        return SingleResponse.of(toolRenderCache.stats());
+    }
+
+    /**
+     * 获取本地意图路由的处理占比和节省的耗时
+     */
+    @GetMapping("/local-router/stats")
+    public SingleResponse<LocalRouterStatsDto> getLocalRouterStats() {
+        return SingleResponse.of(localIntentRouter.stats());
+    }
+
+    /**
+     * 获取外部接口 HTTP 连接池状态（使用中、等待中、空闲的连接数）
+     */
+    @GetMapping("/http-pool/stats")
+    public MultiResponse<HttpPoolStatsDTO> getHttpPoolStats() {
+        return MultiResponse.of(httpClients.stream().map(PooledHttpClient::stats).toList());
+    }
+
+    /**
+     * 获取并发请求合并统计（项目加载、分摊计算被合并的调用次数）
+     */
+    @GetMapping("/single-flight/stats")
+    public MultiResponse<SingleFlightStatsDTO> getSingleFlightStats() {
+        return MultiResponse.of(singleFlightOwners.stream()
+                .flatMap(owner -> owner.singleFlights().stream())
+                .map(SingleFlight::stats)
+                .toList());
+    }
+
+    /**
+     * 获取AI请求隔离舱状态（执行中、排队、拒绝的请求数，占用的数据库连接数）
+     */
+    @GetMapping("/bulkhead/stats")
+    public SingleResponse<AiBulkheadStatsDto> getBulkheadStats() {
+        return SingleResponse.of(aiBulkhead.stats());
+    }
+
+    /**
+     * 获取多节点缓存失效的传播状态（已处理的通知数、其他节点修改到本节点清理缓存的延迟）
+     */
+    @GetMapping("/cache-invalidation/stats")
+    public SingleResponse<CacheInvalidationStatsDTO> getCacheInvalidationStats() {
+        return SingleResponse.of(cacheInvalidationBus.stats());
+    }
 
     /**
      * 获取当前用户ID（从安全上下文）
@@ -0,0 +1,33 @@
+package com.github.zavier.ai.monitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AI 请求隔离舱状态
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiBulkheadStatsDto {
+    /**
+     * 正在执行的 AI 请求数
+     */
+    private Integer active;
+    /**
+     * 排队等待的 AI 请求数
+     */
+    private Integer queued;
+    private Integer maxConcurrent;
+    private Integer queueCapacity;
+    /**
+     * 因繁忙被拒绝的请求数（进程启动以来）
+     */
+    private Long rejected;
+    /**
+     * AI 请求正在占用的数据库连接数
+     */
+    private Integer dbConnectionsInUse;
+    private Integer dbConnections;
+}
@@ -22,6 +22,11 @@ public class AiMonitoringLogDto {
     private Integer totalTokens;
     private String status;
     private String errorMessage;
+    private Integer savedGatewayLoads;
+    private Integer renderCacheHits;
+    private Integer renderCacheMisses;
+    private String responseCacheStatus;
+    private String modelRoute;
     private String userMessagePreview;
     private String assistantMessagePreview;
 }
\ No newline at end of file
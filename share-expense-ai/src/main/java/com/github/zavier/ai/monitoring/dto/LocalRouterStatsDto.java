@@ -0,0 +1,26 @@
+package com.github.zavier.ai.monitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 本地意图路由统计（进程启动以来）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocalRouterStatsDto {
+    private Long totalTurns;
+    private Long localTurns;
+    /**
+     * 本地处理的对话占比
+     */
+    private Double localShare;
+    private Double avgLocalLatencyMs;
+    private Double avgModelLatencyMs;
+    /**
+     * 估算节省的耗时：本地处理次数 ×（模型平均耗时 - 本地平均耗时）
+     */
+    private Long estimatedSavedMs;
+}
@@ -0,0 +1,24 @@
+package com.github.zavier.ai.monitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AI 工具渲染缓存统计（进程启动以来）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RenderCacheStatsDto {
+    private Long hits;
+    private Long misses;
+    private Double hitRate;
+    private Integer entries;
+    private Long bytes;
+    private Long evictions;
+    /**
+     * 命中缓存省掉的加载和渲染耗时
+     */
+    private Long savedMillis;
+}
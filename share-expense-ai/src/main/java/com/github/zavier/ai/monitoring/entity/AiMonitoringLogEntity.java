@@ -54,6 +54,36 @@ public class AiMonitoringLogEntity {
     @Column(name = "error_message")
     private String errorMessage;
 
+    /**
+     * 本轮工具调用命中轮次缓存、省掉的查询次数
+     */
+    @Column(name = "saved_gateway_loads")
+    private Integer savedGatewayLoads;
+
+    /**
+     * 本轮工具输出命中渲染缓存的次数
+     */
+    @Column(name = "render_cache_hits")
+    private Integer renderCacheHits;
+
+    /**
+     * 本轮工具输出未命中渲染缓存的次数
+     */
+    @Column(name = "render_cache_misses")
+    private Integer renderCacheMisses;
+
+    /**
+     * 响应缓存状态：HIT（直接返回之前的回答）/ MISS（调用了模型）
+     */
+    @Column(name = "response_cache_status", length = 10)
+    private String responseCacheStatus;
+
+    /**
+     * 模型路由过程，如 call:deepseek -> hedge:longcat@2000ms -> win:longcat(1200ms) -> cancel:deepseek
+     */
+    @Column(name = "model_route", length = 500)
+    private String modelRoute;
+
     @Column(name = "user_message_preview", length = 500)
     private String userMessagePreview;
 
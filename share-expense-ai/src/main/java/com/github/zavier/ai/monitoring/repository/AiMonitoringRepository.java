@@ -5,20 +5,30 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
+/**
+ * AI调用监控日志 Repository
+ * 表按 start_time 按月分区，查询都带开始时间下界，只访问下界之后的分区
+ */
 @Repository
 public interface AiMonitoringRepository extends JpaRepository<AiMonitoringLogEntity, Long> {
 
     /**
      * 查询指定会话和用户的监控记录（分页）
      */
-    Page<AiMonitoringLogEntity> findByConversationIdAndUserIdOrderByStartTimeDesc(
-            String conversationId, Integer userId, Pageable pageable
+    @Transactional(readOnly = true)
+    Page<AiMonitoringLogEntity> findByConversationIdAndUserIdAndStartTimeGreaterThanEqualOrderByStartTimeDesc(
+            String conversationId, Integer userId, LocalDateTime since, Pageable pageable
     );
 
     /**
      * 查询指定用户的监控记录（分页）- 用户隔离
      */
-    Page<AiMonitoringLogEntity> findByUserIdOrderByStartTimeDesc(Integer userId, Pageable pageable);
+    @Transactional(readOnly = true)
+    Page<AiMonitoringLogEntity> findByUserIdAndStartTimeGreaterThanEqualOrderByStartTimeDesc(
+            Integer userId, LocalDateTime since, Pageable pageable);
 
 }
\ No newline at end of file
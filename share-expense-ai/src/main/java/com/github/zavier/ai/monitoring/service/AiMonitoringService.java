@@ -4,13 +4,18 @@ import com.github.zavier.ai.monitoring.dto.AiMonitoringLogDto;
 
 import com.github.zavier.ai.monitoring.entity.AiMonitoringLogEntity;
 import com.github.zavier.ai.monitoring.repository.AiMonitoringRepository;
+import com.github.zavier.ai.partition.AiLogTimeRange;
+import com.github.zavier.ai.repository.AiSessionRepository;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,20 +30,66 @@ public class AiMonitoringService {
     @Resource
     private AiMonitoringRepository monitoringRepository;
 
+    @Resource
+    private AiSessionRepository sessionRepository;
+
+    /**
+     * 不指定会话时只查最近这些天的调用记录，监控表按月分区，只访问最近的一两个分区
+     */
+    @Value("${app.ai.monitoring.history-days:30}")
+    private int historyDays;
+
     public void record(AiMonitoringLogEntity entity) {
         log.info("[AI监控] 记录调用, entity={}", entity);
         monitoringRepository.saveAndFlush(entity);
     }
+
+    /**
+     * 记录一次没有调用模型的对话（响应缓存命中、本地意图路由）
+     *
+     * @param source 处理来源，记入 model_name（如 response-cache、local-router）
+     */
+    public void recordLocalTurn(String conversationId, Integer userId, long startMillis, String source,
+                                String responseCacheStatus, String userMessage, String reply) {
+        final long endMillis = System.currentTimeMillis();
+        record(AiMonitoringLogEntity.builder()
+                .userId(userId)
+                .conversationId(conversationId)
+                .modelName(source)
+                .startTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(startMillis), ZoneOffset.UTC))
+                .endTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(endMillis), ZoneOffset.UTC))
+                .latencyMs(endMillis - startMillis)
+                .promptTokens(0)
+                .completionTokens(0)
+                .totalTokens(0)
+                .status("SUCCESS")
+                .responseCacheStatus(responseCacheStatus)
+                .userMessagePreview(max500(userMessage))
+                .assistantMessagePreview(max500(reply))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static String max500(String input) {
+        if (input == null) {
+            return "";
+        }
+        return input.length() > 500 ? input.substring(0, 500) : input;
+    }
     /**
      * 获取调用历史记录
+     * 指定会话时从会话创建时间开始查，否则只查最近 history-days 天
      */
     public List<AiMonitoringLogDto> getCallHistory(String conversationId, Integer userId, Pageable pageable) {
         Page<AiMonitoringLogEntity> page;
         if (conversationId != null && !conversationId.isEmpty()) {
-            page = monitoringRepository.findByConversationIdAndUserIdOrderByStartTimeDesc(conversationId, userId, pageable);
+            final LocalDateTime since = AiLogTimeRange.since(sessionRepository.findByConversationId(conversationId));
+            page = monitoringRepository.findByConversationIdAndUserIdAndStartTimeGreaterThanEqualOrderByStartTimeDesc(
+                    conversationId, userId, since, pageable);
         } else {
-            // 使用用户隔离查询确保安全性
-            page = monitoringRepository.findByUserIdOrderByStartTimeDesc(userId, pageable);
+            // 使用用户隔离查询确保安全性；开始时间按 UTC 记录
+            final LocalDateTime since = LocalDateTime.now(ZoneOffset.UTC).minusDays(historyDays);
+            page = monitoringRepository.findByUserIdAndStartTimeGreaterThanEqualOrderByStartTimeDesc(userId, since, pageable);
         }
 
         return page.getContent().stream()
@@ -61,6 +112,11 @@ public class AiMonitoringService {
                 entity.getTotalTokens(),
                 entity.getStatus(),
                 entity.getErrorMessage(),
+                entity.getSavedGatewayLoads(),
+                entity.getRenderCacheHits(),
+                entity.getRenderCacheMisses(),
+                entity.getResponseCacheStatus(),
+                entity.getModelRoute(),
                 entity.getUserMessagePreview(),
                 entity.getAssistantMessagePreview()
         );
@@ -0,0 +1,254 @@
+package com.github.zavier.ai.partition;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * AI 对话和调用监控日志的分区维护与过期清理
+ * <p>
+ * ai_conversation 按 created_at、ai_monitoring_log 按 start_time 按月做 RANGE COLUMNS 分区，最后一个分区 pmax 兜底。
+ * 后台线程定时检查：
+ * <ul>
+ *   <li>提前建好未来 months-ahead 个月的分区（拆分 pmax，pmax 正常情况下是空的，拆分不搬数据）</li>
+ *   <li>整月早于保留期的分区直接 DROP PARTITION，不逐行删除，也不产生大事务</li>
+ * </ul>
+ * 表没有分区时（H2、未执行分区迁移的库）默认跳过清理，只有开启 allow-row-delete 才按时间分批删除过期行。
+ * 清理会永久删除对话历史，默认不开启，需要显式配置 enabled 和 retention-months。
+ * 多个节点同时维护时后执行的 ALTER 会因分区已存在而失败，只记录日志，下一轮重新检查。
+ */
+@Slf4j
+@Component
+public class AiLogPartitionMaintainer implements ApplicationRunner {
+
+    private static final List<PartitionedTable> TABLES = List.of(
+            new PartitionedTable("ai_conversation", "created_at"),
+            new PartitionedTable("ai_monitoring_log", "start_time"));
+
+    private static final String LIST_PARTITIONS_SQL = "select partition_name, partition_description"
+            + " from information_schema.partitions"
+            + " where table_schema = database() and table_name = ? and partition_name is not null"
+            + " order by partition_ordinal_position";
+
+    private static final String MAX_PARTITION = "pmax";
+
+    /**
+     * 没有分区时每批删除的行数，避免一次删除锁住大量行
+     */
+    private static final int DELETE_BATCH_SIZE = 5000;
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Resource
+    private DataSource dataSource;
+
+    @Value("${app.ai.partition.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 表没有分区时是否按行删除过期数据
+     */
+    @Value("${app.ai.partition.allow-row-delete:false}")
+    private boolean allowRowDelete;
+
+    @Value("${app.ai.partition.retention-months:6}")
+    private int retentionMonths;
+
+    @Value("${app.ai.partition.months-ahead:2}")
+    private int monthsAhead;
+
+    @Value("${app.ai.partition.check-interval-minutes:60}")
+    private long checkIntervalMinutes;
+
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "ai-log-partition");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::maintainSafely, 0, checkIntervalMinutes, TimeUnit.MINUTES);
+        log.info("[AI日志分区] 启动维护, retentionMonths={}, monthsAhead={}, allowRowDelete={}",
+                retentionMonths, monthsAhead, allowRowDelete);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 保留期起点：当月加上之前 retention-months 个整月，早于该日期的数据过期
+     */
+    public LocalDate retentionCutoff() {
+        return YearMonth.now().minusMonths(retentionMonths).atDay(1);
+    }
+
+    /**
+     * 检查一次所有表：补齐未来的分区，删除过期的分区（或过期行）
+     */
+    public void maintain() throws SQLException {
+        final LocalDate cutoff = retentionCutoff();
+        try (Connection connection = dataSource.getConnection()) {
+            final boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            for (PartitionedTable table : TABLES) {
+                try {
+                    final List<Partition> partitions = mysql ? listPartitions(connection, table) : List.of();
+                    if (partitions.isEmpty()) {
+                        if (allowRowDelete) {
+                            deleteExpiredRows(connection, table, cutoff);
+                        } else {
+                            log.info("[AI日志分区] 表未分区且未开启按行删除, 跳过清理, table={}", table.name());
+                        }
+                    } else {
+                        addFuturePartitions(connection, table, partitions);
+                        dropExpiredPartitions(connection, table, partitions, cutoff);
+                    }
+                } catch (SQLException e) {
+                    // 单张表失败不影响其他表，下一轮重新检查
+                    log.warn("[AI日志分区] 维护失败, table={}", table.name(), e);
+                }
+            }
+        }
+    }
+
+    private void maintainSafely() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            log.warn("[AI日志分区] 维护失败", e);
+        }
+    }
+
+    private List<Partition> listPartitions(Connection connection, PartitionedTable table) throws SQLException {
+        final List<Partition> partitions = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(LIST_PARTITIONS_SQL)) {
+            select.setString(1, table.name());
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    partitions.add(new Partition(resultSet.getString(1), parseBound(resultSet.getString(2))));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * 分区上界形如 '2026-11-01 00:00:00'，MAXVALUE 返回 null
+     */
+    private static LocalDate parseBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").trim().substring(0, 10));
+    }
+
+    private void addFuturePartitions(Connection connection, PartitionedTable table,
+                                     List<Partition> partitions) throws SQLException {
+        final LocalDate target = YearMonth.now().plusMonths(monthsAhead + 1L).atDay(1);
+        final LocalDate lastBound = partitions.stream()
+                .map(Partition::bound)
+                .filter(Objects::nonNull)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+        if (lastBound != null && !lastBound.isBefore(target)) {
+            return;
+        }
+
+        final List<String> definitions = new ArrayList<>();
+        for (YearMonth month = lastBound == null ? YearMonth.now() : YearMonth.from(lastBound);
+             !month.atDay(1).isAfter(target.minusMonths(1)); month = month.plusMonths(1)) {
+            definitions.add("partition p" + month.format(NAME_FORMAT)
+                    + " values less than ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+        final boolean hasMaxPartition = partitions.stream().anyMatch(partition -> partition.bound() == null);
+        final String sql;
+        if (hasMaxPartition) {
+            definitions.add("partition " + MAX_PARTITION + " values less than (maxvalue)");
+            sql = "alter table `" + table.name() + "` reorganize partition " + MAX_PARTITION
+                    + " into (" + String.join(", ", definitions) + ")";
+        } else {
+            sql = "alter table `" + table.name() + "` add partition (" + String.join(", ", definitions) + ")";
+        }
+        execute(connection, sql);
+        log.info("[AI日志分区] 新增分区, table={}, count={}, until={}", table.name(),
+                definitions.size() - (hasMaxPartition ? 1 : 0), target);
+    }
+
+    private void dropExpiredPartitions(Connection connection, PartitionedTable table,
+                                       List<Partition> partitions, LocalDate cutoff) throws SQLException {
+        // 上界不晚于保留期起点的分区里全部是过期数据
+        final List<String> expired = partitions.stream()
+                .filter(partition -> partition.bound() != null && !partition.bound().isAfter(cutoff))
+                .map(Partition::name)
+                .collect(Collectors.toList());
+        if (expired.isEmpty()) {
+            return;
+        }
+        execute(connection, "alter table `" + table.name() + "` drop partition " + String.join(", ", expired));
+        log.info("[AI日志分区] 删除过期分区, table={}, partitions={}", table.name(), expired);
+    }
+
+    private void deleteExpiredRows(Connection connection, PartitionedTable table, LocalDate cutoff) throws SQLException {
+        final String sql = "delete from `" + table.name() + "` where `" + table.column() + "` < ? limit " + DELETE_BATCH_SIZE;
+        long total = 0;
+        try (PreparedStatement delete = connection.prepareStatement(sql)) {
+            delete.setTimestamp(1, Timestamp.valueOf(cutoff.atStartOfDay()));
+            int deleted;
+            do {
+                deleted = delete.executeUpdate();
+                total += deleted;
+            } while (deleted == DELETE_BATCH_SIZE);
+        }
+        if (total > 0) {
+            log.info("[AI日志分区] 表未分区, 按行删除过期数据, table={}, deleted={}", table.name(), total);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * @param column 分区列，同时是过期判断的时间列
+     */
+    private record PartitionedTable(String name, String column) {
+    }
+
+    /**
+     * @param bound 分区上界（不含），pmax 为 null
+     */
+    private record Partition(String name, LocalDate bound) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.zavier.ai.partition;
+
+import com.github.zavier.ai.entity.AiSessionEntity;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * AI 对话和监控日志查询的时间下界
+ * <p>
+ * ai_conversation、ai_monitoring_log 按月分区，查询条件带上时间下界时 MySQL 只访问下界之后的分区。
+ * 一个会话的消息和调用记录都不早于会话的创建时间，以会话创建时间作为下界；
+ * 会话表之前已有的对话，会话创建时间在迁移时改为第一条消息的时间。删除会话不使用下界，确保消息全部删除。
+ */
+public final class AiLogTimeRange {
+
+    /**
+     * 不限时间：会话不存在或没有创建时间时使用，会访问所有分区
+     */
+    public static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * 会话元数据在第一条消息之后才创建；监控日志的开始时间是 UTC，会话创建时间是本地时间。
+     * 下界向前放宽一天覆盖这两种偏差，按月分区时多出的一天最多多访问一个分区
+     */
+    private static final long SLACK_DAYS = 1;
+
+    private AiLogTimeRange() {
+    }
+
+    /**
+     * 会话内消息和调用记录的时间下界
+     */
+    public static LocalDateTime since(Optional<AiSessionEntity> session) {
+        return session.map(AiSessionEntity::getCreatedAt)
+                .map(createdAt -> createdAt.minusDays(SLACK_DAYS))
+                .orElse(EARLIEST);
+    }
+
+    public static LocalDateTime since(AiSessionEntity session) {
+        return since(Optional.ofNullable(session));
+    }
+}
@@ -91,6 +91,7 @@ public class AiPromptProvider {
 
             **多步操作规则：**
             - 每次只调用一个工具
+            - 用户一次描述多笔费用时，使用 batchAddExpenses 一次提交，不要逐笔调用 addExpense
             - 等待工具结果后再决定下一步
             - 不要假设操作会成功，必须基于实际返回结果
 
@@ -3,6 +3,7 @@ package com.github.zavier.ai.repository;
 import com.github.zavier.ai.entity.AiSessionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,10 +17,12 @@ public interface AiSessionRepository extends JpaRepository<AiSessionEntity, Long
     /**
      * 根据用户ID查询会话列表，按创建时间倒序
      */
+    @Transactional(readOnly = true)
     List<AiSessionEntity> findByUserIdOrderByCreatedAtDesc(Integer userId);
 
     /**
      * 根据 conversationId 查询会话
+     * 建议生成和锁等待在写入后立即读取会话状态，始终读主库
      */
     Optional<AiSessionEntity> findByConversationId(String conversationId);
 
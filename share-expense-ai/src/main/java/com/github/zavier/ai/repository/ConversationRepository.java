@@ -5,18 +5,38 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * 对话消息 Repository
+ * 消息持久化和建议生成在写入后立即读取，这里的查询都读主库；只读展示在服务层标记只读事务
+ * <p>
+ * 表按 created_at 按月分区，业务查询使用带 since 的版本（下界见 {@link com.github.zavier.ai.partition.AiLogTimeRange}），
+ * 只访问会话创建之后的分区；不带时间范围的查询会访问所有分区
+ */
 @Repository
 public interface ConversationRepository extends JpaRepository<ConversationEntity, Long> {
 
     List<ConversationEntity> findByConversationIdOrderByCreatedAtAsc(String conversationId);
 
+    /**
+     * 获取会话在 since 之后的全部消息，按时间正序
+     */
+    List<ConversationEntity> findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(
+            String conversationId, LocalDateTime since);
+
     /**
      * 获取会话的最新N条消息（按时间倒序获取，使用 Pageable 动态指定数量）
      */
     List<ConversationEntity> findByConversationIdOrderByCreatedAtDesc(String conversationId, Pageable pageable);
 
+    /**
+     * 获取会话在 since 之后的最新N条消息，按时间倒序
+     */
+    List<ConversationEntity> findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(
+            String conversationId, LocalDateTime since, Pageable pageable);
+
     /**
      * 统计指定会话的消息数量
      */
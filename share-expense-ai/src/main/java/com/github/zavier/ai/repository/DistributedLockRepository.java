@@ -0,0 +1,37 @@
+package com.github.zavier.ai.repository;
+
+import com.github.zavier.ai.entity.DistributedLockEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分布式锁租约 Repository
+ */
+@Repository
+public interface DistributedLockRepository extends JpaRepository<DistributedLockEntity, String> {
+
+    /**
+     * 接管已到期的租约（条件更新，同一时刻只有一个节点能更新成功）
+     */
+    @Modifying
+    @Query("update DistributedLockEntity l set l.owner = ?2, l.expiresAt = ?3, l.updatedAt = ?4 " +
+            "where l.lockKey = ?1 and l.expiresAt < ?5")
+    int takeOverExpired(String lockKey, String owner, long expiresAt, LocalDateTime updatedAt, long now);
+
+    /**
+     * 释放自己持有的租约，租约已被接管时不影响新的持有者
+     */
+    @Modifying
+    @Query("delete from DistributedLockEntity l where l.lockKey = ?1 and l.owner = ?2")
+    int release(String lockKey, String owner);
+
+    boolean existsByLockKeyAndExpiresAtGreaterThan(String lockKey, long now);
+
+    @Modifying
+    @Query("delete from DistributedLockEntity l where l.expiresAt < ?1")
+    int deleteExpired(long now);
+}
@@ -0,0 +1,38 @@
+package com.github.zavier.ai.repository;
+
+import com.github.zavier.ai.entity.RateLimitCounterEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 分布式限流计数 Repository
+ */
+@Repository
+public interface RateLimitCounterRepository
+        extends JpaRepository<RateLimitCounterEntity, RateLimitCounterEntity.CounterKey> {
+
+    Optional<RateLimitCounterEntity> findByUserIdAndWindowStart(Integer userId, Long windowStart);
+
+    /**
+     * 租用 count 个请求，累加后超过上限时不更新
+     *
+     * @return 更新行数，0 表示行不存在或剩余不足
+     */
+    @Modifying
+    @Query("update RateLimitCounterEntity c set c.used = c.used + ?3, c.updatedAt = ?4 " +
+            "where c.userId = ?1 and c.windowStart = ?2 and c.used + ?3 <= ?5")
+    int lease(Integer userId, Long windowStart, int count, LocalDateTime updatedAt, int limit);
+
+    @Modifying
+    @Query("delete from RateLimitCounterEntity c where c.userId = ?1")
+    int deleteByUser(Integer userId);
+
+    @Modifying
+    @Query("delete from RateLimitCounterEntity c where c.windowStart < ?1")
+    int deleteWindowsBefore(Long windowStart);
+}
@@ -1,20 +1,22 @@
 package com.github.zavier.ai.resolver;
 
-import com.alibaba.cola.dto.PageResponse;
+import com.alibaba.cola.dto.SingleResponse;
 import com.github.zavier.project.ExpenseApplicationService;
-import com.github.zavier.dto.ProjectListQry;
-import com.github.zavier.dto.data.ProjectDTO;
+import com.github.zavier.dto.data.ProjectNameCandidateDTO;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 项目标识符解析器
  * <p>
  * 智能解析项目标识符（ID或名称），支持：
  * <ul>
  *   <li>数字ID：直接解析（如"5"）</li>
- *   <li>项目名称：精确匹配或模糊匹配（如"周末聚餐"）</li>
+ *   <li>项目名称：精确匹配或模糊匹配（如"周末聚餐"、"聚餐"、"周未聚餐"）</li>
  * </ul>
  * <p>
  * 基于 Anthropic 最佳实践：优先使用自然语言标识符而非技术ID。
@@ -26,6 +28,23 @@ import org.springframework.stereotype.Component;
 @Component
 public class ProjectIdentifierResolver {
 
+    /**
+     * 名称完全一致时的得分
+     */
+    private static final double EXACT_SCORE = 1.0;
+
+    /**
+     * 直接采用模糊匹配结果的最低得分
+     */
+    private static final double ACCEPT_SCORE = 0.5;
+
+    /**
+     * 最高分需要领先第二名的分差，否则视为有歧义
+     */
+    private static final double LEAD_MARGIN = 0.1;
+
+    private static final int MAX_CANDIDATES = 5;
+
     @Resource
     private ExpenseApplicationService expenseApplicationService;
 
@@ -37,8 +56,7 @@ public class ProjectIdentifierResolver {
      *   <li>如果是纯数字，直接作为项目ID返回</li>
      *   <li>否则作为项目名称进行查询</li>
      *   <li>优先精确匹配项目名称</li>
-     *   <li>其次模糊匹配（包含关系）</li>
-     *   <li>最后返回第一个结果</li>
+     *   <li>其次模糊匹配（包含关系、错别字），且结果无歧义</li>
      * </ol>
      *
      * @param identifier 项目标识符（ID或名称）
@@ -70,53 +88,57 @@ public class ProjectIdentifierResolver {
     /**
      * 根据项目名称查找项目ID
      * <p>
-     * 查找策略：
+     * 基于项目名称索引打分（完全一致、包含、错别字相似度），只有结果明确时才返回：
      * <ol>
-     *   <li>精确匹配：项目名称完全相等</li>
-     *   <li>模糊匹配：项目名称包含查询字符串</li>
-     *   <li>默认返回：第一个结果</li>
+     *   <li>最高分候选与名称完全一致</li>
+     *   <li>或者最高分达到阈值，且明显领先第二名</li>
      * </ol>
+     * 有歧义时返回null，由调用方通过 {@link #suggest(String, Integer)} 给出候选让用户确认。
      *
      * @param projectName 项目名称
      * @param userId     用户ID
-     * @return 项目ID，如果未找到返回null
+     * @return 项目ID，如果未找到或有歧义返回null
      */
     private Integer findProjectByName(String projectName, Integer userId) {
-        ProjectListQry qry = new ProjectListQry();
-        qry.setOperatorId(userId);
-        qry.setName(projectName);
-        qry.setPage(1);
-        qry.setSize(10);
-
-        PageResponse<ProjectDTO> response = expenseApplicationService.pageProject(qry);
-
-        if (!response.isSuccess() || response.getData() == null || response.getData().isEmpty()) {
+        final List<ProjectNameCandidateDTO> candidates = suggest(projectName, userId);
+        if (candidates.isEmpty()) {
             log.debug("[项目标识符解析] 未找到项目: projectName={}, userId={}", projectName, userId);
             return null;
         }
 
-        // 1. 精确匹配优先
-        for (ProjectDTO project : response.getData()) {
-            if (project.getProjectName().equals(projectName)) {
-                log.debug("[项目标识符解析] 精确匹配成功: projectName={}, projectId={}",
-                        projectName, project.getProjectId());
-                return project.getProjectId();
-            }
+        final ProjectNameCandidateDTO best = candidates.get(0);
+        if (best.getScore() >= EXACT_SCORE) {
+            log.debug("[项目标识符解析] 精确匹配成功: projectName={}, projectId={}", projectName, best.getProjectId());
+            return best.getProjectId();
         }
 
-        // 2. 模糊匹配（包含）
-        for (ProjectDTO project : response.getData()) {
-            if (project.getProjectName().contains(projectName)) {
-                log.debug("[项目标识符解析] 模糊匹配成功: query={}, matchedName={}, projectId={}",
-                        projectName, project.getProjectName(), project.getProjectId());
-                return project.getProjectId();
-            }
+        final double runnerUpScore = candidates.size() > 1 ? candidates.get(1).getScore() : 0;
+        if (best.getScore() >= ACCEPT_SCORE && best.getScore() - runnerUpScore >= LEAD_MARGIN) {
+            log.debug("[项目标识符解析] 模糊匹配成功: query={}, matchedName={}, projectId={}, score={}",
+                    projectName, best.getProjectName(), best.getProjectId(), best.getScore());
+            return best.getProjectId();
         }
 
-        // 3. 返回第一个结果
-        ProjectDTO firstProject = response.getData().get(0);
-        log.debug("[项目标识符解析] 返回第一个结果: query={}, matchedName={}, projectId={}",
-                projectName, firstProject.getProjectName(), firstProject.getProjectId());
-        return firstProject.getProjectId();
+        log.debug("[项目标识符解析] 匹配结果不明确: query={}, candidates={}", projectName, candidates);
+        return null;
+    }
+
+    /**
+     * 按名称返回得分最高的若干候选项目
+     *
+     * @param projectName 项目名称
+     * @param userId     用户ID
+     * @return 候选项目，按得分从高到低排列
+     */
+    public List<ProjectNameCandidateDTO> suggest(String projectName, Integer userId) {
+        if (projectName == null || projectName.isBlank() || userId == null) {
+            return Collections.emptyList();
+        }
+        final SingleResponse<List<ProjectNameCandidateDTO>> response =
+                expenseApplicationService.searchProjectByName(userId, projectName, MAX_CANDIDATES);
+        if (!response.isSuccess() || response.getData() == null) {
+            return Collections.emptyList();
+        }
+        return response.getData();
     }
 }
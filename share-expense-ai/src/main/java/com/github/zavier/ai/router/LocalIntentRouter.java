@@ -0,0 +1,200 @@
+package com.github.zavier.ai.router;
+
+import com.github.zavier.ai.context.AiTurnReadContext;
+import com.github.zavier.ai.function.ExpenseGetExpenseDetailsFunction;
+import com.github.zavier.ai.function.ExpenseGetSettlementFunction;
+import com.github.zavier.ai.function.ExpenseListProjectsFunction;
+import com.github.zavier.ai.monitoring.dto.LocalRouterStatsDto;
+import com.github.zavier.ai.resolver.ProjectIdentifierResolver;
+import com.github.zavier.domain.user.domainservice.CurrentUserProvider;
+import com.github.zavier.dto.data.ProjectNameCandidateDTO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 本地意图路由
+ * <p>
+ * "查看我的项目"、"查询「周末聚餐」的费用明细" 这类简单指令（很多来自默认建议）交给模型处理时，
+ * 模型也只是调用一次对应的工具。这里用规则匹配这些高置信度的指令，直接调用工具返回结果，省掉模型调用。
+ * <p>
+ * 只处理以下情况，其余一律交给模型：
+ * <ul>
+ *   <li>整句完全匹配规则（单个指令，没有附加条件或多个子句）</li>
+ *   <li>指令中是项目ID，或项目名称与某个项目完全一致且没有重名</li>
+ *   <li>工具返回的不是错误提示</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class LocalIntentRouter {
+
+    /**
+     * 超过该长度的消息通常不是简单指令
+     */
+    private static final int MAX_MESSAGE_LENGTH = 40;
+
+    private static final String VERB = "(?:请|帮我)?(?:查看|查询|看看|看一下|显示|列出)(?:一下)?";
+
+    private static final String NAME = "[「“\"]?(?<name>[^「」“”\"，,。；;？?！!\\s]{1,30}?)[」”\"]?(?:项目)?的?";
+
+    private static final Pattern LIST_PROJECTS = Pattern.compile(
+            "^" + VERB + "?我的(?:所有|全部)?项目(?:列表)?$");
+
+    private static final Pattern LIST_PROJECTS_WITH_MEMBERS = Pattern.compile(
+            "^" + VERB + "?我的(?:所有|全部)?项目(?:列表)?(?:和|及|以及)成员(?:列表)?$");
+
+    private static final Pattern EXPENSE_DETAILS = Pattern.compile(
+            "^" + VERB + NAME + "(?<kind>费用明细|消费明细|明细|费用详情|费用信息|消费记录|费用记录|费用汇总|费用统计|支出汇总|总支出)$");
+
+    private static final Pattern SETTLEMENT = Pattern.compile(
+            "^" + VERB + "?" + NAME + "(?:结算|结算情况|结算详情|分摊情况)$");
+
+    @Value("${app.ai.local-router.enabled:true}")
+    private boolean enabled = true;
+
+    @Resource
+    private ExpenseListProjectsFunction expenseListProjectsFunction;
+
+    @Resource
+    private ExpenseGetExpenseDetailsFunction expenseGetExpenseDetailsFunction;
+
+    @Resource
+    private ExpenseGetSettlementFunction expenseGetSettlementFunction;
+
+    @Resource
+    private ProjectIdentifierResolver projectIdentifierResolver;
+
+    @Resource
+    private CurrentUserProvider currentUserProvider;
+
+    private final AtomicLong totalTurns = new AtomicLong();
+    private final AtomicLong localTurns = new AtomicLong();
+    private final AtomicLong localLatencyMs = new AtomicLong();
+    private final AtomicLong modelTurns = new AtomicLong();
+    private final AtomicLong modelLatencyMs = new AtomicLong();
+
+    /**
+     * 尝试在本地处理消息
+     *
+     * @param message 用户消息
+     * @return 工具输出；不是高置信度的简单指令时为空，需交给模型处理
+     */
+    public Optional<String> route(String message) {
+        totalTurns.incrementAndGet();
+        if (!enabled || message == null) {
+            return Optional.empty();
+        }
+        String text = message.strip();
+        if (text.isEmpty() || text.length() > MAX_MESSAGE_LENGTH) {
+            return Optional.empty();
+        }
+
+        long start = System.currentTimeMillis();
+        Optional<String> result = dispatch(text);
+        if (result.isPresent()) {
+            long latency = System.currentTimeMillis() - start;
+            localTurns.incrementAndGet();
+            localLatencyMs.addAndGet(latency);
+            log.info("[本地意图路由] 本地处理完成, message={}, latencyMs={}", text, latency);
+        }
+        return result;
+    }
+
+    /**
+     * 记录一次走模型的对话耗时，用于估算本地处理节省的时间
+     */
+    public void recordModelTurn(long latencyMs) {
+        modelTurns.incrementAndGet();
+        modelLatencyMs.addAndGet(latencyMs);
+    }
+
+    public LocalRouterStatsDto stats() {
+        long total = totalTurns.get();
+        long local = localTurns.get();
+        long models = modelTurns.get();
+        double avgLocal = local == 0 ? 0 : (double) localLatencyMs.get() / local;
+        double avgModel = models == 0 ? 0 : (double) modelLatencyMs.get() / models;
+        long saved = models == 0 ? 0 : Math.max(0, Math.round(local * (avgModel - avgLocal)));
+        return new LocalRouterStatsDto(total, local, total == 0 ? 0 : (double) local / total,
+                avgLocal, avgModel, saved);
+    }
+
+    private Optional<String> dispatch(String text) {
+        if (LIST_PROJECTS.matcher(text).matches()) {
+            return invoke(() -> expenseListProjectsFunction.listProjects(null, false, null));
+        }
+        if (LIST_PROJECTS_WITH_MEMBERS.matcher(text).matches()) {
+            return invoke(() -> expenseListProjectsFunction.listProjects(null, true, null));
+        }
+
+        Matcher details = EXPENSE_DETAILS.matcher(text);
+        if (details.matches()) {
+            String name = details.group("name");
+            String section = toSection(details.group("kind"));
+            return resolvable(name)
+                    ? invoke(() -> expenseGetExpenseDetailsFunction.getExpenseDetails(name, section, null, null))
+                    : Optional.empty();
+        }
+
+        Matcher settlement = SETTLEMENT.matcher(text);
+        if (settlement.matches()) {
+            String name = settlement.group("name");
+            return resolvable(name)
+                    ? invoke(() -> expenseGetSettlementFunction.getSettlement(name, null))
+                    : Optional.empty();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 项目ID，或与名称完全一致的唯一项目
+     * <p>
+     * 不接受模糊匹配：规则匹配到的名称可能夹带了其他内容（如"我的项目然后算一下周末聚餐"），
+     * 只有名称与项目完全一致时才能确定用户的意图。
+     */
+    private boolean resolvable(String name) {
+        if (name.matches("\\d+")) {
+            return true;
+        }
+        List<ProjectNameCandidateDTO> candidates =
+                projectIdentifierResolver.suggest(name, currentUserProvider.getCurrentUserId());
+        long exactMatches = candidates.stream()
+                .filter(candidate -> candidate.getScore() != null && candidate.getScore() >= 1.0)
+                .count();
+        return exactMatches == 1;
+    }
+
+    private static String toSection(String kind) {
+        return switch (kind) {
+            case "费用汇总", "费用统计", "支出汇总", "总支出" -> "summary";
+            case "消费记录", "费用记录" -> "records";
+            default -> "all";
+        };
+    }
+
+    private Optional<String> invoke(Supplier<String> tool) {
+        AiTurnReadContext.open();
+        try {
+            String output = tool.get();
+            // 工具返回错误提示时交给模型，由模型给出引导
+            if (output == null || output.isBlank() || output.startsWith("❌")) {
+                return Optional.empty();
+            }
+            return Optional.of(output);
+        } catch (Exception e) {
+            log.warn("[本地意图路由] 工具执行失败，交给模型处理", e);
+            return Optional.empty();
+        } finally {
+            AiTurnReadContext.close();
+        }
+    }
+}
@@ -4,14 +4,17 @@ import com.alibaba.ttl.threadpool.TtlExecutors;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.zavier.ai.concurrent.AiExecutors;
 import com.github.zavier.ai.concurrent.LockContext;
 import com.github.zavier.ai.concurrent.LockManager;
 import com.github.zavier.ai.entity.AiSessionEntity;
 import com.github.zavier.ai.entity.ConversationEntity;
+import com.github.zavier.ai.partition.AiLogTimeRange;
 import com.github.zavier.ai.repository.AiSessionRepository;
 import com.github.zavier.ai.repository.ConversationRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -56,6 +59,9 @@ public class CachedSuggestionService {
     // 生成超时时间：30秒
     private static final long GENERATION_TIMEOUT_SECONDS = 30;
 
+    // 等待其他节点生成时轮询 Session 表的间隔
+    private static final long REMOTE_POLL_INTERVAL_MILLIS = 200;
+
     // 使用 ConcurrentHashMap 存储每个会话的生成任务
     private final ConcurrentHashMap<String, CompletableFuture<List<SuggestionGenerator.SuggestionItem>>> generatingTasks
         = new ConcurrentHashMap<>();
@@ -74,6 +80,16 @@ public class CachedSuggestionService {
         this.lockManager = lockManager;
     }
 
+    /**
+     * 开启虚拟线程时，建议生成（阻塞在模型调用上）改为每个任务一个虚拟线程
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    void setVirtualThreads(boolean virtualThreads) {
+        if (virtualThreads) {
+            this.executor = TtlExecutors.getTtlExecutor(AiExecutors.newExecutor("ai-suggestion-", true));
+        }
+    }
+
     /**
      * 同步获取建议（核心方法）
      * 只从 Session 表读取缓存，Conversation 表仅作为快照存储
@@ -122,10 +138,12 @@ public class CachedSuggestionService {
 
     /**
      * 获取会话的最后一条对话记录
+     *
+     * @param since 会话消息的时间下界，只访问之后的分区
      */
-    private Optional<ConversationEntity> getLastConversation(String conversationId) {
+    private Optional<ConversationEntity> getLastConversation(String conversationId, LocalDateTime since) {
         List<ConversationEntity> conversations = conversationRepository
-            .findByConversationIdOrderByCreatedAtDesc(conversationId, Pageable.ofSize(1));
+            .findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(conversationId, since, Pageable.ofSize(1));
         return conversations.isEmpty() ? Optional.empty() : Optional.of(conversations.get(0));
     }
 
@@ -222,7 +240,22 @@ public class CachedSuggestionService {
             }
         }
 
-        // 如果没有找到任务，可能生成已经完成，重新从 Session 表查询
+        // 本节点没有任务：可能在其他节点生成（分布式锁仍被持有），轮询 Session 表直到写入建议或锁释放
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(GENERATION_TIMEOUT_SECONDS);
+        while (lockManager.isLocked(conversationId) && System.currentTimeMillis() < deadline) {
+            Optional<String> suggestions = getSessionSuggestions(conversationId);
+            if (suggestions.isPresent()) {
+                return parseSuggestions(suggestions.get());
+            }
+            try {
+                Thread.sleep(REMOTE_POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        // 生成已经完成或已放弃，重新从 Session 表查询
         return getSessionSuggestions(conversationId)
             .map(this::parseSuggestions)
             .orElse(getDefaultSuggestions(isNewConversation(conversationId)));
@@ -234,7 +267,8 @@ public class CachedSuggestionService {
     private List<SuggestionGenerator.SuggestionItem> generateWithAI(String conversationId) {
         // 获取对话历史
         List<ConversationEntity> history = conversationRepository
-            .findByConversationIdOrderByCreatedAtAsc(conversationId);
+            .findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(
+                conversationId, AiLogTimeRange.since(sessionRepository.findByConversationId(conversationId)));
 
         // 调用 SuggestionGenerator 生成建议
         return suggestionGenerator.generate(history, conversationId);
@@ -258,7 +292,8 @@ public class CachedSuggestionService {
             LocalDateTime now = LocalDateTime.now();
 
             // 更新 Session 表（活跃缓存）
-            sessionRepository.findByConversationId(conversationId).ifPresent(session -> {
+            Optional<AiSessionEntity> sessionOpt = sessionRepository.findByConversationId(conversationId);
+            sessionOpt.ifPresent(session -> {
                 session.setLastSuggestions(json);
                 session.setSuggestionsUpdatedAt(now); // 保留时间戳用于审计，但不用于过期判断
                 session.setSuggestionsGenerating(false);
@@ -267,7 +302,7 @@ public class CachedSuggestionService {
             });
 
             // 更新 Conversation 表最后一条记录（快照）
-            getLastConversation(conversationId).ifPresent(conversation -> {
+            getLastConversation(conversationId, AiLogTimeRange.since(sessionOpt)).ifPresent(conversation -> {
                 conversation.setSuggestions(json);
                 conversation.setSuggestionsUpdatedAt(now); // 保留时间戳用于审计
                 conversationRepository.save(conversation);
@@ -1,13 +1,29 @@
 package com.github.zavier.ai.service;
 
+import com.alibaba.ttl.threadpool.TtlExecutors;
+import com.github.zavier.ai.concurrent.AiExecutors;
+import com.github.zavier.infrastructure.http.PooledHttpClient;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.ai.openai.OpenAiChatOptions;
 import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 聊天模型提供者
+ * <p>
+ * 对话默认使用 DeepSeek，建议生成默认使用 LongCat，两者互为备用：
+ * 通过 {@link RoutingChatModel} 做熔断、故障转移和对冲请求，两个路由共享同一份模型健康状况。
+ */
 @Slf4j
 @Service
 public class ChatModelProvider {
@@ -16,24 +32,82 @@ public class ChatModelProvider {
 
     private OpenAiChatModel longCatChatModel;
 
+    private RoutingChatModel chatModel;
+
+    private RoutingChatModel fastChatModel;
+
+    private ExecutorService routingExecutor;
+
+    /**
+     * 大模型接口专用的连接池，带连接、读取超时
+     */
+    @Resource(name = "modelHttpClient")
+    private PooledHttpClient modelHttpClient;
+
+    @Value("${app.ai.model-router.hedge-enabled:true}")
+    private boolean hedgeEnabled = true;
+
+    @Value("${app.ai.model-router.min-hedge-delay-ms:2000}")
+    private long minHedgeDelayMs = 2000;
+
+    @Value("${app.ai.model-router.default-hedge-delay-ms:8000}")
+    private long defaultHedgeDelayMs = 8000;
+
+    @Value("${app.ai.model-router.deadline-ms:90000}")
+    private long deadlineMs = 90000;
+
+    @Value("${app.ai.model-router.failure-threshold:3}")
+    private int failureThreshold = 3;
+
+    @Value("${app.ai.model-router.open-ms:30000}")
+    private long openMs = 30000;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     public ChatModel selectChatModel() {
-        return deepseekChatModel;
+        return chatModel;
     }
 
     public ChatModel selectFastChatModel() {
-        return longCatChatModel;
+        return fastChatModel;
     }
 
     @PostConstruct
     public void init() {
         initLongCatChatModel();
         initDeepSeekChatModel();
+        initRoutingChatModels();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        routingExecutor.shutdownNow();
+    }
+
+    private void initRoutingChatModels() {
+        // 工具在模型调用线程中执行，需要传递用户和本轮对话上下文
+        this.routingExecutor = TtlExecutors.getTtlExecutorService(
+                AiExecutors.newExecutor("ai-model-router-", virtualThreads));
+
+        final ModelHealth deepseekHealth = new ModelHealth("deepseek", 128, failureThreshold, openMs);
+        final ModelHealth longCatHealth = new ModelHealth("longcat", 128, failureThreshold, openMs);
+        final RoutingChatModel.Settings settings =
+                new RoutingChatModel.Settings(hedgeEnabled, minHedgeDelayMs, defaultHedgeDelayMs, deadlineMs);
+
+        this.chatModel = new RoutingChatModel(List.of(
+                new RoutingChatModel.Candidate(deepseekChatModel, deepseekHealth),
+                new RoutingChatModel.Candidate(longCatChatModel, longCatHealth)), settings, routingExecutor);
+        this.fastChatModel = new RoutingChatModel(List.of(
+                new RoutingChatModel.Candidate(longCatChatModel, longCatHealth),
+                new RoutingChatModel.Candidate(deepseekChatModel, deepseekHealth)), settings, routingExecutor);
     }
 
     public void initDeepSeekChatModel() {
         var apiKey = OpenAiApi.builder()
                 .apiKey(getEnv("DEEPSEEK_API_KEY", "MOCK_KEY"))
                 .baseUrl("https://api.deepseek.com")
+                .restClientBuilder(RestClient.builder().requestFactory(modelHttpClient.requestFactory()))
                 .build();
         var chatOptions = OpenAiChatOptions.builder()
                 .model("deepseek-v4-flash")
@@ -51,6 +125,7 @@ public class ChatModelProvider {
         var apiKey = OpenAiApi.builder()
                 .apiKey(getEnv("LONGCAT_API_KEY", "MOCK_KEY"))
                 .baseUrl("https://api.longcat.chat/openai")
+                .restClientBuilder(RestClient.builder().requestFactory(modelHttpClient.requestFactory()))
                 .build();
         var aiChatOptions = OpenAiChatOptions.builder()
                 .model("LongCat-2.0")
@@ -2,6 +2,8 @@ package com.github.zavier.ai.service;
 
 import com.github.zavier.ai.domain.MessageRole;
 import com.github.zavier.ai.entity.ConversationEntity;
+import com.github.zavier.ai.partition.AiLogTimeRange;
+import com.github.zavier.ai.repository.AiSessionRepository;
 import com.github.zavier.ai.repository.ConversationRepository;
 import com.github.zavier.domain.user.domainservice.CurrentUserProvider;
 import jakarta.annotation.Resource;
@@ -30,6 +32,9 @@ public class MessagePersister {
     @Resource
     private ConversationRepository conversationRepository;
 
+    @Resource
+    private AiSessionRepository sessionRepository;
+
     @Resource
     private CurrentUserProvider currentUserProvider;
 
@@ -92,7 +97,7 @@ public class MessagePersister {
         // 使用 Pageable 动态限制返回数量
         Pageable pageable = PageRequest.of(0, maxHistoryMessages);
         List<ConversationEntity> history = conversationRepository
-            .findByConversationIdOrderByCreatedAtDesc(conversationId, pageable);
+            .findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(conversationId, since(conversationId), pageable);
         Collections.reverse(history);
 
         List<Message> messages = new ArrayList<>();
@@ -117,7 +122,15 @@ public class MessagePersister {
      * @return 消息实体列表
      */
     public List<ConversationEntity> findEntitiesByConversationId(String conversationId) {
-        return conversationRepository.findByConversationIdOrderByCreatedAtAsc(conversationId);
+        return conversationRepository.findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(
+            conversationId, since(conversationId));
+    }
+
+    /**
+     * 会话消息的时间下界，查询只访问会话创建之后的分区
+     */
+    private LocalDateTime since(String conversationId) {
+        return AiLogTimeRange.since(sessionRepository.findByConversationId(conversationId));
     }
 
     /**
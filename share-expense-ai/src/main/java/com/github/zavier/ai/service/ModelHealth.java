@@ -0,0 +1,91 @@
+package com.github.zavier.ai.service;
+
+import java.util.Arrays;
+
+/**
+ * 单个模型的健康状况：最近调用耗时和熔断状态
+ * <p>
+ * 熔断规则：连续失败（含超时）达到阈值后熔断 openMs，期间不再主动调用；
+ * 熔断时间过后放行请求试探，成功即恢复，失败则再次熔断。
+ */
+public class ModelHealth {
+
+    /**
+     * 计算 p95 所需的最少样本数，不足时使用默认对冲延迟
+     */
+    static final int MIN_SAMPLES = 10;
+
+    private final String name;
+
+    private final int failureThreshold;
+
+    private final long openMs;
+
+    /**
+     * 最近成功调用的耗时（环形缓冲）
+     */
+    private final long[] latencies;
+
+    private int latencyCount;
+
+    private int latencyIndex;
+
+    private int consecutiveFailures;
+
+    private long openUntilMillis;
+
+    public ModelHealth(String name, int windowSize, int failureThreshold, long openMs) {
+        this.name = name;
+        this.latencies = new long[windowSize];
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 是否可以调用（未熔断，或熔断时间已过可以试探）
+     */
+    public synchronized boolean allowRequest() {
+        return consecutiveFailures < failureThreshold || System.currentTimeMillis() >= openUntilMillis;
+    }
+
+    public synchronized boolean isOpen() {
+        return !allowRequest();
+    }
+
+    public synchronized void recordSuccess(long latencyMs) {
+        consecutiveFailures = 0;
+        latencies[latencyIndex] = latencyMs;
+        latencyIndex = (latencyIndex + 1) % latencies.length;
+        latencyCount = Math.min(latencyCount + 1, latencies.length);
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (consecutiveFailures >= failureThreshold) {
+            openUntilMillis = System.currentTimeMillis() + openMs;
+        }
+    }
+
+    /**
+     * 最近成功调用耗时的 p95
+     *
+     * @param defaultMs 样本不足时的返回值
+     */
+    public synchronized long p95LatencyMs(long defaultMs) {
+        if (latencyCount < MIN_SAMPLES) {
+            return defaultMs;
+        }
+        final long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(latencyCount * 0.95) - 1];
+    }
+
+    @Override
+    public synchronized String toString() {
+        return name + "{failures=" + consecutiveFailures + ", open=" + isOpen() + ", samples=" + latencyCount + "}";
+    }
+}
@@ -0,0 +1,249 @@
+package com.github.zavier.ai.service;
+
+import com.github.zavier.ai.context.AiTurnReadContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在多个模型之间对冲和故障转移的 ChatModel
+ * <p>
+ * 按顺序排列候选模型（第一个为首选），每次调用：
+ * <ol>
+ *   <li>已熔断的模型排到最后，只在其他模型都失败时才会被尝试</li>
+ *   <li>先调用首选模型；超过它最近的 p95 耗时仍未返回时，向下一个模型发出对冲请求，先返回的结果胜出，另一个被取消</li>
+ *   <li>模型调用失败时立即转移到下一个模型</li>
+ *   <li>整体超过截止时间仍没有结果时取消所有请求并抛出异常</li>
+ * </ol>
+ * 带工具的请求不做对冲：模型会在调用中执行工具，两个模型同时执行可能重复写入。
+ * 这类请求只做故障转移，且失败的那次调用已经执行过写工具时也不再转移。
+ * <p>
+ * 本次调用的路由过程记录在当前线程中，由 {@link #takeLastRoute()} 取出写入监控日志。
+ */
+@Slf4j
+public class RoutingChatModel implements ChatModel {
+
+    private static final ThreadLocal<String> LAST_ROUTE = new ThreadLocal<>();
+
+    private final List<Candidate> candidates;
+
+    private final Settings settings;
+
+    private final ExecutorService executor;
+
+    /**
+     * 候选模型
+     */
+    public record Candidate(ChatModel model, ModelHealth health) {
+    }
+
+    /**
+     * 路由参数
+     *
+     * @param hedgeEnabled        是否开启对冲请求
+     * @param minHedgeDelayMs     对冲延迟下限，避免 p95 很小时几乎每次都发两个请求
+     * @param defaultHedgeDelayMs 耗时样本不足时的对冲延迟
+     * @param deadlineMs          整体截止时间
+     */
+    public record Settings(boolean hedgeEnabled, long minHedgeDelayMs, long defaultHedgeDelayMs, long deadlineMs) {
+    }
+
+    private record Outcome(Candidate candidate, ChatResponse response, Exception error, long latencyMs) {
+    }
+
+    public RoutingChatModel(List<Candidate> candidates, Settings settings, ExecutorService executor) {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("候选模型不能为空");
+        }
+        this.candidates = List.copyOf(candidates);
+        this.settings = settings;
+        this.executor = executor;
+    }
+
+    /**
+     * 取出并清除当前线程最近一次调用的路由过程
+     */
+    public static String takeLastRoute() {
+        final String route = LAST_ROUTE.get();
+        LAST_ROUTE.remove();
+        return route;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        final long startNanos = System.nanoTime();
+        final long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(settings.deadlineMs());
+        final boolean withTools = hasTools(prompt);
+        final boolean hedgeable = settings.hedgeEnabled() && !withTools;
+
+        final Deque<Candidate> pending = new ArrayDeque<>(orderedCandidates());
+        final CompletionService<Outcome> completionService = new ExecutorCompletionService<>(executor);
+        final Map<Candidate, Future<Outcome>> running = new LinkedHashMap<>();
+        final StringJoiner route = new StringJoiner(" -> ");
+        boolean hedged = false;
+        Exception lastError = null;
+
+        Candidate first = pending.poll();
+        launch(first, prompt, completionService, running);
+        route.add("call:" + first.health().getName());
+        try {
+            while (!running.isEmpty()) {
+                final long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                final boolean canHedge = hedgeable && !hedged && !pending.isEmpty();
+                final long hedgeDelayMs = canHedge ? hedgeDelayMs(first) : 0;
+                final long waitNanos = canHedge
+                        ? Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(hedgeDelayMs) - (System.nanoTime() - startNanos))
+                        : remaining;
+
+                final Future<Outcome> done = completionService.poll(Math.max(0, waitNanos), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (canHedge && System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(hedgeDelayMs)) {
+                        hedged = true;
+                        final Candidate hedge = pending.poll();
+                        launch(hedge, prompt, completionService, running);
+                        route.add("hedge:" + hedge.health().getName() + "@" + hedgeDelayMs + "ms");
+                    }
+                    continue;
+                }
+
+                final Outcome outcome = done.get();
+                running.remove(outcome.candidate());
+                final String name = outcome.candidate().health().getName();
+                if (outcome.error() == null) {
+                    outcome.candidate().health().recordSuccess(outcome.latencyMs());
+                    route.add("win:" + name + "(" + outcome.latencyMs() + "ms)");
+                    cancelAll(running, route, false);
+                    return finish(route, outcome.response());
+                }
+
+                outcome.candidate().health().recordFailure();
+                lastError = outcome.error();
+                route.add("fail:" + name);
+                log.warn("[模型路由] 模型调用失败, model={}, latencyMs={}, error={}",
+                        name, outcome.latencyMs(), outcome.error().getMessage());
+
+                if (running.isEmpty() && !pending.isEmpty()) {
+                    if (withTools && turnWrote()) {
+                        route.add("no-failover:wrote");
+                        break;
+                    }
+                    final Candidate next = pending.poll();
+                    launch(next, prompt, completionService, running);
+                    route.add("failover:" + next.health().getName());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(running, route, false);
+            finish(route, null);
+            throw new IllegalStateException("AI模型调用被中断", e);
+        } catch (ExecutionException e) {
+            // Outcome 内部已捕获异常，不会走到这里
+            lastError = e;
+        }
+
+        final boolean timedOut = !running.isEmpty();
+        cancelAll(running, route, timedOut);
+        if (timedOut) {
+            route.add("deadline:" + settings.deadlineMs() + "ms");
+        }
+        finish(route, null);
+        throw new IllegalStateException(timedOut ? "AI模型响应超时" : "AI模型调用失败", lastError);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return orderedCandidates().get(0).model().stream(prompt);
+    }
+
+    /**
+     * 不带具体模型名称的默认选项，由实际调用的模型使用各自的默认配置
+     */
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return ToolCallingChatOptions.builder().build();
+    }
+
+    /**
+     * 未熔断的模型在前，保持原有顺序
+     */
+    private List<Candidate> orderedCandidates() {
+        final List<Candidate> available = new ArrayList<>();
+        final List<Candidate> open = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            (candidate.health().allowRequest() ? available : open).add(candidate);
+        }
+        available.addAll(open);
+        return available;
+    }
+
+    private long hedgeDelayMs(Candidate candidate) {
+        final long p95 = candidate.health().p95LatencyMs(settings.defaultHedgeDelayMs());
+        return Math.min(Math.max(p95, settings.minHedgeDelayMs()), settings.deadlineMs() / 2);
+    }
+
+    private void launch(Candidate candidate, Prompt prompt, CompletionService<Outcome> completionService,
+                        Map<Candidate, Future<Outcome>> running) {
+        running.put(candidate, completionService.submit(() -> {
+            final long start = System.currentTimeMillis();
+            try {
+                return new Outcome(candidate, candidate.model().call(prompt), null, System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                return new Outcome(candidate, null, e, System.currentTimeMillis() - start);
+            }
+        }));
+    }
+
+    /**
+     * 取消仍在执行的请求
+     *
+     * @param countAsFailure 是否记为失败（超时），对冲中落败的请求不计入
+     */
+    private static void cancelAll(Map<Candidate, Future<Outcome>> running, StringJoiner route, boolean countAsFailure) {
+        for (Map.Entry<Candidate, Future<Outcome>> entry : running.entrySet()) {
+            entry.getValue().cancel(true);
+            if (countAsFailure) {
+                entry.getKey().health().recordFailure();
+            }
+            route.add("cancel:" + entry.getKey().health().getName());
+        }
+        running.clear();
+    }
+
+    private static ChatResponse finish(StringJoiner route, ChatResponse response) {
+        final String value = route.toString();
+        LAST_ROUTE.set(value);
+        log.debug("[模型路由] {}", value);
+        return response;
+    }
+
+    private static boolean hasTools(Prompt prompt) {
+        return prompt.getOptions() instanceof ToolCallingChatOptions options
+                && (!options.getToolCallbacks().isEmpty() || !options.getToolNames().isEmpty());
+    }
+
+    private static boolean turnWrote() {
+        return AiTurnReadContext.current().map(AiTurnReadContext::isWrote).orElse(false);
+    }
+}
@@ -0,0 +1,14 @@
+-- 项目ID改为从全局序列按块分配；分片目录记录项目所在分片（只在0号分片/全局库使用）
+CREATE TABLE IF NOT EXISTS id_sequence (
+    name VARCHAR(64) PRIMARY KEY COMMENT '序列名称',
+    next_value BIGINT NOT NULL COMMENT '下一个未分配的ID，各节点按块取号',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='全局ID序列表';
+
+CREATE TABLE IF NOT EXISTS project_shard (
+    project_id INT PRIMARY KEY COMMENT '费用项目ID',
+    shard_index INT NOT NULL COMMENT '项目所在分片，没有记录的项目在0号分片',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='项目分片目录表';
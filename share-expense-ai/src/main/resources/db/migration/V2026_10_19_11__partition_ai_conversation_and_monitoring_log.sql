@@ -0,0 +1,36 @@
+-- AI 对话和调用监控日志按月分区：过期数据按分区整块删除，带时间下界的查询只访问相关分区
+-- 分区列必须包含在主键中，主键改为 (id, 时间列)；本月之后的分区由 AiLogPartitionMaintainer 定期补齐
+-- 已有数据中本月之前的行放在 p_history，超过保留期后整体删除
+
+UPDATE ai_conversation SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+
+ALTER TABLE ai_conversation
+    MODIFY created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at),
+    DROP INDEX idx_conversation,
+    DROP INDEX idx_created,
+    ADD INDEX idx_conversation_created (conversation_id, created_at);
+
+ALTER TABLE ai_conversation PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- 监控日志只按用户、会话查询，去掉其余二级索引，降低每次插入维护索引的开销
+ALTER TABLE ai_monitoring_log
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, start_time),
+    DROP INDEX idx_conversation_id,
+    DROP INDEX idx_user_id,
+    DROP INDEX idx_model_name,
+    DROP INDEX idx_start_time,
+    DROP INDEX idx_status,
+    ADD INDEX idx_conversation_time (conversation_id, start_time);
+
+ALTER TABLE ai_monitoring_log PARTITION BY RANGE COLUMNS (start_time) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,15 @@
+-- 成员增加项目内编号，费用记录的消费人员改为按编号的位图保存在记录行上（java.util.BitSet.toByteArray 格式）
+ALTER TABLE expense_project_member
+ADD COLUMN member_no INT DEFAULT NULL COMMENT '项目内成员编号，从0开始，消费人员位图按此编号' AFTER name;
+
+ALTER TABLE expense_record
+ADD COLUMN consumer_bits VARBINARY(4096) DEFAULT NULL COMMENT '消费人员成员编号位图，为空表示消费人员在 expense_record_consumer 中' AFTER remark;
+
+-- 已有成员按加入顺序编号；记录的位图由应用转换（app.expense.consumer-bits.migrate-on-startup=true），
+-- 或在项目下次保存时写入，转换前仍从 expense_record_consumer 读取
+UPDATE expense_project_member m
+JOIN (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY project_id ORDER BY id) - 1 AS member_no
+    FROM expense_project_member
+) numbered ON numbered.id = m.id
+SET m.member_no = numbered.member_no;
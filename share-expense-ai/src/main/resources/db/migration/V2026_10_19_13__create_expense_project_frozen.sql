@@ -0,0 +1,11 @@
+-- 已锁定项目的冻结快照：锁定后所有查询都从快照读取，不再重建聚合和计算结算
+CREATE TABLE IF NOT EXISTS expense_project_frozen (
+    project_id INT PRIMARY KEY COMMENT '费用项目ID',
+    version INT NOT NULL COMMENT '锁定时的项目版本号',
+    payload MEDIUMBLOB NOT NULL COMMENT '读模型(gzip压缩的JSON)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT='费用项目冻结快照表';
+
+-- 已锁定项目不再需要读模型
+DELETE v FROM expense_project_view v JOIN expense_project p ON p.id = v.project_id WHERE p.locked = 1;
@@ -0,0 +1,3 @@
+-- 费用记录备注和费用类型的全文索引，ngram 分词支持中文，用于跨项目搜索
+ALTER TABLE expense_record
+    ADD FULLTEXT INDEX ft_remark_type (remark, expense_type) WITH PARSER ngram;
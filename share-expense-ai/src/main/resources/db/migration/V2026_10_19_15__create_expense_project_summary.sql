@@ -0,0 +1,32 @@
+-- 项目汇总表：记录数、金额、成员净收支和最近记录，已有项目在首次查询首页汇总时补建
+CREATE TABLE IF NOT EXISTS expense_project_summary (
+    project_id INT PRIMARY KEY COMMENT '费用项目ID',
+    create_user_id INT NOT NULL COMMENT '创建者用户ID',
+    project_name VARCHAR(255) DEFAULT NULL COMMENT '项目名称',
+    version INT NOT NULL COMMENT '生成汇总时的项目版本号',
+    locked TINYINT(1) DEFAULT 0 COMMENT '是否已锁定',
+    member_count INT NOT NULL COMMENT '成员数',
+    record_count BIGINT NOT NULL COMMENT '费用记录数',
+    total_amount DECIMAL(14, 2) NOT NULL COMMENT '费用总金额',
+    unsettled_amount DECIMAL(14, 2) NOT NULL COMMENT '待结清金额',
+    last_activity_at DATETIME DEFAULT NULL COMMENT '最近变更时间',
+    balances TEXT COMMENT '成员净收支(JSON)',
+    recent_records TEXT COMMENT '最近的费用记录(JSON)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_summary_user_activity (create_user_id, last_activity_at)
+) COMMENT='费用项目汇总表';
+
+-- 项目按费用类型汇总表，项目保存时整体替换
+CREATE TABLE IF NOT EXISTS expense_project_category (
+    id INT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID',
+    project_id INT NOT NULL COMMENT '费用项目ID',
+    create_user_id INT NOT NULL COMMENT '创建者用户ID',
+    expense_type VARCHAR(30) NOT NULL COMMENT '费用类型',
+    record_count BIGINT NOT NULL COMMENT '费用记录数',
+    total_amount DECIMAL(14, 2) NOT NULL COMMENT '费用总金额',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_category_project (project_id),
+    INDEX idx_category_user (create_user_id)
+) COMMENT='费用项目类型汇总表';
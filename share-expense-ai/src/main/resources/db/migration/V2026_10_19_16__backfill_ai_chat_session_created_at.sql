@@ -0,0 +1,8 @@
+-- 会话元数据是聊天时延迟创建的，早于 ai_chat_session 表的对话，会话创建时间晚于它的第一条消息
+-- 查询以会话创建时间作为分区下界（见 AiLogTimeRange），这里改为第一条消息的时间，避免更早的消息查不到
+UPDATE ai_chat_session s
+    JOIN (SELECT conversation_id, MIN(created_at) AS first_at
+          FROM ai_conversation
+          GROUP BY conversation_id) c ON c.conversation_id = s.conversation_id
+SET s.created_at = c.first_at
+WHERE s.created_at IS NULL OR s.created_at > c.first_at;
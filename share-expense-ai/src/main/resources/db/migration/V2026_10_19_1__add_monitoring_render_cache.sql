@@ -0,0 +1,4 @@
+-- AI监控日志记录单轮对话内工具输出命中渲染缓存的情况
+ALTER TABLE ai_monitoring_log
+ADD COLUMN render_cache_hits INT DEFAULT 0 COMMENT '工具输出命中渲染缓存的次数' AFTER saved_gateway_loads,
+ADD COLUMN render_cache_misses INT DEFAULT 0 COMMENT '工具输出未命中渲染缓存的次数' AFTER render_cache_hits;
@@ -0,0 +1,3 @@
+-- AI监控日志记录本轮是否直接复用了之前的回答
+ALTER TABLE ai_monitoring_log
+ADD COLUMN response_cache_status VARCHAR(10) DEFAULT NULL COMMENT '响应缓存状态(HIT/MISS)' AFTER render_cache_misses;
@@ -0,0 +1,3 @@
+-- AI监控日志记录模型路由过程（对冲请求、故障转移、超时）
+ALTER TABLE ai_monitoring_log
+ADD COLUMN model_route VARCHAR(500) DEFAULT NULL COMMENT '模型路由过程(对冲/故障转移)' AFTER response_cache_status;
@@ -0,0 +1,20 @@
+-- 费用项目事件存储：事件表只追加，快照表保存每个项目的最新快照
+CREATE TABLE IF NOT EXISTS expense_event (
+    id INT AUTO_INCREMENT PRIMARY KEY COMMENT '事件ID，新增记录事件的ID同时作为费用记录ID',
+    project_id INT NOT NULL COMMENT '费用项目ID',
+    seq INT NOT NULL COMMENT '项目内事件序号，从1开始连续递增',
+    event_type VARCHAR(30) NOT NULL COMMENT '事件类型',
+    payload TEXT NOT NULL COMMENT '事件内容(JSON)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_project_seq (project_id, seq)
+) COMMENT='费用事件表';
+
+-- 费用项目快照表（事件存储模式），每个项目只保留最新一份
+CREATE TABLE IF NOT EXISTS expense_project_snapshot (
+    project_id INT PRIMARY KEY COMMENT '费用项目ID',
+    seq INT NOT NULL COMMENT '快照包含的最后一个事件序号',
+    payload MEDIUMTEXT NOT NULL COMMENT '成员和费用记录(JSON)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT='费用项目快照表';
@@ -0,0 +1,8 @@
+-- 费用项目读模型：查询接口按项目ID读取一行，已有项目在首次查询时补建
+CREATE TABLE IF NOT EXISTS expense_project_view (
+    project_id INT PRIMARY KEY COMMENT '费用项目ID',
+    version INT NOT NULL COMMENT '生成读模型时的项目版本号',
+    payload MEDIUMTEXT NOT NULL COMMENT '读模型(JSON)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT='费用项目读模型表';
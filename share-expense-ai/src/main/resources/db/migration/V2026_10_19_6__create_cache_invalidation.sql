@@ -0,0 +1,11 @@
+-- 缓存失效通知：项目保存/删除时在同一事务内追加一行，各节点按ID递增拉取并清理本地缓存
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID，各节点按ID递增拉取',
+    project_id INT NOT NULL COMMENT '费用项目ID',
+    owner_user_id INT DEFAULT NULL COMMENT '项目创建人',
+    source_node VARCHAR(64) NOT NULL COMMENT '写入节点',
+    published_at BIGINT NOT NULL COMMENT '写入时间(毫秒)，用于计算传播延迟',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_created_at (created_at)
+) COMMENT='缓存失效通知表（只追加）';
@@ -0,0 +1,8 @@
+-- 分布式锁租约表：app.ai.lock.type=db 时多节点通过插入/条件更新竞争同一个键
+CREATE TABLE IF NOT EXISTS distributed_lock (
+    lock_key VARCHAR(128) PRIMARY KEY COMMENT '锁的键',
+    owner VARCHAR(128) NOT NULL COMMENT '持有者（节点+令牌）',
+    expires_at BIGINT NOT NULL COMMENT '租约到期时间(毫秒)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='分布式锁租约表';
@@ -0,0 +1,10 @@
+-- AI 分布式限流计数：各节点按批租用请求额度，条件更新保证合计不超过上限
+CREATE TABLE IF NOT EXISTS ai_rate_limit_counter (
+    user_id INT NOT NULL COMMENT '用户ID',
+    window_start BIGINT NOT NULL COMMENT '固定窗口开始时间(秒)',
+    used INT NOT NULL COMMENT '各节点已租出的请求数',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (user_id, window_start),
+    INDEX idx_window_start (window_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='AI分布式限流计数表';
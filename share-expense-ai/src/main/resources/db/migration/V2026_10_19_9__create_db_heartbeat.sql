@@ -0,0 +1,5 @@
+-- 主从复制心跳：各节点定时写主库、读从库，得到从库的复制进度，用于读写分离的延迟判断
+CREATE TABLE IF NOT EXISTS db_heartbeat (
+    node_id VARCHAR(64) PRIMARY KEY COMMENT '节点ID',
+    beat_at BIGINT NOT NULL COMMENT '主库写入时间(毫秒)，从库读到该值说明之前的提交已复制'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='主从复制心跳表';
@@ -0,0 +1,3 @@
+-- AI监控日志记录单轮对话内命中只读缓存、省掉的查询次数
+ALTER TABLE ai_monitoring_log
+ADD COLUMN saved_gateway_loads INT DEFAULT 0 COMMENT '工具调用命中轮次缓存省掉的查询次数' AFTER error_message;
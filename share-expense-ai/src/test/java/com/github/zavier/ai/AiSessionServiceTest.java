@@ -322,7 +322,7 @@ class AiSessionServiceTest {
 
         when(sessionRepository.findByConversationId(TEST_CONVERSATION_ID))
                 .thenReturn(Optional.of(session));
-        when(conversationRepository.findByConversationIdOrderByCreatedAtAsc(TEST_CONVERSATION_ID))
+        when(conversationRepository.findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(eq(TEST_CONVERSATION_ID), any()))
                 .thenReturn(List.of(message1, message2));
 
         // When
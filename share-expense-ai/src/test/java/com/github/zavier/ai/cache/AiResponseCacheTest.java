@@ -0,0 +1,139 @@
+package com.github.zavier.ai.cache;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.ai.context.AiTurnReadContext;
+import com.github.zavier.ai.resolver.ProjectIdentifierResolver;
+import com.github.zavier.project.ExpenseApplicationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@DisplayName("AI响应缓存测试")
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AiResponseCacheTest {
+
+    private static final Integer USER_ID = 1;
+    private static final Integer PROJECT_ID = 5;
+
+    @Mock
+    private ProjectIdentifierResolver projectIdentifierResolver;
+
+    @Mock
+    private ExpenseApplicationService expenseApplicationService;
+
+    @InjectMocks
+    private AiResponseCache aiResponseCache;
+
+    @AfterEach
+    void tearDown() {
+        AiTurnReadContext.close();
+    }
+
+    @Test
+    @DisplayName("只读问题在项目未变化时复用回答，忽略标点和空白")
+    void testHitWhenProjectUnchanged() {
+        mockProject(3);
+        assertTrue(aiResponseCache.store(USER_ID, "看看周末聚餐的结算", settlementTurn(3), "张三应收10元"));
+
+        assertEquals("张三应收10元", aiResponseCache.lookup(USER_ID, " 看看 周末聚餐的结算？").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("项目版本变化后不再复用")
+    void testMissWhenVersionChanged() {
+        mockProject(3);
+        aiResponseCache.store(USER_ID, "看看周末聚餐的结算", settlementTurn(3), "张三应收10元");
+
+        mockProject(4);
+        assertTrue(aiResponseCache.lookup(USER_ID, "看看周末聚餐的结算").isEmpty());
+
+        // 失效的回答已移除，版本改回也不会再命中
+        mockProject(3);
+        assertTrue(aiResponseCache.lookup(USER_ID, "看看周末聚餐的结算").isEmpty());
+    }
+
+    @Test
+    @DisplayName("项目名称解析到其他项目后不再复用")
+    void testMissWhenIdentifierResolvesElsewhere() {
+        mockProject(3);
+        aiResponseCache.store(USER_ID, "看看周末聚餐的结算", settlementTurn(3), "张三应收10元");
+
+        when(projectIdentifierResolver.resolve("周末聚餐", USER_ID)).thenReturn(6);
+        assertTrue(aiResponseCache.lookup(USER_ID, "看看周末聚餐的结算").isEmpty());
+    }
+
+    @Test
+    @DisplayName("调用过写工具的轮次不缓存")
+    void testWriteTurnNotCached() {
+        mockProject(3);
+        AiTurnReadContext turn = settlementTurn(3);
+        AiTurnReadContext.recordToolCall("addExpense(周末聚餐)", true);
+
+        assertFalse(aiResponseCache.store(USER_ID, "周末聚餐加一笔100元然后看结算", turn, "已添加"));
+        assertTrue(aiResponseCache.lookup(USER_ID, "周末聚餐加一笔100元然后看结算").isEmpty());
+    }
+
+    @Test
+    @DisplayName("问题中没有项目名称（依赖上下文的追问）不缓存")
+    void testContextDependentQuestionNotCached() {
+        mockProject(3);
+
+        assertFalse(aiResponseCache.store(USER_ID, "那结算呢", settlementTurn(3), "张三应收10元"));
+    }
+
+    @Test
+    @DisplayName("没有调用工具或依赖项目列表的轮次不缓存")
+    void testNoToolOrUncacheableNotCached() {
+        AiTurnReadContext noTool = AiTurnReadContext.open();
+        assertFalse(aiResponseCache.store(USER_ID, "你好", noTool, "你好！"));
+        AiTurnReadContext.close();
+
+        AiTurnReadContext listTurn = settlementTurn(3);
+        AiTurnReadContext.markUncacheable();
+        assertFalse(aiResponseCache.store(USER_ID, "列出周末聚餐等项目", listTurn, "项目列表"));
+    }
+
+    @Test
+    @DisplayName("不同用户互不共享")
+    void testUserIsolation() {
+        mockProject(3);
+        aiResponseCache.store(USER_ID, "看看周末聚餐的结算", settlementTurn(3), "张三应收10元");
+
+        assertTrue(aiResponseCache.lookup(2, "看看周末聚餐的结算").isEmpty());
+    }
+
+    @Test
+    @DisplayName("不同问法得到相同工具计划时共用最新回答")
+    void testSamePlanSharesAnswer() {
+        mockProject(3);
+        aiResponseCache.store(USER_ID, "看看周末聚餐的结算", settlementTurn(3), "旧回答");
+        AiTurnReadContext.close();
+        aiResponseCache.store(USER_ID, "周末聚餐谁该给谁钱", settlementTurn(3), "新回答");
+
+        assertEquals("新回答", aiResponseCache.lookup(USER_ID, "看看周末聚餐的结算").orElseThrow());
+        assertEquals("新回答", aiResponseCache.lookup(USER_ID, "周末聚餐谁该给谁钱").orElseThrow());
+    }
+
+    private void mockProject(int version) {
+        when(projectIdentifierResolver.resolve("周末聚餐", USER_ID)).thenReturn(PROJECT_ID);
+        when(expenseApplicationService.getProjectVersion(PROJECT_ID, USER_ID)).thenReturn(SingleResponse.of(version));
+    }
+
+    private static AiTurnReadContext settlementTurn(int version) {
+        AiTurnReadContext turn = AiTurnReadContext.open();
+        AiTurnReadContext.recordToolCall("getSettlement(周末聚餐,)", false);
+        AiTurnReadContext.recordResolvedProject("周末聚餐", PROJECT_ID);
+        AiTurnReadContext.recordProjectVersion(PROJECT_ID, version);
+        return turn;
+    }
+}
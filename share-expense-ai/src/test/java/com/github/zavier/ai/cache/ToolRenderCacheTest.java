@@ -0,0 +1,138 @@
+package com.github.zavier.ai.cache;
+
+import com.github.zavier.ai.context.AiTurnReadContext;
+import com.github.zavier.ai.monitoring.dto.RenderCacheStatsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AI工具渲染缓存测试")
+class ToolRenderCacheTest {
+
+    @AfterEach
+    void tearDown() {
+        AiTurnReadContext.close();
+    }
+
+    @Test
+    @DisplayName("相同版本命中缓存，不再渲染")
+    void testHitSameVersion() {
+        ToolRenderCache cache = new ToolRenderCache(100, 1024 * 1024);
+        AtomicInteger renderCount = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("明细v1", cache.getOrRender(key(1, 1, "ALL"), () -> {
+                renderCount.incrementAndGet();
+                return "明细v1";
+            }));
+        }
+
+        assertEquals(1, renderCount.get());
+        RenderCacheStatsDto stats = cache.stats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getEntries());
+    }
+
+    @Test
+    @DisplayName("不同section/format/pageSize分别缓存")
+    void testKeyDimensions() {
+        ToolRenderCache cache = new ToolRenderCache(100, 1024 * 1024);
+
+        cache.getOrRender(key(1, 1, "ALL"), () -> "all");
+        cache.getOrRender(key(1, 1, "SUMMARY"), () -> "summary");
+        cache.getOrRender(new ToolRenderCache.Key("getExpenseDetails", 1, 1, "ALL", "DETAILED", 20, "项目"), () -> "detailed");
+        cache.getOrRender(new ToolRenderCache.Key("getExpenseDetails", 1, 1, "ALL", "CONCISE", 50, "项目"), () -> "page50");
+
+        assertEquals(4, cache.stats().getEntries());
+        assertEquals("summary", cache.getOrRender(key(1, 1, "SUMMARY"), () -> "不应渲染"));
+    }
+
+    @Test
+    @DisplayName("版本号变化后重新渲染，并清理该项目旧版本的缓存")
+    void testVersionChangeInvalidates() {
+        ToolRenderCache cache = new ToolRenderCache(100, 1024 * 1024);
+        cache.getOrRender(key(1, 1, "ALL"), () -> "v1-all");
+        cache.getOrRender(key(1, 1, "SUMMARY"), () -> "v1-summary");
+        cache.getOrRender(key(2, 7, "ALL"), () -> "其他项目");
+
+        assertEquals("v2-all", cache.getOrRender(key(1, 2, "ALL"), () -> "v2-all"));
+
+        assertEquals(2, cache.stats().getEntries(), "项目1的旧版本应被清理，项目2不受影响");
+        assertEquals("其他项目", cache.getOrRender(key(2, 7, "ALL"), () -> "不应渲染"));
+    }
+
+    @Test
+    @DisplayName("渲染期间版本已更新时，旧版本结果不写入缓存")
+    void testStaleVersionNotCached() {
+        ToolRenderCache cache = new ToolRenderCache(100, 1024 * 1024);
+        cache.getOrRender(key(1, 3, "ALL"), () -> "v3");
+
+        cache.getOrRender(key(1, 2, "ALL"), () -> "v2");
+
+        assertEquals(1, cache.stats().getEntries());
+        AtomicInteger renderCount = new AtomicInteger();
+        cache.getOrRender(key(1, 2, "ALL"), () -> {
+            renderCount.incrementAndGet();
+            return "v2";
+        });
+        assertEquals(1, renderCount.get());
+    }
+
+    @Test
+    @DisplayName("超过条目数上限时淘汰最久未访问的条目")
+    void testLruByEntries() {
+        ToolRenderCache cache = new ToolRenderCache(2, 1024 * 1024);
+        cache.getOrRender(key(1, 1, "ALL"), () -> "p1");
+        cache.getOrRender(key(2, 1, "ALL"), () -> "p2");
+        // 访问p1，使p2成为最久未访问
+        cache.getOrRender(key(1, 1, "ALL"), () -> "不应渲染");
+        cache.getOrRender(key(3, 1, "ALL"), () -> "p3");
+
+        RenderCacheStatsDto stats = cache.stats();
+        assertEquals(2, stats.getEntries());
+        assertEquals(1, stats.getEvictions());
+        assertEquals("p1", cache.getOrRender(key(1, 1, "ALL"), () -> "不应渲染"));
+        assertEquals("p2-new", cache.getOrRender(key(2, 1, "ALL"), () -> "p2-new"));
+    }
+
+    @Test
+    @DisplayName("超过字节数上限时按LRU淘汰，过大的结果不缓存")
+    void testByteLimit() {
+        ToolRenderCache cache = new ToolRenderCache(100, 4096);
+        String text = "x".repeat(400);
+        for (int i = 1; i <= 10; i++) {
+            cache.getOrRender(key(i, 1, "ALL"), () -> text);
+        }
+
+        RenderCacheStatsDto stats = cache.stats();
+        assertTrue(stats.getBytes() <= 4096);
+        assertTrue(stats.getEvictions() > 0);
+
+        int entriesBefore = stats.getEntries();
+        cache.getOrRender(key(99, 1, "ALL"), () -> "x".repeat(2000));
+        assertTrue(cache.stats().getEntries() <= entriesBefore, "超过上限1/4的结果不应缓存");
+    }
+
+    @Test
+    @DisplayName("命中情况记入当前轮次上下文")
+    void testTurnCounters() {
+        ToolRenderCache cache = new ToolRenderCache(100, 1024 * 1024);
+        AiTurnReadContext context = AiTurnReadContext.open();
+
+        cache.getOrRender(key(1, 1, "ALL"), () -> "v1");
+        cache.getOrRender(key(1, 1, "ALL"), () -> "v1");
+        cache.getOrRender(key(1, 1, "ALL"), () -> "v1");
+
+        assertEquals(2, context.getRenderCacheHits());
+        assertEquals(1, context.getRenderCacheMisses());
+    }
+
+    private static ToolRenderCache.Key key(Integer projectId, Integer version, String section) {
+        return new ToolRenderCache.Key("getExpenseDetails", projectId, version, section, "CONCISE", 20, "项目");
+    }
+}
@@ -0,0 +1,225 @@
+package com.github.zavier.ai.concurrent;
+
+import com.github.zavier.ai.exception.AiBusyException;
+import com.github.zavier.ai.monitoring.dto.AiBulkheadStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 模拟 Tomcat 工作线程池：AI 请求（慢）和核心请求（快）共用工作线程。
+ * <p>
+ * 准入和拒绝的数量是确定的，随单元测试执行；核心请求 p99 耗时的对比依赖机器负载，标记为 benchmark，
+ * 默认不执行，使用 {@code mvn test -Pbenchmark} 运行。
+ */
+@Slf4j
+@DisplayName("AI隔离舱压测")
+class AiBulkheadLoadTest {
+
+    private static final int WORKER_THREADS = 8;
+    private static final int AI_REQUESTS = 60;
+    private static final long AI_LATENCY_MS = 200;
+    private static final int CORE_REQUESTS = 100;
+    private static final long CORE_LATENCY_MS = 2;
+
+    @Test
+    @DisplayName("AI请求打满时，工作线程不被占用，超出容量的AI请求返回繁忙")
+    void testAdmissionAndRejection() throws Exception {
+        AiBulkhead bulkhead = new AiBulkhead(4, 8, 2, 1000, false);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger busy = new AtomicInteger();
+        List<CompletableFuture<String>> admitted = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService workers = Executors.newFixedThreadPool(WORKER_THREADS);
+        try {
+            List<Future<?>> handled = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                handled.add(workers.submit(() -> {
+                    try {
+                        admitted.add(bulkhead.submit(() -> {
+                            await(release);
+                            return "ok";
+                        }));
+                    } catch (AiBusyException e) {
+                        busy.incrementAndGet();
+                    }
+                }));
+            }
+            // AI 请求还在执行，工作线程已经全部返回
+            for (Future<?> future : handled) {
+                future.get(1, TimeUnit.SECONDS);
+            }
+            assertEquals(12, admitted.size());
+            assertEquals(8, busy.get());
+
+            long deadline = System.currentTimeMillis() + 1000;
+            while (bulkhead.stats().getActive() < 4 && System.currentTimeMillis() < deadline) {
+                sleep(5);
+            }
+            AiBulkheadStatsDto stats = bulkhead.stats();
+            assertEquals(4, stats.getActive());
+            assertEquals(8, stats.getQueued());
+            assertEquals(8, stats.getRejected());
+
+            release.countDown();
+            for (CompletableFuture<String> future : admitted) {
+                assertEquals("ok", future.get(1, TimeUnit.SECONDS));
+            }
+        } finally {
+            release.countDown();
+            workers.shutdownNow();
+            bulkhead.shutdown();
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("AI请求打满时，核心接口p99保持平稳")
+    void testCoreLatencyStaysFlat() throws Exception {
+        long baselineP99 = corePercentile99(false, null);
+
+        AiBulkhead bulkhead = new AiBulkhead(4, 8, 2, 1000, false);
+        AtomicInteger busy = new AtomicInteger();
+        long bulkheadP99 = corePercentile99(true, new AiHandler(bulkhead, busy));
+        long sharedP99 = corePercentile99(true, null);
+        bulkhead.shutdown();
+
+        log.info("核心请求p99: 无AI流量={}ms, 隔离舱={}ms, 共用工作线程={}ms, AI繁忙拒绝={}",
+                baselineP99, bulkheadP99, sharedP99, busy.get());
+
+        assertTrue(bulkheadP99 <= baselineP99 + 50, "隔离舱下核心请求p99应接近基线: " + bulkheadP99);
+        assertTrue(sharedP99 > bulkheadP99 * 5, "共用工作线程时核心请求应被AI请求拖慢: " + sharedP99);
+    }
+
+    @Test
+    @DisplayName("隔离舱内的任务异常通过future返回")
+    void testTaskFailure() {
+        AiBulkhead bulkhead = new AiBulkhead(1, 1, 1, 1000, false);
+        CompletableFuture<String> future = bulkhead.submit(() -> {
+            throw new IllegalArgumentException("消息不能为空");
+        });
+
+        Exception e = assertThrows(Exception.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        bulkhead.shutdown();
+    }
+
+    @Test
+    @DisplayName("虚拟线程模式下同样限制并发和排队数")
+    void testVirtualThreadCapacity() throws Exception {
+        AiBulkhead bulkhead = new AiBulkhead(2, 2, 1, 1000, true);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(bulkhead.submit(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Thread.currentThread().isVirtual() ? "virtual" : "platform";
+            }));
+        }
+        assertThrows(AiBusyException.class, () -> bulkhead.submit(() -> "ok"));
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (bulkhead.stats().getActive() < 2 && System.currentTimeMillis() < deadline) {
+            sleep(5);
+        }
+        AiBulkheadStatsDto stats = bulkhead.stats();
+        assertEquals(2, stats.getActive());
+        assertEquals(2, stats.getQueued());
+        assertEquals(1, stats.getRejected());
+
+        release.countDown();
+        for (CompletableFuture<String> future : futures) {
+            assertEquals("virtual", future.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals("ok", bulkhead.submit(() -> "ok").get(1, TimeUnit.SECONDS));
+        bulkhead.shutdown();
+    }
+
+    /**
+     * @param withAiLoad 是否同时发送 AI 请求
+     * @param handler    AI 请求交给隔离舱时的处理器，为null时直接在工作线程执行
+     * @return 核心请求从提交到完成的 p99 耗时
+     */
+    private static long corePercentile99(boolean withAiLoad, AiHandler handler) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(WORKER_THREADS);
+        try {
+            if (withAiLoad) {
+                for (int i = 0; i < AI_REQUESTS; i++) {
+                    workers.submit(() -> {
+                        if (handler == null) {
+                            sleep(AI_LATENCY_MS);
+                        } else {
+                            handler.handle();
+                        }
+                    });
+                }
+            }
+
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CORE_REQUESTS; i++) {
+                long submitted = System.nanoTime();
+                futures.add(workers.submit(() -> {
+                    sleep(CORE_LATENCY_MS);
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitted));
+                }));
+                sleep(5);
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private record AiHandler(AiBulkhead bulkhead, AtomicInteger busy) {
+        void handle() {
+            try {
+                bulkhead.submit(() -> {
+                    sleep(AI_LATENCY_MS);
+                    return "ok";
+                });
+            } catch (AiBusyException e) {
+                busy.incrementAndGet();
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
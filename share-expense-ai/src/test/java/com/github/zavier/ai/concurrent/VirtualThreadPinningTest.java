@@ -0,0 +1,196 @@
+package com.github.zavier.ai.concurrent;
+
+import com.alibaba.ttl.threadpool.TtlExecutors;
+import com.github.zavier.ai.RateLimitService;
+import com.github.zavier.ai.service.ModelHealth;
+import com.github.zavier.ai.service.RoutingChatModel;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 用 JFR 的 jdk.VirtualThreadPinned 事件检查虚拟线程模式下 AI 请求链路上的线程钉住
+ * <p>
+ * 虚拟线程在 synchronized 块内阻塞（JDK 21~23）会钉住载体线程，开启虚拟线程后反而降低吞吐。
+ * 这里在虚拟线程中执行速率限制、隔离舱、模型路由等代码，断言没有项目代码引起的钉住事件。
+ */
+@DisplayName("虚拟线程钉住检查")
+class VirtualThreadPinningTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String PROJECT_PACKAGE = "com.github.zavier.";
+
+    @Test
+    @DisplayName("AI请求链路在虚拟线程中执行时不钉住载体线程")
+    void testNoPinningOnAiPath() throws Exception {
+        List<RecordedEvent> events = recordPinnedEvents(() -> {
+            runRateLimitWorkload();
+            runBulkheadWorkload();
+            runRoutingWorkload();
+        });
+
+        List<String> projectPinned = events.stream()
+                .filter(VirtualThreadPinningTest::fromProjectCode)
+                .map(VirtualThreadPinningTest::describe)
+                .collect(Collectors.toList());
+        assertTrue(projectPinned.isEmpty(), "存在项目代码引起的虚拟线程钉住:\n" + String.join("\n\n", projectPinned));
+    }
+
+    @Test
+    @DisplayName("检查本身有效：synchronized 内阻塞会被检测到")
+    void testDetectsSynchronizedBlocking() throws Exception {
+        // JDK 24 起 synchronized 不再钉住载体线程（JEP 491），对照用例只在之前的版本上有意义
+        assumeTrue(Runtime.version().feature() < 24, "当前JDK中synchronized不会钉住虚拟线程");
+
+        final Object monitor = new Object();
+        List<RecordedEvent> events = recordPinnedEvents(() -> {
+            Thread thread = Thread.ofVirtual().start(() -> {
+                synchronized (monitor) {
+                    sleep(20);
+                }
+            });
+            thread.join();
+        });
+
+        assertTrue(events.stream().anyMatch(VirtualThreadPinningTest::fromProjectCode),
+                "synchronized 内 sleep 应产生钉住事件");
+    }
+
+    private static void runRateLimitWorkload() throws Exception {
+        RateLimitService rateLimitService = new RateLimitService();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                final int userId = i % 20;
+                futures.add(executor.submit(() -> {
+                    rateLimitService.allowRequest(userId);
+                    rateLimitService.getRemainingRequests(userId);
+                    rateLimitService.getSecondsUntilReset(userId);
+                    sleep(1);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static void runBulkheadWorkload() throws Exception {
+        AiBulkhead bulkhead = new AiBulkhead(8, 200, 2, 5000, true);
+        try {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(bulkhead.submit(() -> {
+                    sleep(5);
+                    return "ok";
+                }));
+            }
+            for (CompletableFuture<String> future : futures) {
+                assertEquals("ok", future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            bulkhead.shutdown();
+        }
+    }
+
+    private static void runRoutingWorkload() throws Exception {
+        ExecutorService routingExecutor = TtlExecutors.getTtlExecutorService(
+                AiExecutors.newExecutor("test-model-router-", true));
+        RoutingChatModel router = new RoutingChatModel(List.of(
+                new RoutingChatModel.Candidate(new SleepingChatModel("primary", 30), new ModelHealth("primary", 128, 3, 1000)),
+                new RoutingChatModel.Candidate(new SleepingChatModel("secondary", 5), new ModelHealth("secondary", 128, 3, 1000))),
+                new RoutingChatModel.Settings(true, 10, 10, 5_000), routingExecutor);
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ChatResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(sessions.submit(() -> router.call(new Prompt("你好"))));
+            }
+            for (Future<ChatResponse> future : futures) {
+                assertNotNull(future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            routingExecutor.shutdownNow();
+        }
+    }
+
+    private static List<RecordedEvent> recordPinnedEvents(ThrowingRunnable workload) throws Exception {
+        Path file = Files.createTempFile("virtual-thread-pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> PINNED_EVENT.equals(event.getEventType().getName()))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static boolean fromProjectCode(RecordedEvent event) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .anyMatch(frame -> frame.getMethod().getType().getName().startsWith(PROJECT_PACKAGE));
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getStackTrace().getFrames().stream()
+                .map(VirtualThreadPinningTest::describe)
+                .collect(Collectors.joining("\n    at ", "pinned " + event.getDuration().toMillis() + "ms\n    at ", ""));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    private record SleepingChatModel(String reply, long latencyMs) implements ChatModel {
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("cancelled", e);
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(reply))));
+        }
+    }
+}
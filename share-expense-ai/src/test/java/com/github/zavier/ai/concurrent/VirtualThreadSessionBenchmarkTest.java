@@ -0,0 +1,83 @@
+package com.github.zavier.ai.concurrent;
+
+import com.github.zavier.ai.RateLimitService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 1000 个并发 AI 会话的吞吐对比：平台线程池（模拟 Tomcat 默认 200 个工作线程） vs 每个会话一个虚拟线程
+ * <p>
+ * 每个会话：速率限制检查 → 模型调用（阻塞约50ms） → 数据库读写（阻塞约5ms），时间几乎都花在等待上。
+ * 结果依赖机器负载，默认不执行，使用 {@code mvn test -Pbenchmark} 运行。
+ */
+@Slf4j
+@Tag("benchmark")
+@DisplayName("虚拟线程会话吞吐压测")
+class VirtualThreadSessionBenchmarkTest {
+
+    private static final int SESSIONS = 1000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final long MODEL_LATENCY_MS = 50;
+    private static final long DB_LATENCY_MS = 5;
+
+    @Test
+    @DisplayName("1000并发会话下虚拟线程吞吐不低于200线程的平台线程池")
+    void testThroughput() throws Exception {
+        // 预热
+        run(Executors.newVirtualThreadPerTaskExecutor());
+
+        double platform = run(Executors.newFixedThreadPool(PLATFORM_THREADS));
+        double virtual = run(Executors.newVirtualThreadPerTaskExecutor());
+
+        log.info("1000并发AI会话吞吐: 平台线程池({})={}会话/秒, 虚拟线程={}会话/秒",
+                PLATFORM_THREADS, Math.round(platform), Math.round(virtual));
+        assertTrue(virtual >= platform, "虚拟线程吞吐应不低于平台线程池: virtual=" + virtual + ", platform=" + platform);
+    }
+
+    /**
+     * @return 每秒完成的会话数
+     */
+    private static double run(ExecutorService executor) throws Exception {
+        RateLimitService rateLimitService = new RateLimitService();
+        AtomicInteger allowed = new AtomicInteger();
+        long start = System.nanoTime();
+        try (executor) {
+            List<Future<?>> futures = new ArrayList<>(SESSIONS);
+            for (int i = 0; i < SESSIONS; i++) {
+                final int userId = i;
+                futures.add(executor.submit(() -> {
+                    if (rateLimitService.allowRequest(userId)) {
+                        allowed.incrementAndGet();
+                    }
+                    sleep(MODEL_LATENCY_MS);
+                    sleep(DB_LATENCY_MS);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+        assertEquals(SESSIONS, allowed.get());
+        return SESSIONS / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.zavier.ai.context;
+
+import com.alibaba.ttl.threadpool.TtlExecutors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AI单轮只读缓存测试")
+class AiTurnReadContextTest {
+
+    @AfterEach
+    void tearDown() {
+        AiTurnReadContext.close();
+    }
+
+    @Test
+    @DisplayName("同一轮内相同key只加载一次，并统计省掉的次数")
+    void testMemoizeWithinTurn() {
+        AiTurnReadContext context = AiTurnReadContext.open();
+        AtomicInteger loadCount = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("项目", AiTurnReadContext.getOrLoad("records:1", () -> {
+                loadCount.incrementAndGet();
+                return "项目";
+            }));
+        }
+
+        assertEquals(1, loadCount.get());
+        assertEquals(1, context.getLoads());
+        assertEquals(2, context.getSavedLoads());
+    }
+
+    @Test
+    @DisplayName("空结果同样缓存")
+    void testCacheNullResult() {
+        AiTurnReadContext.open();
+        AtomicInteger loadCount = new AtomicInteger();
+
+        AiTurnReadContext.getOrLoad("project:1:不存在", () -> {
+            loadCount.incrementAndGet();
+            return null;
+        });
+        Integer projectId = AiTurnReadContext.getOrLoad("project:1:不存在", () -> {
+            loadCount.incrementAndGet();
+            return 1;
+        });
+
+        assertNull(projectId);
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    @DisplayName("写操作失效后重新加载")
+    void testInvalidate() {
+        AiTurnReadContext.open();
+        AiTurnReadContext.getOrLoad("members:1", () -> "旧成员");
+
+        AiTurnReadContext.invalidate();
+
+        assertEquals("新成员", AiTurnReadContext.getOrLoad("members:1", () -> "新成员"));
+    }
+
+    @Test
+    @DisplayName("未开启上下文时每次直接加载")
+    void testNoContext() {
+        AtomicInteger loadCount = new AtomicInteger();
+
+        AiTurnReadContext.getOrLoad("records:1", loadCount::incrementAndGet);
+        AiTurnReadContext.getOrLoad("records:1", loadCount::incrementAndGet);
+
+        assertEquals(2, loadCount.get());
+        assertTrue(AiTurnReadContext.current().isEmpty());
+    }
+
+    @Test
+    @DisplayName("上下文可以传递到TTL包装的线程池")
+    void testPropagateToTtlExecutor() throws Exception {
+        AiTurnReadContext context = AiTurnReadContext.open();
+        AiTurnReadContext.getOrLoad("settlement:1", () -> "结算");
+
+        ExecutorService executor = TtlExecutors.getTtlExecutorService(Executors.newSingleThreadExecutor());
+        try {
+            String value = executor.submit(() -> AiTurnReadContext.<String>getOrLoad("settlement:1", () -> "重新加载"))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("结算", value);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, context.getSavedLoads());
+    }
+}
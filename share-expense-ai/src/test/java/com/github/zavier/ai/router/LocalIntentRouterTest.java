@@ -0,0 +1,140 @@
+package com.github.zavier.ai.router;
+
+import com.github.zavier.ai.function.ExpenseGetExpenseDetailsFunction;
+import com.github.zavier.ai.function.ExpenseGetSettlementFunction;
+import com.github.zavier.ai.function.ExpenseListProjectsFunction;
+import com.github.zavier.ai.monitoring.dto.LocalRouterStatsDto;
+import com.github.zavier.ai.resolver.ProjectIdentifierResolver;
+import com.github.zavier.domain.user.domainservice.CurrentUserProvider;
+import com.github.zavier.dto.data.ProjectNameCandidateDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("本地意图路由测试")
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LocalIntentRouterTest {
+
+    private static final Integer USER_ID = 1;
+
+    @Mock
+    private ExpenseListProjectsFunction expenseListProjectsFunction;
+
+    @Mock
+    private ExpenseGetExpenseDetailsFunction expenseGetExpenseDetailsFunction;
+
+    @Mock
+    private ExpenseGetSettlementFunction expenseGetSettlementFunction;
+
+    @Mock
+    private ProjectIdentifierResolver projectIdentifierResolver;
+
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+
+    @InjectMocks
+    private LocalIntentRouter localIntentRouter;
+
+    @BeforeEach
+    void setUp() {
+        when(currentUserProvider.getCurrentUserId()).thenReturn(USER_ID);
+        when(projectIdentifierResolver.suggest("周末聚餐", USER_ID))
+                .thenReturn(List.of(new ProjectNameCandidateDTO(5, "周末聚餐", 1.0)));
+    }
+
+    @Test
+    @DisplayName("查看我的项目直接调用项目列表工具")
+    void testListProjects() {
+        when(expenseListProjectsFunction.listProjects(null, false, null)).thenReturn("项目列表");
+        when(expenseListProjectsFunction.listProjects(null, true, null)).thenReturn("项目及成员列表");
+
+        assertEquals("项目列表", localIntentRouter.route("查看我的项目").orElseThrow());
+        assertEquals("项目列表", localIntentRouter.route("我的项目").orElseThrow());
+        assertEquals("项目及成员列表", localIntentRouter.route("查看我的项目和成员").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("费用明细按关键词映射到对应section")
+    void testExpenseDetails() {
+        when(expenseGetExpenseDetailsFunction.getExpenseDetails("周末聚餐", "all", null, null)).thenReturn("全部明细");
+        when(expenseGetExpenseDetailsFunction.getExpenseDetails("周末聚餐", "summary", null, null)).thenReturn("汇总");
+
+        assertEquals("全部明细", localIntentRouter.route("查询「周末聚餐」的费用明细").orElseThrow());
+        assertEquals("全部明细", localIntentRouter.route("查看周末聚餐明细").orElseThrow());
+        assertEquals("汇总", localIntentRouter.route("看看周末聚餐项目的费用汇总").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("结算指令直接调用结算工具")
+    void testSettlement() {
+        when(expenseGetSettlementFunction.getSettlement("周末聚餐", null)).thenReturn("结算结果");
+
+        assertEquals("结算结果", localIntentRouter.route("看看周末聚餐的结算").orElseThrow());
+        assertEquals("结算结果", localIntentRouter.route("周末聚餐结算情况").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("项目名称不是完全一致或有重名时交给模型")
+    void testUnresolvedNameFallsBack() {
+        when(projectIdentifierResolver.suggest("聚餐", USER_ID))
+                .thenReturn(List.of(new ProjectNameCandidateDTO(5, "周末聚餐", 0.8)));
+        when(projectIdentifierResolver.suggest("团建", USER_ID)).thenReturn(List.of(
+                new ProjectNameCandidateDTO(6, "团建", 1.0), new ProjectNameCandidateDTO(7, "团建", 1.0)));
+
+        assertTrue(localIntentRouter.route("查询聚餐的费用明细").isEmpty());
+        assertTrue(localIntentRouter.route("查询团建的费用明细").isEmpty());
+        assertTrue(localIntentRouter.route("查看我的项目然后算一下周末聚餐的结算").isEmpty());
+        verify(expenseGetExpenseDetailsFunction, never()).getExpenseDetails(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("附加条件、多个子句或过长的消息交给模型")
+    void testComplexMessageFallsBack() {
+        assertTrue(localIntentRouter.route("查询周末聚餐的费用明细，只看张三付的").isEmpty());
+        assertTrue(localIntentRouter.route("帮我在周末聚餐加一笔100元的午餐").isEmpty());
+        assertTrue(localIntentRouter.route("查看" + "很长的项目名称".repeat(6) + "的费用明细").isEmpty());
+        assertTrue(localIntentRouter.route("  ").isEmpty());
+        assertTrue(localIntentRouter.route(null).isEmpty());
+        verifyNoInteractions(expenseListProjectsFunction, expenseGetExpenseDetailsFunction, expenseGetSettlementFunction);
+    }
+
+    @Test
+    @DisplayName("工具返回错误提示或抛出异常时交给模型")
+    void testToolErrorFallsBack() {
+        when(expenseGetSettlementFunction.getSettlement("周末聚餐", null)).thenReturn("❌ 获取结算信息失败");
+        assertTrue(localIntentRouter.route("看看周末聚餐的结算").isEmpty());
+
+        when(expenseListProjectsFunction.listProjects(null, false, null)).thenThrow(new RuntimeException("db down"));
+        assertTrue(localIntentRouter.route("查看我的项目").isEmpty());
+    }
+
+    @Test
+    @DisplayName("统计本地处理占比和估算节省的耗时")
+    void testStats() {
+        when(expenseListProjectsFunction.listProjects(null, false, null)).thenReturn("项目列表");
+
+        localIntentRouter.route("查看我的项目");
+        localIntentRouter.route("周末聚餐加一笔100元");
+        localIntentRouter.recordModelTurn(2000);
+
+        LocalRouterStatsDto stats = localIntentRouter.stats();
+        assertEquals(2, stats.getTotalTurns());
+        assertEquals(1, stats.getLocalTurns());
+        assertEquals(0.5, stats.getLocalShare());
+        assertEquals(2000.0, stats.getAvgModelLatencyMs());
+        assertTrue(stats.getEstimatedSavedMs() > 0 && stats.getEstimatedSavedMs() <= 2000);
+    }
+}
@@ -89,7 +89,7 @@ class CachedSuggestionServiceTest {
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(4, result.size());
-        verify(conversationRepository, never()).findByConversationIdOrderByCreatedAtDesc(anyString(), any());
+        verify(conversationRepository, never()).findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(anyString(), any(), any());
         verify(suggestionGenerator, never()).generate(any(), any());
     }
 
@@ -147,7 +147,7 @@ class CachedSuggestionServiceTest {
         when(sessionRepository.findByConversationId(CONVERSATION_ID))
             .thenReturn(Optional.empty());
 
-        when(conversationRepository.findByConversationIdOrderByCreatedAtDesc(eq(CONVERSATION_ID), any()))
+        when(conversationRepository.findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(eq(CONVERSATION_ID), any(), any()))
             .thenReturn(List.of(conversation));
 
         when(conversationRepository.countByConversationId(CONVERSATION_ID))
@@ -207,7 +207,7 @@ class CachedSuggestionServiceTest {
         when(sessionRepository.findByConversationId(CONVERSATION_ID))
             .thenReturn(Optional.empty());
 
-        when(conversationRepository.findByConversationIdOrderByCreatedAtDesc(eq(CONVERSATION_ID), any()))
+        when(conversationRepository.findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(eq(CONVERSATION_ID), any(), any()))
             .thenReturn(List.of());
 
         // When & Then - 不应抛出异常
@@ -238,7 +238,7 @@ class CachedSuggestionServiceTest {
         when(sessionRepository.findByConversationId(CONVERSATION_ID))
             .thenReturn(Optional.of(session));
 
-        when(conversationRepository.findByConversationIdOrderByCreatedAtDesc(eq(CONVERSATION_ID), any()))
+        when(conversationRepository.findByConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(eq(CONVERSATION_ID), any(), any()))
             .thenReturn(List.of(conversation));
 
         when(sessionRepository.save(any(AiSessionEntity.class)))
@@ -0,0 +1,212 @@
+package com.github.zavier.ai.service;
+
+import com.alibaba.ttl.threadpool.TtlExecutors;
+import com.github.zavier.ai.context.AiTurnReadContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("模型路由测试")
+class RoutingChatModelTest {
+
+    private ExecutorService executor;
+
+    private StubChatModel primary;
+    private StubChatModel secondary;
+    private ModelHealth primaryHealth;
+    private ModelHealth secondaryHealth;
+
+    @BeforeEach
+    void setUp() {
+        executor = TtlExecutors.getTtlExecutorService(Executors.newCachedThreadPool());
+        primary = new StubChatModel("primary");
+        secondary = new StubChatModel("secondary");
+        primaryHealth = new ModelHealth("primary", 128, 2, 60_000);
+        secondaryHealth = new ModelHealth("secondary", 128, 2, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        RoutingChatModel.takeLastRoute();
+        AiTurnReadContext.close();
+    }
+
+    @Test
+    @DisplayName("首选模型正常时只调用首选模型")
+    void testPrimaryOnly() {
+        RoutingChatModel router = router(new RoutingChatModel.Settings(true, 200, 200, 5_000));
+
+        assertEquals("primary", text(router.call(new Prompt("你好"))));
+        assertEquals(0, secondary.calls.get());
+        assertTrue(RoutingChatModel.takeLastRoute().startsWith("call:primary -> win:primary"));
+    }
+
+    @Test
+    @DisplayName("首选模型超过对冲延迟未返回时发出对冲请求，先返回的胜出并取消另一个")
+    void testHedge() throws InterruptedException {
+        primary.latencyMs = 3_000;
+        secondary.latencyMs = 50;
+        RoutingChatModel router = router(new RoutingChatModel.Settings(true, 200, 200, 5_000));
+
+        long start = System.currentTimeMillis();
+        assertEquals("secondary", text(router.call(new Prompt("你好"))));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed < 2_000, "应在对冲请求返回后立即结束, elapsed=" + elapsed);
+        String route = RoutingChatModel.takeLastRoute();
+        assertTrue(route.contains("hedge:secondary@200ms"), route);
+        assertTrue(route.contains("win:secondary"), route);
+        assertTrue(route.contains("cancel:primary"), route);
+        assertTrue(primary.interrupted.await(1, TimeUnit.SECONDS), "落败的请求应被取消");
+    }
+
+    @Test
+    @DisplayName("对冲延迟取首选模型最近耗时的p95")
+    void testHedgeDelayFollowsP95() {
+        for (int i = 0; i < 20; i++) {
+            primaryHealth.recordSuccess(i < 19 ? 100 : 5_000);
+        }
+        primary.latencyMs = 600;
+        secondary.latencyMs = 10;
+        RoutingChatModel router = router(new RoutingChatModel.Settings(true, 50, 10_000, 5_000));
+
+        assertEquals("secondary", text(router.call(new Prompt("你好"))));
+        String route = RoutingChatModel.takeLastRoute();
+        assertTrue(route.contains("hedge:secondary@100ms"), "p95应忽略偶发的慢请求: " + route);
+    }
+
+    @Test
+    @DisplayName("首选模型失败时转移到备用模型")
+    void testFailover() {
+        primary.error = new RuntimeException("503");
+        RoutingChatModel router = router(new RoutingChatModel.Settings(false, 200, 200, 5_000));
+
+        assertEquals("secondary", text(router.call(new Prompt("你好"))));
+        String route = RoutingChatModel.takeLastRoute();
+        assertTrue(route.contains("fail:primary -> failover:secondary -> win:secondary"), route);
+    }
+
+    @Test
+    @DisplayName("连续失败达到阈值后熔断，之后直接使用备用模型")
+    void testCircuitBreaker() {
+        primary.error = new RuntimeException("503");
+        RoutingChatModel router = router(new RoutingChatModel.Settings(false, 200, 200, 5_000));
+
+        router.call(new Prompt("1"));
+        router.call(new Prompt("2"));
+        assertTrue(primaryHealth.isOpen());
+
+        router.call(new Prompt("3"));
+        assertEquals(2, primary.calls.get(), "熔断后不再调用首选模型");
+        assertTrue(RoutingChatModel.takeLastRoute().startsWith("call:secondary"));
+    }
+
+    @Test
+    @DisplayName("超过整体截止时间时取消请求并抛出异常")
+    void testDeadline() {
+        primary.latencyMs = 3_000;
+        secondary.latencyMs = 3_000;
+        RoutingChatModel router = router(new RoutingChatModel.Settings(true, 100, 100, 500));
+
+        long start = System.currentTimeMillis();
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> router.call(new Prompt("你好")));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals("AI模型响应超时", e.getMessage());
+        assertTrue(elapsed < 1_500, "elapsed=" + elapsed);
+        assertTrue(RoutingChatModel.takeLastRoute().endsWith("deadline:500ms"));
+    }
+
+    @Test
+    @DisplayName("全部模型失败时抛出异常")
+    void testAllFailed() {
+        primary.error = new RuntimeException("503");
+        secondary.error = new RuntimeException("429");
+        RoutingChatModel router = router(new RoutingChatModel.Settings(true, 200, 200, 5_000));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> router.call(new Prompt("你好")));
+        assertEquals("AI模型调用失败", e.getMessage());
+        assertEquals("429", e.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("带工具的请求不对冲，已执行写工具后不再故障转移")
+    void testToolPromptNotHedged() {
+        Prompt toolPrompt = new Prompt("加一笔100元", ToolCallingChatOptions.builder().toolNames("addExpense").build());
+        primary.latencyMs = 500;
+        RoutingChatModel router = router(new RoutingChatModel.Settings(true, 50, 50, 5_000));
+
+        assertEquals("primary", text(router.call(toolPrompt)));
+        assertEquals(0, secondary.calls.get());
+
+        AiTurnReadContext.open();
+        primary.latencyMs = 0;
+        primary.error = new RuntimeException("连接断开");
+        primary.onCall = () -> AiTurnReadContext.recordToolCall("addExpense(周末聚餐)", true);
+        assertThrows(IllegalStateException.class, () -> router.call(toolPrompt));
+        assertEquals(0, secondary.calls.get());
+        assertTrue(RoutingChatModel.takeLastRoute().contains("no-failover:wrote"));
+    }
+
+    private RoutingChatModel router(RoutingChatModel.Settings settings) {
+        return new RoutingChatModel(List.of(
+                new RoutingChatModel.Candidate(primary, primaryHealth),
+                new RoutingChatModel.Candidate(secondary, secondaryHealth)), settings, executor);
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+
+    /**
+     * 可注入耗时和异常的模型
+     */
+    private static class StubChatModel implements ChatModel {
+
+        private final String reply;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private volatile long latencyMs;
+        private volatile RuntimeException error;
+        private volatile Runnable onCall;
+
+        StubChatModel(String reply) {
+            this.reply = reply;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            calls.incrementAndGet();
+            if (onCall != null) {
+                onCall.run();
+            }
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException("cancelled", e);
+            }
+            if (error != null) {
+                throw error;
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(reply))));
+        }
+    }
+}
@@ -5,25 +5,35 @@ import com.alibaba.cola.dto.PageResponse;
 import com.alibaba.cola.dto.Response;
 import com.alibaba.cola.dto.SingleResponse;
 import com.alibaba.cola.exception.Assert;
+import com.alibaba.cola.exception.BizException;
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.read.builder.ExcelReaderBuilder;
+import com.alibaba.excel.support.ExcelTypeEnum;
 import com.github.zavier.domain.expense.ExpenseProject;
 import com.github.zavier.domain.expense.ExpenseRecord;
-import com.github.zavier.domain.expense.ProjectSharingFee;
 import com.github.zavier.domain.expense.domainservice.ExpenseRecordValidator;
 import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.domain.expense.gateway.ExpenseSearchGateway;
+import com.github.zavier.domain.expense.gateway.ProjectSummaryGateway;
 import com.github.zavier.dto.*;
 import com.github.zavier.dto.data.*;
 import com.github.zavier.dto.data.statistics.PieStatisticsDTO;
 import com.github.zavier.project.executor.bo.ExpenseRecordExcelBO;
 import com.github.zavier.project.executor.converter.ExpenseProjectAssembler;
+import com.github.zavier.project.executor.listener.ExpenseRecordImportListener;
 import com.github.zavier.utils.FreemarkerUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.Resource;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -31,26 +41,93 @@ import java.util.stream.Collectors;
 @CatchAndLog
 public class ExpenseApplicationService {
 
+    /**
+     * 单次批量操作的最大记录数
+     */
+    private static final int MAX_BATCH_SIZE = 200;
+
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_SEARCH_KEYWORD_LENGTH = 30;
+
+    private static final int DASHBOARD_TOP_CATEGORIES = 5;
+    private static final int DASHBOARD_RECENT_RECORDS = 10;
+
     @Resource
     private ExpenseProjectGateway expenseProjectGateway;
 
     @Resource
     private ExpenseRecordValidator expenseRecordValidator;
 
+    @Resource
+    private ProjectNameIndex projectNameIndex;
+
+    @Resource
+    private ProjectWriteQueue projectWriteQueue;
+
+    @Resource
+    private ProjectViewProjector projectViewProjector;
+
+    @Resource
+    private ExpenseSearchGateway expenseSearchGateway;
+
+    @Resource
+    private ProjectSummaryGateway projectSummaryGateway;
+
     // ==================== 项目操作 ====================
 
     public SingleResponse<Integer> createProject(ProjectAddCmd projectAddCmd) {
         final ExpenseProject expenseProject = ExpenseProjectAssembler.toExpenseProject(projectAddCmd);
         expenseProjectGateway.save(expenseProject);
+        projectNameIndex.invalidate(expenseProject.getCreateUserId());
         return SingleResponse.of(expenseProject.getId());
     }
 
+    public Response renameProject(ProjectRenameCmd cmd) {
+        Assert.notNull(cmd.getProjectId(), "项目ID不能为空");
+        Assert.notNull(cmd.getOperatorId(), "操作人ID不能为空");
+
+        final ExpenseProject expenseProject = getAuthorizedProject(cmd.getProjectId(), cmd.getOperatorId());
+        expenseProject.checkNotLocked();
+        expenseProject.setName(cmd.getProjectName());
+        if (cmd.getProjectDesc() != null) {
+            expenseProject.setDescription(cmd.getProjectDesc());
+        }
+        expenseProject.checkProjectNameValid();
+        expenseProjectGateway.save(expenseProject);
+        projectNameIndex.invalidate(expenseProject.getCreateUserId());
+        return Response.buildSuccess();
+    }
+
     public Response deleteProject(Integer projectId, Integer operatorId) {
         Assert.notNull(projectId, "项目ID不能为空");
         Assert.notNull(operatorId, "操作人ID不能为空");
 
         final ExpenseProject expenseProject = getAuthorizedProject(projectId, operatorId);
         expenseProjectGateway.delete(projectId);
+        projectNameIndex.invalidate(expenseProject.getCreateUserId());
+        return Response.buildSuccess();
+    }
+
+    /**
+     * 锁定项目：锁定后不能再修改成员和费用记录，查询改为读取锁定时写入的冻结快照
+     */
+    public Response lockProject(ProjectLockCmd cmd) {
+        Assert.notNull(cmd.getProjectId(), "项目ID不能为空");
+        Assert.notNull(cmd.getOperatorId(), "操作人ID不能为空");
+
+        projectWriteQueue.execute(cmd.getProjectId(), expenseProject -> {
+            checkAuthorized(expenseProject, cmd.getOperatorId());
+            expenseProject.lock();
+            // 快照中的结算结果是最终结果，算不出来时不允许锁定
+            try {
+                expenseProject.calcMemberSharingFee();
+            } catch (RuntimeException e) {
+                log.warn("锁定项目时结算计算失败, projectId={}", cmd.getProjectId(), e);
+                throw new BizException("结算计算失败，不能锁定");
+            }
+            return null;
+        });
         return Response.buildSuccess();
     }
 
@@ -62,24 +139,24 @@ public class ExpenseApplicationService {
             Assert.isTrue(StringUtils.isNotBlank(it), "成员信息不能为空");
         });
 
-        final ExpenseProject expenseProject = getAuthorizedProject(cmd.getProjectId(), cmd.getOperatorId());
-        cmd.getMembers().forEach(expenseProject::addMember);
-        expenseProjectGateway.save(expenseProject);
+        projectWriteQueue.execute(cmd.getProjectId(), expenseProject -> {
+            checkAuthorized(expenseProject, cmd.getOperatorId());
+            expenseProject.checkNotLocked();
+            cmd.getMembers().forEach(expenseProject::addMember);
+            return null;
+        });
         return Response.buildSuccess();
     }
 
     public SingleResponse<List<ExpenseProjectMemberDTO>> listProjectMember(ProjectMemberListQry qry) {
         Assert.notNull(qry.getProjectId(), "项目ID不能为空");
-        final Optional<ExpenseProject> projectById = expenseProjectGateway.getProjectById(qry.getProjectId());
-        Assert.isTrue(projectById.isPresent(), "项目不存在");
-        final ExpenseProject expenseProject = projectById.get();
+        final ProjectViewDTO view = projectViewProjector.getView(qry.getProjectId());
 
-        if (!expenseProject.isOwnedBy(qry.getOperatorId())) {
+        if (!Objects.equals(view.getCreateUserId(), qry.getOperatorId())) {
             return SingleResponse.of(Collections.emptyList());
         }
 
-        final List<ExpenseProjectMemberDTO> collect = ExpenseProjectAssembler.toMemberDTOList(expenseProject);
-        return SingleResponse.of(collect);
+        return SingleResponse.of(view.getMembers());
     }
 
     public PageResponse<ProjectDTO> pageProject(ProjectListQry projectListQry) {
@@ -94,35 +171,141 @@ public class ExpenseApplicationService {
             projectDTO.setProjectDesc(it.getDescription());
             projectDTO.setTotalMember(it.totalMember());
             projectDTO.setTotalExpense(it.totalExpense());
+            projectDTO.setVersion(it.getVersion());
             return projectDTO;
         }).collect(Collectors.toList());
 
         return PageResponse.of(projectDTOList, projectPageResponse.getTotalCount(), projectPageResponse.getPageSize(), projectPageResponse.getPageIndex());
     }
 
+    /**
+     * 查询项目当前版本号，只查项目表；项目的成员或费用记录每次变更都会使版本号递增
+     */
+    public SingleResponse<Integer> getProjectVersion(Integer projectId, Integer operatorId) {
+        Assert.notNull(projectId, "项目ID不能为空");
+        final Optional<ExpenseProject> projectOpt = expenseProjectGateway.getProjectHeaderById(projectId);
+        Assert.isTrue(projectOpt.isPresent(), "项目不存在");
+        Assert.isTrue(projectOpt.get().isOwnedBy(operatorId), "无权限");
+        return SingleResponse.of(projectOpt.get().getVersion());
+    }
+
+    /**
+     * 按名称模糊搜索当前用户的项目，只查名称索引，不加载项目聚合
+     */
+    public SingleResponse<List<ProjectNameCandidateDTO>> searchProjectByName(Integer operatorId, String keyword, int limit) {
+        Assert.notNull(operatorId, "操作人ID不能为空");
+        Assert.isTrue(StringUtils.isNotBlank(keyword), "项目名称不能为空");
+        Assert.isTrue(limit > 0, "候选数量必须大于0");
+
+        return SingleResponse.of(projectNameIndex.search(operatorId, keyword, limit, 0.3));
+    }
+
+    /**
+     * 当前用户创建的所有项目的首页汇总，只读项目汇总表，不加载聚合，耗时与费用记录数无关
+     * <p>
+     * 汇总随项目保存更新；上线前已有的项目由 {@link ProjectSummaryMigrator} 补建。
+     */
+    public SingleResponse<UserDashboardDTO> getUserDashboard(Integer operatorId) {
+        Assert.notNull(operatorId, "操作人ID不能为空");
+
+        final List<ProjectSummaryDTO> summaries = projectSummaryGateway.listSummaries(operatorId);
+        final UserDashboardDTO dashboard = new UserDashboardDTO();
+        dashboard.setProjectCount(summaries.size());
+        dashboard.setRecordCount(summaries.stream().mapToLong(ProjectSummaryDTO::getRecordCount).sum());
+        dashboard.setTotalAmount(summaries.stream().map(ProjectSummaryDTO::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        dashboard.setUnsettledAmount(summaries.stream().map(ProjectSummaryDTO::getUnsettledAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        dashboard.setProjects(summaries);
+        dashboard.setTopCategories(projectSummaryGateway.sumCategories(operatorId, DASHBOARD_TOP_CATEGORIES));
+        dashboard.setRecentRecords(projectSummaryGateway.listRecentRecords(operatorId, DASHBOARD_RECENT_RECORDS));
+        return SingleResponse.of(dashboard);
+    }
+
     // ==================== 费用记录操作 ====================
 
+    /**
+     * 在当前用户创建的所有项目中按备注和费用类型搜索费用记录，返回全部匹配记录的汇总和最近的明细，
+     * 直接查询记录表，不加载项目聚合
+     */
+    public SingleResponse<ExpenseSearchResultDTO> searchExpenseRecords(ExpenseSearchQry qry) {
+        Assert.notNull(qry.getOperatorId(), "操作人ID不能为空");
+        Assert.isTrue(StringUtils.isNotBlank(qry.getKeyword()), "搜索关键字不能为空");
+        final String keyword = qry.getKeyword().trim();
+        Assert.isTrue(keyword.length() <= MAX_SEARCH_KEYWORD_LENGTH, "搜索关键字不能超过" + MAX_SEARCH_KEYWORD_LENGTH + "个字");
+        final int limit = qry.getLimit() == null || qry.getLimit() <= 0
+                ? DEFAULT_SEARCH_LIMIT
+                : Math.min(qry.getLimit(), MAX_SEARCH_LIMIT);
+
+        final List<ExpenseSearchGroupDTO> groups = expenseSearchGateway.sumMatches(qry.getOperatorId(), keyword);
+
+        final ExpenseSearchResultDTO result = new ExpenseSearchResultDTO();
+        result.setKeyword(keyword);
+        result.setRecordCount(groups.stream().mapToLong(ExpenseSearchGroupDTO::getRecordCount).sum());
+        result.setTotalAmount(groups.stream().map(ExpenseSearchGroupDTO::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        result.setProjects(mergeSearchGroups(groups, ExpenseSearchGroupDTO::getProjectId, group -> {
+            final ExpenseSearchGroupDTO merged = new ExpenseSearchGroupDTO();
+            merged.setProjectId(group.getProjectId());
+            merged.setProjectName(group.getProjectName());
+            return merged;
+        }));
+        result.setExpenseTypes(mergeSearchGroups(groups, ExpenseSearchGroupDTO::getExpenseType, group -> {
+            final ExpenseSearchGroupDTO merged = new ExpenseSearchGroupDTO();
+            merged.setExpenseType(group.getExpenseType());
+            return merged;
+        }));
+        if (result.getRecordCount() > 0) {
+            result.setRecords(expenseSearchGateway.listRecentMatches(qry.getOperatorId(), keyword, limit));
+        }
+        return SingleResponse.of(result);
+    }
+
+    /**
+     * 按 key 合并项目×费用类型的分组，金额倒序
+     */
+    private static List<ExpenseSearchGroupDTO> mergeSearchGroups(List<ExpenseSearchGroupDTO> groups,
+                                                                 Function<ExpenseSearchGroupDTO, Object> key,
+                                                                 Function<ExpenseSearchGroupDTO, ExpenseSearchGroupDTO> creator) {
+        final Map<Object, ExpenseSearchGroupDTO> merged = new LinkedHashMap<>();
+        for (ExpenseSearchGroupDTO group : groups) {
+            final ExpenseSearchGroupDTO target = merged.computeIfAbsent(key.apply(group), k -> {
+                final ExpenseSearchGroupDTO created = creator.apply(group);
+                created.setRecordCount(0L);
+                created.setTotalAmount(BigDecimal.ZERO);
+                return created;
+            });
+            target.setRecordCount(target.getRecordCount() + group.getRecordCount());
+            target.setTotalAmount(target.getTotalAmount().add(group.getTotalAmount()));
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparing(ExpenseSearchGroupDTO::getTotalAmount).reversed())
+                .collect(Collectors.toList());
+    }
+
     public Response addExpenseRecord(ExpenseRecordAddCmd cmd) {
         log.info("expenseRecordAddCmd: {}", cmd);
-        expenseRecordValidator.valid(cmd);
-
-        final ExpenseProject expenseProject = getAuthorizedProject(cmd.getProjectId(), cmd.getOperatorId());
+        Assert.notNull(cmd.getProjectId(), "项目ID不能为空");
 
-        final ExpenseRecord expenseRecord = ExpenseProjectAssembler.toExpenseRecord(cmd);
-        expenseProject.addExpenseRecord(expenseRecord);
-        expenseProjectGateway.save(expenseProject);
+        // 同一项目的并发写入排队合并保存，校验基于队列中加载的最新聚合
+        projectWriteQueue.execute(cmd.getProjectId(), expenseProject -> {
+            expenseRecordValidator.valid(cmd, expenseProject);
+            checkAuthorized(expenseProject, cmd.getOperatorId());
+            expenseProject.checkNotLocked();
+            expenseProject.addExpenseRecord(ExpenseProjectAssembler.toExpenseRecord(cmd));
+            return null;
+        });
         return Response.buildSuccess();
     }
 
     public Response updateExpenseRecord(ExpenseRecordUpdateCmd cmd) {
         log.info("expenseRecordUpdateCmd: {}", cmd);
-        expenseRecordValidator.valid(cmd);
-
-        final ExpenseProject expenseProject = getAuthorizedProject(cmd.getProjectId(), cmd.getOperatorId());
+        Assert.notNull(cmd.getProjectId(), "项目ID不能为空");
 
-        final ExpenseRecord expenseRecord = ExpenseProjectAssembler.toExpenseRecord(cmd);
-        expenseProject.updateExpenseRecord(expenseRecord);
-        expenseProjectGateway.save(expenseProject);
+        projectWriteQueue.execute(cmd.getProjectId(), expenseProject -> {
+            expenseRecordValidator.valid(cmd, expenseProject);
+            checkAuthorized(expenseProject, cmd.getOperatorId());
+            expenseProject.checkNotLocked();
+            expenseProject.updateExpenseRecord(ExpenseProjectAssembler.toExpenseRecord(cmd));
+            return null;
+        });
         return Response.buildSuccess();
     }
 
@@ -132,52 +315,122 @@ public class ExpenseApplicationService {
         Assert.notNull(cmd.getRecordId(), "记录id不能为空");
         Assert.notNull(cmd.getOperatorId(), "操作人不能为空");
 
-        final ExpenseProject expenseProject = getAuthorizedProject(cmd.getProjectId(), cmd.getOperatorId());
-
-        expenseProject.removeRecord(cmd.getRecordId());
-        expenseProjectGateway.save(expenseProject);
+        projectWriteQueue.execute(cmd.getProjectId(), expenseProject -> {
+            checkAuthorized(expenseProject, cmd.getOperatorId());
+            expenseProject.checkNotLocked();
+            expenseProject.removeRecord(cmd.getRecordId());
+            return null;
+        });
         return Response.buildSuccess();
     }
 
-    public SingleResponse<List<ExpenseRecordDTO>> listRecord(ExpenseRecordQry qry) {
-        final Integer projectId = qry.getProjectId();
+    /**
+     * 从 Excel/CSV 批量导入费用记录，列格式与导出文件一致。
+     * 先基于已加载的聚合流式校验整个文件；任意一行校验失败时整批不落库，返回逐行错误。
+     * 全部通过后经项目写队列挂到最新的聚合上保存一次，与同一项目的并发写入排队，版本冲突时重新执行。
+     */
+    public SingleResponse<ExpenseRecordImportResultDTO> importExpenseRecords(Integer projectId, Integer operatorId,
+                                                                             InputStream inputStream, String fileName) {
+        Assert.notNull(projectId, "项目ID不能为空");
+        Assert.notNull(operatorId, "操作人ID不能为空");
+        Assert.notNull(inputStream, "导入文件不能为空");
 
-        final Optional<ExpenseProject> projectOpt = expenseProjectGateway.getProjectById(projectId);
-        Assert.isTrue(projectOpt.isPresent(), "项目不存在");
+        final ExpenseProject expenseProject = getAuthorizedProject(projectId, operatorId);
+        expenseProject.checkNotLocked();
+
+        final ExpenseRecordImportListener listener = new ExpenseRecordImportListener(expenseProject, expenseRecordValidator, operatorId);
+        final ExcelReaderBuilder readerBuilder = EasyExcel.read(inputStream, ExpenseRecordExcelBO.class, listener);
+        if (StringUtils.endsWithIgnoreCase(fileName, ".csv")) {
+            readerBuilder.excelType(ExcelTypeEnum.CSV).charset(StandardCharsets.UTF_8);
+        }
+        readerBuilder.sheet().doRead();
+
+        if (!listener.hasError()) {
+            final List<ExpenseRecordAddCmd> records = listener.getValidRecords();
+            projectWriteQueue.execute(projectId, latestProject -> {
+                checkAuthorized(latestProject, operatorId);
+                latestProject.checkNotLocked();
+                // 校验之后项目可能被修改过，按最新的聚合重新校验
+                records.forEach(cmd -> {
+                    expenseRecordValidator.valid(cmd, latestProject);
+                    latestProject.addExpenseRecord(ExpenseProjectAssembler.toExpenseRecord(cmd));
+                });
+                return null;
+            });
+        }
+        return SingleResponse.of(listener.getResult());
+    }
 
-        if (!projectOpt.get().isOwnedBy(qry.getOperatorId())) {
+    public SingleResponse<List<ExpenseRecordDTO>> listRecord(ExpenseRecordQry qry) {
+        final ProjectViewDTO view = projectViewProjector.getView(qry.getProjectId());
+
+        if (!Objects.equals(view.getCreateUserId(), qry.getOperatorId())) {
             return SingleResponse.of(Collections.emptyList());
         }
 
-        final List<ExpenseRecordDTO> collect = projectOpt.get().listAllExpenseRecord().stream()
-                .map(ExpenseProjectAssembler::toRecordDTO)
-                .collect(Collectors.toList());
-        return SingleResponse.of(collect);
+        return SingleResponse.of(view.getRecords());
+    }
+
+    // ==================== 批量费用记录操作 ====================
+
+    public SingleResponse<ExpenseRecordBatchResultDTO> batchAddExpenseRecord(ExpenseRecordBatchAddCmd cmd) {
+        log.info("expenseRecordBatchAddCmd: projectId:{}, size:{}", cmd.getProjectId(), cmd.getRecords().size());
+        return executeRecordBatch(cmd.getProjectId(), cmd.getOperatorId(), cmd.getVersion(), cmd.getRecords(),
+                (expenseProject, item) -> {
+                    final ExpenseRecordAddCmd itemCmd = ExpenseProjectAssembler.toItemCmd(item, expenseProject.getId(), cmd.getOperatorId());
+                    expenseRecordValidator.valid(itemCmd, expenseProject);
+                    final ExpenseRecord expenseRecord = ExpenseProjectAssembler.toExpenseRecord(itemCmd);
+                    expenseProject.addExpenseRecord(expenseRecord);
+                    return expenseRecord;
+                });
+    }
+
+    public SingleResponse<ExpenseRecordBatchResultDTO> batchUpdateExpenseRecord(ExpenseRecordBatchUpdateCmd cmd) {
+        log.info("expenseRecordBatchUpdateCmd: projectId:{}, size:{}", cmd.getProjectId(), cmd.getRecords().size());
+        return executeRecordBatch(cmd.getProjectId(), cmd.getOperatorId(), cmd.getVersion(), cmd.getRecords(),
+                (expenseProject, item) -> {
+                    final ExpenseRecordUpdateCmd itemCmd = ExpenseProjectAssembler.toItemCmd(item, expenseProject.getId(), cmd.getOperatorId());
+                    expenseRecordValidator.valid(itemCmd, expenseProject);
+                    final ExpenseRecord expenseRecord = ExpenseProjectAssembler.toExpenseRecord(itemCmd);
+                    expenseProject.updateExpenseRecord(expenseRecord);
+                    return findRecord(expenseProject, item.getRecordId());
+                });
+    }
+
+    public SingleResponse<ExpenseRecordBatchResultDTO> batchDeleteExpenseRecord(ExpenseRecordBatchDeleteCmd cmd) {
+        log.info("expenseRecordBatchDeleteCmd: {}", cmd);
+        return executeRecordBatch(cmd.getProjectId(), cmd.getOperatorId(), cmd.getVersion(), cmd.getRecordIds(),
+                (expenseProject, recordId) -> {
+                    Assert.notNull(recordId, "记录id不能为空");
+                    final ExpenseRecord expenseRecord = findRecord(expenseProject, recordId);
+                    expenseProject.removeRecord(recordId);
+                    return expenseRecord;
+                });
     }
 
     // ==================== 结算与导出 ====================
 
     public SingleResponse<List<UserSharingDTO>> getProjectSharingDetail(ProjectSharingQry qry) {
         Assert.notNull(qry.getProjectId(), "项目ID不能为空");
-        final Optional<ExpenseProject> projectOptional = expenseProjectGateway.getProjectById(qry.getProjectId());
-        Assert.isTrue(projectOptional.isPresent(), "项目不存在");
-        final ExpenseProject expenseProject = projectOptional.get();
+        final ProjectViewDTO view = projectViewProjector.getView(qry.getProjectId());
 
-        Assert.isTrue(Objects.equals(expenseProject.getCreateUserId(), qry.getOperatorId()), "没有权限查看");
+        Assert.isTrue(Objects.equals(view.getCreateUserId(), qry.getOperatorId()), "没有权限查看");
 
-        final ProjectSharingFee projectSharingFee = expenseProject.calcMemberSharingFee();
-        final List<UserSharingDTO> sharingDTOList = ExpenseProjectAssembler.toSharingDTOList(projectSharingFee);
-        return SingleResponse.of(sharingDTOList);
+        if (view.getSharing() != null) {
+            return SingleResponse.of(view.getSharing());
+        }
+        // 读模型中的结算计算失败过，从聚合重新计算，保持原有的报错
+        final ExpenseProject expenseProject = getAuthorizedProject(qry.getProjectId(), qry.getOperatorId());
+        return SingleResponse.of(ExpenseProjectAssembler.toSharingDTOList(expenseProject.calcMemberSharingFee()));
     }
 
     public SingleResponse<List<ExpenseRecordExcelBO>> exportRecords(Integer projectId, Integer operatorId) {
-        final ExpenseProject expenseProject = getAuthorizedProject(projectId, operatorId);
+        final ProjectViewDTO view = getAuthorizedView(projectId, operatorId);
 
-        final List<ExpenseRecord> expenseRecords = expenseProject.listAllExpenseRecord();
-        final List<ExpenseRecordExcelBO> collect = expenseRecords.stream()
+        final List<ExpenseRecordExcelBO> collect = view.getRecords().stream()
                 .map(ExpenseProjectAssembler::toExcelBO)
                 .map(it -> {
-                    it.setProjectName(expenseProject.getName());
+                    it.setProjectName(view.getProjectName());
                     return it;
                 })
                 .collect(Collectors.toList());
@@ -187,10 +440,9 @@ public class ExpenseApplicationService {
     // ==================== 统计 ====================
 
     public SingleResponse<String> statisticsByExpenseType(Integer projectId, Integer operatorId) {
-        final ExpenseProject project = getAuthorizedProject(projectId, operatorId);
+        final ProjectViewDTO view = getAuthorizedView(projectId, operatorId);
 
-        final List<ExpenseRecord> expenseRecords = project.listAllExpenseRecord();
-        final String result = parsePieEChartConfig(expenseRecords);
+        final String result = parsePieEChartConfig(view.getRecords());
         return SingleResponse.of(result);
     }
 
@@ -203,13 +455,127 @@ public class ExpenseApplicationService {
         final Optional<ExpenseProject> projectOpt = expenseProjectGateway.getProjectById(projectId);
         Assert.isTrue(projectOpt.isPresent(), "项目不存在");
         final ExpenseProject expenseProject = projectOpt.get();
-        Assert.isTrue(expenseProject.isOwnedBy(operatorId), "无权限");
+        checkAuthorized(expenseProject, operatorId);
         return expenseProject;
     }
 
-    private static String parsePieEChartConfig(List<ExpenseRecord> expenseRecords) {
+    /**
+     * 读取项目读模型并校验权限，只读查询使用，不加载聚合
+     */
+    private ProjectViewDTO getAuthorizedView(Integer projectId, Integer operatorId) {
+        final ProjectViewDTO view = projectViewProjector.getView(projectId);
+        Assert.isTrue(Objects.equals(view.getCreateUserId(), operatorId), "无权限");
+        return view;
+    }
+
+    private static void checkAuthorized(ExpenseProject expenseProject, Integer operatorId) {
+        Assert.isTrue(expenseProject.isOwnedBy(operatorId), "无权限");
+    }
+
+    /**
+     * 在同一个聚合上依次执行批量操作，逐项记录结果；全部成功才保存一次，任意一项失败则整批放弃。
+     * 经项目写队列执行，与同一项目的其他写命令排队；未指定版本号时版本冲突后在最新的聚合上重新执行，
+     * 指定了版本号时以客户端看到的版本为准，项目已被修改则整批拒绝。
+     */
+    private <T> SingleResponse<ExpenseRecordBatchResultDTO> executeRecordBatch(Integer projectId, Integer operatorId, Integer expectedVersion,
+                                                                               List<T> items, BiFunction<ExpenseProject, T, ExpenseRecord> action) {
+        Assert.notNull(projectId, "项目ID不能为空");
+        Assert.notNull(operatorId, "操作人ID不能为空");
+        Assert.notEmpty(items, "批量操作的记录不能为空");
+        Assert.isTrue(items.size() <= MAX_BATCH_SIZE, "单次批量操作不能超过" + MAX_BATCH_SIZE + "条");
+
+        final BatchOutcome outcome;
+        try {
+            outcome = projectWriteQueue.execute(projectId, expenseProject -> {
+                checkAuthorized(expenseProject, operatorId);
+                expenseProject.checkNotLocked();
+                Assert.isTrue(expectedVersion == null || Objects.equals(expectedVersion, expenseProject.getVersion()),
+                        "项目已被修改，请刷新后重试");
+                return applyRecordBatch(expenseProject, items, action);
+            });
+        } catch (BatchRejectedException e) {
+            return SingleResponse.of(e.result);
+        }
+
+        // 保存后记录ID会重新生成，此时回填才是最新的ID
+        final List<ExpenseRecordBatchItemDTO> itemResults = outcome.result().getItems();
+        for (int i = 0; i < itemResults.size(); i++) {
+            itemResults.get(i).setRecordId(outcome.affectedRecords().get(i).getId());
+        }
+        outcome.result().setVersion(outcome.expenseProject().getVersion());
+        return SingleResponse.of(outcome.result());
+    }
+
+    /**
+     * 在聚合上依次执行批量操作
+     *
+     * @throws BatchRejectedException 有失败项时抛出，让写队列放弃已修改了一部分的聚合
+     */
+    private <T> BatchOutcome applyRecordBatch(ExpenseProject expenseProject, List<T> items,
+                                              BiFunction<ExpenseProject, T, ExpenseRecord> action) {
+        final List<ExpenseRecord> affectedRecords = new ArrayList<>(items.size());
+        final List<ExpenseRecordBatchItemDTO> itemResults = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            final ExpenseRecordBatchItemDTO itemResult = new ExpenseRecordBatchItemDTO();
+            itemResult.setIndex(i);
+            try {
+                Assert.notNull(items.get(i), "记录不能为空");
+                affectedRecords.add(action.apply(expenseProject, items.get(i)));
+                itemResult.setSuccess(true);
+            } catch (BizException e) {
+                affectedRecords.add(null);
+                itemResult.setSuccess(false);
+                itemResult.setMessage(e.getMessage());
+            } catch (RuntimeException e) {
+                // 格式异常的单项也逐项报告，不中断整批
+                log.warn("批量操作单项处理失败, projectId={}, index={}", expenseProject.getId(), i, e);
+                affectedRecords.add(null);
+                itemResult.setSuccess(false);
+                itemResult.setMessage("记录格式错误");
+            }
+            itemResults.add(itemResult);
+        }
+
+        final long failCount = itemResults.stream().filter(it -> !it.getSuccess()).count();
+        final ExpenseRecordBatchResultDTO result = new ExpenseRecordBatchResultDTO();
+        result.setTotal(items.size());
+        result.setSuccessCount(items.size() - (int) failCount);
+        result.setFailCount((int) failCount);
+        result.setSaved(failCount == 0);
+        result.setVersion(expenseProject.getVersion());
+        result.setItems(itemResults);
+        if (failCount > 0) {
+            throw new BatchRejectedException(result);
+        }
+        return new BatchOutcome(expenseProject, affectedRecords, result);
+    }
+
+    private record BatchOutcome(ExpenseProject expenseProject, List<ExpenseRecord> affectedRecords,
+                                ExpenseRecordBatchResultDTO result) {
+    }
+
+    /**
+     * 批量操作有失败项，整批不保存；携带逐项结果返回给调用方
+     */
+    private static final class BatchRejectedException extends BizException {
+        private final transient ExpenseRecordBatchResultDTO result;
+
+        private BatchRejectedException(ExpenseRecordBatchResultDTO result) {
+            super("批量操作存在失败项，整批未保存");
+            this.result = result;
+        }
+    }
+
+    private static ExpenseRecord findRecord(ExpenseProject expenseProject, Integer recordId) {
+        return expenseProject.listAllExpenseRecord().stream()
+                .filter(it -> Objects.equals(it.getId(), recordId))
+                .findFirst()
+                .orElseThrow(() -> new BizException("费用明细不存在:" + recordId));
+    }
+
+    private static String parsePieEChartConfig(List<ExpenseRecordDTO> expenseRecords) {
         final Map<String, LongSummaryStatistics> map = expenseRecords.stream()
-                .collect(Collectors.groupingBy(ExpenseRecord::getExpenseType,
+                .collect(Collectors.groupingBy(ExpenseRecordDTO::getExpenseType,
                         Collectors.summarizingLong(it -> it.getAmount().multiply(BigDecimal.valueOf(100)).longValue())));
         final Long total = map.values().stream().map(LongSummaryStatistics::getSum).reduce(0L, Long::sum);
 
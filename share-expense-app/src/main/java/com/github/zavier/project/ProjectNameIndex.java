@@ -0,0 +1,201 @@
+package com.github.zavier.project;
+
+import com.github.zavier.domain.expense.ProjectCacheListener;
+import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.dto.data.ProjectNameCandidateDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 项目名称索引（按用户）
+ * <p>
+ * 只从项目表加载 (id, name) 建立字符级倒排索引，按名称查找项目时不再加载聚合。
+ * 打分规则：完全一致 1.0 → 名称包含关键字 → 关键字包含名称 → 二元组 Dice 系数与编辑距离相似度。
+ * <p>
+ * 项目创建、改名、删除时由 {@link ExpenseApplicationService} 失效对应用户的索引；
+ * 其他节点上的修改通过缓存失效通知（{@link ProjectCacheListener}）失效，过期时间只作为通知丢失时的兜底。
+ */
+@Slf4j
+@Component
+public class ProjectNameIndex implements ProjectCacheListener {
+
+    /**
+     * 索引过期时间
+     */
+    private static final long EXPIRE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    @Resource
+    private ExpenseProjectGateway expenseProjectGateway;
+
+    private final Map<Integer, UserIndex> userIndexMap = new ConcurrentHashMap<>();
+
+    /**
+     * 按名称搜索用户的项目，返回得分从高到低的候选
+     *
+     * @param userId   用户ID
+     * @param keyword  项目名称关键字
+     * @param limit    最多返回的候选数
+     * @param minScore 最低得分
+     */
+    public List<ProjectNameCandidateDTO> search(Integer userId, String keyword, int limit, double minScore) {
+        final String query = normalize(keyword);
+        if (userId == null || query.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final UserIndex userIndex = getUserIndex(userId);
+        final List<ProjectNameCandidateDTO> candidates = new ArrayList<>();
+        for (Entry entry : userIndex.candidates(query)) {
+            final double score = score(query, entry.normalizedName);
+            if (score >= minScore) {
+                candidates.add(new ProjectNameCandidateDTO(entry.projectId, entry.name, score));
+            }
+        }
+        // 同分时新项目（ID 大）优先，与原分页查询的排序保持一致
+        candidates.sort(Comparator.comparing(ProjectNameCandidateDTO::getScore).reversed()
+                .thenComparing(ProjectNameCandidateDTO::getProjectId, Comparator.reverseOrder()));
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    /**
+     * 项目创建、改名、删除后调用
+     */
+    public void invalidate(Integer userId) {
+        if (userId != null) {
+            userIndexMap.remove(userId);
+        }
+    }
+
+    @Override
+    public void evictProject(Integer projectId, Integer createUserId) {
+        invalidate(createUserId);
+    }
+
+    private UserIndex getUserIndex(Integer userId) {
+        final UserIndex existing = userIndexMap.get(userId);
+        if (existing != null && !existing.isExpired()) {
+            return existing;
+        }
+        final UserIndex userIndex = new UserIndex(expenseProjectGateway.listProjectNames(userId));
+        userIndexMap.put(userId, userIndex);
+        log.debug("[项目名称索引] 构建用户索引, userId={}, size={}", userId, userIndex.entries.size());
+        return userIndex;
+    }
+
+    static double score(String query, String name) {
+        if (name.equals(query)) {
+            return 1.0;
+        }
+        if (name.contains(query)) {
+            return 0.8 + 0.15 * query.length() / name.length();
+        }
+        if (query.contains(name)) {
+            return 0.7 + 0.15 * name.length() / query.length();
+        }
+        final double dice = diceCoefficient(bigrams(query), bigrams(name));
+        final double editSimilarity = 1.0 - (double) levenshtein(query, name) / Math.max(query.length(), name.length());
+        return 0.7 * Math.max(dice, editSimilarity);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return StringUtils.deleteWhitespace(text).toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> bigrams(String text) {
+        final Set<String> bigrams = new HashSet<>();
+        if (text.length() == 1) {
+            bigrams.add(text);
+        }
+        for (int i = 0; i + 1 < text.length(); i++) {
+            bigrams.add(text.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    private static double diceCoefficient(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int common = 0;
+        for (String gram : a) {
+            if (b.contains(gram)) {
+                common++;
+            }
+        }
+        return 2.0 * common / (a.size() + b.size());
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                final int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            final int[] tmp = previous;
+            previous = current;
+            current = tmp;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Entry {
+        private final Integer projectId;
+        private final String name;
+        private final String normalizedName;
+
+        private Entry(Integer projectId, String name) {
+            this.projectId = projectId;
+            this.name = name;
+            this.normalizedName = normalize(name);
+        }
+    }
+
+    /**
+     * 单个用户的索引：字符 → 包含该字符的项目
+     */
+    private static final class UserIndex {
+        private final List<Entry> entries = new ArrayList<>();
+        private final Map<Character, List<Entry>> charIndex = new HashMap<>();
+        private final long createdAt = System.currentTimeMillis();
+
+        private UserIndex(Map<Integer, String> projectNames) {
+            projectNames.forEach((projectId, name) -> {
+                if (StringUtils.isBlank(name)) {
+                    return;
+                }
+                final Entry entry = new Entry(projectId, name);
+                entries.add(entry);
+                entry.normalizedName.chars().distinct()
+                        .forEach(c -> charIndex.computeIfAbsent((char) c, k -> new ArrayList<>()).add(entry));
+            });
+        }
+
+        /**
+         * 与关键字至少有一个相同字符的项目
+         */
+        private Collection<Entry> candidates(String query) {
+            final Set<Entry> result = new LinkedHashSet<>();
+            query.chars().distinct().forEach(c -> result.addAll(charIndex.getOrDefault((char) c, Collections.emptyList())));
+            return result;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - createdAt > EXPIRE_MILLIS;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.zavier.project;
+
+import com.alibaba.cola.exception.BizException;
+import com.github.zavier.domain.expense.gateway.ProjectSummaryGateway;
+import com.github.zavier.dto.data.ExpenseRecordDTO;
+import com.github.zavier.dto.data.ProjectViewDTO;
+import com.github.zavier.project.executor.converter.ExpenseProjectAssembler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 上线前已有的项目补建汇总
+ * <p>
+ * 按项目ID分页遍历还没有汇总的项目，从读模型生成汇总，逐个在各自的事务中写入；与项目保存并发时按版本号取新的，可重复执行。
+ * 补建完成前这些项目不出现在首页统计中，下次保存时也会写入汇总；app.project.summary.migrate-on-startup=true 时在启动后执行一次。
+ */
+@Slf4j
+@Component
+public class ProjectSummaryMigrator implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = 200;
+
+    @Resource
+    private ProjectSummaryGateway projectSummaryGateway;
+    @Resource
+    private ProjectViewProjector projectViewProjector;
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.project.summary.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    private TransactionTemplate summaryTransaction;
+
+    @PostConstruct
+    public void init() {
+        summaryTransaction = new TransactionTemplate(transactionManager);
+        summaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup) {
+            migrateAll();
+        }
+    }
+
+    /**
+     * @return 补建的项目数
+     */
+    public int migrateAll() {
+        int migrated = 0;
+        int failed = 0;
+        Integer afterProjectId = 0;
+        List<Integer> projectIds;
+        do {
+            projectIds = projectSummaryGateway.listUnsummarizedProjectIds(afterProjectId, PAGE_SIZE);
+            for (Integer projectId : projectIds) {
+                try {
+                    migrate(projectId);
+                    migrated++;
+                } catch (BizException e) {
+                    // 项目刚被删除
+                    log.info("[项目汇总] 补建跳过, projectId={}, message={}", projectId, e.getMessage());
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.error("[项目汇总] 补建失败, projectId={}", projectId, e);
+                }
+                afterProjectId = projectId;
+            }
+        } while (projectIds.size() == PAGE_SIZE);
+        log.info("[项目汇总] 补建完成, migrated={}, failed={}", migrated, failed);
+        return migrated;
+    }
+
+    private void migrate(Integer projectId) {
+        final ProjectViewDTO view = projectViewProjector.getView(projectId);
+        // 没有变更时间，按最近一条费用记录的日期排序
+        final Long lastActivityAt = view.getRecords().stream()
+                .map(ExpenseRecordDTO::getDate)
+                .max(Long::compare)
+                .orElse(null);
+        summaryTransaction.executeWithoutResult(status ->
+                projectSummaryGateway.saveSummary(ExpenseProjectAssembler.toSummary(view, lastActivityAt)));
+    }
+}
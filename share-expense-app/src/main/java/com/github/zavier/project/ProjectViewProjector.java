@@ -0,0 +1,164 @@
+package com.github.zavier.project;
+
+import com.alibaba.cola.exception.Assert;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.ProjectCacheListener;
+import com.github.zavier.domain.expense.ProjectDeletedEvent;
+import com.github.zavier.domain.expense.ProjectSavedEvent;
+import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.domain.expense.gateway.FrozenProjectGateway;
+import com.github.zavier.domain.expense.gateway.ProjectSummaryGateway;
+import com.github.zavier.domain.expense.gateway.ProjectViewGateway;
+import com.github.zavier.domain.utils.SingleFlight;
+import com.github.zavier.domain.utils.SingleFlightOwner;
+import com.github.zavier.dto.data.ExpenseRecordDTO;
+import com.github.zavier.dto.data.ProjectViewDTO;
+import com.github.zavier.project.executor.converter.ExpenseProjectAssembler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.Resource;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 项目读模型投影
+ * <p>
+ * 查询接口（费用明细、成员、结算、导出、统计，以及调用这些接口的分享页和AI工具）只需要聚合的只读数据，
+ * 每次都重建聚合、重新计算结算没有必要。项目保存时在同一事务内把成员、费用记录和结算结果写成一个文档，
+ * 查询时按项目ID读取一行。
+ * <p>
+ * 读模型不存在时（上线前已有的项目）从聚合生成并补写，同一项目的并发补建合并为一次。
+ * <p>
+ * 已锁定的项目不会再变化：锁定时写入压缩的冻结快照并删除读模型，之后的查询都从快照读取，
+ * 读到的快照在本节点缓存，没有过期时间，只在项目删除的失效通知到达时移除。
+ * <p>
+ * 同一事务内还会更新项目汇总（记录数、金额、成员净收支、按类型汇总），供跨项目的首页统计使用。
+ */
+@Slf4j
+@Component
+public class ProjectViewProjector implements ProjectCacheListener, SingleFlightOwner {
+
+    @Resource
+    private ProjectViewGateway projectViewGateway;
+
+    @Resource
+    private FrozenProjectGateway frozenProjectGateway;
+
+    @Resource
+    private ProjectSummaryGateway projectSummaryGateway;
+
+    @Resource
+    private ExpenseProjectGateway expenseProjectGateway;
+
+    @Value("${app.project.frozen.cache-max-entries:1000}")
+    private int frozenCacheMaxEntries = 1000;
+
+    private final SingleFlight<Integer, ProjectViewDTO> backfillFlight = new SingleFlight<>("projectView");
+
+    /**
+     * 项目ID → 冻结快照
+     */
+    private final Map<Integer, ProjectViewDTO> frozenCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, ProjectViewDTO> eldest) {
+                    return size() > frozenCacheMaxEntries;
+                }
+            });
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProjectSaved(ProjectSavedEvent event) {
+        final ProjectViewDTO view = toView(event.expenseProject());
+        projectSummaryGateway.saveSummary(ExpenseProjectAssembler.toSummary(view, System.currentTimeMillis() / 1000));
+        if (Boolean.TRUE.equals(view.getLocked())) {
+            frozenProjectGateway.saveFrozenView(view);
+            projectViewGateway.deleteProjectView(view.getProjectId());
+            return;
+        }
+        projectViewGateway.saveProjectView(view);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProjectDeleted(ProjectDeletedEvent event) {
+        projectViewGateway.deleteProjectView(event.projectId());
+        frozenProjectGateway.deleteFrozenView(event.projectId());
+        projectSummaryGateway.deleteSummary(event.projectId());
+    }
+
+    @Override
+    public void evictProject(Integer projectId, Integer createUserId) {
+        frozenCache.remove(projectId);
+    }
+
+    @Override
+    public List<SingleFlight<?, ?>> singleFlights() {
+        return List.of(backfillFlight);
+    }
+
+    /**
+     * 读取项目读模型
+     *
+     * @throws com.alibaba.cola.exception.BizException 项目不存在
+     */
+    public ProjectViewDTO getView(Integer projectId) {
+        Assert.notNull(projectId, "项目ID不能为空");
+        final ProjectViewDTO cached = frozenCache.get(projectId);
+        if (cached != null) {
+            return cached;
+        }
+        final Optional<ProjectViewDTO> view = projectViewGateway.getProjectView(projectId);
+        if (view.isPresent()) {
+            return view.get();
+        }
+        // 没有读模型时项目可能已锁定，先查冻结快照，再从聚合补建
+        final Optional<ProjectViewDTO> frozen = frozenProjectGateway.getFrozenView(projectId);
+        if (frozen.isPresent()) {
+            frozenCache.put(projectId, frozen.get());
+            return frozen.get();
+        }
+        return backfillFlight.execute(projectId, () -> {
+            final Optional<ExpenseProject> projectOpt = expenseProjectGateway.getProjectById(projectId);
+            Assert.isTrue(projectOpt.isPresent(), "项目不存在");
+            final ProjectViewDTO built = toView(projectOpt.get());
+            if (Boolean.TRUE.equals(built.getLocked())) {
+                frozenProjectGateway.saveFrozenView(built);
+                log.info("[项目读模型] 补建冻结快照, projectId={}, version={}", projectId, built.getVersion());
+                return built;
+            }
+            projectViewGateway.saveProjectView(built);
+            log.info("[项目读模型] 补建读模型, projectId={}, version={}", projectId, built.getVersion());
+            return built;
+        });
+    }
+
+    public static ProjectViewDTO toView(ExpenseProject expenseProject) {
+        final ProjectViewDTO view = new ProjectViewDTO();
+        view.setProjectId(expenseProject.getId());
+        view.setProjectName(expenseProject.getName());
+        view.setCreateUserId(expenseProject.getCreateUserId());
+        view.setVersion(expenseProject.getVersion());
+        view.setLocked(expenseProject.isLocked());
+        view.setMembers(ExpenseProjectAssembler.toMemberDTOList(expenseProject));
+        // 保存后的聚合中新增记录排在最后，按支付日期排序，与重新加载的顺序一致
+        view.setRecords(expenseProject.listAllExpenseRecord().stream()
+                .map(ExpenseProjectAssembler::toRecordDTO)
+                .sorted(Comparator.comparing(ExpenseRecordDTO::getDate))
+                .collect(Collectors.toList()));
+        try {
+            view.setSharing(ExpenseProjectAssembler.toSharingDTOList(expenseProject.calcMemberSharingFee()));
+        } catch (RuntimeException e) {
+            // 结算计算失败（如历史数据不完整）不影响保存和其他查询，结算查询时再从聚合计算
+            log.warn("[项目读模型] 结算计算失败, projectId={}", expenseProject.getId(), e);
+        }
+        return view;
+    }
+}
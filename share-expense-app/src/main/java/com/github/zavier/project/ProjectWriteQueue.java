@@ -0,0 +1,235 @@
+package com.github.zavier.project;
+
+import com.alibaba.cola.exception.Assert;
+import com.alibaba.cola.exception.BizException;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 项目写命令队列
+ * <p>
+ * 项目保存时按版本号做乐观锁校验，并删除重建全部成员和费用记录。多人同时给同一个项目记账时，
+ * 各自加载、修改、保存会互相冲突，失败方重试又要再做一次整体保存。这里在单个节点内把同一项目的写命令排队：
+ * <ul>
+ *   <li>按项目ID分段加锁，同一时间只有一个线程（拿到锁的调用方）处理某个项目的写命令</li>
+ *   <li>处理时取出排队中的全部命令，加载一次聚合、依次执行、保存一次，结果分别返回给各自的调用方</li>
+ *   <li>仍与其他节点或批量操作发生版本冲突时，退避后重新加载聚合并重新执行这批命令</li>
+ * </ul>
+ * 命令可能被重复执行（冲突重试），也可能在其他调用方的线程中执行，因此命令只能修改传入的聚合，
+ * 需要的参数（如操作人）都要在提交前确定。某个命令失败时，其余命令在重新加载的聚合上重新执行，
+ * 避免失败命令改了一半的聚合被保存。
+ */
+@Slf4j
+@Component
+public class ProjectWriteQueue {
+
+    /**
+     * 单次最多合并的命令数
+     */
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final ExpenseProjectGateway expenseProjectGateway;
+
+    private final Stripe[] stripes;
+
+    private final int maxRetries;
+
+    private final long backoffMs;
+
+    /**
+     * 作用在项目聚合上的写命令
+     */
+    @FunctionalInterface
+    public interface ProjectCommand<R> {
+        R apply(ExpenseProject expenseProject);
+    }
+
+    public ProjectWriteQueue(ExpenseProjectGateway expenseProjectGateway,
+                             @Value("${app.project.write-queue.stripes:64}") int stripes,
+                             @Value("${app.project.write-queue.max-retries:5}") int maxRetries,
+                             @Value("${app.project.write-queue.backoff-ms:20}") long backoffMs) {
+        this.expenseProjectGateway = expenseProjectGateway;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.maxRetries = maxRetries;
+        this.backoffMs = backoffMs;
+    }
+
+    /**
+     * 提交写命令并等待执行完成
+     *
+     * @return 命令的返回值
+     */
+    public <R> R execute(Integer projectId, ProjectCommand<R> command) {
+        Assert.notNull(projectId, "项目ID不能为空");
+        final Pending<R> pending = new Pending<>(projectId, command);
+        final Stripe stripe = stripes[Math.floorMod(projectId.hashCode(), stripes.length)];
+        stripe.queue.add(pending);
+
+        stripe.lock.lock();
+        try {
+            // 排队期间可能已被前一个拿到锁的调用方一起处理
+            while (!pending.future.isDone()) {
+                drain(stripe);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        return join(pending.future);
+    }
+
+    private void drain(Stripe stripe) {
+        final Map<Integer, List<Pending<?>>> batches = new LinkedHashMap<>();
+        Pending<?> pending;
+        int count = 0;
+        while (count < MAX_BATCH_SIZE && (pending = stripe.queue.poll()) != null) {
+            batches.computeIfAbsent(pending.projectId, k -> new ArrayList<>()).add(pending);
+            count++;
+        }
+        batches.forEach((projectId, batch) -> {
+            try {
+                executeBatch(projectId, batch);
+            } catch (Error e) {
+                // 已取出的命令不会再被处理，必须结束它们，否则调用方会一直等待
+                batch.forEach(it -> it.future.completeExceptionally(e));
+                throw e;
+            }
+        });
+    }
+
+    private void executeBatch(Integer projectId, List<Pending<?>> batch) {
+        final List<Pending<?>> remaining = new ArrayList<>(batch);
+        int conflicts = 0;
+        while (!remaining.isEmpty()) {
+            try {
+                final Optional<ExpenseProject> projectOpt = expenseProjectGateway.getProjectById(projectId);
+                if (projectOpt.isEmpty()) {
+                    failAll(remaining, new BizException("项目不存在"));
+                    return;
+                }
+                final ExpenseProject expenseProject = projectOpt.get();
+
+                final Pending<?> failed = applyAll(expenseProject, remaining);
+                if (failed != null) {
+                    remaining.remove(failed);
+                    continue;
+                }
+
+                expenseProjectGateway.save(expenseProject);
+                remaining.forEach(Pending::complete);
+                if (batch.size() > 1 || conflicts > 0) {
+                    log.info("[项目写队列] 合并保存, projectId={}, commands={}, conflicts={}", projectId, batch.size(), conflicts);
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (!isVersionConflict(e) || ++conflicts > maxRetries) {
+                    failAll(remaining, e);
+                    return;
+                }
+                log.info("[项目写队列] 版本冲突，退避后重试, projectId={}, attempt={}", projectId, conflicts);
+                if (!backoff(conflicts)) {
+                    failAll(remaining, new BizException("项目保存被中断"));
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 依次执行命令
+     *
+     * @return 第一个失败的命令，全部成功时为null
+     */
+    private static Pending<?> applyAll(ExpenseProject expenseProject, List<Pending<?>> commands) {
+        for (Pending<?> pending : commands) {
+            try {
+                pending.apply(expenseProject);
+            } catch (RuntimeException e) {
+                pending.future.completeExceptionally(e);
+                return pending;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 指数退避加随机抖动，避免多个节点同时重试再次冲突
+     */
+    private boolean backoff(int attempt) {
+        final long base = backoffMs << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(base + ThreadLocalRandom.current().nextLong(backoffMs + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isVersionConflict(RuntimeException e) {
+        return e instanceof OptimisticLockingFailureException
+                || e instanceof BizException bizException
+                && ExpenseProjectGateway.VERSION_CONFLICT.equals(bizException.getErrCode());
+    }
+
+    private static void failAll(List<Pending<?>> commands, RuntimeException e) {
+        commands.forEach(pending -> pending.future.completeExceptionally(e));
+    }
+
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Queue<Pending<?>> queue = new ConcurrentLinkedQueue<>();
+    }
+
+    private static final class Pending<R> {
+        private final Integer projectId;
+        private final ProjectCommand<R> command;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        private R result;
+
+        private Pending(Integer projectId, ProjectCommand<R> command) {
+            this.projectId = projectId;
+            this.command = command;
+        }
+
+        private void apply(ExpenseProject expenseProject) {
+            result = command.apply(expenseProject);
+        }
+
+        private void complete() {
+            future.complete(result);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.zavier.project.executor.converter;
 
 
+import com.alibaba.cola.exception.Assert;
+import com.alibaba.cola.exception.BizException;
 import com.github.zavier.domain.expense.ExpenseProject;
 import com.github.zavier.domain.expense.ExpenseRecord;
 import com.github.zavier.domain.expense.MemberProjectFee;
@@ -9,18 +11,34 @@ import com.github.zavier.domain.expense.ProjectSharingFee;
 import com.github.zavier.dto.ExpenseRecordAddCmd;
 import com.github.zavier.dto.ExpenseRecordUpdateCmd;
 import com.github.zavier.dto.ProjectAddCmd;
+import com.github.zavier.dto.data.ExpenseCategoryDTO;
 import com.github.zavier.dto.data.ExpenseProjectMemberDTO;
 import com.github.zavier.dto.data.ExpenseRecordDTO;
+import com.github.zavier.dto.data.MemberBalanceDTO;
+import com.github.zavier.dto.data.ProjectSummaryDTO;
+import com.github.zavier.dto.data.ProjectViewDTO;
 import com.github.zavier.dto.data.UserSharingDTO;
 import com.github.zavier.dto.data.UserSharingDetailDTO;
 import com.github.zavier.project.executor.bo.ExpenseRecordExcelBO;
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import org.apache.commons.lang3.StringUtils;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -31,7 +49,7 @@ import java.util.stream.Collectors;
  * <ul>
  *   <li>Cmd → 领域对象</li>
  *   <li>领域对象 → DTO</li>
- *   <li>领域对象 → Excel BO</li>
+ *   <li>DTO → Excel BO</li>
  * </ul>
  * 消除了之前分布在 3 个模块、4 个类中的碎片化映射。
  */
@@ -39,6 +57,16 @@ public final class ExpenseProjectAssembler {
 
     private static final String DATE_FORMAT = "yyyy-MM-dd";
 
+    /**
+     * 消费人分隔符，兼容中英文逗号
+     */
+    private static final CharMatcher CONSUMER_SEPARATOR = CharMatcher.anyOf(",，");
+
+    /**
+     * 项目汇总中保存的最近费用记录条数
+     */
+    private static final int SUMMARY_RECENT_RECORDS = 5;
+
     private ExpenseProjectAssembler() {
         // 工具类，禁止实例化
     }
@@ -90,6 +118,78 @@ public final class ExpenseProjectAssembler {
         return expenseRecord;
     }
 
+    /**
+     * 批量操作中的单项 → 新的 ExpenseRecordAddCmd，填入所属项目和操作人，不修改调用方传入的命令
+     */
+    public static ExpenseRecordAddCmd toItemCmd(ExpenseRecordAddCmd item, Integer projectId, Integer operatorId) {
+        final ExpenseRecordAddCmd cmd = new ExpenseRecordAddCmd();
+        copyItem(item, cmd, projectId, operatorId);
+        return cmd;
+    }
+
+    /**
+     * 批量修改中的单项 → 新的 ExpenseRecordUpdateCmd，填入所属项目和操作人，不修改调用方传入的命令
+     */
+    public static ExpenseRecordUpdateCmd toItemCmd(ExpenseRecordUpdateCmd item, Integer projectId, Integer operatorId) {
+        final ExpenseRecordUpdateCmd cmd = new ExpenseRecordUpdateCmd();
+        copyItem(item, cmd, projectId, operatorId);
+        cmd.setRecordId(item.getRecordId());
+        return cmd;
+    }
+
+    private static void copyItem(ExpenseRecordAddCmd from, ExpenseRecordAddCmd to, Integer projectId, Integer operatorId) {
+        to.setProjectId(projectId);
+        to.setOperatorId(operatorId);
+        to.setAmount(from.getAmount());
+        to.setDate(from.getDate());
+        to.setExpenseType(from.getExpenseType());
+        to.setRemark(from.getRemark());
+        to.setPayMember(from.getPayMember());
+        if (from.getConsumerMembers() != null) {
+            to.setConsumerMembers(new ArrayList<>(from.getConsumerMembers()));
+        }
+    }
+
+    /**
+     * ExpenseRecordExcelBO → ExpenseRecordAddCmd（导入使用，格式与导出保持一致）
+     */
+    public static ExpenseRecordAddCmd toExpenseRecordAddCmd(ExpenseRecordExcelBO excelBO, Integer projectId, Integer operatorId) {
+        final ExpenseRecordAddCmd cmd = new ExpenseRecordAddCmd();
+        cmd.setProjectId(projectId);
+        cmd.setOperatorId(operatorId);
+        cmd.setDate(parseImportDate(excelBO.getDate()));
+        cmd.setAmount(parseImportAmount(excelBO.getAmount()));
+        cmd.setPayMember(StringUtils.trimToNull(excelBO.getPayMember()));
+        cmd.setExpenseType(StringUtils.trimToNull(excelBO.getExpenseType()));
+        cmd.setRemark(StringUtils.trimToEmpty(excelBO.getRemark()));
+        if (StringUtils.isNotBlank(excelBO.getConsumers())) {
+            Splitter.on(CONSUMER_SEPARATOR).trimResults().omitEmptyStrings()
+                    .split(excelBO.getConsumers())
+                    .forEach(cmd.getConsumerMembers()::add);
+        }
+        return cmd;
+    }
+
+    private static Long parseImportDate(String date) {
+        Assert.isTrue(StringUtils.isNotBlank(date), "消费日期不能为空");
+        try {
+            return LocalDate.parse(date.trim(), DateTimeFormatter.ofPattern(DATE_FORMAT))
+                    .atStartOfDay(ZoneId.systemDefault())
+                    .toEpochSecond();
+        } catch (DateTimeParseException e) {
+            throw new BizException("消费日期格式错误，应为" + DATE_FORMAT + ":" + date);
+        }
+    }
+
+    private static BigDecimal parseImportAmount(String amount) {
+        Assert.isTrue(StringUtils.isNotBlank(amount), "金额不能为空");
+        try {
+            return new BigDecimal(amount.trim());
+        } catch (NumberFormatException e) {
+            throw new BizException("金额格式错误:" + amount);
+        }
+    }
+
     // ==================== 领域对象 → DTO ====================
 
     /**
@@ -109,16 +209,16 @@ public final class ExpenseProjectAssembler {
     }
 
     /**
-     * ExpenseRecord → ExpenseRecordExcelBO
+     * ExpenseRecordDTO → ExpenseRecordExcelBO
      */
-    public static ExpenseRecordExcelBO toExcelBO(ExpenseRecord expenseRecord) {
+    public static ExpenseRecordExcelBO toExcelBO(ExpenseRecordDTO recordDTO) {
         final ExpenseRecordExcelBO excelBO = new ExpenseRecordExcelBO();
-        excelBO.setDate(new SimpleDateFormat(DATE_FORMAT).format(expenseRecord.getDate()));
-        excelBO.setAmount(expenseRecord.getAmount().toPlainString());
-        excelBO.setPayMember(expenseRecord.getPayMember());
-        excelBO.setExpenseType(expenseRecord.getExpenseType());
-        excelBO.setRemark(expenseRecord.getRemark());
-        excelBO.setConsumers(Joiner.on(",").join(expenseRecord.listAllConsumers()));
+        excelBO.setDate(new SimpleDateFormat(DATE_FORMAT).format(new Date(recordDTO.getDate() * 1000)));
+        excelBO.setAmount(recordDTO.getAmount().toPlainString());
+        excelBO.setPayMember(recordDTO.getPayMember());
+        excelBO.setExpenseType(recordDTO.getExpenseType());
+        excelBO.setRemark(recordDTO.getRemark());
+        excelBO.setConsumers(Joiner.on(",").join(recordDTO.getConsumeMembers()));
         return excelBO;
     }
 
@@ -139,6 +239,51 @@ public final class ExpenseProjectAssembler {
     /**
      * ProjectSharingFee → List&lt;UserSharingDTO&gt;
      */
+    /**
+     * 项目读模型 → 项目汇总
+     *
+     * @param lastActivityAt 最近变更时间，秒 时间戳
+     */
+    public static ProjectSummaryDTO toSummary(ProjectViewDTO view, Long lastActivityAt) {
+        final ProjectSummaryDTO summary = new ProjectSummaryDTO();
+        summary.setProjectId(view.getProjectId());
+        summary.setProjectName(view.getProjectName());
+        summary.setCreateUserId(view.getCreateUserId());
+        summary.setVersion(view.getVersion());
+        summary.setLocked(Boolean.TRUE.equals(view.getLocked()));
+        summary.setMemberCount(view.getMembers().size());
+        summary.setRecordCount((long) view.getRecords().size());
+        summary.setTotalAmount(view.getRecords().stream()
+                .map(ExpenseRecordDTO::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        summary.setLastActivityAt(lastActivityAt);
+
+        // 结算计算失败时没有净收支，待结清金额按0处理
+        final List<MemberBalanceDTO> balances = view.getSharing() == null ? List.of() : view.getSharing().stream()
+                .map(sharing -> new MemberBalanceDTO(sharing.getMember(),
+                        sharing.getPaidAmount().subtract(sharing.getConsumeAmount()).setScale(2, RoundingMode.HALF_UP)))
+                .collect(Collectors.toList());
+        summary.setBalances(balances);
+        summary.setUnsettledAmount(balances.stream()
+                .map(MemberBalanceDTO::getNetAmount)
+                .filter(amount -> amount.signum() > 0)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+
+        final Map<String, ExpenseCategoryDTO> categories = new LinkedHashMap<>();
+        view.getRecords().forEach(record -> categories.merge(StringUtils.defaultString(record.getExpenseType()),
+                new ExpenseCategoryDTO(StringUtils.defaultString(record.getExpenseType()), 1L, record.getAmount()),
+                (a, b) -> new ExpenseCategoryDTO(a.getExpenseType(), a.getRecordCount() + b.getRecordCount(), a.getTotalAmount().add(b.getTotalAmount()))));
+        summary.setCategories(new ArrayList<>(categories.values()));
+
+        summary.setRecentRecords(view.getRecords().stream()
+                .sorted(Comparator.comparing(ExpenseRecordDTO::getDate)
+                        .thenComparing(ExpenseRecordDTO::getRecordId)
+                        .reversed())
+                .limit(SUMMARY_RECENT_RECORDS)
+                .collect(Collectors.toList()));
+        return summary;
+    }
+
     public static List<UserSharingDTO> toSharingDTOList(ProjectSharingFee projectMemberFee) {
         final List<MemberProjectFee> memberProjectFees = projectMemberFee.listMemberProjectFee();
 
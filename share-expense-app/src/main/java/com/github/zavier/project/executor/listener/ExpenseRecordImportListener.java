@@ -0,0 +1,120 @@
+package com.github.zavier.project.executor.listener;
+
+import com.alibaba.cola.exception.BizException;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.read.listener.ReadListener;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.domainservice.ExpenseRecordValidator;
+import com.github.zavier.dto.ExpenseRecordAddCmd;
+import com.github.zavier.dto.data.ExpenseRecordImportErrorDTO;
+import com.github.zavier.dto.data.ExpenseRecordImportResultDTO;
+import com.github.zavier.project.executor.bo.ExpenseRecordExcelBO;
+import com.github.zavier.project.executor.converter.ExpenseProjectAssembler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 费用记录导入监听器
+ * <p>
+ * EasyExcel 逐行流式读取，按批次基于已加载的项目聚合校验，校验只依赖聚合内已有的成员集合，不会逐行回查数据库。
+ * 校验通过的行保留为命令，由调用方在项目写队列中挂到最新的聚合上（冲突重试时需要重新执行）。
+ * 每次导入新建一个实例，非线程安全。
+ */
+@Slf4j
+public class ExpenseRecordImportListener implements ReadListener<ExpenseRecordExcelBO> {
+
+    /**
+     * 每批校验的行数
+     */
+    static final int BATCH_COUNT = 500;
+
+    /**
+     * 最多返回的错误行数，避免错误文件撑大响应
+     */
+    static final int MAX_ERROR_COUNT = 200;
+
+    private final ExpenseProject expenseProject;
+    private final ExpenseRecordValidator expenseRecordValidator;
+    private final Integer operatorId;
+
+    private final List<PendingRow> pendingRows = new ArrayList<>(BATCH_COUNT);
+    private final List<ExpenseRecordImportErrorDTO> errors = new ArrayList<>();
+    private final List<ExpenseRecordAddCmd> validRecords = new ArrayList<>();
+
+    private int totalRows = 0;
+    private int importedRows = 0;
+    private int failedRows = 0;
+
+    public ExpenseRecordImportListener(ExpenseProject expenseProject,
+                                       ExpenseRecordValidator expenseRecordValidator,
+                                       Integer operatorId) {
+        this.expenseProject = expenseProject;
+        this.expenseRecordValidator = expenseRecordValidator;
+        this.operatorId = operatorId;
+    }
+
+    @Override
+    public void invoke(ExpenseRecordExcelBO data, AnalysisContext context) {
+        totalRows++;
+        // rowIndex 从 0 开始且包含表头，转换为用户看到的行号
+        pendingRows.add(new PendingRow(context.readRowHolder().getRowIndex() + 1, data));
+        if (pendingRows.size() >= BATCH_COUNT) {
+            flushPendingRows();
+        }
+    }
+
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext context) {
+        flushPendingRows();
+        log.info("费用记录导入解析完成, projectId:{}, total:{}, imported:{}, failed:{}",
+                expenseProject.getId(), totalRows, importedRows, failedRows);
+    }
+
+    public boolean hasError() {
+        return failedRows > 0;
+    }
+
+    /**
+     * 校验通过的记录，存在错误行时为空
+     */
+    public List<ExpenseRecordAddCmd> getValidRecords() {
+        return validRecords;
+    }
+
+    public ExpenseRecordImportResultDTO getResult() {
+        final ExpenseRecordImportResultDTO result = new ExpenseRecordImportResultDTO();
+        result.setTotalRows(totalRows);
+        result.setImportedRows(hasError() ? 0 : importedRows);
+        result.setFailedRows(failedRows);
+        result.setErrors(errors);
+        return result;
+    }
+
+    private void flushPendingRows() {
+        for (PendingRow row : pendingRows) {
+            try {
+                final ExpenseRecordAddCmd cmd = ExpenseProjectAssembler.toExpenseRecordAddCmd(row.data(), expenseProject.getId(), operatorId);
+                expenseRecordValidator.valid(cmd, expenseProject);
+                // 转换失败（如重复的消费人）同样计为错误行
+                ExpenseProjectAssembler.toExpenseRecord(cmd);
+                // 已有错误时整批不会落库，无需再保留
+                if (!hasError()) {
+                    validRecords.add(cmd);
+                }
+                importedRows++;
+            } catch (BizException e) {
+                failedRows++;
+                validRecords.clear();
+                if (errors.size() < MAX_ERROR_COUNT) {
+                    errors.add(new ExpenseRecordImportErrorDTO(row.rowNum(), e.getMessage()));
+                }
+            }
+        }
+        pendingRows.clear();
+    }
+
+    private record PendingRow(int rowNum, ExpenseRecordExcelBO data) {
+    }
+}
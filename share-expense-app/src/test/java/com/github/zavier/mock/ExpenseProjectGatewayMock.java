@@ -7,7 +7,9 @@ import com.github.zavier.dto.ProjectListQry;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -37,8 +39,24 @@ public class ExpenseProjectGatewayMock implements ExpenseProjectGateway {
         return Optional.ofNullable(projectMap.get(expenseProjectId));
     }
 
+    @Override
+    public Optional<ExpenseProject> getProjectHeaderById(@NotNull Integer expenseProjectId) {
+        return getProjectById(expenseProjectId);
+    }
+
     @Override
     public PageResponse<ExpenseProject> pageProject(ProjectListQry projectListQry) {
         return null;
     }
+
+    @Override
+    public Map<Integer, String> listProjectNames(Integer createUserId) {
+        Map<Integer, String> projectNames = new LinkedHashMap<>();
+        projectMap.forEach((projectId, project) -> {
+            if (Objects.equals(project.getCreateUserId(), createUserId)) {
+                projectNames.put(projectId, project.getName());
+            }
+        });
+        return projectNames;
+    }
 }
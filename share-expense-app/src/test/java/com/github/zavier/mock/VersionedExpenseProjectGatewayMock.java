@@ -0,0 +1,135 @@
+package com.github.zavier.mock;
+
+import com.alibaba.cola.dto.PageResponse;
+import com.alibaba.cola.exception.BizException;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.ExpenseRecord;
+import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.dto.ProjectListQry;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 带版本号校验的内存网关：每次读取返回独立的聚合，保存时版本号不一致抛出冲突，
+ * 保存耗时模拟删除重建全部记录
+ */
+public class VersionedExpenseProjectGatewayMock implements ExpenseProjectGateway {
+
+    private final Map<Integer, Snapshot> snapshots = new HashMap<>();
+
+    private final AtomicInteger projectId = new AtomicInteger();
+
+    private final AtomicInteger recordId = new AtomicInteger();
+
+    public final AtomicInteger loads = new AtomicInteger();
+
+    public final AtomicInteger saves = new AtomicInteger();
+
+    public final AtomicInteger conflicts = new AtomicInteger();
+
+    /**
+     * 每次保存的耗时
+     */
+    public volatile long saveCostMillis;
+
+    /**
+     * 保存前执行，用于在测试中卡住保存
+     */
+    public volatile Runnable beforeSave;
+
+    private record Snapshot(String name, String description, Integer createUserId, Integer version,
+                            List<String> members, List<ExpenseRecord> records) {
+    }
+
+    @Override
+    public void save(ExpenseProject expenseProject) {
+        final Runnable hook = beforeSave;
+        if (hook != null) {
+            hook.run();
+        }
+        synchronized (this) {
+            if (expenseProject.getId() == null) {
+                expenseProject.setId(projectId.incrementAndGet());
+                expenseProject.setVersion(-1);
+            } else {
+                final Snapshot current = snapshots.get(expenseProject.getId());
+                if (current == null) {
+                    throw new BizException("项目不存在");
+                }
+                if (!Objects.equals(current.version(), expenseProject.getVersion())) {
+                    conflicts.incrementAndGet();
+                    throw new BizException(VERSION_CONFLICT, "项目已被修改，请刷新后重试");
+                }
+            }
+            sleep(saveCostMillis);
+            expenseProject.listAllExpenseRecord().forEach(record -> {
+                if (record.getId() == null) {
+                    record.setId(recordId.incrementAndGet());
+                }
+            });
+            expenseProject.setVersion(expenseProject.getVersion() + 1);
+            snapshots.put(expenseProject.getId(), new Snapshot(expenseProject.getName(), expenseProject.getDescription(), expenseProject.getCreateUserId(),
+                    expenseProject.getVersion(), expenseProject.listAllMember(), expenseProject.listAllExpenseRecord()));
+            saves.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized void delete(Integer projectId) {
+        snapshots.remove(projectId);
+    }
+
+    @Override
+    public Optional<ExpenseProject> getProjectById(@NotNull Integer expenseProjectId) {
+        loads.incrementAndGet();
+        final Snapshot snapshot;
+        synchronized (this) {
+            snapshot = snapshots.get(expenseProjectId);
+        }
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+        final ExpenseProject expenseProject = new ExpenseProject();
+        expenseProject.setId(expenseProjectId);
+        expenseProject.setName(snapshot.name());
+        expenseProject.setDescription(snapshot.description());
+        expenseProject.setCreateUserId(snapshot.createUserId());
+        expenseProject.setVersion(snapshot.version());
+        expenseProject.addMembers(new ArrayList<>(snapshot.members()));
+        snapshot.records().forEach(expenseProject::addExpenseRecord);
+        return Optional.of(expenseProject);
+    }
+
+    @Override
+    public Optional<ExpenseProject> getProjectHeaderById(@NotNull Integer expenseProjectId) {
+        return getProjectById(expenseProjectId);
+    }
+
+    @Override
+    public PageResponse<ExpenseProject> pageProject(ProjectListQry projectListQry) {
+        return null;
+    }
+
+    @Override
+    public Map<Integer, String> listProjectNames(Integer createUserId) {
+        return new HashMap<>();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.github.zavier.project;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.alibaba.cola.exception.BizException;
+import com.github.zavier.UnitTestBase;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.ExpenseRecord;
+import com.github.zavier.domain.expense.domainservice.ExpenseRecordValidator;
+import com.github.zavier.dto.ExpenseRecordAddCmd;
+import com.github.zavier.dto.ExpenseRecordBatchAddCmd;
+import com.github.zavier.dto.ExpenseRecordBatchDeleteCmd;
+import com.github.zavier.dto.ExpenseRecordBatchUpdateCmd;
+import com.github.zavier.dto.ExpenseRecordUpdateCmd;
+import com.github.zavier.dto.data.ExpenseRecordBatchResultDTO;
+import com.github.zavier.mock.ExpenseProjectGatewayMock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ExpenseApplicationServiceBatchTest extends UnitTestBase {
+
+    private static final int OPERATOR_ID = 1;
+
+    @Spy
+    private ExpenseProjectGatewayMock expenseProjectGateway;
+
+    @Spy
+    private ExpenseRecordValidator expenseRecordValidator;
+
+    @InjectMocks
+    private ExpenseApplicationService expenseApplicationService;
+
+    private ExpenseProject project;
+
+    @BeforeEach
+    void setUp() {
+        // 写队列需要构造参数，@InjectMocks 无法创建
+        ReflectionTestUtils.setField(expenseApplicationService, "projectWriteQueue",
+                new ProjectWriteQueue(expenseProjectGateway, 8, 3, 1));
+
+        project = new ExpenseProject();
+        project.setName("旅行");
+        project.setCreateUserId(OPERATOR_ID);
+        project.setVersion(3);
+        project.addMembers(Arrays.asList("张三", "李四"));
+        expenseProjectGateway.save(project);
+        clearInvocations(expenseProjectGateway);
+    }
+
+    @Test
+    void batchAdd_allValid_shouldSaveOnce() {
+        final ExpenseRecordBatchAddCmd cmd = new ExpenseRecordBatchAddCmd();
+        cmd.setProjectId(project.getId());
+        cmd.setOperatorId(OPERATOR_ID);
+        cmd.setRecords(Arrays.asList(addCmd("张三", "10"), addCmd("李四", "20.5"), addCmd("张三", "30")));
+
+        final SingleResponse<ExpenseRecordBatchResultDTO> response = expenseApplicationService.batchAddExpenseRecord(cmd);
+
+        assertTrue(response.isSuccess());
+        assertTrue(response.getData().getSaved());
+        assertEquals(3, response.getData().getSuccessCount());
+        assertEquals(0, response.getData().getFailCount());
+        verify(expenseProjectGateway, times(1).description("整批只应保存一次")).save(any(ExpenseProject.class));
+        assertEquals(3, project.listAllExpenseRecord().size());
+    }
+
+    @Test
+    void batchAdd_oneInvalid_shouldReportItemAndSaveNothing() {
+        final ExpenseRecordBatchAddCmd cmd = new ExpenseRecordBatchAddCmd();
+        cmd.setProjectId(project.getId());
+        cmd.setOperatorId(OPERATOR_ID);
+        cmd.setRecords(Arrays.asList(addCmd("张三", "10"), addCmd("王五", "20"), addCmd("张三", "-1")));
+
+        final ExpenseRecordBatchResultDTO result = expenseApplicationService.batchAddExpenseRecord(cmd).getData();
+
+        assertFalse(result.getSaved());
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(2, result.getFailCount());
+        assertTrue(result.getItems().get(0).getSuccess());
+        assertEquals("用户不在项目组中:王五", result.getItems().get(1).getMessage());
+        assertEquals("金额必须大于0", result.getItems().get(2).getMessage());
+        verify(expenseProjectGateway, never()).save(any(ExpenseProject.class));
+    }
+
+    @Test
+    void batchAdd_unexpectedItemError_shouldReportItemAndSaveNothing() {
+        // 只对其中一项抛出异常，其他项以不同参数调用同一方法，需要宽松模式
+        lenient().doThrow(new IllegalStateException("格式异常"))
+                .when(expenseRecordValidator)
+                .valid(argThat((ExpenseRecordAddCmd it) -> "李四".equals(it.getPayMember())), any(ExpenseProject.class));
+        final ExpenseRecordBatchAddCmd cmd = new ExpenseRecordBatchAddCmd();
+        cmd.setProjectId(project.getId());
+        cmd.setOperatorId(OPERATOR_ID);
+        cmd.setRecords(Arrays.asList(addCmd("张三", "10"), addCmd("李四", "20")));
+
+        final ExpenseRecordBatchResultDTO result = expenseApplicationService.batchAddExpenseRecord(cmd).getData();
+
+        assertFalse(result.getSaved());
+        assertTrue(result.getItems().get(0).getSuccess());
+        assertFalse(result.getItems().get(1).getSuccess());
+        assertEquals("记录格式错误", result.getItems().get(1).getMessage());
+        verify(expenseProjectGateway, never()).save(any(ExpenseProject.class));
+    }
+
+    @Test
+    void batchAdd_shouldNotModifyItemCommands() {
+        final ExpenseRecordAddCmd item = addCmd("张三", "10");
+        final ExpenseRecordBatchAddCmd cmd = new ExpenseRecordBatchAddCmd();
+        cmd.setProjectId(project.getId());
+        cmd.setOperatorId(OPERATOR_ID);
+        cmd.setRecords(Collections.singletonList(item));
+
+        assertTrue(expenseApplicationService.batchAddExpenseRecord(cmd).getData().getSaved());
+
+        assertNull(item.getProjectId());
+        assertNull(item.getOperatorId());
+        assertEquals(project.getId(), project.listAllExpenseRecord().get(0).getProjectId());
+    }
+
+    @Test
+    void batchAdd_staleVersion_shouldReject() {
+        final ExpenseRecordBatchAddCmd cmd = new ExpenseRecordBatchAddCmd();
+        cmd.setProjectId(project.getId());
+        cmd.setOperatorId(OPERATOR_ID);
+        cmd.setVersion(2);
+        cmd.setRecords(Collections.singletonList(addCmd("张三", "10")));
+
+        final BizException exception = assertThrows(BizException.class, () -> expenseApplicationService.batchAddExpenseRecord(cmd));
+
+        assertEquals("项目已被修改，请刷新后重试", exception.getMessage());
+        verify(expenseProjectGateway, never()).save(any(ExpenseProject.class));
+    }
+
+    @Test
+    void batchUpdateAndDelete_shouldApplyToLoadedProject() {
+        addRecord(1, "张三", "10");
+        addRecord(2, "李四", "20");
+        addRecord(3, "张三", "30");
+
+        final ExpenseRecordUpdateCmd updateCmd = new ExpenseRecordUpdateCmd();
+        copy(addCmd("李四", "99"), updateCmd);
+        updateCmd.setRecordId(1);
+        final ExpenseRecordBatchUpdateCmd batchUpdateCmd = new ExpenseRecordBatchUpdateCmd();
+        batchUpdateCmd.setProjectId(project.getId());
+        batchUpdateCmd.setOperatorId(OPERATOR_ID);
+        batchUpdateCmd.setRecords(Collections.singletonList(updateCmd));
+        assertTrue(expenseApplicationService.batchUpdateExpenseRecord(batchUpdateCmd).getData().getSaved());
+
+        final ExpenseRecordBatchDeleteCmd batchDeleteCmd = new ExpenseRecordBatchDeleteCmd();
+        batchDeleteCmd.setProjectId(project.getId());
+        batchDeleteCmd.setOperatorId(OPERATOR_ID);
+        batchDeleteCmd.setRecordIds(Arrays.asList(2, 3));
+        final ExpenseRecordBatchResultDTO deleteResult = expenseApplicationService.batchDeleteExpenseRecord(batchDeleteCmd).getData();
+
+        assertTrue(deleteResult.getSaved());
+        assertEquals(2, deleteResult.getItems().get(0).getRecordId());
+        verify(expenseProjectGateway, times(2)).save(any(ExpenseProject.class));
+        final List<ExpenseRecord> records = project.listAllExpenseRecord();
+        assertEquals(1, records.size());
+        assertEquals("李四", records.get(0).getPayMember());
+        assertEquals(new BigDecimal("99"), records.get(0).getAmount());
+    }
+
+    @Test
+    void batchDelete_missingRecord_shouldKeepAllRecords() {
+        addRecord(1, "张三", "10");
+
+        final ExpenseRecordBatchDeleteCmd cmd = new ExpenseRecordBatchDeleteCmd();
+        cmd.setProjectId(project.getId());
+        cmd.setOperatorId(OPERATOR_ID);
+        cmd.setRecordIds(Arrays.asList(1, 404));
+
+        final ExpenseRecordBatchResultDTO result = expenseApplicationService.batchDeleteExpenseRecord(cmd).getData();
+
+        assertFalse(result.getSaved());
+        assertEquals("费用明细不存在:404", result.getItems().get(1).getMessage());
+        verify(expenseProjectGateway, never()).save(any(ExpenseProject.class));
+    }
+
+    private void addRecord(Integer id, String payMember, String amount) {
+        final ExpenseRecord record = new ExpenseRecord();
+        record.setId(id);
+        record.setProjectId(project.getId());
+        record.setPayMember(payMember);
+        record.setAmount(new BigDecimal(amount));
+        record.setDate(new Date());
+        record.setExpenseType("餐饮");
+        record.addConsumers(Arrays.asList("张三", "李四"));
+        project.addExpenseRecord(record);
+    }
+
+    private static ExpenseRecordAddCmd addCmd(String payMember, String amount) {
+        final ExpenseRecordAddCmd cmd = new ExpenseRecordAddCmd();
+        cmd.setPayMember(payMember);
+        cmd.setAmount(new BigDecimal(amount));
+        cmd.setDate(1714521600L);
+        cmd.setExpenseType("餐饮");
+        cmd.setConsumerMembers(Arrays.asList("张三", "李四"));
+        return cmd;
+    }
+
+    private static void copy(ExpenseRecordAddCmd from, ExpenseRecordUpdateCmd to) {
+        to.setPayMember(from.getPayMember());
+        to.setAmount(from.getAmount());
+        to.setDate(from.getDate());
+        to.setExpenseType(from.getExpenseType());
+        to.setConsumerMembers(from.getConsumerMembers());
+    }
+}
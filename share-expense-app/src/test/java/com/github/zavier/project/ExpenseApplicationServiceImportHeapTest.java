@@ -0,0 +1,107 @@
+package com.github.zavier.project;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import com.github.zavier.UnitTestBase;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.ExpenseRecord;
+import com.github.zavier.domain.expense.domainservice.ExpenseRecordValidator;
+import com.github.zavier.dto.data.ExpenseRecordImportResultDTO;
+import com.github.zavier.mock.ExpenseProjectGatewayMock;
+import com.github.zavier.project.executor.bo.ExpenseRecordExcelBO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 导入 5 万行的内存预算
+ * <p>
+ * 在单独的 surefire 执行中运行（见 share-expense-app/pom.xml 的 heap-test），堆上限由 -Xmx 限定，超出预算时以 OutOfMemoryError 失败。
+ */
+class ExpenseApplicationServiceImportHeapTest extends UnitTestBase {
+
+    private static final int OPERATOR_ID = 1;
+    private static final int LARGE_ROW_COUNT = 50_000;
+
+    @Spy
+    private ExpenseProjectGatewayMock expenseProjectGateway;
+
+    @Spy
+    private ExpenseRecordValidator expenseRecordValidator;
+
+    @InjectMocks
+    private ExpenseApplicationService expenseApplicationService;
+
+    private Integer projectId;
+
+    @BeforeEach
+    void setUp() {
+        // 写队列需要构造参数，@InjectMocks 无法创建
+        ReflectionTestUtils.setField(expenseApplicationService, "projectWriteQueue",
+                new ProjectWriteQueue(expenseProjectGateway, 8, 3, 1));
+
+        final ExpenseProject project = new ExpenseProject();
+        project.setName("旅行");
+        project.setCreateUserId(OPERATOR_ID);
+        project.addMembers(Arrays.asList("张三", "李四", "王五"));
+        expenseProjectGateway.save(project);
+        projectId = project.getId();
+    }
+
+    @Test
+    void importExcel_50kRows_shouldSaveOnceWithinHeapBudget() {
+        final byte[] excel = buildExcel(LARGE_ROW_COUNT);
+
+        final SingleResponse<ExpenseRecordImportResultDTO> response = expenseApplicationService.importExpenseRecords(
+                projectId, OPERATOR_ID, new ByteArrayInputStream(excel), "records.xlsx");
+
+        assertTrue(response.isSuccess());
+        final ExpenseRecordImportResultDTO result = response.getData();
+        assertEquals(LARGE_ROW_COUNT, result.getTotalRows());
+        assertEquals(LARGE_ROW_COUNT, result.getImportedRows());
+        assertEquals(0, result.getFailedRows());
+        assertTrue(result.getErrors().isEmpty());
+
+        final List<ExpenseRecord> records = expenseProjectGateway.getProjectById(projectId).get().listAllExpenseRecord();
+        assertEquals(LARGE_ROW_COUNT, records.size());
+        // 创建项目一次，导入一次
+        verify(expenseProjectGateway, times(2)).save(any(ExpenseProject.class));
+    }
+
+    private static byte[] buildExcel(int rows) {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ExcelWriter excelWriter = EasyExcel.write(outputStream, ExpenseRecordExcelBO.class).build()) {
+            final WriteSheet writeSheet = EasyExcel.writerSheet("费用记录").build();
+            final int batchSize = 5_000;
+            for (int start = 0; start < rows; start += batchSize) {
+                final List<ExpenseRecordExcelBO> batch = new ArrayList<>(batchSize);
+                for (int i = start; i < Math.min(rows, start + batchSize); i++) {
+                    final ExpenseRecordExcelBO bo = new ExpenseRecordExcelBO();
+                    bo.setDate("2024-05-" + String.format("%02d", i % 28 + 1));
+                    bo.setAmount(String.valueOf(i % 500 + 1) + ".25");
+                    bo.setPayMember(i % 2 == 0 ? "张三" : "李四");
+                    bo.setExpenseType("餐饮");
+                    bo.setRemark("第" + i + "笔");
+                    bo.setConsumers("张三,李四,王五");
+                    batch.add(bo);
+                }
+                excelWriter.write(batch, writeSheet);
+            }
+        }
+        return outputStream.toByteArray();
+    }
+}
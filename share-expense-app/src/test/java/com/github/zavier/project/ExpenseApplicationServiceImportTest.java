@@ -0,0 +1,106 @@
+package com.github.zavier.project;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.alibaba.cola.exception.BizException;
+import com.github.zavier.UnitTestBase;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.ExpenseRecord;
+import com.github.zavier.domain.expense.domainservice.ExpenseRecordValidator;
+import com.github.zavier.dto.data.ExpenseRecordImportErrorDTO;
+import com.github.zavier.dto.data.ExpenseRecordImportResultDTO;
+import com.github.zavier.mock.ExpenseProjectGatewayMock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseApplicationServiceImportTest extends UnitTestBase {
+
+    private static final int OPERATOR_ID = 1;
+
+    @Spy
+    private ExpenseProjectGatewayMock expenseProjectGateway;
+
+    @Spy
+    private ExpenseRecordValidator expenseRecordValidator;
+
+    @InjectMocks
+    private ExpenseApplicationService expenseApplicationService;
+
+    private Integer projectId;
+
+    @BeforeEach
+    void setUp() {
+        // 写队列需要构造参数，@InjectMocks 无法创建
+        ReflectionTestUtils.setField(expenseApplicationService, "projectWriteQueue",
+                new ProjectWriteQueue(expenseProjectGateway, 8, 3, 1));
+
+        final ExpenseProject project = new ExpenseProject();
+        project.setName("旅行");
+        project.setCreateUserId(OPERATOR_ID);
+        project.addMembers(Arrays.asList("张三", "李四", "王五"));
+        expenseProjectGateway.save(project);
+        projectId = project.getId();
+    }
+
+    @Test
+    void importCsv_withInvalidRows_shouldReportRowsAndSaveNothing() {
+        final String csv = "消费日期,金额,付款人,费用类型,备注,消费人\n"
+                + "2024-05-01,100.50,张三,餐饮,午饭,\"张三,李四\"\n"
+                + "2024-05-01,abc,张三,餐饮,午饭,张三\n"
+                + "2024/05/02,20,张三,交通,打车,张三\n"
+                + "2024-05-03,30,赵六,住宿,酒店,张三\n"
+                + "2024-05-04,0.001,张三,餐饮,饮料,张三\n";
+
+        final SingleResponse<ExpenseRecordImportResultDTO> response = expenseApplicationService.importExpenseRecords(
+                projectId, OPERATOR_ID, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "records.csv");
+
+        assertTrue(response.isSuccess());
+        final ExpenseRecordImportResultDTO result = response.getData();
+        assertEquals(5, result.getTotalRows());
+        assertEquals(0, result.getImportedRows(), "存在错误行时不应导入任何记录");
+        assertEquals(4, result.getFailedRows());
+
+        final List<Integer> rowNums = result.getErrors().stream().map(ExpenseRecordImportErrorDTO::getRowNum).toList();
+        assertEquals(Arrays.asList(3, 4, 5, 6), rowNums);
+        assertTrue(result.getErrors().get(2).getMessage().contains("赵六"));
+        assertEquals("金额不能超过2位小数", result.getErrors().get(3).getMessage());
+
+        assertTrue(expenseProjectGateway.getProjectById(projectId).get().listAllExpenseRecord().isEmpty());
+    }
+
+    @Test
+    void importCsv_validRows_shouldParseConsumersAndAmount() {
+        final String csv = "消费日期,金额,付款人,费用类型,备注,消费人\n"
+                + "2024-05-01,100.50,张三,餐饮,午饭,\"张三,李四\"\n"
+                + "2024-05-02,60,李四,交通,,王五\n";
+
+        final SingleResponse<ExpenseRecordImportResultDTO> response = expenseApplicationService.importExpenseRecords(
+                projectId, OPERATOR_ID, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "records.csv");
+
+        assertTrue(response.isSuccess());
+        assertEquals(2, response.getData().getImportedRows());
+
+        final List<ExpenseRecord> records = expenseProjectGateway.getProjectById(projectId).get().listAllExpenseRecord();
+        assertEquals(2, records.size());
+        assertEquals("100.50", records.get(0).getAmount().toPlainString());
+        assertEquals(2, records.get(0).listAllConsumers().size());
+        assertTrue(records.get(0).listAllConsumers().contains("李四"));
+    }
+
+    @Test
+    void import_notOwner_shouldThrow() {
+        final BizException exception = assertThrows(BizException.class, () -> expenseApplicationService.importExpenseRecords(
+                projectId, OPERATOR_ID + 1, new ByteArrayInputStream(new byte[0]), "records.csv"));
+
+        assertEquals("无权限", exception.getMessage());
+    }
+}
@@ -0,0 +1,156 @@
+package com.github.zavier.project;
+
+import com.github.zavier.UnitTestBase;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.domainservice.ExpenseRecordValidator;
+import com.github.zavier.dto.ProjectAddCmd;
+import com.github.zavier.dto.ProjectRenameCmd;
+import com.github.zavier.dto.data.ProjectNameCandidateDTO;
+import com.github.zavier.mock.ExpenseProjectGatewayMock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProjectNameIndexTest extends UnitTestBase {
+
+    private static final int USER_ID = 1;
+    private static final int OTHER_USER_ID = 2;
+
+    @Spy
+    private ExpenseProjectGatewayMock expenseProjectGateway;
+
+    @Spy
+    private ExpenseRecordValidator expenseRecordValidator;
+
+    @InjectMocks
+    private ProjectNameIndex projectNameIndex;
+
+    @InjectMocks
+    private ExpenseApplicationService expenseApplicationService;
+
+    @BeforeEach
+    void setUp() {
+        // @InjectMocks 只注入 @Mock/@Spy，被测的索引需要手动交给应用服务
+        ReflectionTestUtils.setField(expenseApplicationService, "projectNameIndex", projectNameIndex);
+
+        saveProject(USER_ID, "2024周末聚餐");
+        saveProject(USER_ID, "三亚旅行");
+        saveProject(USER_ID, "公司团建");
+        saveProject(OTHER_USER_ID, "别人的聚餐");
+    }
+
+    @Test
+    void search_substringInMiddleOfName() {
+        final List<ProjectNameCandidateDTO> candidates = search("聚餐");
+
+        assertEquals(1, candidates.size(), "只应返回当前用户的项目");
+        assertEquals("2024周末聚餐", candidates.get(0).getProjectName());
+    }
+
+    @Test
+    void search_typo() {
+        final List<ProjectNameCandidateDTO> candidates = search("三亚旅形");
+
+        assertFalse(candidates.isEmpty());
+        assertEquals("三亚旅行", candidates.get(0).getProjectName());
+        assertTrue(candidates.get(0).getScore() >= 0.5);
+    }
+
+    @Test
+    void search_exactMatchRanksFirst() {
+        saveProject(USER_ID, "聚餐");
+        projectNameIndex.invalidate(USER_ID);
+
+        final List<ProjectNameCandidateDTO> candidates = search("聚餐");
+
+        assertEquals(2, candidates.size());
+        assertEquals("聚餐", candidates.get(0).getProjectName());
+        assertEquals(1.0, candidates.get(0).getScore());
+        assertEquals("2024周末聚餐", candidates.get(1).getProjectName());
+        assertTrue(candidates.get(1).getScore() < 1.0);
+    }
+
+    @Test
+    void search_ignoresCaseAndWhitespace() {
+        saveProject(USER_ID, "Team Building");
+        projectNameIndex.invalidate(USER_ID);
+
+        final List<ProjectNameCandidateDTO> candidates = search("teambuilding");
+
+        assertEquals("Team Building", candidates.get(0).getProjectName());
+        assertEquals(1.0, candidates.get(0).getScore());
+    }
+
+    @Test
+    void search_unrelatedKeyword_returnsEmpty() {
+        assertTrue(search("火锅").isEmpty());
+    }
+
+    @Test
+    void search_reusesIndexUntilInvalidated() {
+        search("聚餐");
+        search("旅行");
+        search("团建");
+
+        verify(expenseProjectGateway, times(1).description("同一用户的多次查询应复用索引")).listProjectNames(USER_ID);
+    }
+
+    @Test
+    void createProject_shouldInvalidateIndex() {
+        assertTrue(search("火锅").isEmpty());
+
+        final ProjectAddCmd cmd = new ProjectAddCmd();
+        cmd.setCreateUserId(USER_ID);
+        cmd.setProjectName("周五火锅");
+        cmd.setMembers(Collections.singletonList("张三"));
+        expenseApplicationService.createProject(cmd);
+
+        final List<ProjectNameCandidateDTO> candidates = search("火锅");
+        assertEquals(1, candidates.size());
+        assertEquals("周五火锅", candidates.get(0).getProjectName());
+    }
+
+    @Test
+    void renameProject_shouldInvalidateIndex() {
+        final Integer projectId = search("团建").get(0).getProjectId();
+
+        final ProjectRenameCmd cmd = new ProjectRenameCmd();
+        cmd.setProjectId(projectId);
+        cmd.setProjectName("年会");
+        cmd.setOperatorId(USER_ID);
+        assertTrue(expenseApplicationService.renameProject(cmd).isSuccess());
+
+        assertTrue(search("团建").isEmpty());
+        final List<ProjectNameCandidateDTO> candidates = search("年会");
+        assertEquals(1, candidates.size());
+        assertEquals(projectId, candidates.get(0).getProjectId());
+    }
+
+    @Test
+    void deleteProject_shouldInvalidateIndex() {
+        final Integer projectId = search("旅行").get(0).getProjectId();
+
+        expenseApplicationService.deleteProject(projectId, USER_ID);
+
+        assertTrue(search("旅行").isEmpty());
+    }
+
+    private List<ProjectNameCandidateDTO> search(String keyword) {
+        return expenseApplicationService.searchProjectByName(USER_ID, keyword, 5).getData();
+    }
+
+    private void saveProject(Integer userId, String name) {
+        final ExpenseProject project = new ExpenseProject();
+        project.setName(name);
+        project.setCreateUserId(userId);
+        expenseProjectGateway.save(project);
+    }
+}
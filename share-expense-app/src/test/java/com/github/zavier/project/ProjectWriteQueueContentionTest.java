@@ -0,0 +1,120 @@
+package com.github.zavier.project;
+
+import com.alibaba.cola.exception.BizException;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.mock.VersionedExpenseProjectGatewayMock;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 50 个成员同时给同一个项目记账：各自加载、修改、保存（冲突后重试） vs 经过项目写队列
+ * <p>
+ * 耗时和冲突次数的对比依赖线程调度，标记为 benchmark，默认不执行，使用 {@code mvn test -Pbenchmark} 运行。
+ */
+@Slf4j
+class ProjectWriteQueueContentionTest {
+
+    private static final int WRITERS = 50;
+
+    /**
+     * 一次保存（删除重建全部记录）的耗时
+     */
+    private static final long SAVE_COST_MILLIS = 5;
+
+    @Test
+    void fiftyWriters_queueShouldAvoidConflictStorm() throws Exception {
+        final Result queued = run(true);
+
+        assertEquals(WRITERS, queued.records);
+        assertEquals(0, queued.conflicts, "单节点内写队列不应产生版本冲突");
+        assertTrue(queued.saves < WRITERS, "排队的命令应合并保存: " + queued.saves);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void fiftyWriters_queueShouldFinishFasterThanDirectSave() throws Exception {
+        final Result direct = run(false);
+        final Result queued = run(true);
+
+        log.info("50并发写同一项目: 直接保存 耗时={}ms 保存={} 冲突={}; 写队列 耗时={}ms 保存={} 冲突={}",
+                direct.elapsedMillis, direct.saves, direct.conflicts,
+                queued.elapsedMillis, queued.saves, queued.conflicts);
+
+        assertEquals(WRITERS, direct.records);
+        assertTrue(direct.conflicts > 0, "直接保存应出现版本冲突");
+        assertTrue(queued.elapsedMillis < direct.elapsedMillis,
+                "写队列应更快完成: queued=" + queued.elapsedMillis + ", direct=" + direct.elapsedMillis);
+    }
+
+    private static Result run(boolean useQueue) throws Exception {
+        final VersionedExpenseProjectGatewayMock gateway = new VersionedExpenseProjectGatewayMock();
+        final ExpenseProject project = new ExpenseProject();
+        project.setName("周末聚餐");
+        project.setCreateUserId(1);
+        project.addMembers(Arrays.asList("张三", "李四"));
+        gateway.save(project);
+        gateway.saves.set(0);
+        gateway.saveCostMillis = SAVE_COST_MILLIS;
+
+        final ProjectWriteQueue writeQueue = new ProjectWriteQueue(gateway, 64, 5, 20);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                final Callable<Object> writer = useQueue
+                        ? () -> writeQueue.execute(project.getId(), ProjectWriteQueueTest.addRecord("10"))
+                        : () -> saveWithRetry(gateway, project.getId());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return writer.call();
+                }));
+            }
+
+            final long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+            final int records = gateway.getProjectById(project.getId()).orElseThrow().listAllExpenseRecord().size();
+            return new Result(elapsedMillis, gateway.saves.get(), gateway.conflicts.get(), records);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 加载、修改、保存，冲突时重新加载后立即重试（相当于用户刷新后重新提交）
+     */
+    private static Object saveWithRetry(ExpenseProjectGateway gateway, Integer projectId) {
+        while (true) {
+            final ExpenseProject project = gateway.getProjectById(projectId).orElseThrow();
+            ProjectWriteQueueTest.addRecord("10").apply(project);
+            try {
+                gateway.save(project);
+                return project.getVersion();
+            } catch (BizException e) {
+                assertEquals(ExpenseProjectGateway.VERSION_CONFLICT, e.getErrCode());
+            }
+        }
+    }
+
+    private record Result(long elapsedMillis, int saves, int conflicts, int records) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.zavier.project;
+
+import com.alibaba.cola.exception.BizException;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.ExpenseRecord;
+import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.mock.VersionedExpenseProjectGatewayMock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectWriteQueueTest {
+
+    private VersionedExpenseProjectGatewayMock gateway;
+    private ProjectWriteQueue writeQueue;
+    private ExecutorService executor;
+    private Integer projectId;
+
+    @BeforeEach
+    void setUp() {
+        gateway = new VersionedExpenseProjectGatewayMock();
+        writeQueue = new ProjectWriteQueue(gateway, 8, 3, 1);
+        executor = Executors.newCachedThreadPool();
+
+        final ExpenseProject project = new ExpenseProject();
+        project.setName("旅行");
+        project.setCreateUserId(1);
+        project.addMembers(Arrays.asList("张三", "李四"));
+        gateway.save(project);
+        projectId = project.getId();
+        gateway.saves.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void queuedCommands_shouldBeSavedTogether() throws Exception {
+        final CountDownLatch saving = new CountDownLatch(1);
+        final CountDownLatch releaseSave = new CountDownLatch(1);
+        gateway.beforeSave = () -> {
+            if (saving.getCount() > 0) {
+                saving.countDown();
+                await(releaseSave);
+            }
+        };
+
+        final List<Future<Integer>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> writeQueue.execute(projectId, addRecord("10"))));
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+        // 第一次保存进行中，后续命令排队
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit(() -> writeQueue.execute(projectId, addRecord("1"))));
+        }
+        Thread.sleep(100);
+        releaseSave.countDown();
+
+        for (Future<Integer> future : futures) {
+            assertNotNull(future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, gateway.saves.get(), "排队的命令应合并为一次保存");
+        assertEquals(11, recordCount());
+        assertEquals(0, gateway.conflicts.get());
+    }
+
+    @Test
+    void versionConflict_shouldReloadAndRetry() {
+        // 前两次保存前，模拟其他节点抢先修改了项目
+        gateway.beforeSave = externalWrite(new AtomicInteger(2));
+
+        assertNotNull(writeQueue.execute(projectId, addRecord("10")));
+
+        assertEquals(2, gateway.conflicts.get());
+        assertEquals(1, recordCount());
+        assertEquals("其他节点修改", gateway.getProjectById(projectId).orElseThrow().getDescription());
+    }
+
+    @Test
+    void retriesExhausted_shouldThrowConflict() {
+        gateway.beforeSave = externalWrite(new AtomicInteger(Integer.MAX_VALUE));
+
+        final BizException e = assertThrows(BizException.class, () -> writeQueue.execute(projectId, addRecord("10")));
+        assertEquals(ExpenseProjectGateway.VERSION_CONFLICT, e.getErrCode());
+        assertEquals(4, gateway.conflicts.get(), "首次保存加3次重试");
+        assertEquals(0, recordCount());
+    }
+
+    @Test
+    void failedCommand_shouldNotAffectOthersInBatch() throws Exception {
+        final CountDownLatch applying = new CountDownLatch(1);
+        final CountDownLatch releaseApply = new CountDownLatch(1);
+        final Future<Integer> first = executor.submit(() -> writeQueue.execute(projectId, project -> {
+            applying.countDown();
+            await(releaseApply);
+            return addRecord("10").apply(project);
+        }));
+        assertTrue(applying.await(5, TimeUnit.SECONDS));
+
+        // 先改了成员再失败的命令，不能连带保存
+        final Future<Integer> failing = executor.submit(() -> writeQueue.execute(projectId, project -> {
+            project.addMember("王五");
+            throw new BizException("费用明细不存在:99");
+        }));
+        Thread.sleep(50);
+        final Future<Integer> second = executor.submit(() -> writeQueue.execute(projectId, addRecord("20")));
+        Thread.sleep(50);
+        releaseApply.countDown();
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        final Exception e = assertThrows(Exception.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertEquals("费用明细不存在:99", e.getCause().getMessage());
+
+        final ExpenseProject saved = gateway.getProjectById(projectId).orElseThrow();
+        assertEquals(2, saved.listAllExpenseRecord().size());
+        assertFalse(saved.containsMember("王五"));
+    }
+
+    @Test
+    void missingProject_shouldFail() {
+        final BizException e = assertThrows(BizException.class, () -> writeQueue.execute(999, addRecord("10")));
+        assertEquals("项目不存在", e.getMessage());
+    }
+
+    /**
+     * 在保存前插入一次其他节点的写入，最多 times 次
+     */
+    private Runnable externalWrite(AtomicInteger times) {
+        return () -> {
+            if (times.getAndDecrement() > 0) {
+                gateway.beforeSave = null;
+                final ExpenseProject other = gateway.getProjectById(projectId).orElseThrow();
+                other.setDescription("其他节点修改");
+                gateway.save(other);
+                gateway.beforeSave = externalWrite(times);
+            }
+        };
+    }
+
+    private int recordCount() {
+        return gateway.getProjectById(projectId).orElseThrow().listAllExpenseRecord().size();
+    }
+
+    static ProjectWriteQueue.ProjectCommand<Integer> addRecord(String amount) {
+        return project -> {
+            final ExpenseRecord record = new ExpenseRecord();
+            record.setPayMember("张三");
+            record.setAmount(new BigDecimal(amount));
+            record.setExpenseType("餐饮");
+            record.addConsumer("张三");
+            record.addConsumer("李四");
+            project.addExpenseRecord(record);
+            return project.listAllExpenseRecord().size();
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
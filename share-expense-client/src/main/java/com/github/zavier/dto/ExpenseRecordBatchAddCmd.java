@@ -0,0 +1,23 @@
+package com.github.zavier.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ExpenseRecordBatchAddCmd {
+    private Integer projectId;
+
+    /**
+     * 客户端看到的项目版本号（可选），与当前版本不一致时整批拒绝
+     */
+    private Integer version;
+
+    /**
+     * 待添加的费用记录，其中的 projectId/operatorId 以外层为准
+     */
+    private List<ExpenseRecordAddCmd> records = new ArrayList<>();
+
+    private Integer operatorId;
+}
@@ -0,0 +1,20 @@
+package com.github.zavier.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ExpenseRecordBatchDeleteCmd {
+    private Integer projectId;
+
+    /**
+     * 客户端看到的项目版本号（可选），与当前版本不一致时整批拒绝
+     */
+    private Integer version;
+
+    private List<Integer> recordIds = new ArrayList<>();
+
+    private Integer operatorId;
+}
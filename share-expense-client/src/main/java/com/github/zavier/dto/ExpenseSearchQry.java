@@ -0,0 +1,18 @@
+package com.github.zavier.dto;
+
+import com.alibaba.cola.dto.Query;
+import lombok.Data;
+
+/**
+ * 在自己创建的所有项目中按备注和费用类型搜索费用记录
+ */
+@Data
+public class ExpenseSearchQry extends Query {
+    private Integer operatorId;
+    private String keyword;
+
+    /**
+     * 返回的明细条数，默认20，最大100；汇总金额不受影响
+     */
+    private Integer limit;
+}
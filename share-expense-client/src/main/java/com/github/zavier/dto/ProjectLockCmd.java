@@ -0,0 +1,9 @@
+package com.github.zavier.dto;
+
+import lombok.Data;
+
+@Data
+public class ProjectLockCmd {
+    private Integer projectId;
+    private Integer operatorId;
+}
@@ -0,0 +1,11 @@
+package com.github.zavier.dto;
+
+import lombok.Data;
+
+@Data
+public class ProjectRenameCmd {
+    private Integer projectId;
+    private String projectName;
+    private String projectDesc;
+    private Integer operatorId;
+}
@@ -0,0 +1,46 @@
+package com.github.zavier.dto.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 多节点缓存失效的传播状态（当前节点）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationStatsDTO {
+    /**
+     * 当前节点标识
+     */
+    private String nodeId;
+    /**
+     * 已处理到的通知ID
+     */
+    private Long lastSeenId;
+    /**
+     * 处理的通知数（包括本节点写入的）
+     */
+    private Long received;
+    /**
+     * 其他节点写入的通知数，传播延迟只统计这部分
+     */
+    private Long remoteReceived;
+    /**
+     * 等待中的ID空洞数（ID已分配但事务尚未提交）
+     */
+    private Integer pendingGaps;
+    /**
+     * 最近一次传播延迟（毫秒）：其他节点写入到本节点清理缓存
+     */
+    private Long lastLagMs;
+    /**
+     * 平均传播延迟（毫秒）
+     */
+    private Long avgLagMs;
+    /**
+     * 最大传播延迟（毫秒）
+     */
+    private Long maxLagMs;
+}
@@ -0,0 +1,19 @@
+package com.github.zavier.dto.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 按费用类型汇总
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseCategoryDTO {
+    private String expenseType;
+    private Long recordCount;
+    private BigDecimal totalAmount;
+}
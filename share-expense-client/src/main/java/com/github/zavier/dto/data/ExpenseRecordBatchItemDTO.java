@@ -0,0 +1,19 @@
+package com.github.zavier.dto.data;
+
+import lombok.Data;
+
+@Data
+public class ExpenseRecordBatchItemDTO {
+    /**
+     * 在请求列表中的下标（从 0 开始）
+     */
+    private Integer index;
+
+    /**
+     * 新增/修改为保存后的记录ID，删除为被删除的记录ID；未保存时为空
+     */
+    private Integer recordId;
+
+    private Boolean success;
+    private String message;
+}
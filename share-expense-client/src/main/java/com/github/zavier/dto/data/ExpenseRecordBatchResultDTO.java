@@ -0,0 +1,30 @@
+package com.github.zavier.dto.data;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 费用记录批量操作结果
+ * <p>
+ * 批量操作是原子的：只要有一项失败，整批都不会保存（saved=false）
+ */
+@Data
+public class ExpenseRecordBatchResultDTO {
+    private Integer total;
+    private Integer successCount;
+    private Integer failCount;
+
+    /**
+     * 是否已保存
+     */
+    private Boolean saved;
+
+    /**
+     * 保存后的项目版本号，未保存时为加载时的版本号
+     */
+    private Integer version;
+
+    private List<ExpenseRecordBatchItemDTO> items = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.github.zavier.dto.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseRecordImportErrorDTO {
+    /**
+     * 文件中的行号（从 1 开始，含表头）
+     */
+    private Integer rowNum;
+    private String message;
+}
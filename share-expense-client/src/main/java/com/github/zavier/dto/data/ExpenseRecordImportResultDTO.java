@@ -0,0 +1,31 @@
+package com.github.zavier.dto.data;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 费用记录批量导入结果
+ * <p>
+ * 任意一行校验失败时整批不落库，修正文件后可直接重新导入
+ */
+@Data
+public class ExpenseRecordImportResultDTO {
+    /**
+     * 读取到的数据行数（不含表头）
+     */
+    private Integer totalRows;
+    /**
+     * 成功导入的行数
+     */
+    private Integer importedRows;
+    /**
+     * 校验失败的行数
+     */
+    private Integer failedRows;
+    /**
+     * 逐行错误信息（最多返回前 200 条）
+     */
+    private List<ExpenseRecordImportErrorDTO> errors = new ArrayList<>();
+}
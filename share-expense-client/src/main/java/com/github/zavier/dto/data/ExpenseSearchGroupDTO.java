@@ -0,0 +1,17 @@
+package com.github.zavier.dto.data;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 搜索结果的一个分组：按项目汇总时 expenseType 为空，按费用类型汇总时 projectId/projectName 为空
+ */
+@Data
+public class ExpenseSearchGroupDTO {
+    private Integer projectId;
+    private String projectName;
+    private String expenseType;
+    private Long recordCount;
+    private BigDecimal totalAmount;
+}
@@ -0,0 +1,21 @@
+package com.github.zavier.dto.data;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 搜索命中的费用记录，不含消费人员
+ */
+@Data
+public class ExpenseSearchHitDTO {
+    private Integer projectId;
+    private String projectName;
+    private Integer recordId;
+    private String payMember;
+    private BigDecimal amount;
+    // 秒 时间戳
+    private Long date;
+    private String expenseType;
+    private String remark;
+}
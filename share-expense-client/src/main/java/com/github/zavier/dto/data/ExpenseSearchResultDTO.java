@@ -0,0 +1,32 @@
+package com.github.zavier.dto.data;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 费用记录搜索结果：全部匹配记录的汇总，以及最近的若干条明细
+ */
+@Data
+public class ExpenseSearchResultDTO {
+    private String keyword;
+    private Long recordCount;
+    private BigDecimal totalAmount;
+
+    /**
+     * 按项目汇总，金额倒序
+     */
+    private List<ExpenseSearchGroupDTO> projects = new ArrayList<>();
+
+    /**
+     * 按费用类型汇总，金额倒序
+     */
+    private List<ExpenseSearchGroupDTO> expenseTypes = new ArrayList<>();
+
+    /**
+     * 最近的匹配记录，按支付日期倒序
+     */
+    private List<ExpenseSearchHitDTO> records = new ArrayList<>();
+}
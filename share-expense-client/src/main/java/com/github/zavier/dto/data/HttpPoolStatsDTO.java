@@ -0,0 +1,34 @@
+package com.github.zavier.dto.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 外部接口 HTTP 连接池状态
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HttpPoolStatsDTO {
+    /**
+     * 连接池名称：model（大模型接口）/ wx（微信接口）
+     */
+    private String pool;
+    /**
+     * 正在使用的连接数
+     */
+    private Integer leased;
+    /**
+     * 等待获取连接的请求数
+     */
+    private Integer pending;
+    /**
+     * 空闲的keep-alive连接数
+     */
+    private Integer idle;
+    /**
+     * 最大连接数
+     */
+    private Integer max;
+}
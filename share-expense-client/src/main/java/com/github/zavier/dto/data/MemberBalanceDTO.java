@@ -0,0 +1,18 @@
+package com.github.zavier.dto.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 成员在项目中的净收支：支出金额减消费金额，正数为应收，负数为应付
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberBalanceDTO {
+    private String member;
+    private BigDecimal netAmount;
+}
@@ -13,4 +13,6 @@ public class ProjectDTO {
     private Integer totalMember;
     private BigDecimal totalExpense;
 
+    private Integer version;
+
 }
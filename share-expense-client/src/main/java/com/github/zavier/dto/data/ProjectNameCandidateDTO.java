@@ -0,0 +1,21 @@
+package com.github.zavier.dto.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 项目名称模糊匹配候选
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectNameCandidateDTO {
+    private Integer projectId;
+    private String projectName;
+
+    /**
+     * 匹配得分，0~1，1 表示名称完全一致
+     */
+    private Double score;
+}
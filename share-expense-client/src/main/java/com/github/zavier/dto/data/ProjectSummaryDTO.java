@@ -0,0 +1,50 @@
+package com.github.zavier.dto.data;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 项目汇总：随项目保存一起更新，跨项目统计只读汇总，不加载聚合
+ */
+@Data
+public class ProjectSummaryDTO {
+    private Integer projectId;
+    private String projectName;
+    private Integer createUserId;
+    /**
+     * 生成汇总时的项目版本号
+     */
+    private Integer version;
+    private Boolean locked;
+    private Integer memberCount;
+    private Long recordCount;
+    private BigDecimal totalAmount;
+
+    /**
+     * 待结清金额：应收成员的净收支之和，结算计算失败时为0
+     */
+    private BigDecimal unsettledAmount;
+
+    /**
+     * 最近一次变更时间，秒 时间戳
+     */
+    private Long lastActivityAt;
+
+    /**
+     * 成员净收支，按成员顺序
+     */
+    private List<MemberBalanceDTO> balances = new ArrayList<>();
+
+    /**
+     * 按费用类型汇总，只在写入时使用
+     */
+    private List<ExpenseCategoryDTO> categories = new ArrayList<>();
+
+    /**
+     * 最近的几条费用记录，按支付日期倒序，只在写入时使用
+     */
+    private List<ExpenseRecordDTO> recentRecords = new ArrayList<>();
+}
@@ -0,0 +1,40 @@
+package com.github.zavier.dto.data;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 项目读模型：查询接口需要的成员、费用记录和结算结果，随项目保存一起更新
+ */
+@Data
+public class ProjectViewDTO {
+    private Integer projectId;
+
+    private String projectName;
+
+    private Integer createUserId;
+
+    /**
+     * 生成读模型时的项目版本号
+     */
+    private Integer version;
+
+    /**
+     * 项目已锁定时为 true，此时读模型来自冻结快照，不会再变化
+     */
+    private Boolean locked;
+
+    private List<ExpenseProjectMemberDTO> members = new ArrayList<>();
+
+    /**
+     * 费用记录，按支付日期升序
+     */
+    private List<ExpenseRecordDTO> records = new ArrayList<>();
+
+    /**
+     * 预先计算的结算结果，计算失败时为null
+     */
+    private List<UserSharingDTO> sharing;
+}
@@ -0,0 +1,34 @@
+package com.github.zavier.dto.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 并发请求合并（single-flight）统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SingleFlightStatsDTO {
+    /**
+     * 名称：projectLoad（项目聚合加载）/ projectReplay（事件重放）/ projectView（读模型补建）
+     */
+    private String name;
+    /**
+     * 总调用次数
+     */
+    private Long calls;
+    /**
+     * 实际执行次数
+     */
+    private Long executions;
+    /**
+     * 合并到其他调用、共享结果的次数
+     */
+    private Long coalesced;
+    /**
+     * 当前正在执行的数量
+     */
+    private Integer inFlight;
+}
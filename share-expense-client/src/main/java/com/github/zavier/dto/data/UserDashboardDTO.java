@@ -0,0 +1,33 @@
+package com.github.zavier.dto.data;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户首页汇总：自己创建的所有项目的总支出、各项目净收支、主要费用类型和最近的费用记录
+ */
+@Data
+public class UserDashboardDTO {
+    private Integer projectCount;
+    private Long recordCount;
+    private BigDecimal totalAmount;
+    private BigDecimal unsettledAmount;
+
+    /**
+     * 各项目汇总，最近变更的在前
+     */
+    private List<ProjectSummaryDTO> projects = new ArrayList<>();
+
+    /**
+     * 金额最多的费用类型
+     */
+    private List<ExpenseCategoryDTO> topCategories = new ArrayList<>();
+
+    /**
+     * 最近的费用记录，按支付日期倒序
+     */
+    private List<ExpenseRecordDTO> recentRecords = new ArrayList<>();
+}
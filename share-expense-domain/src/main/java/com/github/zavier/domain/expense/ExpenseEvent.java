@@ -0,0 +1,43 @@
+package com.github.zavier.domain.expense;
+
+/**
+ * 项目聚合的变更事件
+ * <p>
+ * 聚合在修改成员和费用记录时记录事件，事件存储模式下网关保存时把事件追加到事件表，
+ * 加载时从快照开始重放。新增、修改事件引用聚合中的费用记录，追加时按记录的最新内容写入。
+ */
+public sealed interface ExpenseEvent {
+
+    /**
+     * 事件类型，写入事件表
+     */
+    String type();
+
+    record RecordAdded(ExpenseRecord record) implements ExpenseEvent {
+        @Override
+        public String type() {
+            return "RecordAdded";
+        }
+    }
+
+    record RecordUpdated(ExpenseRecord record) implements ExpenseEvent {
+        @Override
+        public String type() {
+            return "RecordUpdated";
+        }
+    }
+
+    record RecordRemoved(Integer recordId) implements ExpenseEvent {
+        @Override
+        public String type() {
+            return "RecordRemoved";
+        }
+    }
+
+    record MemberAdded(String member) implements ExpenseEvent {
+        @Override
+        public String type() {
+            return "MemberAdded";
+        }
+    }
+}
@@ -12,15 +12,25 @@ import java.util.stream.Collectors;
 public class ExpenseProject {
 
     /**
-     * 项目成员
+     * 成员编号表，项目内的费用记录共用
      */
-    private final Set<String> members = new HashSet<>();
+    private final MemberTable memberTable = new MemberTable();
+
+    /**
+     * 项目成员的编号（编号表中还可能有不是成员的名称，例如记录加入项目后再添加的消费人）
+     */
+    private final BitSet members = new BitSet();
 
     /**
      * 费用记录
      */
     private final List<ExpenseRecord> expenseRecordList = new ArrayList<>();
 
+    /**
+     * 加载后产生、尚未持久化的变更事件
+     */
+    private final List<ExpenseEvent> pendingEvents = new ArrayList<>();
+
     /**
      * 费用项目ID
      */
@@ -57,28 +67,38 @@ public class ExpenseProject {
     private Integer version;
 
     /**
-     * 版本号
+     * 是否已锁定（结清），锁定后成员和费用记录不能再修改
      */
     @Getter
     @Setter
     private Boolean locked;
 
     public ProjectSharingFee calcMemberSharingFee() {
-        // 计算每个成员的费用项的分摊
-        final List<MemberRecordFee> memberFeeDetailList = expenseRecordList.stream()
-                .map(ExpenseRecord::calcMembersFeeInRecord)
-                .flatMap(List::stream)
-                .collect(Collectors.toList());
-
-        // 汇总
-        final ProjectSharingFee projectFee = new ProjectSharingFee();
-        memberFeeDetailList.forEach(projectFee::addMemberRecordFee);
+        // 按成员编号汇总每个费用项的分摊
+        final ProjectSharingFee projectFee = new ProjectSharingFee(memberTable.size());
+        // 记录在加入项目时已改用项目的编号表，计算过程不修改记录
+        expenseRecordList.forEach(record -> record.forEachMemberFee(projectFee::addMemberRecordFee));
         return projectFee;
     }
 
 
+    /**
+     * 项目成员名称，按成员编号（加入顺序）排序
+     */
     public List<String> listAllMember() {
-        return Collections.unmodifiableList(new ArrayList<>(members));
+        final List<String> memberNames = new ArrayList<>(members.cardinality());
+        for (int memberId = members.nextSetBit(0); memberId >= 0; memberId = members.nextSetBit(memberId + 1)) {
+            memberNames.add(memberTable.nameOf(memberId));
+        }
+        return Collections.unmodifiableList(memberNames);
+    }
+
+    /**
+     * 成员名称对应的编号，不是项目成员时返回 -1
+     */
+    public int memberIdOf(String name) {
+        final int memberId = memberTable.idOf(name);
+        return memberId >= 0 && members.get(memberId) ? memberId : -1;
     }
 
     public List<ExpenseRecord> listAllExpenseRecord() {
@@ -86,7 +106,9 @@ public class ExpenseProject {
     }
 
     public void addExpenseRecord(ExpenseRecord expenseRecord) {
+        expenseRecord.useMemberTable(memberTable);
         expenseRecordList.add(expenseRecord);
+        pendingEvents.add(new ExpenseEvent.RecordAdded(expenseRecord));
     }
 
     public boolean updateExpenseRecord(ExpenseRecord updateRecord) {
@@ -96,18 +118,35 @@ public class ExpenseProject {
         Assert.isTrue(findRecordList.size() == 1, "费用明细不存在或存在多条:" + updateRecord.getId());
         final ExpenseRecord expenseRecord = findRecordList.get(0);
 
-        return expenseRecord.updateInfo(updateRecord);
+        final boolean updated = expenseRecord.updateInfo(updateRecord);
+        if (updated) {
+            pendingEvents.add(new ExpenseEvent.RecordUpdated(expenseRecord));
+        }
+        return updated;
     }
 
     public void removeRecord(Integer recordId) {
         final boolean removed = expenseRecordList.removeIf(it -> Objects.equals(it.getId(), recordId));
         Assert.isTrue(removed, "费用明细不存在:" + recordId);
+        pendingEvents.add(new ExpenseEvent.RecordRemoved(recordId));
     }
 
     public void addMember(String name) {
         Assert.isTrue(StringUtils.isNotBlank(name), "用户名不能为空");
-        final boolean add = members.add(name);
-        Assert.isTrue(add, "添加用户已存在:" + name);
+        final int memberId = memberTable.register(name);
+        Assert.isTrue(!members.get(memberId), "添加用户已存在:" + name);
+        members.set(memberId);
+        pendingEvents.add(new ExpenseEvent.MemberAdded(name));
+    }
+
+    /**
+     * 按持久化的编号添加成员（从存储重建），需在添加费用记录之前调用
+     */
+    public void addMember(String name, int memberId) {
+        Assert.isTrue(StringUtils.isNotBlank(name), "用户名不能为空");
+        Assert.isTrue(!members.get(memberId), "添加用户已存在:" + name);
+        memberTable.register(name, memberId);
+        members.set(memberId);
     }
 
     public void addMembers(List<String> names) {
@@ -119,7 +158,7 @@ public class ExpenseProject {
 
 
     public boolean containsMember(String name) {
-        return members.contains(name);
+        return memberIdOf(name) >= 0;
     }
 
     public boolean isOwnedBy(Integer userId) {
@@ -131,6 +170,22 @@ public class ExpenseProject {
     }
 
 
+    /**
+     * 锁定项目，只能锁定一次
+     */
+    public void lock() {
+        Assert.isTrue(!isLocked(), "项目已锁定");
+        this.locked = true;
+    }
+
+    public boolean isLocked() {
+        return Boolean.TRUE.equals(locked);
+    }
+
+    public void checkNotLocked() {
+        Assert.isTrue(!isLocked(), "项目已锁定，不能修改");
+    }
+
     public void checkProjectNameValid() {
         Assert.isTrue(StringUtils.isNotBlank(name), "项目名称不能为空");
         Assert.isTrue(name.length() < 100, "项目名称长度不能超过100字");
@@ -144,8 +199,19 @@ public class ExpenseProject {
         return existRecordIdSet.contains(recordId);
     }
 
+    public List<ExpenseEvent> listPendingEvents() {
+        return Collections.unmodifiableList(new ArrayList<>(pendingEvents));
+    }
+
+    /**
+     * 事件已持久化，或聚合是从存储中重建的（重建时调用的添加方法不是新的变更）
+     */
+    public void clearPendingEvents() {
+        pendingEvents.clear();
+    }
+
     public int totalMember() {
-        return members.size();
+        return members.cardinality();
     }
 
     public BigDecimal totalExpense() {
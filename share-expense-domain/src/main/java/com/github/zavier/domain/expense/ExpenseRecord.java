@@ -7,14 +7,23 @@ import lombok.Setter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class ExpenseRecord {
 
     /**
-     * 费用消费的成员信息
+     * 消费成员编号所在的编号表：加入项目前使用自己的编号表，加入项目后改用项目的
      */
-    private Set<String> consumeMembers = new HashSet<>();
+    private MemberTable memberTable = new MemberTable();
+
+    /**
+     * 是否已加入项目（编号表属于项目，不能再登记新名称）
+     */
+    private boolean boundToProject = false;
+
+    /**
+     * 费用消费的成员编号
+     */
+    private BitSet consumeMembers = new BitSet();
 
     @Getter
     @Setter
@@ -52,35 +61,40 @@ public class ExpenseRecord {
      * @return
      */
     public List<MemberRecordFee> calcMembersFeeInRecord() {
-        final BigDecimal perMemberPayAmount = amount.divide(BigDecimal.valueOf(consumeMembers.size()), 6, RoundingMode.HALF_DOWN);
-        final List<MemberRecordFee> memberRecordFees = consumeMembers.stream()
-                .map(member -> {
-                    final MemberRecordFee memberFeeDetail = new MemberRecordFee();
-                    memberFeeDetail.setMember(member);
-                    memberFeeDetail.setExpenseRecord(this);
-                    memberFeeDetail.setConsumeAmount(perMemberPayAmount);
-                    memberFeeDetail.setPaidAmount(isPaidMember(member) ? amount : BigDecimal.ZERO);
-                    return memberFeeDetail;
-                }).collect(Collectors.toList());
+        final List<MemberRecordFee> memberRecordFees = new ArrayList<>();
+        forEachMemberFee((memberId, memberFeeDetail) -> memberRecordFees.add(memberFeeDetail));
+        return memberRecordFees;
+    }
+
+    /**
+     * 按成员编号逐个输出费用明细：消费人按编号顺序，支付人没有消费时最后单独输出一条
+     */
+    void forEachMemberFee(MemberFeeConsumer consumer) {
+        final BigDecimal perMemberPayAmount = amount.divide(BigDecimal.valueOf(consumeMembers.cardinality()), 6, RoundingMode.HALF_DOWN);
+        final int payMemberId = memberTable.idOf(payMember);
+        for (int memberId = consumeMembers.nextSetBit(0); memberId >= 0; memberId = consumeMembers.nextSetBit(memberId + 1)) {
+            final MemberRecordFee memberFeeDetail = new MemberRecordFee();
+            memberFeeDetail.setMember(memberTable.nameOf(memberId));
+            memberFeeDetail.setExpenseRecord(this);
+            memberFeeDetail.setConsumeAmount(perMemberPayAmount);
+            memberFeeDetail.setPaidAmount(memberId == payMemberId ? amount : BigDecimal.ZERO);
+            consumer.accept(memberId, memberFeeDetail);
+        }
         // 如果支付人本身没有消费，需要单独增加一条记录
-        if (!consumeMembers.contains(payMember)) {
+        if (payMemberId < 0 || !consumeMembers.get(payMemberId)) {
             final MemberRecordFee memberFeeDetail = new MemberRecordFee();
             memberFeeDetail.setMember(payMember);
             memberFeeDetail.setExpenseRecord(this);
             memberFeeDetail.setConsumeAmount(BigDecimal.ZERO);
             memberFeeDetail.setPaidAmount(amount);
-            memberRecordFees.add(memberFeeDetail);
+            consumer.accept(payMemberId, memberFeeDetail);
         }
-        return memberRecordFees;
-    }
-
-    private boolean isPaidMember(String member) {
-        return Objects.equals(payMember, member);
     }
 
     public void addConsumer(String name) {
-        final boolean add = consumeMembers.add(name);
-        Assert.isTrue(add, "消费人已存在:" + name);
+        final int memberId = memberTable.register(name);
+        Assert.isTrue(!consumeMembers.get(memberId), "消费人已存在:" + name);
+        consumeMembers.set(memberId);
     }
 
     public void addConsumers(List<String> names) {
@@ -88,8 +102,60 @@ public class ExpenseRecord {
         names.forEach(this::addConsumer);
     }
 
+    /**
+     * 按编号添加消费人（从存储加载），编号需已在项目的编号表中登记
+     */
+    public void addConsumerIds(BitSet memberIds) {
+        for (int memberId = memberIds.nextSetBit(0); memberId >= 0; memberId = memberIds.nextSetBit(memberId + 1)) {
+            Assert.notNull(memberTable.nameOf(memberId), "消费人编号不存在:" + memberId);
+        }
+        consumeMembers.or(memberIds);
+    }
+
+    /**
+     * 消费人名称，按成员编号排序
+     */
     public Set<String> listAllConsumers() {
-        return Collections.unmodifiableSet(consumeMembers);
+        final Set<String> consumers = new LinkedHashSet<>();
+        for (int memberId = consumeMembers.nextSetBit(0); memberId >= 0; memberId = consumeMembers.nextSetBit(memberId + 1)) {
+            consumers.add(memberTable.nameOf(memberId));
+        }
+        return Collections.unmodifiableSet(consumers);
+    }
+
+    /**
+     * 消费人编号（副本），编号对应所在项目的 {@link MemberTable}
+     */
+    public BitSet listConsumerIds() {
+        return (BitSet) consumeMembers.clone();
+    }
+
+    /**
+     * 改用项目的编号表，已有的消费人按名称换算成项目中的编号；消费人未在项目编号表中登记时抛出异常，记录保持不变
+     */
+    void useMemberTable(MemberTable projectMemberTable) {
+        if (memberTable == projectMemberTable) {
+            return;
+        }
+        consumeMembers = translate(consumeMembers, memberTable, projectMemberTable, false);
+        memberTable = projectMemberTable;
+        boundToProject = true;
+    }
+
+    /**
+     * 按名称把编号换算到另一个编号表
+     *
+     * @param registerMissing 目标编号表中没有的名称是否登记；为 false 时抛出异常
+     */
+    private static BitSet translate(BitSet memberIds, MemberTable from, MemberTable to, boolean registerMissing) {
+        final BitSet translated = new BitSet();
+        for (int memberId = memberIds.nextSetBit(0); memberId >= 0; memberId = memberIds.nextSetBit(memberId + 1)) {
+            final String name = from.nameOf(memberId);
+            final int translatedId = registerMissing ? to.register(name) : to.idOf(name);
+            Assert.isTrue(translatedId >= 0, "消费人不在项目中:" + name);
+            translated.set(translatedId);
+        }
+        return translated;
     }
 
     public boolean updateInfo(ExpenseRecord updateRecord) {
@@ -98,8 +164,10 @@ public class ExpenseRecord {
         Assert.isTrue(Objects.equals(id, updateRecord.getId()), "记录ID不一致");
 
         boolean update = false;
-        if (!consumeMembers.equals(updateRecord.listAllConsumers())) {
-            this.consumeMembers = updateRecord.listAllConsumers();
+        // 未加入项目的记录使用自己的编号表，更新中的新消费人直接登记
+        final BitSet updateConsumers = translate(updateRecord.consumeMembers, updateRecord.memberTable, memberTable, !boundToProject);
+        if (!consumeMembers.equals(updateConsumers)) {
+            this.consumeMembers = updateConsumers;
             update = true;
         }
         if (!Objects.equals(payMember, updateRecord.getPayMember())) {
@@ -126,4 +194,11 @@ public class ExpenseRecord {
         return update;
     }
 
-}
\ No newline at end of file
+    /**
+     * 接收按成员编号输出的费用明细；支付人不在编号表中时编号为 -1
+     */
+    @FunctionalInterface
+    interface MemberFeeConsumer {
+        void accept(int memberId, MemberRecordFee memberRecordFee);
+    }
+}
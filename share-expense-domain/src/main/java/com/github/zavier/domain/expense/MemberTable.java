@@ -0,0 +1,70 @@
+package com.github.zavier.domain.expense;
+
+import com.alibaba.cola.exception.Assert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 项目内的成员编号表：成员名称 ↔ 从0开始的整数编号
+ * <p>
+ * 编号只增不改，费用记录的消费人用编号的位图（BitSet）表示，结算时按编号访问数组，不再反复对名称做哈希。
+ * 加载时按持久化的编号登记，编号之间允许有空位。
+ */
+public class MemberTable {
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * 名称已登记时返回原编号，否则分配下一个编号
+     */
+    public int register(String name) {
+        final Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        names.add(name);
+        ids.put(name, names.size() - 1);
+        return names.size() - 1;
+    }
+
+    /**
+     * 按指定编号登记（从存储加载）
+     */
+    public void register(String name, int id) {
+        Assert.isTrue(id >= 0, "成员编号不能为负数:" + id);
+        final Integer existing = ids.get(name);
+        Assert.isTrue(existing == null || existing == id, "成员编号冲突:" + name);
+        Assert.isTrue(id >= names.size() || names.get(id) == null || names.get(id).equals(name), "成员编号已被占用:" + id);
+        while (names.size() <= id) {
+            names.add(null);
+        }
+        names.set(id, name);
+        ids.put(name, id);
+    }
+
+    /**
+     * @return 未登记时返回 -1
+     */
+    public int idOf(String name) {
+        final Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return 编号未使用时返回 null
+     */
+    public String nameOf(int id) {
+        return id < names.size() ? names.get(id) : null;
+    }
+
+    /**
+     * 编号上限（不含），用于按编号分配数组
+     */
+    public int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.zavier.domain.expense;
+
+/**
+ * 本地缓存中与项目相关的数据
+ * <p>
+ * 任一节点保存或删除项目后，各节点（包括本节点）收到失效通知时调用，实现方移除对应的缓存项。
+ * 可能重复通知，实现需幂等。
+ */
+public interface ProjectCacheListener {
+
+    /**
+     * @param projectId    项目ID
+     * @param createUserId 项目创建人
+     */
+    void evictProject(Integer projectId, Integer createUserId);
+}
@@ -0,0 +1,7 @@
+package com.github.zavier.domain.expense;
+
+/**
+ * 项目已删除，在删除事务内发布
+ */
+public record ProjectDeletedEvent(Integer projectId, Integer createUserId) {
+}
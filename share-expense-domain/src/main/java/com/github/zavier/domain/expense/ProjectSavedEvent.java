@@ -0,0 +1,7 @@
+package com.github.zavier.domain.expense;
+
+/**
+ * 项目已保存，在保存事务内发布，监听方可在同一事务中更新派生数据
+ */
+public record ProjectSavedEvent(ExpenseProject expenseProject) {
+}
@@ -4,17 +4,56 @@ import java.util.*;
 
 public class ProjectSharingFee {
 
-    private Map<String, MemberProjectFee> memberFeeMap = new HashMap<>();
+    /**
+     * 按成员编号存放，下标即编号
+     */
+    private MemberProjectFee[] memberFees;
+
+    /**
+     * 不在编号表中的成员（只有支付人可能出现）
+     */
+    private Map<String, MemberProjectFee> unnumberedFeeMap = new LinkedHashMap<>();
+
+    public ProjectSharingFee() {
+        this(0);
+    }
+
+    public ProjectSharingFee(int memberCount) {
+        this.memberFees = new MemberProjectFee[memberCount];
+    }
 
 
     public void addMemberRecordFee(MemberRecordFee memberRecordFee) {
-        final MemberProjectFee projectFee = memberFeeMap.getOrDefault(memberRecordFee.getMember(), new MemberProjectFee());
+        final MemberProjectFee projectFee = unnumberedFeeMap.computeIfAbsent(memberRecordFee.getMember(), k -> new MemberProjectFee());
         projectFee.addFeeDetail(memberRecordFee);
-        memberFeeMap.put(memberRecordFee.getMember(), projectFee);
+    }
+
+    void addMemberRecordFee(int memberId, MemberRecordFee memberRecordFee) {
+        if (memberId < 0) {
+            addMemberRecordFee(memberRecordFee);
+            return;
+        }
+        if (memberId >= memberFees.length) {
+            memberFees = Arrays.copyOf(memberFees, Math.max(memberId + 1, memberFees.length * 2));
+        }
+        if (memberFees[memberId] == null) {
+            memberFees[memberId] = new MemberProjectFee();
+        }
+        memberFees[memberId].addFeeDetail(memberRecordFee);
     }
 
 
+    /**
+     * 按成员编号排序，不在编号表中的成员排在最后
+     */
     public List<MemberProjectFee> listMemberProjectFee() {
-        return Collections.unmodifiableList(new ArrayList<>(memberFeeMap.values()));
+        final List<MemberProjectFee> list = new ArrayList<>();
+        for (MemberProjectFee memberFee : memberFees) {
+            if (memberFee != null) {
+                list.add(memberFee);
+            }
+        }
+        list.addAll(unnumberedFeeMap.values());
+        return Collections.unmodifiableList(list);
     }
 }
@@ -0,0 +1,8 @@
+package com.github.zavier.domain.expense;
+
+/**
+ * 项目某个版本的标识，项目的成员或费用记录每次变更都会使版本号递增，
+ * 相同的 key 对应相同的聚合内容
+ */
+public record ProjectVersionKey(Integer projectId, Integer version) {
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import jakarta.annotation.Resource;
 import java.math.BigDecimal;
+import java.util.Objects;
 import java.util.Optional;
 
 @Component
@@ -39,6 +40,24 @@ public class ExpenseRecordValidator {
         userInProject(expenseRecordUpdateCmd, expenseProject);
     }
 
+    /**
+     * 基于已加载的项目聚合进行校验，不再重复查询项目（用于批量导入等场景）
+     */
+    public void valid(ExpenseRecordAddCmd expenseRecordAddCmd, ExpenseProject expenseProject) {
+        recordAddBaseCheck(expenseRecordAddCmd);
+        Assert.isTrue(Objects.equals(expenseRecordAddCmd.getProjectId(), expenseProject.getId()), "项目ID不匹配");
+        userInProject(expenseRecordAddCmd, expenseProject);
+    }
+
+    /**
+     * 基于已加载的项目聚合校验修改命令（用于批量修改场景）
+     */
+    public void valid(ExpenseRecordUpdateCmd expenseRecordUpdateCmd, ExpenseProject expenseProject) {
+        valid((ExpenseRecordAddCmd) expenseRecordUpdateCmd, expenseProject);
+        Assert.notNull(expenseRecordUpdateCmd.getRecordId(), "修改的记录id不能为空");
+        Assert.isTrue(expenseProject.containsRecord(expenseRecordUpdateCmd.getRecordId()), "该记录不存在");
+    }
+
     private static void userInProject(ExpenseRecordAddCmd expenseRecordAddCmd, ExpenseProject expenseProject) {
         Assert.isTrue(expenseProject.containsMember(expenseRecordAddCmd.getPayMember()), "用户不在项目组中:" + expenseRecordAddCmd.getPayMember());
         expenseRecordAddCmd.getConsumerMembers()
@@ -51,6 +70,7 @@ public class ExpenseRecordValidator {
         Assert.notEmpty(expenseRecordAddCmd.getConsumerMembers(), "消费用户信息不能为空");
         Assert.notNull(expenseRecordAddCmd.getAmount(), "金额不能为空");
         Assert.notNull(expenseRecordAddCmd.getExpenseType(), "费用类型不能为空");
+        Assert.notNull(expenseRecordAddCmd.getDate(), "消费日期不能为空");
 
         Assert.isTrue(expenseRecordAddCmd.getAmount().compareTo(BigDecimal.ZERO) > 0, "金额必须大于0");
         Assert.isTrue(expenseRecordAddCmd.getAmount().scale() <= 2, "金额不能超过2位小数");
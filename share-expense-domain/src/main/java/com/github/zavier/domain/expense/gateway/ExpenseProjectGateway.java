@@ -5,14 +5,33 @@ import com.github.zavier.domain.expense.ExpenseProject;
 import com.github.zavier.dto.ProjectListQry;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
 import java.util.Optional;
 
 public interface ExpenseProjectGateway {
+
+    /**
+     * 保存时项目已被其他请求修改（版本号不一致），save 抛出的 BizException 错误码
+     */
+    String VERSION_CONFLICT = "PROJECT_VERSION_CONFLICT";
+
     void save(ExpenseProject expenseProject);
 
     void delete(Integer projectId);
 
     Optional<ExpenseProject> getProjectById(@NotNull Integer expenseProjectId);
 
+    /**
+     * 只查项目表，返回的项目不含成员和费用记录，用于读取创建人、版本号等基础信息
+     */
+    Optional<ExpenseProject> getProjectHeaderById(@NotNull Integer expenseProjectId);
+
     PageResponse<ExpenseProject> pageProject(ProjectListQry projectListQry);
+
+    /**
+     * 查询用户创建的全部项目名称，只查项目表，不加载成员和费用记录
+     *
+     * @return 项目ID → 项目名称，按创建时间倒序
+     */
+    Map<Integer, String> listProjectNames(Integer createUserId);
 }
@@ -0,0 +1,22 @@
+package com.github.zavier.domain.expense.gateway;
+
+import com.github.zavier.dto.data.ExpenseSearchGroupDTO;
+import com.github.zavier.dto.data.ExpenseSearchHitDTO;
+
+import java.util.List;
+
+/**
+ * 按备注和费用类型搜索某个用户创建的所有项目中的费用记录，直接查询记录表，不加载聚合
+ */
+public interface ExpenseSearchGateway {
+
+    /**
+     * 全部匹配记录按项目和费用类型分组汇总，每组同时带有项目ID、项目名称和费用类型
+     */
+    List<ExpenseSearchGroupDTO> sumMatches(Integer createUserId, String keyword);
+
+    /**
+     * 最近的匹配记录，按支付日期倒序
+     */
+    List<ExpenseSearchHitDTO> listRecentMatches(Integer createUserId, String keyword, int limit);
+}
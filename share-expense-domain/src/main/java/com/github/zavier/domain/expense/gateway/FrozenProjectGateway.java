@@ -0,0 +1,20 @@
+package com.github.zavier.domain.expense.gateway;
+
+import com.github.zavier.dto.data.ProjectViewDTO;
+
+import java.util.Optional;
+
+/**
+ * 已锁定项目的冻结快照存储，每个项目一行，写入后不再修改
+ */
+public interface FrozenProjectGateway {
+
+    Optional<ProjectViewDTO> getFrozenView(Integer projectId);
+
+    /**
+     * 写入冻结快照，已存在时忽略
+     */
+    void saveFrozenView(ProjectViewDTO view);
+
+    void deleteFrozenView(Integer projectId);
+}
@@ -0,0 +1,40 @@
+package com.github.zavier.domain.expense.gateway;
+
+import com.github.zavier.dto.data.ExpenseCategoryDTO;
+import com.github.zavier.dto.data.ExpenseRecordDTO;
+import com.github.zavier.dto.data.ProjectSummaryDTO;
+
+import java.util.List;
+
+/**
+ * 项目汇总存储：每个项目一行汇总和若干行按费用类型的汇总，查询按创建人过滤
+ */
+public interface ProjectSummaryGateway {
+
+    /**
+     * 写入汇总，已有同版本或更新版本时忽略
+     */
+    void saveSummary(ProjectSummaryDTO summary);
+
+    void deleteSummary(Integer projectId);
+
+    /**
+     * 用户创建的所有项目的汇总（含成员净收支，不含费用类型和最近记录），最近变更的在前
+     */
+    List<ProjectSummaryDTO> listSummaries(Integer createUserId);
+
+    /**
+     * 用户所有项目按费用类型分组求和，金额倒序
+     */
+    List<ExpenseCategoryDTO> sumCategories(Integer createUserId, int limit);
+
+    /**
+     * 最近变更的项目中的最近费用记录，按支付日期倒序
+     */
+    List<ExpenseRecordDTO> listRecentRecords(Integer createUserId, int limit);
+
+    /**
+     * 还没有汇总的项目ID，按ID升序，用于补建上线前已有的项目
+     */
+    List<Integer> listUnsummarizedProjectIds(Integer afterProjectId, int limit);
+}
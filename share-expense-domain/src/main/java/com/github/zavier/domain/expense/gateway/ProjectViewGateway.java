@@ -0,0 +1,20 @@
+package com.github.zavier.domain.expense.gateway;
+
+import com.github.zavier.dto.data.ProjectViewDTO;
+
+import java.util.Optional;
+
+/**
+ * 项目读模型存储，每个项目一行，按项目ID读取
+ */
+public interface ProjectViewGateway {
+
+    Optional<ProjectViewDTO> getProjectView(Integer projectId);
+
+    /**
+     * 保存读模型，已有版本号不低于 view 的读模型时忽略，避免旧数据覆盖新数据
+     */
+    void saveProjectView(ProjectViewDTO view);
+
+    void deleteProjectView(Integer projectId);
+}
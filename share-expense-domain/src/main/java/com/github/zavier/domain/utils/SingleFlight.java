@@ -0,0 +1,78 @@
+package com.github.zavier.domain.utils;
+
+import com.github.zavier.dto.data.SingleFlightStatsDTO;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 并发请求合并（single-flight）
+ * <p>
+ * 同一个 key 同时只执行一次：第一个调用方在自己的线程中执行（保留事务等线程上下文），
+ * 执行期间到达的相同 key 的调用方等待并共享同一个 {@link CompletableFuture} 的结果（包括异常）。
+ * 执行结束后立即移除，不做缓存，之后的调用会重新执行。
+ * <p>
+ * 结果会被多个调用方共享，只能用于返回值不会被调用方修改的场景。
+ * <p>
+ * 实例由使用它的组件持有，统计通过 {@link SingleFlightOwner} 暴露。
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder executions = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return join(existing);
+        }
+
+        executions.increment();
+        try {
+            final V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    public SingleFlightStatsDTO stats() {
+        return new SingleFlightStatsDTO(name, calls.sum(), executions.sum(), coalesced.sum(), inFlight.size());
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.zavier.domain.utils;
+
+import java.util.List;
+
+/**
+ * 持有 {@link SingleFlight} 的组件
+ * <p>
+ * 监控接口从容器中的这些组件收集统计，实例的生命周期跟随所属的 Bean，
+ * 同名实例分属不同容器时互不覆盖。
+ */
+public interface SingleFlightOwner {
+
+    List<SingleFlight<?, ?>> singleFlights();
+}
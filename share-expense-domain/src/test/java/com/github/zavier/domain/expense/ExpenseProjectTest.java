@@ -5,8 +5,10 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -271,6 +273,75 @@ class ExpenseProjectTest {
         assertTrue(new BigDecimal("100").subtract(totalConsume).abs().compareTo(new BigDecimal("0.01")) < 0);
     }
 
+    @Test
+    void calcMemberSharingFee_shouldListMembersInJoinOrder() {
+        ExpenseProject project = createProjectWithMembers();
+        ExpenseRecord record = createRecord(1, "Charlie", 90);
+        project.addExpenseRecord(record);
+
+        List<String> members = project.calcMemberSharingFee().listMemberProjectFee().stream()
+                .map(MemberProjectFee::getMember)
+                .toList();
+        assertEquals(List.of("Alice", "Bob", "Charlie"), members);
+    }
+
+    // ==================== member ids ====================
+
+    @Test
+    void listAllMember_shouldKeepJoinOrder() {
+        ExpenseProject project = new ExpenseProject();
+        project.addMembers(Arrays.asList("Charlie", "Alice", "Bob"));
+
+        assertEquals(List.of("Charlie", "Alice", "Bob"), project.listAllMember());
+        assertEquals(0, project.memberIdOf("Charlie"));
+        assertEquals(2, project.memberIdOf("Bob"));
+        assertEquals(-1, project.memberIdOf("Dave"));
+    }
+
+    @Test
+    void addExpenseRecord_shouldEncodeConsumersWithProjectMemberIds() {
+        ExpenseProject project = createProjectWithMembers();
+        ExpenseRecord record = createRecord(1, "Alice", 10);
+        record.addConsumer("Charlie");
+        project.addExpenseRecord(record);
+
+        BitSet expected = new BitSet();
+        expected.set(project.memberIdOf("Alice"));
+        expected.set(project.memberIdOf("Bob"));
+        expected.set(project.memberIdOf("Charlie"));
+        assertEquals(expected, record.listConsumerIds());
+        assertEquals(Set.of("Alice", "Bob", "Charlie"), record.listAllConsumers());
+    }
+
+    @Test
+    void addExpenseRecord_unknownConsumer_shouldThrow() {
+        ExpenseProject project = createProjectWithMembers();
+        ExpenseRecord record = createRecord(1, "Alice", 10);
+        record.addConsumer("Dave");
+
+        assertThrows(BizException.class, () -> project.addExpenseRecord(record));
+        assertTrue(project.listAllExpenseRecord().isEmpty());
+        assertEquals(-1, project.memberIdOf("Dave"));
+        assertEquals(Set.of("Alice", "Bob", "Dave"), record.listAllConsumers());
+    }
+
+    @Test
+    void addMember_withStoredId_shouldDecodeConsumerIds() {
+        ExpenseProject project = new ExpenseProject();
+        project.addMember("Bob", 3);
+        project.addMember("Alice", 0);
+        ExpenseRecord record = new ExpenseRecord();
+        record.setPayMember("Alice");
+        record.setAmount(new BigDecimal("20"));
+        project.addExpenseRecord(record);
+        record.addConsumerIds(BitSet.valueOf(new long[]{0b1001}));
+
+        assertEquals(List.of("Alice", "Bob"), project.listAllMember());
+        assertEquals(Set.of("Alice", "Bob"), record.listAllConsumers());
+        assertThrows(BizException.class, () -> record.addConsumerIds(BitSet.valueOf(new long[]{0b10})));
+        assertThrows(BizException.class, () -> project.addMember("Charlie", 3));
+    }
+
     // ==================== isOwnedBy ====================
 
     @Test
@@ -358,6 +429,71 @@ class ExpenseProjectTest {
         assertFalse(project.containsRecord(999));
     }
 
+    // ==================== pendingEvents ====================
+
+    @Test
+    void pendingEvents_shouldRecordChangesInOrder() {
+        ExpenseProject project = createProjectWithMembers();
+        project.clearPendingEvents();
+
+        project.addMember("Dave");
+        ExpenseRecord record = createRecord(1, "Alice", 100);
+        project.addExpenseRecord(record);
+        ExpenseRecord update = createRecord(1, "Bob", 100);
+        project.updateExpenseRecord(update);
+        project.removeRecord(1);
+
+        List<ExpenseEvent> events = project.listPendingEvents();
+        assertEquals(List.of(
+                new ExpenseEvent.MemberAdded("Dave"),
+                new ExpenseEvent.RecordAdded(record),
+                new ExpenseEvent.RecordUpdated(record),
+                new ExpenseEvent.RecordRemoved(1)), events);
+    }
+
+    @Test
+    void pendingEvents_unchangedUpdate_shouldNotRecord() {
+        ExpenseProject project = createProjectWithMembers();
+        ExpenseRecord record = createRecord(1, "Alice", 100);
+        project.addExpenseRecord(record);
+        project.clearPendingEvents();
+
+        ExpenseRecord same = createRecord(1, "Alice", 100);
+        same.setDate(record.getDate());
+        project.updateExpenseRecord(same);
+
+        assertTrue(project.listPendingEvents().isEmpty());
+    }
+
+    // ==================== lock ====================
+
+    @Test
+    void lock_unlockedProject_shouldLock() {
+        ExpenseProject project = createProjectWithMembers();
+        project.setLocked(false);
+
+        project.lock();
+
+        assertTrue(project.isLocked());
+        assertThrows(BizException.class, project::checkNotLocked);
+    }
+
+    @Test
+    void lock_lockedProject_shouldThrow() {
+        ExpenseProject project = createProjectWithMembers();
+        project.lock();
+
+        assertThrows(BizException.class, project::lock);
+    }
+
+    @Test
+    void checkNotLocked_nullLocked_shouldPass() {
+        ExpenseProject project = createProjectWithMembers();
+
+        assertFalse(project.isLocked());
+        assertDoesNotThrow(project::checkNotLocked);
+    }
+
     // ==================== helpers ====================
 
     private ExpenseProject createProjectWithMembers() {
@@ -161,6 +161,50 @@ class ExpenseRecordTest {
         assertFalse(changed);
     }
 
+    @Test
+    void updateInfo_sameConsumersInOtherOrder_shouldReturnFalse() {
+        ExpenseRecord original = createRecord(1, 1, "Alice", 100, "餐饮");
+        original.addConsumers(Arrays.asList("Alice", "Bob"));
+
+        ExpenseRecord update = createRecord(1, 1, "Alice", 100, "餐饮");
+        update.addConsumers(Arrays.asList("Bob", "Alice"));
+
+        assertFalse(original.updateInfo(update));
+    }
+
+    @Test
+    void updateInfo_unboundRecord_shouldRegisterNewConsumers() {
+        ExpenseRecord original = createRecord(1, 1, "Alice", 100, "餐饮");
+        original.addConsumer("Alice");
+
+        ExpenseRecord update = createRecord(1, 1, "Alice", 100, "餐饮");
+        update.addConsumers(Arrays.asList("Alice", "Dave"));
+
+        assertTrue(original.updateInfo(update));
+        assertEquals(Set.of("Alice", "Dave"), original.listAllConsumers());
+    }
+
+    @Test
+    void updateInfo_boundRecord_unknownConsumer_shouldThrow() {
+        ExpenseProject project = new ExpenseProject();
+        project.addMembers(Arrays.asList("Alice", "Bob"));
+        ExpenseRecord original = createRecord(1, 1, "Alice", 100, "餐饮");
+        original.addConsumer("Alice");
+        project.addExpenseRecord(original);
+
+        ExpenseRecord update = createRecord(1, 1, "Alice", 100, "餐饮");
+        update.addConsumers(Arrays.asList("Alice", "Dave"));
+
+        assertThrows(BizException.class, () -> original.updateInfo(update));
+        assertEquals(Set.of("Alice"), original.listAllConsumers());
+        assertEquals(-1, project.memberIdOf("Dave"));
+
+        ExpenseRecord memberUpdate = createRecord(1, 1, "Alice", 100, "餐饮");
+        memberUpdate.addConsumers(Arrays.asList("Alice", "Bob"));
+        assertTrue(original.updateInfo(memberUpdate));
+        assertEquals(Set.of("Alice", "Bob"), original.listAllConsumers());
+    }
+
     @Test
     void updateInfo_differentProject_shouldThrow() {
         ExpenseRecord original = createRecord(1, 1, "Alice", 100, "餐饮");
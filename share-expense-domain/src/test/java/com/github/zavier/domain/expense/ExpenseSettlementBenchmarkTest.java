@@ -0,0 +1,134 @@
+package com.github.zavier.domain.expense;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 1000 个成员、50000 条费用记录的分摊计算对比：按名称集合 + HashMap 汇总（原实现） vs 成员编号位图 + 数组汇总
+ * <p>
+ * 每条记录随机 10 个消费人，支付人约一半不在消费人中。两种实现的结果按成员逐个核对。
+ * 数据量大且输出耗时，默认不执行，使用 {@code mvn test -Pbenchmark} 运行。
+ */
+@Slf4j
+@Tag("benchmark")
+@DisplayName("成员编号位图分摊计算压测")
+class ExpenseSettlementBenchmarkTest {
+
+    private static final int MEMBERS = 1000;
+    private static final int RECORDS = 50_000;
+    private static final int CONSUMERS_PER_RECORD = 10;
+    private static final int ROUNDS = 3;
+
+    @Test
+    @DisplayName("1000成员×50000记录的分摊结果与按名称计算一致")
+    void testSettlement() {
+        final ExpenseProject project = createProject();
+        final List<RecordSnapshot> snapshots = project.listAllExpenseRecord().stream()
+                .map(record -> new RecordSnapshot(record, new HashSet<>(record.listAllConsumers())))
+                .toList();
+
+        // 预热
+        Map<String, MemberProjectFee> byName = settleByName(snapshots);
+        ProjectSharingFee byId = project.calcMemberSharingFee();
+
+        long nameNanos = Long.MAX_VALUE;
+        long idNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            byName = settleByName(snapshots);
+            nameNanos = Math.min(nameNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            byId = project.calcMemberSharingFee();
+            idNanos = Math.min(idNanos, System.nanoTime() - start);
+        }
+
+        log.info("分摊计算({}成员×{}记录): 名称集合={}ms, 编号位图={}ms",
+                MEMBERS, RECORDS, nameNanos / 1_000_000, idNanos / 1_000_000);
+
+        assertEquals(byName.size(), byId.listMemberProjectFee().size());
+        for (MemberProjectFee fee : byId.listMemberProjectFee()) {
+            final MemberProjectFee expected = byName.get(fee.getMember());
+            assertNotNull(expected, fee.getMember());
+            assertEquals(0, expected.getPaidAmount().compareTo(fee.getPaidAmount()), fee.getMember());
+            assertEquals(0, expected.getConsumeAmount().compareTo(fee.getConsumeAmount()), fee.getMember());
+            assertEquals(expected.getMemberFeeDetailList().size(), fee.getMemberFeeDetailList().size(), fee.getMember());
+        }
+    }
+
+    /**
+     * 原实现：每条记录的消费人是名称集合，明细按名称放入 HashMap 汇总
+     */
+    private static Map<String, MemberProjectFee> settleByName(List<RecordSnapshot> snapshots) {
+        final Map<String, MemberProjectFee> memberFeeMap = new HashMap<>();
+        for (RecordSnapshot snapshot : snapshots) {
+            final ExpenseRecord record = snapshot.record();
+            final List<MemberRecordFee> fees = new ArrayList<>();
+            for (String consumer : snapshot.consumers()) {
+                final MemberRecordFee fee = new MemberRecordFee();
+                fee.setMember(consumer);
+                fee.setExpenseRecord(record);
+                fee.setConsumeAmount(record.getAmount().divide(BigDecimal.valueOf(snapshot.consumers().size()), 6, RoundingMode.HALF_DOWN));
+                fee.setPaidAmount(consumer.equals(record.getPayMember()) ? record.getAmount() : BigDecimal.ZERO);
+                fees.add(fee);
+            }
+            if (!snapshot.consumers().contains(record.getPayMember())) {
+                final MemberRecordFee fee = new MemberRecordFee();
+                fee.setMember(record.getPayMember());
+                fee.setExpenseRecord(record);
+                fee.setConsumeAmount(BigDecimal.ZERO);
+                fee.setPaidAmount(record.getAmount());
+                fees.add(fee);
+            }
+            fees.forEach(fee -> memberFeeMap.computeIfAbsent(fee.getMember(), k -> new MemberProjectFee()).addFeeDetail(fee));
+        }
+        return memberFeeMap;
+    }
+
+    private static ExpenseProject createProject() {
+        final Random random = new Random(42);
+        final ExpenseProject project = new ExpenseProject();
+        final List<String> members = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add("成员" + i);
+        }
+        project.addMembers(members);
+        for (int i = 0; i < RECORDS; i++) {
+            final ExpenseRecord record = new ExpenseRecord();
+            record.setId(i + 1);
+            record.setPayMember(members.get(random.nextInt(MEMBERS)));
+            record.setAmount(BigDecimal.valueOf(random.nextInt(100_000) + 1, 2));
+            record.setDate(new Date());
+            record.setExpenseType("餐饮");
+            final Set<String> consumers = new HashSet<>();
+            if (random.nextBoolean()) {
+                consumers.add(record.getPayMember());
+            }
+            while (consumers.size() < CONSUMERS_PER_RECORD) {
+                consumers.add(members.get(random.nextInt(MEMBERS)));
+            }
+            record.addConsumers(new ArrayList<>(consumers));
+            project.addExpenseRecord(record);
+        }
+        project.clearPendingEvents();
+        return project;
+    }
+
+    private record RecordSnapshot(ExpenseRecord record, Set<String> consumers) {
+    }
+}
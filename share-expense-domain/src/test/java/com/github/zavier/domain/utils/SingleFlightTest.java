@@ -0,0 +1,104 @@
+package com.github.zavier.domain.utils;
+
+import com.github.zavier.dto.data.SingleFlightStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCalls_shouldShareOneExecution() throws Exception {
+        final SingleFlight<String, String> singleFlight = new SingleFlight<>("test-share");
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(executor.submit(() -> singleFlight.execute("7:3", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+            while (singleFlight.stats().getCoalesced() < 9) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> future : futures) {
+                assertEquals("result", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, executions.get());
+        final SingleFlightStatsDTO stats = singleFlight.stats();
+        assertEquals(10, stats.getCalls());
+        assertEquals(1, stats.getExecutions());
+        assertEquals(9, stats.getCoalesced());
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    void failure_shouldBeSharedAndNotCached() throws Exception {
+        final SingleFlight<String, String> singleFlight = new SingleFlight<>("test-failure");
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<String> leader = executor.submit(() -> singleFlight.execute("k", () -> {
+                await(release);
+                throw new IllegalStateException("数据库不可用");
+            }));
+            while (singleFlight.stats().getInFlight() == 0) {
+                Thread.sleep(5);
+            }
+            final Future<String> follower = executor.submit(() -> singleFlight.execute("k", () -> "unused"));
+            while (singleFlight.stats().getCoalesced() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            final Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            final Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+            assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 执行结束后不保留结果，下一次调用重新执行
+        assertEquals("ok", singleFlight.execute("k", () -> "ok"));
+        assertEquals(2, singleFlight.stats().getExecutions());
+    }
+
+    @Test
+    void differentKeys_shouldNotShare() {
+        final SingleFlight<Integer, Integer> singleFlight = new SingleFlight<>("test-keys");
+        assertEquals(1, singleFlight.execute(1, () -> 1));
+        assertEquals(2, singleFlight.execute(2, () -> 2));
+        assertEquals(0, singleFlight.stats().getCoalesced());
+        assertEquals("test-keys", singleFlight.stats().getName());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -9,8 +9,10 @@ import com.github.zavier.project.ExpenseProjectDO;
 import com.github.zavier.project.ExpenseProjectMemberDO;
 import org.apache.commons.collections4.CollectionUtils;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 public class ExpenseProjectBuilder {
@@ -35,6 +37,9 @@ public class ExpenseProjectBuilder {
         return this;
     }
 
+    /**
+     * 只有迁移前的记录（consumer_bits 为空）需要
+     */
     public ExpenseProjectBuilder setExpenseRecordConsumerDOList(List<ExpenseRecordConsumerDO> expenseRecordConsumerDOList) {
         this.expenseRecordConsumerDOList = expenseRecordConsumerDOList;
         return this;
@@ -50,20 +55,43 @@ public class ExpenseProjectBuilder {
         expenseProject.setLocked(expenseProjectDO.getLocked() != null ? expenseProjectDO.getLocked() : false);
 
         if (CollectionUtils.isNotEmpty(memberDOList)) {
+            // 迁移前的成员没有编号，排在已有编号之后依次分配
+            int nextMemberNo = memberDOList.stream()
+                    .map(ExpenseProjectMemberDO::getMemberNo)
+                    .filter(Objects::nonNull)
+                    .max(Integer::compare)
+                    .orElse(-1) + 1;
             for (ExpenseProjectMemberDO memberDO : memberDOList) {
-                expenseProject.addMember(memberDO.getName());
+                final int memberNo = memberDO.getMemberNo() != null ? memberDO.getMemberNo() : nextMemberNo++;
+                expenseProject.addMember(memberDO.getName(), memberNo);
             }
         }
 
-        if (CollectionUtils.isNotEmpty(recordDOList) && CollectionUtils.isNotEmpty(expenseRecordConsumerDOList)) {
-            final Map<Integer, List<ExpenseRecordConsumerDO>> recordIdMap = expenseRecordConsumerDOList.stream()
-                    .collect(Collectors.groupingBy(ExpenseRecordConsumerDO::getRecordId));
+        if (CollectionUtils.isNotEmpty(recordDOList)) {
+            final Map<Integer, List<ExpenseRecordConsumerDO>> recordIdMap = CollectionUtils.isEmpty(expenseRecordConsumerDOList)
+                    ? Map.of()
+                    : expenseRecordConsumerDOList.stream().collect(Collectors.groupingBy(ExpenseRecordConsumerDO::getRecordId));
             for (ExpenseRecordDO recordDO : recordDOList) {
-                final ExpenseRecord expenseRecord = ExpenseRecordDoConverter.toExpenseRecord(recordDO, recordIdMap.get(recordDO.getId()));
-                expenseProject.addExpenseRecord(expenseRecord);
+                // 没有消费人员的记录跳过
+                if (recordDO.getConsumerBits() != null) {
+                    final BitSet consumerIds = BitSet.valueOf(recordDO.getConsumerBits());
+                    if (!consumerIds.isEmpty()) {
+                        final ExpenseRecord expenseRecord = ExpenseRecordDoConverter.toExpenseRecord(recordDO, null);
+                        expenseProject.addExpenseRecord(expenseRecord);
+                        // 加入项目后记录使用项目的成员编号表，位图可以直接使用
+                        expenseRecord.addConsumerIds(consumerIds);
+                    }
+                    continue;
+                }
+                // 迁移前的数据：消费人员在关联表中
+                final List<ExpenseRecordConsumerDO> consumerDOList = recordIdMap.get(recordDO.getId());
+                if (CollectionUtils.isNotEmpty(consumerDOList)) {
+                    expenseProject.addExpenseRecord(ExpenseRecordDoConverter.toExpenseRecord(recordDO, consumerDOList));
+                }
             }
         }
 
+        expenseProject.clearPendingEvents();
         return expenseProject;
     }
 }
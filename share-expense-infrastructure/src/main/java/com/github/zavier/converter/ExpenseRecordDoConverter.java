@@ -7,6 +7,7 @@ import org.apache.commons.collections4.CollectionUtils;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
 
@@ -25,8 +26,10 @@ public class ExpenseRecordDoConverter {
      * - createdAt: 当前时间
      * - updatedAt: 当前时间
      * - version: 初始值由 JPA 自动管理
+     *
+     * @param consumerIds 消费人员在项目中的成员编号
      */
-    public static ExpenseRecordDO toInsertExpenseRecordDO(ExpenseRecord expenseRecord) {
+    public static ExpenseRecordDO toInsertExpenseRecordDO(ExpenseRecord expenseRecord, BitSet consumerIds) {
         final ExpenseRecordDO expenseRecordDO = new ExpenseRecordDO();
         expenseRecordDO.setPayMember(expenseRecord.getPayMember());
         expenseRecordDO.setProjectId(expenseRecord.getProjectId());
@@ -35,6 +38,7 @@ public class ExpenseRecordDoConverter {
         expenseRecordDO.setPayDate(convertToLocalDateTime(expenseRecord.getDate()));
         expenseRecordDO.setExpenseType(expenseRecord.getExpenseType());
         expenseRecordDO.setRemark(expenseRecord.getRemark());
+        expenseRecordDO.setConsumerBits(consumerIds.toByteArray());
         // createdAt 和 updatedAt 由 JPA Auditing 自动填充，无需手动设置
         return expenseRecordDO;
     }
@@ -42,7 +46,7 @@ public class ExpenseRecordDoConverter {
     /**
      * 转换为 Domain 对象
      * <p>
-     * LocalDateTime -> Date 转换
+     * LocalDateTime -> Date 转换；consumerDOS 只用于迁移前的记录，有位图的记录加入项目后再按编号添加消费人员
      */
     public static ExpenseRecord toExpenseRecord(ExpenseRecordDO expenseRecordDO, List<ExpenseRecordConsumerDO> consumerDOS) {
         final ExpenseRecord expenseRecord = new ExpenseRecord();
@@ -0,0 +1,39 @@
+package com.github.zavier.expense;
+
+import com.github.zavier.infrastructure.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 费用事件实体
+ * <p>
+ * 事件存储模式下项目成员和费用记录的每次变更追加一行，不修改、不删除（删除项目除外）。
+ * 新增费用记录事件的自增ID同时作为该费用记录的ID。
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "expense_event",
+        uniqueConstraints = @UniqueConstraint(name = "uk_project_seq", columnNames = {"project_id", "seq"}))
+public class ExpenseEventDO extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "project_id", nullable = false)
+    private Integer projectId;
+
+    /**
+     * 项目内事件序号，从1开始连续递增
+     */
+    @Column(name = "seq", nullable = false)
+    private Integer seq;
+
+    @Column(name = "event_type", nullable = false, length = 30)
+    private String eventType;
+
+    @Column(name = "payload", nullable = false, length = 65535)
+    private String payload;
+}
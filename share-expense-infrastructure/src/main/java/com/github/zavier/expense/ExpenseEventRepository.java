@@ -0,0 +1,26 @@
+package com.github.zavier.expense;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExpenseEventRepository extends JpaRepository<ExpenseEventDO, Integer> {
+
+    /**
+     * 查询快照之后的事件，用于重放
+     */
+    List<ExpenseEventDO> findByProjectIdAndSeqGreaterThanOrderBySeqAsc(Integer projectId, Integer seq);
+
+    /**
+     * 项目当前最大的事件序号，没有事件时为0
+     */
+    @Query("select coalesce(max(e.seq), 0) from ExpenseEventDO e where e.projectId = ?1")
+    int findMaxSeq(Integer projectId);
+
+    boolean existsByProjectId(Integer projectId);
+
+    void deleteByProjectId(Integer projectId);
+}
@@ -0,0 +1,231 @@
+package com.github.zavier.expense;
+
+import com.alibaba.cola.exception.Assert;
+import com.alibaba.fastjson2.JSON;
+import com.github.zavier.domain.expense.ExpenseEvent;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.ExpenseRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.Resource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 费用事件存储
+ * <p>
+ * 保存时把聚合中待持久化的事件追加到事件表，每累计 snapshot-every 个事件写一次快照；
+ * 加载时读取最新快照，再按序号重放快照之后的事件。
+ * 调用方负责事务，并通过项目表的版本号保证同一项目的追加是串行的，事件序号不会重复。
+ */
+@Slf4j
+@Component
+public class ExpenseEventStore {
+
+    @Resource
+    private ExpenseEventRepository expenseEventRepository;
+    @Resource
+    private ExpenseSnapshotRepository expenseSnapshotRepository;
+
+    @Value("${app.expense.event-store.snapshot-every:50}")
+    private int snapshotEvery = 50;
+
+    /**
+     * 费用记录内容，日期保存为毫秒时间戳
+     */
+    public record RecordPayload(Integer id, String payMember, BigDecimal amount, Long date,
+                                String expenseType, String remark, List<String> consumers) {
+    }
+
+    public record RecordRemovedPayload(Integer recordId) {
+    }
+
+    public record MemberAddedPayload(String member) {
+    }
+
+    public record SnapshotPayload(List<String> members, List<RecordPayload> records) {
+    }
+
+    /**
+     * 重放得到的项目成员和费用记录，只读，可在并发加载的调用方之间共享
+     *
+     * @param seq 最后一个事件序号
+     */
+    public record ProjectState(int seq, List<String> members, List<RecordPayload> records) {
+    }
+
+    /**
+     * 追加聚合中待持久化的事件，新增的费用记录以事件ID作为记录ID回填
+     *
+     * @return 追加的事件数
+     */
+    public int append(ExpenseProject expenseProject) {
+        final Integer projectId = expenseProject.getId();
+        Assert.notNull(projectId, "费用项目ID不能为空");
+        final List<ExpenseEvent> events = expenseProject.listPendingEvents();
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        int seq = expenseEventRepository.findMaxSeq(projectId);
+        for (ExpenseEvent event : events) {
+            if (event instanceof ExpenseEvent.RecordAdded added) {
+                added.record().setProjectId(projectId);
+            }
+            final ExpenseEventDO eventDO = new ExpenseEventDO();
+            eventDO.setProjectId(projectId);
+            eventDO.setSeq(++seq);
+            eventDO.setEventType(event.type());
+            eventDO.setPayload(toPayload(event));
+            final ExpenseEventDO saved = expenseEventRepository.save(eventDO);
+            if (event instanceof ExpenseEvent.RecordAdded added) {
+                added.record().setId(saved.getId());
+            }
+        }
+        expenseProject.clearPendingEvents();
+
+        final int snapshotSeq = expenseSnapshotRepository.findById(projectId)
+                .map(ExpenseSnapshotDO::getSeq)
+                .orElse(0);
+        if (seq - snapshotSeq >= snapshotEvery) {
+            saveSnapshot(expenseProject, seq);
+        }
+        return events.size();
+    }
+
+    /**
+     * 按聚合当前的成员和费用记录写快照，覆盖旧快照
+     */
+    public void saveSnapshot(ExpenseProject expenseProject, int seq) {
+        final ExpenseSnapshotDO snapshotDO = expenseSnapshotRepository.findById(expenseProject.getId())
+                .orElseGet(() -> {
+                    final ExpenseSnapshotDO created = new ExpenseSnapshotDO();
+                    created.setProjectId(expenseProject.getId());
+                    return created;
+                });
+        final List<RecordPayload> records = expenseProject.listAllExpenseRecord().stream()
+                .map(ExpenseEventStore::toRecordPayload)
+                .toList();
+        snapshotDO.setSeq(seq);
+        snapshotDO.setPayload(JSON.toJSONString(new SnapshotPayload(expenseProject.listAllMember(), records)));
+        expenseSnapshotRepository.save(snapshotDO);
+        log.info("[事件存储] 写入快照, projectId={}, seq={}, records={}", expenseProject.getId(), seq, records.size());
+    }
+
+    /**
+     * 读取最新快照并重放之后的事件
+     *
+     * @return 项目没有任何事件时为空
+     */
+    public Optional<ProjectState> load(Integer projectId) {
+        final Optional<ExpenseSnapshotDO> snapshot = expenseSnapshotRepository.findById(projectId);
+        final int snapshotSeq = snapshot.map(ExpenseSnapshotDO::getSeq).orElse(0);
+        final List<ExpenseEventDO> tail =
+                expenseEventRepository.findByProjectIdAndSeqGreaterThanOrderBySeqAsc(projectId, snapshotSeq);
+        if (snapshot.isEmpty() && tail.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final Set<String> members = new LinkedHashSet<>();
+        final Map<Integer, RecordPayload> records = new LinkedHashMap<>();
+        snapshot.ifPresent(snapshotDO -> {
+            final SnapshotPayload payload = JSON.parseObject(snapshotDO.getPayload(), SnapshotPayload.class);
+            members.addAll(payload.members());
+            payload.records().forEach(record -> records.put(record.id(), record));
+        });
+
+        int seq = snapshotSeq;
+        for (ExpenseEventDO eventDO : tail) {
+            apply(eventDO, members, records);
+            seq = eventDO.getSeq();
+        }
+
+        final List<RecordPayload> sortedRecords = new ArrayList<>(records.values());
+        // 与表存储一致，按支付日期升序
+        sortedRecords.sort(Comparator.comparing(RecordPayload::date, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return Optional.of(new ProjectState(seq, List.copyOf(members), List.copyOf(sortedRecords)));
+    }
+
+    /**
+     * 把重放得到的成员和费用记录填入聚合（聚合只含项目表信息）
+     */
+    public static void restore(ExpenseProject expenseProject, ProjectState state) {
+        state.members().forEach(expenseProject::addMember);
+        state.records().forEach(record -> expenseProject.addExpenseRecord(toExpenseRecord(expenseProject.getId(), record)));
+        expenseProject.clearPendingEvents();
+    }
+
+    public boolean hasEvents(Integer projectId) {
+        return expenseEventRepository.existsByProjectId(projectId);
+    }
+
+    public void delete(Integer projectId) {
+        expenseEventRepository.deleteByProjectId(projectId);
+        expenseSnapshotRepository.deleteById(projectId);
+    }
+
+    private static void apply(ExpenseEventDO eventDO, Set<String> members, Map<Integer, RecordPayload> records) {
+        switch (eventDO.getEventType()) {
+            case "RecordAdded" -> {
+                final RecordPayload payload = JSON.parseObject(eventDO.getPayload(), RecordPayload.class);
+                // 新增事件的ID即记录ID
+                records.put(eventDO.getId(), withId(payload, eventDO.getId()));
+            }
+            case "RecordUpdated" -> {
+                final RecordPayload payload = JSON.parseObject(eventDO.getPayload(), RecordPayload.class);
+                records.put(payload.id(), payload);
+            }
+            case "RecordRemoved" -> records.remove(
+                    JSON.parseObject(eventDO.getPayload(), RecordRemovedPayload.class).recordId());
+            case "MemberAdded" -> members.add(
+                    JSON.parseObject(eventDO.getPayload(), MemberAddedPayload.class).member());
+            default -> throw new IllegalStateException("未知的费用事件类型: " + eventDO.getEventType());
+        }
+    }
+
+    private static String toPayload(ExpenseEvent event) {
+        final Object payload = switch (event) {
+            case ExpenseEvent.RecordAdded added -> toRecordPayload(added.record());
+            case ExpenseEvent.RecordUpdated updated -> toRecordPayload(updated.record());
+            case ExpenseEvent.RecordRemoved removed -> new RecordRemovedPayload(removed.recordId());
+            case ExpenseEvent.MemberAdded added -> new MemberAddedPayload(added.member());
+        };
+        return JSON.toJSONString(payload);
+    }
+
+    private static RecordPayload toRecordPayload(ExpenseRecord record) {
+        return new RecordPayload(record.getId(), record.getPayMember(), record.getAmount(),
+                record.getDate() == null ? null : record.getDate().getTime(),
+                record.getExpenseType(), record.getRemark(), new ArrayList<>(record.listAllConsumers()));
+    }
+
+    private static RecordPayload withId(RecordPayload payload, Integer id) {
+        return new RecordPayload(id, payload.payMember(), payload.amount(), payload.date(),
+                payload.expenseType(), payload.remark(), payload.consumers());
+    }
+
+    private static ExpenseRecord toExpenseRecord(Integer projectId, RecordPayload payload) {
+        final ExpenseRecord expenseRecord = new ExpenseRecord();
+        expenseRecord.setId(payload.id());
+        expenseRecord.setProjectId(projectId);
+        expenseRecord.setPayMember(payload.payMember());
+        expenseRecord.setAmount(payload.amount());
+        expenseRecord.setDate(payload.date() == null ? null : new Date(payload.date()));
+        expenseRecord.setExpenseType(payload.expenseType());
+        expenseRecord.setRemark(payload.remark());
+        if (payload.consumers() != null) {
+            payload.consumers().forEach(expenseRecord::addConsumer);
+        }
+        return expenseRecord;
+    }
+}
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
  * - 使用 @Version 注解实现自动乐观锁
  * - 不声明 @OneToMany 关联消费人员，通过 Gateway 手动组装
  * - 手动管理消费人员生命周期，通过 Repository 直接操作
- * - 消费人员保留 recordId 外键字段，支持独立查询和批量操作
+ * - 消费人员以成员编号位图保存在 consumer_bits 中（BitSet.toByteArray），不再逐人写关联表；
+ *   为空表示迁移前的数据，消费人员仍在 expense_record_consumer 中
  * - 使用 LocalDateTime 替代 Date（Java 8+ 时间 API）
  * - @DynamicInsert: 插入时忽略 null 字段，让数据库默认值生效（兼容原 MyBatis insertSelective 行为）
  */
@@ -49,4 +50,7 @@ public class ExpenseRecordDO extends BaseEntity {
 
     @Column(name = "remark")
     private String remark;
+
+    @Column(name = "consumer_bits", length = 4096)
+    private byte[] consumerBits;
 }
\ No newline at end of file
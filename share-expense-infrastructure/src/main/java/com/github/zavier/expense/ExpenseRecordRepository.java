@@ -1,6 +1,8 @@
 package com.github.zavier.expense;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +23,52 @@ public interface ExpenseRecordRepository extends JpaRepository<ExpenseRecordDO,
     List<ExpenseRecordDO> findByProjectIdInOrderByPayDateAsc(List<Integer> projectIds);
 
     void deleteByProjectId(Integer projectId);
+
+    /**
+     * 还有迁移前记录（消费人员在关联表中）的项目，按项目ID升序从 afterProjectId 之后分页
+     */
+    @Query("select distinct r.projectId from ExpenseRecordDO r where r.consumerBits is null and r.projectId > ?1 order by r.projectId")
+    List<Integer> findLegacyConsumerProjectIds(Integer afterProjectId, Pageable pageable);
+
+    /**
+     * 全文索引（ngram）匹配备注和费用类型，按项目和费用类型分组汇总（仅 MySQL）
+     *
+     * @param booleanQuery BOOLEAN MODE 查询串，如 {@code "打车"}
+     * @return 项目ID、项目名称、费用类型、笔数、金额
+     */
+    @Query(value = "select r.project_id, p.name, r.expense_type, count(*), sum(r.amount) from expense_record r "
+            + "join expense_project p on p.id = r.project_id "
+            + "where p.create_user_id = ?1 and match(r.remark, r.expense_type) against (?2 in boolean mode) "
+            + "group by r.project_id, p.name, r.expense_type", nativeQuery = true)
+    List<Object[]> sumFulltextMatches(Integer createUserId, String booleanQuery);
+
+    /**
+     * 全文索引匹配的最近记录（仅 MySQL）
+     *
+     * @return 记录ID、项目ID、项目名称、支付人、金额、支付日期、费用类型、备注
+     */
+    @Query(value = "select r.id, r.project_id, p.name, r.pay_member, r.amount, r.pay_date, r.expense_type, r.remark "
+            + "from expense_record r join expense_project p on p.id = r.project_id "
+            + "where p.create_user_id = ?1 and match(r.remark, r.expense_type) against (?2 in boolean mode) "
+            + "order by r.pay_date desc, r.id desc limit ?3", nativeQuery = true)
+    List<Object[]> findRecentFulltextMatches(Integer createUserId, String booleanQuery, int limit);
+
+    /**
+     * 与 {@link #sumFulltextMatches} 相同的汇总，用 LIKE 匹配，用于没有全文索引的数据库和短于分词长度的关键字
+     *
+     * @param likePattern 以 ! 转义的 LIKE 模式，如 {@code %打车%}
+     */
+    @Query("select r.projectId, p.name, r.expenseType, count(r), sum(r.amount) from ExpenseRecordDO r, ExpenseProjectDO p "
+            + "where p.id = r.projectId and p.createUserId = ?1 and (r.remark like ?2 escape '!' or r.expenseType like ?2 escape '!') "
+            + "group by r.projectId, p.name, r.expenseType")
+    List<Object[]> sumLikeMatches(Integer createUserId, String likePattern);
+
+    /**
+     * 与 {@link #findRecentFulltextMatches} 相同的列，用 LIKE 匹配
+     */
+    @Query("select r.id, r.projectId, p.name, r.payMember, r.amount, r.payDate, r.expenseType, r.remark "
+            + "from ExpenseRecordDO r, ExpenseProjectDO p "
+            + "where p.id = r.projectId and p.createUserId = ?1 and (r.remark like ?2 escape '!' or r.expenseType like ?2 escape '!') "
+            + "order by r.payDate desc, r.id desc")
+    List<Object[]> findRecentLikeMatches(Integer createUserId, String likePattern, Pageable pageable);
 }
@@ -0,0 +1,157 @@
+package com.github.zavier.expense;
+
+import com.github.zavier.domain.expense.gateway.ExpenseSearchGateway;
+import com.github.zavier.dto.data.ExpenseSearchGroupDTO;
+import com.github.zavier.dto.data.ExpenseSearchHitDTO;
+import com.github.zavier.infrastructure.shard.ProjectShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.Resource;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * 费用记录搜索
+ * <p>
+ * MySQL 上使用 expense_record(remark, expense_type) 的 ngram 全文索引，以短语方式匹配，中文不需要分词；
+ * 关键字短于分词长度（默认 ngram_token_size=2）或数据库不支持全文索引（如测试用的 H2）时退回 LIKE。
+ * 项目按创建人过滤，开启分片时在每个分片上查询后合并。
+ * <p>
+ * 只覆盖表存储（app.expense.persistence=table）的费用记录，事件存储模式下记录不在 expense_record 中。
+ */
+@Slf4j
+@Repository
+public class ExpenseSearchGatewayImpl implements ExpenseSearchGateway {
+
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
+    @Resource
+    private ExpenseRecordRepository expenseRecordRepository;
+    @Resource
+    private ProjectShardRouter projectShardRouter;
+    @Resource
+    private DataSource dataSource;
+
+    private volatile Boolean fulltextSupported;
+
+    @Override
+    public List<ExpenseSearchGroupDTO> sumMatches(Integer createUserId, String keyword) {
+        final boolean fulltext = useFulltext(keyword);
+        final String pattern = fulltext ? toBooleanQuery(keyword) : toLikePattern(keyword);
+        return scatter(shard -> (fulltext
+                ? expenseRecordRepository.sumFulltextMatches(createUserId, pattern)
+                : expenseRecordRepository.sumLikeMatches(createUserId, pattern))
+                .stream()
+                .map(ExpenseSearchGatewayImpl::toGroupDTO)
+                .toList());
+    }
+
+    @Override
+    public List<ExpenseSearchHitDTO> listRecentMatches(Integer createUserId, String keyword, int limit) {
+        final boolean fulltext = useFulltext(keyword);
+        final String pattern = fulltext ? toBooleanQuery(keyword) : toLikePattern(keyword);
+        // 每个分片各取前 limit 条，合并后再截取
+        return scatter(shard -> (fulltext
+                ? expenseRecordRepository.findRecentFulltextMatches(createUserId, pattern, limit)
+                : expenseRecordRepository.findRecentLikeMatches(createUserId, pattern, PageRequest.of(0, limit)))
+                .stream()
+                .map(ExpenseSearchGatewayImpl::toHitDTO)
+                .toList())
+                .stream()
+                .sorted(Comparator.comparing(ExpenseSearchHitDTO::getDate)
+                        .thenComparing(ExpenseSearchHitDTO::getRecordId)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private <T> List<T> scatter(IntFunction<List<T>> perShard) {
+        return projectShardRouter.scatter(perShard).stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private boolean useFulltext(String keyword) {
+        return keyword.codePointCount(0, keyword.length()) >= NGRAM_TOKEN_SIZE && isFulltextSupported();
+    }
+
+    private boolean isFulltextSupported() {
+        if (fulltextSupported == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                fulltextSupported = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            } catch (SQLException e) {
+                log.warn("[费用搜索] 读取数据库类型失败，使用 LIKE 匹配", e);
+                return false;
+            }
+            log.info("[费用搜索] 全文索引: {}", fulltextSupported);
+        }
+        return fulltextSupported;
+    }
+
+    /**
+     * 整个关键字作为一个短语，去掉引号避免破坏短语边界
+     */
+    static String toBooleanQuery(String keyword) {
+        return "\"" + keyword.replace("\"", " ").trim() + "\"";
+    }
+
+    static String toLikePattern(String keyword) {
+        return "%" + keyword.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    private static ExpenseSearchGroupDTO toGroupDTO(Object[] row) {
+        final ExpenseSearchGroupDTO dto = new ExpenseSearchGroupDTO();
+        dto.setProjectId(((Number) row[0]).intValue());
+        dto.setProjectName((String) row[1]);
+        dto.setExpenseType((String) row[2]);
+        dto.setRecordCount(((Number) row[3]).longValue());
+        dto.setTotalAmount(toBigDecimal(row[4]));
+        return dto;
+    }
+
+    private static ExpenseSearchHitDTO toHitDTO(Object[] row) {
+        final ExpenseSearchHitDTO dto = new ExpenseSearchHitDTO();
+        dto.setRecordId(((Number) row[0]).intValue());
+        dto.setProjectId(((Number) row[1]).intValue());
+        dto.setProjectName((String) row[2]);
+        dto.setPayMember((String) row[3]);
+        dto.setAmount(toBigDecimal(row[4]));
+        dto.setDate(toEpochSecond(row[5]));
+        dto.setExpenseType((String) row[6]);
+        dto.setRemark((String) row[7]);
+        return dto;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    /**
+     * 原生查询返回 java.sql.Date 或 LocalDate，JPQL 返回实体字段的 LocalDateTime
+     */
+    private static Long toEpochSecond(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+        }
+        if (value instanceof LocalDate date) {
+            return date.atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+        }
+        if (value instanceof java.util.Date date) {
+            return date.getTime() / 1000;
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.zavier.expense;
+
+import com.github.zavier.infrastructure.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 费用项目快照实体
+ * <p>
+ * 保存项目在某个事件序号时的全部成员和费用记录，加载时从快照开始重放之后的事件，
+ * 每个项目只保留最新一份。
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "expense_project_snapshot")
+public class ExpenseSnapshotDO extends BaseEntity {
+    @Id
+    @Column(name = "project_id")
+    private Integer projectId;
+
+    /**
+     * 快照包含的最后一个事件序号
+     */
+    @Column(name = "seq", nullable = false)
+    private Integer seq;
+
+    @Column(name = "payload", nullable = false, length = 16777215)
+    private String payload;
+}
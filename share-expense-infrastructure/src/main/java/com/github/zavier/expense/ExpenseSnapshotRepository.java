@@ -0,0 +1,12 @@
+package com.github.zavier.expense;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExpenseSnapshotRepository extends JpaRepository<ExpenseSnapshotDO, Integer> {
+
+    List<ExpenseSnapshotDO> findByProjectIdIn(List<Integer> projectIds);
+}
@@ -0,0 +1,303 @@
+package com.github.zavier.infrastructure.cache;
+
+import com.github.zavier.domain.expense.ProjectCacheListener;
+import com.github.zavier.domain.expense.ProjectDeletedEvent;
+import com.github.zavier.domain.expense.ProjectSavedEvent;
+import com.github.zavier.dto.data.CacheInvalidationStatsDTO;
+import com.github.zavier.infrastructure.shard.ProjectShardRouter;
+import com.github.zavier.infrastructure.shard.ShardContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 多节点缓存失效
+ * <p>
+ * 多个节点部署在负载均衡后面，各自的本地缓存（项目名称索引、AI回答缓存等）只知道本节点上的修改。
+ * 项目保存或删除时在同一事务内向 cache_invalidation 表追加一行，事务回滚则通知也不存在；
+ * 每个节点用一个后台线程按主键 {@code id > lastSeenId} 拉取新通知，调用所有 {@link ProjectCacheListener} 清理本地缓存。
+ * <p>
+ * 自增ID在插入时分配、提交顺序可能不同，拉取时跳过的ID记为空洞，在 gap-timeout 内重复查询，
+ * 超时仍不存在视为回滚。启动时从当前最大ID开始，之前的通知与刚启动的空缓存无关。
+ * <p>
+ * 开启分片时通知与项目写在同一个分片上（同一事务），每个分片各自维护拉取进度和空洞。
+ * 分片的连接设置了 auto_increment_increment（见 ShardingDataSourceConfig）时，自增ID按该步长递增，
+ * 空洞也只按步长登记，不把其他分片的ID当成空洞。
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    /**
+     * 单次拉取最多登记的空洞数，超出的部分（通常是大量回滚）不再等待
+     */
+    private static final int MAX_TRACKED_GAPS = 1000;
+
+    private static final long CLEANUP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Resource
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Resource
+    private ObjectProvider<ProjectCacheListener> projectCacheListeners;
+
+    @Resource
+    private ProjectShardRouter projectShardRouter;
+
+    @Resource
+    private DataSource dataSource;
+
+    @Value("${app.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.invalidation.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${app.cache.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cache.invalidation.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    @Value("${app.cache.invalidation.retention-hours:24}")
+    private long retentionHours;
+
+    private final String nodeId = resolveNodeId();
+
+    /**
+     * 分片号 → 拉取进度
+     */
+    private final Map<Integer, ShardCursor> cursors = new ConcurrentHashMap<>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong remoteReceived = new AtomicLong();
+    private final AtomicLong totalLagMs = new AtomicLong();
+    private final AtomicLong maxLagMs = new AtomicLong();
+
+    private volatile long lastLagMs;
+    private long lastCleanupAt = System.currentTimeMillis();
+
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "cache-invalidation-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("[缓存失效] 启动拉取, nodeId={}, intervalMs={}", nodeId, pollIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProjectSaved(ProjectSavedEvent event) {
+        publish(event.expenseProject().getId(), event.expenseProject().getCreateUserId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProjectDeleted(ProjectDeletedEvent event) {
+        publish(event.projectId(), event.createUserId());
+    }
+
+    /**
+     * lastSeenId 为 0 号分片的进度，pendingGaps 为所有分片合计
+     */
+    public CacheInvalidationStatsDTO stats() {
+        final long remote = remoteReceived.get();
+        final long lastSeenId = cursor(ShardContext.GLOBAL).lastSeenId;
+        final int pendingGaps = cursors.values().stream().mapToInt(cursor -> cursor.gaps.size()).sum();
+        return new CacheInvalidationStatsDTO(nodeId, lastSeenId, received.get(), remote, pendingGaps,
+                lastLagMs, remote == 0 ? 0 : totalLagMs.get() / remote, maxLagMs.get());
+    }
+
+    private void publish(Integer projectId, Integer ownerUserId) {
+        if (!enabled || projectId == null) {
+            return;
+        }
+        final CacheInvalidationDO invalidationDO = new CacheInvalidationDO();
+        invalidationDO.setProjectId(projectId);
+        invalidationDO.setOwnerUserId(ownerUserId);
+        invalidationDO.setSourceNode(nodeId);
+        invalidationDO.setPublishedAt(System.currentTimeMillis());
+        cacheInvalidationRepository.save(invalidationDO);
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            // 数据库暂时不可用时下次再拉，lastSeenId 不变，不会漏掉通知
+            log.warn("[缓存失效] 拉取失败, nodeId={}", nodeId, e);
+        }
+    }
+
+    void poll() {
+        final long now = System.currentTimeMillis();
+        final boolean cleanup = now - lastCleanupAt > CLEANUP_INTERVAL_MILLIS;
+        if (cleanup) {
+            lastCleanupAt = now;
+        }
+        if (!projectShardRouter.isSharded()) {
+            poll(cursor(ShardContext.GLOBAL), now, cleanup);
+            return;
+        }
+        for (int shard = 0; shard < projectShardRouter.shardCount(); shard++) {
+            final ShardCursor cursor = cursor(shard);
+            try {
+                ShardContext.run(shard, () -> poll(cursor, now, cleanup));
+            } catch (Exception e) {
+                // 单个分片不可用不影响其他分片，该分片的进度不变
+                log.warn("[缓存失效] 拉取失败, nodeId={}, shard={}", nodeId, shard, e);
+            }
+        }
+    }
+
+    private void poll(ShardCursor cursor, long now, boolean cleanup) {
+        if (cursor.lastSeenId < 0) {
+            cursor.idStep = readIdStep();
+            cursor.lastSeenId = cacheInvalidationRepository.findMaxId();
+            return;
+        }
+        recheckGaps(cursor, now);
+
+        final List<CacheInvalidationDO> rows = cacheInvalidationRepository
+                .findByIdGreaterThanOrderByIdAsc(cursor.lastSeenId, PageRequest.of(0, batchSize));
+        for (CacheInvalidationDO row : rows) {
+            trackGaps(cursor, row.getId(), now);
+            dispatch(row);
+            cursor.lastSeenId = row.getId();
+        }
+
+        if (cleanup) {
+            final int deleted = cacheInvalidationRepository
+                    .deleteByCreatedAtBefore(LocalDateTime.now().minusHours(retentionHours));
+            if (deleted > 0) {
+                log.info("[缓存失效] 清理过期通知, deleted={}", deleted);
+            }
+        }
+    }
+
+    private ShardCursor cursor(int shard) {
+        return cursors.computeIfAbsent(shard, k -> new ShardCursor());
+    }
+
+    /**
+     * 只登记与 toId 相差步长整数倍的ID，其余ID属于其他分片
+     */
+    private void trackGaps(ShardCursor cursor, long toId, long now) {
+        final long step = cursor.idStep;
+        final long first = toId - (toId - cursor.lastSeenId - 1) / step * step;
+        for (long id = first; id < toId && cursor.gaps.size() < MAX_TRACKED_GAPS; id += step) {
+            cursor.gaps.put(id, now + gapTimeoutMs);
+        }
+    }
+
+    /**
+     * 当前分片连接上的自增步长
+     */
+    private long readIdStep() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select @@auto_increment_increment")) {
+            return resultSet.next() ? Math.max(1, resultSet.getLong(1)) : 1;
+        } catch (SQLException e) {
+            // 非 MySQL 没有该变量，自增ID连续
+            return 1;
+        }
+    }
+
+    private void recheckGaps(ShardCursor cursor, long now) {
+        if (cursor.gaps.isEmpty()) {
+            return;
+        }
+        for (CacheInvalidationDO row : cacheInvalidationRepository.findByIdIn(cursor.gaps.keySet())) {
+            cursor.gaps.remove(row.getId());
+            dispatch(row);
+        }
+        cursor.gaps.values().removeIf(deadline -> deadline < now);
+    }
+
+    private void dispatch(CacheInvalidationDO row) {
+        projectCacheListeners.orderedStream().forEach(listener -> {
+            try {
+                listener.evictProject(row.getProjectId(), row.getOwnerUserId());
+            } catch (Exception e) {
+                log.warn("[缓存失效] 清理缓存失败, listener={}, projectId={}",
+                        listener.getClass().getSimpleName(), row.getProjectId(), e);
+            }
+        });
+        received.incrementAndGet();
+        if (!nodeId.equals(row.getSourceNode())) {
+            // 依赖各节点时钟同步，时钟偏差会直接体现在延迟里
+            final long lag = Math.max(0, System.currentTimeMillis() - row.getPublishedAt());
+            lastLagMs = lag;
+            remoteReceived.incrementAndGet();
+            totalLagMs.addAndGet(lag);
+            maxLagMs.accumulateAndGet(lag, Math::max);
+        }
+    }
+
+    /**
+     * 单个分片的拉取进度
+     */
+    private static class ShardCursor {
+        volatile long lastSeenId = -1;
+
+        /**
+         * 自增步长，开始拉取时读取
+         */
+        volatile long idStep = 1;
+
+        /**
+         * 空洞ID → 放弃等待的时间
+         */
+        final Map<Long, Long> gaps = new ConcurrentHashMap<>();
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        // 同一台机器上可能有多个实例，加随机后缀区分
+        final String suffix = UUID.randomUUID().toString().substring(0, 8);
+        final String id = host + "-" + suffix;
+        return id.length() > 64 ? id.substring(id.length() - 64) : id;
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.zavier.infrastructure.cache;
+
+import com.github.zavier.infrastructure.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 缓存失效通知实体
+ * <p>
+ * 项目保存或删除时在同一事务内追加一行，只追加不修改，超过保留时间后清理
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "cache_invalidation", indexes = @Index(name = "idx_created_at", columnList = "created_at"))
+public class CacheInvalidationDO extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Integer projectId;
+
+    /**
+     * 项目创建人，用于清理按用户缓存的数据
+     */
+    @Column(name = "owner_user_id")
+    private Integer ownerUserId;
+
+    /**
+     * 写入节点
+     */
+    @Column(name = "source_node", nullable = false, length = 64)
+    private String sourceNode;
+
+    /**
+     * 写入时间（毫秒），created_at 精度只到秒，不够计算传播延迟
+     */
+    @Column(name = "published_at", nullable = false)
+    private Long publishedAt;
+}
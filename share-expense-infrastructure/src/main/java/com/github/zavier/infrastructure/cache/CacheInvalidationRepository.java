@@ -0,0 +1,34 @@
+package com.github.zavier.infrastructure.cache;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidationDO, Long> {
+
+    /**
+     * 按主键拉取新通知（主键范围扫描）
+     */
+    List<CacheInvalidationDO> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<CacheInvalidationDO> findByIdIn(Collection<Long> ids);
+
+    /**
+     * 当前最大ID，没有通知时为0
+     */
+    @Query("select coalesce(max(c.id), 0L) from CacheInvalidationDO c")
+    long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidationDO c where c.createdAt < ?1")
+    int deleteByCreatedAtBefore(LocalDateTime time);
+}
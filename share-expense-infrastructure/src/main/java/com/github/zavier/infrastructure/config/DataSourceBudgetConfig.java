@@ -0,0 +1,31 @@
+package com.github.zavier.infrastructure.config;
+
+import com.github.zavier.infrastructure.db.BudgetedDataSource;
+import com.github.zavier.infrastructure.db.ConnectionBudget;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 数据源连接配额配置
+ * <p>
+ * 将数据源包装为 {@link BudgetedDataSource}，使在 {@link ConnectionBudget} 内执行的流量只能占用有限的连接。
+ */
+@Configuration
+public class DataSourceBudgetConfig {
+
+    @Bean
+    public static BeanPostProcessor budgetedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BudgetedDataSource)) {
+                    return new BudgetedDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
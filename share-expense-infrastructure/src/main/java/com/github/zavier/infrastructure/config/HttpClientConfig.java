@@ -0,0 +1,44 @@
+package com.github.zavier.infrastructure.config;
+
+import com.github.zavier.infrastructure.http.PooledHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 外部接口 HTTP 客户端配置
+ * <p>
+ * 大模型接口和微信接口分别使用独立的连接池：大模型响应慢（数十秒），微信登录要求快速失败，
+ * 两者的超时不同，也不应互相占用连接。
+ */
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * 大模型接口（DeepSeek、LongCat）
+     */
+    @Bean
+    public PooledHttpClient modelHttpClient(
+            @Value("${app.http.model.max-total:50}") int maxTotal,
+            @Value("${app.http.model.max-per-route:25}") int maxPerRoute,
+            @Value("${app.http.model.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${app.http.model.response-timeout-ms:60000}") long responseTimeoutMs,
+            @Value("${app.http.model.connection-request-timeout-ms:3000}") long connectionRequestTimeoutMs) {
+        return new PooledHttpClient("model", new PooledHttpClient.Settings(
+                maxTotal, maxPerRoute, connectTimeoutMs, responseTimeoutMs, connectionRequestTimeoutMs));
+    }
+
+    /**
+     * 微信接口
+     */
+    @Bean
+    public PooledHttpClient wxHttpClient(
+            @Value("${app.http.wx.max-total:20}") int maxTotal,
+            @Value("${app.http.wx.max-per-route:20}") int maxPerRoute,
+            @Value("${app.http.wx.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${app.http.wx.response-timeout-ms:5000}") long responseTimeoutMs,
+            @Value("${app.http.wx.connection-request-timeout-ms:1000}") long connectionRequestTimeoutMs) {
+        return new PooledHttpClient("wx", new PooledHttpClient.Settings(
+                maxTotal, maxPerRoute, connectTimeoutMs, responseTimeoutMs, connectionRequestTimeoutMs));
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.zavier.infrastructure.config;
+
+import com.github.zavier.domain.user.domainservice.CurrentUserProvider;
+import com.github.zavier.infrastructure.db.ReadWriteRoutingDataSource;
+import com.github.zavier.infrastructure.db.ReadYourWritesTracker;
+import com.github.zavier.infrastructure.db.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * 读写分离数据源配置，app.datasource.replica.enabled=true 时生效
+ * <p>
+ * 主库使用 spring.datasource.*（连接池参数 spring.datasource.hikari.*），
+ * 从库使用 app.datasource.replica.*（连接池参数 app.datasource.replica.hikari.*），用户名、密码、驱动未配置时与主库相同。
+ * 对外只暴露一个数据源：LazyConnectionDataSourceProxy → {@link ReadWriteRoutingDataSource} → 主/从连接池。
+ * <p>
+ * 读己之写只在本节点内生效，多节点部署时同一用户的请求需要落在同一节点，或者接受最多 max-lag-ms 的旧数据。
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    private static final String REPLICA_PREFIX = "app.datasource.replica.";
+
+    private HikariDataSource primaryPool;
+    private HikariDataSource replicaPool;
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties primaryProperties,
+                                 Environment environment,
+                                 ObjectProvider<CurrentUserProvider> currentUserProvider) {
+        final Binder binder = Binder.get(environment);
+
+        primaryPool = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaryPool));
+        primaryPool.setPoolName("primary");
+
+        replicaPool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(environment.getRequiredProperty(REPLICA_PREFIX + "url"))
+                .username(environment.getProperty(REPLICA_PREFIX + "username", primaryProperties.determineUsername()))
+                .password(environment.getProperty(REPLICA_PREFIX + "password", primaryProperties.determinePassword()))
+                .driverClassName(environment.getProperty(REPLICA_PREFIX + "driver-class-name",
+                        primaryProperties.determineDriverClassName()))
+                .build();
+        binder.bind(REPLICA_PREFIX + "hikari", Bindable.ofInstance(replicaPool));
+        replicaPool.setPoolName("replica");
+        replicaPool.setReadOnly(true);
+
+        replicaLagMonitor = new ReplicaLagMonitor(primaryPool, replicaPool,
+                environment.getProperty(REPLICA_PREFIX + "heartbeat-interval-ms", Long.class, 1000L),
+                environment.getProperty(REPLICA_PREFIX + "max-lag-ms", Long.class, 5000L));
+
+        final ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primaryPool, replicaPool,
+                replicaLagMonitor, new ReadYourWritesTracker(currentUserProvider));
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSource dataSource) {
+        // 依赖数据源 Bean 保证监控在数据源创建之后启动；心跳表由建表脚本（或 ddl-auto）创建，首次失败会在下个周期重试
+        replicaLagMonitor.start();
+        return replicaLagMonitor;
+    }
+
+    /**
+     * 事务结束即归还连接。默认情况下 open-in-view 的 EntityManager 会在整个请求内持有第一次拿到的连接，
+     * 同一请求先读后写时写事务会落到从库连接上
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @PreDestroy
+    public void close() {
+        if (replicaLagMonitor != null) {
+            replicaLagMonitor.stop();
+        }
+        if (replicaPool != null) {
+            replicaPool.close();
+        }
+        if (primaryPool != null) {
+            primaryPool.close();
+        }
+    }
+}
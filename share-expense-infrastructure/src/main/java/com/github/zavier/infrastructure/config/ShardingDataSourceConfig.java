@@ -0,0 +1,107 @@
+package com.github.zavier.infrastructure.config;
+
+import com.github.zavier.infrastructure.shard.ShardDataSources;
+import com.github.zavier.infrastructure.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 项目分片数据源配置，app.sharding.enabled=true 时生效
+ * <p>
+ * 0 号分片是原有的 spring.datasource（全局库，用户、AI、ID序列、分片目录等表只在这里），
+ * 1..N 号分片依次为 app.sharding.shards[i]（url、username、password、driver-class-name，连接池参数 hikari.*）。
+ * 每个分片都需要执行完整的建表脚本，费用相关的表（项目、成员、费用记录、消费人员、读模型、缓存失效通知）按项目分布。
+ * <p>
+ * 成员、费用记录等子表仍使用各分片的自增ID，迁移时按原ID复制，各分片的自增ID不能重叠：
+ * MySQL 分片默认在连接初始化时设置 auto_increment_increment=分片数、auto_increment_offset=分片号+1，
+ * 新分片的表还需把 AUTO_INCREMENT 起始值设到 0 号分片现有最大ID之上。
+ * <p>
+ * 暂不支持与读写分离（app.datasource.replica.enabled）或事件存储（app.expense.persistence=event）同时开启。
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+
+    private static final String SHARDS_PREFIX = "app.sharding.shards";
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public ShardDataSources shardDataSources(DataSourceProperties primaryProperties, Environment environment) {
+        if (environment.getProperty("app.datasource.replica.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("分片暂不支持与读写分离同时开启");
+        }
+        if (!"table".equals(environment.getProperty("app.expense.persistence", "table"))) {
+            throw new IllegalStateException("分片只支持 app.expense.persistence=table");
+        }
+        final Binder binder = Binder.get(environment);
+        final List<DataSourceProperties> shardProperties = binder
+                .bind(SHARDS_PREFIX, Bindable.listOf(DataSourceProperties.class))
+                .orElse(List.of());
+        final int shardCount = shardProperties.size() + 1;
+        final boolean interleaveIds = environment.getProperty("app.sharding.interleave-auto-increment",
+                Boolean.class, true);
+
+        final HikariDataSource global = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(global));
+        configurePool(global, 0, shardCount, interleaveIds);
+        pools.add(global);
+
+        for (int i = 0; i < shardProperties.size(); i++) {
+            final HikariDataSource shard = shardProperties.get(i).initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            binder.bind(SHARDS_PREFIX + "[" + i + "].hikari", Bindable.ofInstance(shard));
+            configurePool(shard, i + 1, shardCount, interleaveIds);
+            pools.add(shard);
+        }
+        return new ShardDataSources(List.copyOf(pools));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        final ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(shardDataSources.shards());
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * 事务结束即归还连接，open-in-view 的 EntityManager 不会在整个请求内持有第一个分片的连接
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardConnectionReleaseAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private static void configurePool(HikariDataSource pool, int shard, int shardCount, boolean interleaveIds) {
+        pool.setPoolName("shard-" + shard);
+        if (interleaveIds && pool.getConnectionInitSql() == null
+                && pool.getJdbcUrl() != null && pool.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            pool.setConnectionInitSql("SET SESSION auto_increment_increment = " + shardCount
+                    + ", auto_increment_offset = " + (shard + 1));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.zavier.infrastructure.db;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 按 {@link ConnectionBudget} 限制连接数的数据源
+ * <p>
+ * 当前线程设置了配额时，获取连接前先占用一个配额，连接关闭（归还连接池）时释放；
+ * 没有配额的线程直接使用底层连接池。
+ */
+public class BudgetedDataSource extends DelegatingDataSource {
+
+    public BudgetedDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final ConnectionBudget budget = ConnectionBudget.current();
+        if (budget == null) {
+            return super.getConnection();
+        }
+        budget.acquire();
+        try {
+            return releaseOnClose(super.getConnection(), budget);
+        } catch (SQLException | RuntimeException e) {
+            budget.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        final ConnectionBudget budget = ConnectionBudget.current();
+        if (budget == null) {
+            return super.getConnection(username, password);
+        }
+        budget.acquire();
+        try {
+            return releaseOnClose(super.getConnection(username, password), budget);
+        } catch (SQLException | RuntimeException e) {
+            budget.release();
+            throw e;
+        }
+    }
+
+    private static Connection releaseOnClose(Connection connection, ConnectionBudget budget) {
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                BudgetedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            budget.release();
+                        }
+                    }
+                    if ("unwrap".equals(method.getName()) && args[0] instanceof Class<?> type && type.isInstance(proxy)) {
+                        return proxy;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.zavier.infrastructure.db;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据库连接配额
+ * <p>
+ * 所有业务共用一个数据库连接池。某类流量（如 AI 对话）在执行期间设置配额后，
+ * 它同时占用的连接数不会超过配额，剩余连接始终留给其他接口。
+ * 配额通过线程变量传递给 {@link BudgetedDataSource}，只对设置了配额的线程生效。
+ */
+public class ConnectionBudget {
+
+    private static final ThreadLocal<ConnectionBudget> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+
+    private final int maxConnections;
+
+    private final long acquireTimeoutMs;
+
+    private final Semaphore permits;
+
+    public ConnectionBudget(String name, int maxConnections, long acquireTimeoutMs) {
+        this.name = name;
+        this.maxConnections = maxConnections;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    /**
+     * 在配额内执行任务：任务期间当前线程获取的数据库连接都计入该配额
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        final ConnectionBudget previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    static ConnectionBudget current() {
+        return CURRENT.get();
+    }
+
+    void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "数据库连接配额已用完: budget=" + name + ", max=" + maxConnections);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("等待数据库连接配额被中断: budget=" + name, e);
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * 正在使用的连接数
+     */
+    public int getInUse() {
+        return maxConnections - permits.availablePermits();
+    }
+}
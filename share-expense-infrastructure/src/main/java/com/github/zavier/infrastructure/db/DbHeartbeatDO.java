@@ -0,0 +1,28 @@
+package com.github.zavier.infrastructure.db;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * 主从复制心跳
+ * <p>
+ * 每个节点在主库更新自己的一行，再从从库读回，读到的值说明从库已经应用了该时间之前主库提交的数据。
+ * 由 {@link ReplicaLagMonitor} 直接用 JDBC 读写，这里的实体只用于建表。
+ */
+@Data
+@Entity
+@Table(name = "db_heartbeat")
+public class DbHeartbeatDO {
+    @Id
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    /**
+     * 主库写入时间（毫秒）
+     */
+    @Column(name = "beat_at", nullable = false)
+    private Long beatAt;
+}
@@ -0,0 +1,28 @@
+package com.github.zavier.infrastructure.db;
+
+import com.github.zavier.infrastructure.common.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 全局ID序列（0 号分片），各节点按块取号
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "id_sequence")
+public class IdSequenceDO extends BaseEntity {
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    /**
+     * 下一个未分配的ID
+     */
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
@@ -0,0 +1,21 @@
+package com.github.zavier.infrastructure.db;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IdSequenceRepository extends JpaRepository<IdSequenceDO, String> {
+
+    /**
+     * 锁住序列行，同一序列的取号串行执行
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from IdSequenceDO s where s.name = :name")
+    Optional<IdSequenceDO> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,48 @@
+package com.github.zavier.infrastructure.db;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 读写分离数据源
+ * <p>
+ * 只读事务（{@code @Transactional(readOnly = true)}）走从库，其余（写事务、无事务的语句）走主库。
+ * 以下情况只读事务也回到主库：从库复制延迟超过上限，或当前用户刚写过、从库还没复制到。
+ * <p>
+ * 事务开始时还不知道是否只读，需要外面包一层 LazyConnectionDataSourceProxy，
+ * 第一条语句执行时才选择数据源。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWritesTracker) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWritesTracker.onWriteConnection();
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isHealthy() || readYourWritesTracker.mustReadPrimary(lagMonitor.getCaughtUpTo())) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
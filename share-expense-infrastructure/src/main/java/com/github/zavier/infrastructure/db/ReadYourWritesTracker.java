@@ -0,0 +1,89 @@
+package com.github.zavier.infrastructure.db;
+
+import com.github.zavier.domain.user.domainservice.CurrentUserProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读己之写：记录每个用户最近一次写事务的提交时间
+ * <p>
+ * 用户刚修改过数据、从库还没复制到时，该用户的只读查询继续走主库，避免看到修改前的数据；
+ * 其他用户不受影响。没有登录用户的线程（后台任务）不做记录。
+ */
+public class ReadYourWritesTracker {
+
+    private static final Object TRANSACTION_MARKER = new Object();
+
+    private final ObjectProvider<CurrentUserProvider> currentUserProvider;
+
+    private final Map<Integer, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(ObjectProvider<CurrentUserProvider> currentUserProvider) {
+        this.currentUserProvider = currentUserProvider;
+    }
+
+    /**
+     * 当前写事务提交后记录当前用户的写入时间，同一事务只注册一次
+     */
+    void onWriteConnection() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(TRANSACTION_MARKER)) {
+            return;
+        }
+        final Integer userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(TRANSACTION_MARKER, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteAt.put(userId, System.currentTimeMillis());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_MARKER);
+            }
+        });
+    }
+
+    /**
+     * 当前用户最近的写入从库是否还没有复制到
+     *
+     * @param caughtUpTo 从库已应用到的主库时间
+     */
+    boolean mustReadPrimary(long caughtUpTo) {
+        final Integer userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        final Long writeAt = lastWriteAt.get(userId);
+        if (writeAt == null) {
+            return false;
+        }
+        if (writeAt < caughtUpTo) {
+            // 已复制到从库，不再需要记录
+            lastWriteAt.remove(userId, writeAt);
+            return false;
+        }
+        return true;
+    }
+
+    private Integer currentUserId() {
+        final CurrentUserProvider provider = currentUserProvider.getIfAvailable();
+        if (provider == null) {
+            return null;
+        }
+        try {
+            return provider.getCurrentUserId();
+        } catch (RuntimeException e) {
+            // 未登录
+            return null;
+        }
+    }
+}
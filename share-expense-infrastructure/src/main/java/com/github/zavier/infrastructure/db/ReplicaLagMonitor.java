@@ -0,0 +1,147 @@
+package com.github.zavier.infrastructure.db;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 从库复制进度监控
+ * <p>
+ * 定时在主库写入心跳（当前时间），再从从库读回本节点的心跳。从库上读到的值 caughtUpTo 表示：
+ * 主库在该时间之前提交的数据从库都已应用（复制按提交顺序回放）。
+ * <ul>
+ *   <li>caughtUpTo 距今超过最大延迟（包括从库不可用、读不到心跳）时，只读查询全部回到主库</li>
+ *   <li>用户最近一次写入晚于 caughtUpTo 时，该用户的只读查询走主库（读己之写），见 {@link ReadYourWritesTracker}</li>
+ * </ul>
+ * 心跳表用反引号引用标识符，MySQL 和 H2（MySQL 模式）都可以执行。
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String UPDATE_SQL = "update `db_heartbeat` set `beat_at` = ? where `node_id` = ?";
+    private static final String INSERT_SQL = "insert into `db_heartbeat` (`node_id`, `beat_at`) values (?, ?)";
+    private static final String SELECT_SQL = "select `beat_at` from `db_heartbeat` where `node_id` = ?";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long intervalMs;
+    private final long maxLagMs;
+    private final String nodeId = resolveNodeId();
+
+    private volatile long caughtUpTo;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long intervalMs, long maxLagMs) {
+        this.primary = primary;
+        this.replica = replica;
+        this.intervalMs = intervalMs;
+        this.maxLagMs = maxLagMs;
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshSafely, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 从库是否可以承担只读查询
+     */
+    public boolean isHealthy() {
+        return caughtUpTo > 0 && getLagMs() <= maxLagMs;
+    }
+
+    /**
+     * 主库在该时间（毫秒）之前提交的数据从库已应用
+     */
+    public long getCaughtUpTo() {
+        return caughtUpTo;
+    }
+
+    /**
+     * 复制延迟（毫秒），包含心跳间隔；还没读到心跳时为 -1
+     */
+    public long getLagMs() {
+        return caughtUpTo == 0 ? -1 : Math.max(0, System.currentTimeMillis() - caughtUpTo);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 写入一次心跳并读取从库进度
+     */
+    public void refresh() throws SQLException {
+        writeHeartbeat(System.currentTimeMillis());
+        final Long replicaBeat = readReplicaHeartbeat();
+        if (replicaBeat != null) {
+            caughtUpTo = replicaBeat;
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // caughtUpTo 不再前进，超过最大延迟后只读查询自动回到主库
+            log.warn("[读写分离] 复制心跳失败, nodeId={}", nodeId, e);
+        }
+    }
+
+    private void writeHeartbeat(long now) throws SQLException {
+        try (Connection connection = primary.getConnection()) {
+            try (PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+                update.setLong(1, now);
+                update.setString(2, nodeId);
+                if (update.executeUpdate() > 0) {
+                    return;
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                insert.setString(1, nodeId);
+                insert.setLong(2, now);
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    private Long readReplicaHeartbeat() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             PreparedStatement select = connection.prepareStatement(SELECT_SQL)) {
+            select.setString(1, nodeId);
+            try (ResultSet resultSet = select.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : null;
+            }
+        }
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        final String id = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return id.length() > 64 ? id.substring(id.length() - 64) : id;
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.zavier.infrastructure.http;
+
+import com.github.zavier.dto.data.HttpPoolStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.IOException;
+
+/**
+ * 带连接池和超时限制的 HTTP 客户端
+ * <p>
+ * 每个外部依赖使用独立的连接池：某个上游卡住时，最多占满自己的连接池，
+ * 后续请求在 connectionRequestTimeout 内拿不到连接即失败，不会拖住其他上游的调用和请求线程。
+ */
+@Slf4j
+public class PooledHttpClient implements AutoCloseable {
+
+    /**
+     * 连接池参数
+     *
+     * @param maxTotal                   最大连接数
+     * @param maxPerRoute                单个域名的最大连接数
+     * @param connectTimeoutMs           建立连接超时
+     * @param responseTimeoutMs          等待响应超时（两次读到数据之间的最长间隔）
+     * @param connectionRequestTimeoutMs 从连接池获取连接的超时
+     */
+    public record Settings(int maxTotal, int maxPerRoute, long connectTimeoutMs, long responseTimeoutMs,
+                           long connectionRequestTimeoutMs) {
+    }
+
+    /**
+     * 空闲连接的最长保留时间
+     */
+    private static final TimeValue MAX_IDLE_TIME = TimeValue.ofSeconds(30);
+
+    /**
+     * 连接空闲超过该时间后，复用前先检查是否仍可用
+     */
+    private static final TimeValue VALIDATE_AFTER_INACTIVITY = TimeValue.ofSeconds(2);
+
+    private final String name;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpClient httpClient;
+
+    private final ClientHttpRequestFactory requestFactory;
+
+    public PooledHttpClient(String name, Settings settings) {
+        this.name = name;
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxTotal())
+                .setMaxConnPerRoute(settings.maxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(settings.connectTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(settings.responseTimeoutMs()))
+                        .setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY)
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.connectionRequestTimeoutMs()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(settings.responseTimeoutMs()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(MAX_IDLE_TIME)
+                .build();
+        this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        log.info("[HTTP连接池] 初始化完成, pool={}, settings={}", name, settings);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 供 RestTemplate / RestClient 使用的请求工厂
+     */
+    public ClientHttpRequestFactory requestFactory() {
+        return requestFactory;
+    }
+
+    public HttpPoolStatsDTO stats() {
+        final PoolStats totalStats = connectionManager.getTotalStats();
+        return new HttpPoolStatsDTO(name, totalStats.getLeased(), totalStats.getPending(),
+                totalStats.getAvailable(), totalStats.getMax());
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+        log.info("[HTTP连接池] 已关闭, pool={}", name);
+    }
+}
@@ -0,0 +1,226 @@
+package com.github.zavier.infrastructure.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.Resource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 项目在分片之间迁移
+ * <p>
+ * 迁移一个项目：
+ * <ol>
+ *   <li>在源分片锁住项目行（select for update），迁移期间该项目的保存在源分片上等待</li>
+ *   <li>把项目、成员、费用记录、消费人员、读模型按原ID复制到目标分片并提交（先清掉上次失败残留的数据）</li>
+ *   <li>更新分片目录</li>
+ *   <li>删除源分片的数据并提交，等待中的保存因项目不存在按版本冲突失败，重试时按新目录到目标分片</li>
+ * </ol>
+ * 第 3 步之前失败可直接重试；第 3、4 步之间失败会在源分片留下不再使用的数据，需要人工清理。
+ * <p>
+ * 增加分片后调用 {@link #rebalance()}（或 app.sharding.rebalance-on-startup=true 启动时执行一次），
+ * 把不在 {@link ProjectShardRouter#placementOf} 分片上的项目迁过去，包括开启分片前留在 0 号分片的项目。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ProjectResharder implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = 200;
+
+    /**
+     * 按项目迁移的表和项目ID列，按依赖顺序（先父后子）排列，删除时倒序
+     */
+    private static final List<String[]> PROJECT_TABLES = List.of(
+            new String[]{"expense_project", "id"},
+            new String[]{"expense_project_member", "project_id"},
+            new String[]{"expense_record", "project_id"},
+            new String[]{"expense_record_consumer", "project_id"},
+            new String[]{"expense_project_view", "project_id"},
+            new String[]{"expense_project_frozen", "project_id"},
+            new String[]{"expense_project_summary", "project_id"},
+            new String[]{"expense_project_category", "project_id"});
+
+    @Resource
+    private ShardDataSources shardDataSources;
+
+    @Resource
+    private ProjectShardRouter projectShardRouter;
+
+    @Value("${app.sharding.rebalance-on-startup:false}")
+    private boolean rebalanceOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebalanceOnStartup) {
+            rebalance();
+        }
+    }
+
+    /**
+     * 把每个分片上不在目标分片的项目迁移过去
+     *
+     * @return 迁移的项目数
+     */
+    public int rebalance() {
+        int moved = 0;
+        int failed = 0;
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            for (Integer projectId : listProjectIds(shard)) {
+                if (projectShardRouter.refresh(projectId) != shard) {
+                    log.warn("[分片] 项目不属于该分片（迁移中断的残留数据）, projectId={}, shard={}", projectId, shard);
+                    continue;
+                }
+                final int target = projectShardRouter.placementOf(projectId);
+                if (target == shard) {
+                    continue;
+                }
+                try {
+                    if (move(projectId, target)) {
+                        moved++;
+                    }
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.error("[分片] 项目迁移失败, projectId={}, from={}, to={}", projectId, shard, target, e);
+                }
+            }
+        }
+        log.info("[分片] 重新分布完成, moved={}, failed={}", moved, failed);
+        return moved;
+    }
+
+    /**
+     * 把项目迁移到目标分片
+     *
+     * @return 是否做了迁移，项目不存在或已在目标分片时返回 false
+     */
+    public boolean move(Integer projectId, int targetShard) {
+        final int sourceShard = projectShardRouter.refresh(projectId);
+        if (sourceShard == targetShard) {
+            return false;
+        }
+        try (Connection source = shardDataSources.get(sourceShard).getConnection();
+             Connection target = shardDataSources.get(targetShard).getConnection()) {
+            source.setAutoCommit(false);
+            target.setAutoCommit(false);
+            try {
+                if (!lockProject(source, projectId)) {
+                    source.rollback();
+                    return false;
+                }
+                deleteProject(target, projectId);
+                int rows = 0;
+                for (String[] table : PROJECT_TABLES) {
+                    rows += copyRows(source, target, table[0], table[1], projectId);
+                }
+                target.commit();
+
+                projectShardRouter.moved(projectId, targetShard);
+
+                deleteProject(source, projectId);
+                source.commit();
+                log.info("[分片] 项目迁移完成, projectId={}, from={}, to={}, rows={}",
+                        projectId, sourceShard, targetShard, rows);
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                target.rollback();
+                source.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("项目迁移失败, projectId=" + projectId, e);
+        }
+    }
+
+    private List<Integer> listProjectIds(int shard) {
+        final List<Integer> projectIds = new ArrayList<>();
+        try (Connection connection = shardDataSources.get(shard).getConnection();
+             PreparedStatement select = connection.prepareStatement(
+                     "select `id` from `expense_project` where `id` > ? order by `id` limit " + PAGE_SIZE)) {
+            int lastId = 0;
+            while (true) {
+                select.setInt(1, lastId);
+                int count = 0;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getInt(1);
+                        projectIds.add(lastId);
+                        count++;
+                    }
+                }
+                if (count < PAGE_SIZE) {
+                    return projectIds;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("读取分片项目失败, shard=" + shard, e);
+        }
+    }
+
+    private static boolean lockProject(Connection connection, Integer projectId) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "select `id` from `expense_project` where `id` = ? for update")) {
+            select.setInt(1, projectId);
+            try (ResultSet resultSet = select.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private static void deleteProject(Connection connection, Integer projectId) throws SQLException {
+        for (int i = PROJECT_TABLES.size() - 1; i >= 0; i--) {
+            final String[] table = PROJECT_TABLES.get(i);
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "delete from `" + table[0] + "` where `" + table[1] + "` = ?")) {
+                delete.setInt(1, projectId);
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * 按源表的列原样复制，保留主键
+     */
+    private static int copyRows(Connection source, Connection target, String table, String keyColumn,
+                                Integer projectId) throws SQLException {
+        try (PreparedStatement select = source.prepareStatement(
+                "select * from `" + table + "` where `" + keyColumn + "` = ?")) {
+            select.setInt(1, projectId);
+            try (ResultSet resultSet = select.executeQuery()) {
+                final ResultSetMetaData metaData = resultSet.getMetaData();
+                final int columns = metaData.getColumnCount();
+                final StringBuilder names = new StringBuilder();
+                final StringBuilder placeholders = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    names.append(i > 1 ? ", " : "").append('`').append(metaData.getColumnName(i)).append('`');
+                    placeholders.append(i > 1 ? ", ?" : "?");
+                }
+                int rows = 0;
+                try (PreparedStatement insert = target.prepareStatement(
+                        "insert into `" + table + "` (" + names + ") values (" + placeholders + ")")) {
+                    while (resultSet.next()) {
+                        for (int i = 1; i <= columns; i++) {
+                            insert.setObject(i, resultSet.getObject(i));
+                        }
+                        insert.addBatch();
+                        rows++;
+                    }
+                    if (rows > 0) {
+                        insert.executeBatch();
+                    }
+                }
+                return rows;
+            }
+        }
+    }
+}
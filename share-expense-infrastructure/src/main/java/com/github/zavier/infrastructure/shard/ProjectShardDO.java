@@ -0,0 +1,27 @@
+package com.github.zavier.infrastructure.shard;
+
+import com.github.zavier.infrastructure.common.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 项目分片目录（全局库）：项目所在的分片
+ * <p>
+ * 开启分片前创建的项目没有目录行，位于 0 号分片
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "project_shard")
+public class ProjectShardDO extends BaseEntity {
+    @Id
+    @Column(name = "project_id")
+    private Integer projectId;
+
+    @Column(name = "shard_index", nullable = false)
+    private Integer shardIndex;
+}
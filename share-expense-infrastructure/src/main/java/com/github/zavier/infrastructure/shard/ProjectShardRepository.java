@@ -0,0 +1,8 @@
+package com.github.zavier.infrastructure.shard;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectShardRepository extends JpaRepository<ProjectShardDO, Integer> {
+}
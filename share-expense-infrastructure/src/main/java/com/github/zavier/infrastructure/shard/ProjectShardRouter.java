@@ -0,0 +1,207 @@
+package com.github.zavier.infrastructure.shard;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * 项目分片路由
+ * <p>
+ * 新项目按 ID 取模放到分片上，并写入全局库的分片目录；之后按目录定位，迁移（{@link ProjectResharder}）只需改目录。
+ * 目录缓存在本节点，项目被其他节点迁移后，按旧位置查不到时调用 {@link #refresh} 重新读取。
+ * <p>
+ * 未开启分片时只有 0 号分片，不访问目录。
+ */
+@Slf4j
+@Component
+public class ProjectShardRouter {
+
+    /**
+     * 目录缓存上限，超过后整体清空
+     */
+    private static final int MAX_CACHED = 100_000;
+
+    @Resource
+    private ProjectShardRepository projectShardRepository;
+
+    @Resource
+    private ObjectProvider<ShardDataSources> shardDataSources;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    private int shardCount = 1;
+    private TransactionTemplate directoryTransaction;
+    private ExecutorService scatterExecutor;
+
+    private final Map<Integer, Integer> directoryCache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        final ShardDataSources shards = shardDataSources.getIfAvailable();
+        shardCount = shards == null ? 1 : shards.size();
+        if (!isSharded()) {
+            return;
+        }
+        // 目录读写在全局库的独立事务中执行，不占用调用方所在分片的连接
+        directoryTransaction = new TransactionTemplate(transactionManager);
+        directoryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        final AtomicInteger threadNo = new AtomicInteger();
+        scatterExecutor = Executors.newCachedThreadPool(r -> {
+            final Thread thread = new Thread(r, "shard-scatter-" + threadNo.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("[分片] 项目数据分布在 {} 个分片", shardCount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * 按 ID 计算的分片，新项目放在这里，{@link ProjectResharder#rebalance} 也以此为目标
+     */
+    public int placementOf(Integer projectId) {
+        return Math.floorMod(projectId, shardCount);
+    }
+
+    /**
+     * 项目当前所在的分片
+     */
+    public int shardOf(Integer projectId) {
+        if (!isSharded() || projectId == null) {
+            return ShardContext.GLOBAL;
+        }
+        final Integer cached = directoryCache.get(projectId);
+        if (cached != null) {
+            return cached;
+        }
+        final int shard = inDirectory(() -> projectShardRepository.findById(projectId)
+                .map(ProjectShardDO::getShardIndex)
+                .orElse(ShardContext.GLOBAL));
+        cache(projectId, shard);
+        return shard;
+    }
+
+    /**
+     * 丢弃缓存重新读取目录
+     */
+    public int refresh(Integer projectId) {
+        directoryCache.remove(projectId);
+        return shardOf(projectId);
+    }
+
+    /**
+     * 为新项目分配分片并写入目录，在项目写入分片之前调用
+     */
+    public int assign(Integer projectId) {
+        if (!isSharded()) {
+            return ShardContext.GLOBAL;
+        }
+        final int shard = placementOf(projectId);
+        saveDirectory(projectId, shard);
+        return shard;
+    }
+
+    /**
+     * 迁移完成后更新目录
+     */
+    void moved(Integer projectId, int shard) {
+        saveDirectory(projectId, shard);
+    }
+
+    /**
+     * 项目删除后移除目录
+     */
+    public void forget(Integer projectId) {
+        if (!isSharded()) {
+            return;
+        }
+        directoryCache.remove(projectId);
+        inDirectory(() -> {
+            projectShardRepository.findById(projectId).ifPresent(projectShardRepository::delete);
+            return null;
+        });
+    }
+
+    /**
+     * 在每个分片上并行执行，按分片号返回结果；每个分片在独立的线程和事务中执行
+     */
+    public <T> List<T> scatter(IntFunction<T> perShard) {
+        if (!isSharded()) {
+            return List.of(ShardContext.call(ShardContext.GLOBAL, () -> perShard.apply(ShardContext.GLOBAL)));
+        }
+        final List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            final int target = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> ShardContext.call(target, () -> perShard.apply(target)), scatterExecutor));
+        }
+        final List<T> results = new ArrayList<>(shardCount);
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private void saveDirectory(Integer projectId, int shard) {
+        inDirectory(() -> {
+            final ProjectShardDO shardDO = projectShardRepository.findById(projectId).orElseGet(() -> {
+                final ProjectShardDO created = new ProjectShardDO();
+                created.setProjectId(projectId);
+                return created;
+            });
+            shardDO.setShardIndex(shard);
+            return projectShardRepository.save(shardDO);
+        });
+        cache(projectId, shard);
+    }
+
+    private <T> T inDirectory(Supplier<T> action) {
+        return ShardContext.call(ShardContext.GLOBAL, () -> directoryTransaction.execute(status -> action.get()));
+    }
+
+    private void cache(Integer projectId, int shard) {
+        if (directoryCache.size() >= MAX_CACHED) {
+            directoryCache.clear();
+        }
+        directoryCache.put(projectId, shard);
+    }
+}
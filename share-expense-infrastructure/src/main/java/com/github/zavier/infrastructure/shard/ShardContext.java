@@ -0,0 +1,51 @@
+package com.github.zavier.infrastructure.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前线程访问的分片
+ * <p>
+ * {@link ShardRoutingDataSource} 在取连接时按这里的分片选择连接池，未设置时使用 0 号分片（全局库）。
+ * 事务绑定的是第一条语句取到的连接，一个事务只能访问一个分片；跨分片的操作需要在各自的事务中执行。
+ * 只在当前线程生效，不向异步任务传递。
+ */
+public final class ShardContext {
+
+    /**
+     * 0 号分片：原有的 spring.datasource，同时存放用户、AI、ID序列、分片目录等全局表
+     */
+    public static final int GLOBAL = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 在指定分片上执行，结束后恢复之前的分片
+     */
+    public static <T> T call(int shard, Supplier<T> action) {
+        final Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void run(int shard, Runnable action) {
+        call(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.zavier.infrastructure.shard;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 各分片的连接池（不经过路由），下标即分片号，0 号为全局库
+ *
+ * @param shards 分片连接池
+ */
+public record ShardDataSources(List<DataSource> shards) {
+
+    public int size() {
+        return shards.size();
+    }
+
+    public DataSource get(int shard) {
+        return shards.get(shard);
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.zavier.project;
+
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.ProjectVersionKey;
+import com.github.zavier.domain.utils.SingleFlight;
+import com.github.zavier.expense.ExpenseEventStore;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 事件存储：项目表保存名称、锁定状态和版本号，成员和费用记录的变更以事件追加到事件表
+ * <p>
+ * 保存时只更新项目行（版本号校验与表存储一致）并追加本次产生的事件，不再删除重建关联表；
+ * 加载时读取最新快照并重放之后的事件。已有项目需先用 {@link ExpenseEventMigrator} 迁移。
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.expense.persistence", havingValue = "event")
+public class EventSourcedExpenseProjectGateway extends ExpenseProjectGatewayImpl {
+
+    @Resource
+    private ExpenseEventStore expenseEventStore;
+
+    private final SingleFlight<ProjectVersionKey, Optional<ExpenseEventStore.ProjectState>> replayFlight =
+            new SingleFlight<>("projectReplay");
+
+    @Override
+    public void save(ExpenseProject expenseProject) {
+        // 新项目在开启保存事务之前分配ID
+        final Integer newProjectId = expenseProject.getId() == null ? reserveProjectId() : null;
+        inSaveTransaction(() -> {
+            saveProject(expenseProject, newProjectId);
+            final int appended = expenseEventStore.append(expenseProject);
+            log.info("[事件存储] 保存项目, projectId={}, version={}, events={}",
+                    expenseProject.getId(), expenseProject.getVersion(), appended);
+            publishSaved(expenseProject);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void delete(Integer projectId) {
+        expenseEventStore.delete(projectId);
+        super.delete(projectId);
+    }
+
+    @Override
+    public Optional<ExpenseProject> getProjectById(@NotNull Integer expenseProjectId) {
+        return getProjectHeaderById(expenseProjectId).map(this::replay);
+    }
+
+    @Override
+    public List<SingleFlight<?, ?>> singleFlights() {
+        final List<SingleFlight<?, ?>> flights = new ArrayList<>(super.singleFlights());
+        flights.add(replayFlight);
+        return flights;
+    }
+
+    @Override
+    protected List<ExpenseProject> listProjectByIds(List<Integer> projectIdList) {
+        if (CollectionUtils.isEmpty(projectIdList)) {
+            return new ArrayList<>();
+        }
+        // 分页查询每页项目数有限，逐个重放（每个项目一次快照查询和一次事件查询）
+        final List<ExpenseProject> projects = listProjectHeadersByIds(projectIdList);
+        projects.forEach(this::replay);
+        return projects;
+    }
+
+    /**
+     * 把按表存储的项目转换为事件：每个成员一个 MemberAdded，每条费用记录一个 RecordAdded，并写入快照
+     * <p>
+     * 费用记录会得到新的ID（事件ID），项目版本号随之递增。关联表中的原数据保留，可用于核对或切回表存储。
+     *
+     * @return 是否做了迁移，已有事件的项目跳过
+     */
+    @Transactional
+    public boolean migrate(Integer projectId) {
+        if (expenseEventStore.hasEvents(projectId)) {
+            return false;
+        }
+        final Optional<ExpenseProject> tableProject = loadFromTables(projectId);
+        if (tableProject.isEmpty()) {
+            return false;
+        }
+
+        final ExpenseProject source = tableProject.get();
+        final ExpenseProject target = getProjectHeaderById(projectId).orElseThrow();
+        source.listAllMember().forEach(target::addMember);
+        source.listAllExpenseRecord().forEach(record -> {
+            record.setId(null);
+            target.addExpenseRecord(record);
+        });
+        final int events = target.listPendingEvents().size();
+        // 记录ID变了，推进版本号，让持有旧ID的客户端和派生数据（读模型）刷新
+        saveProject(target);
+        expenseEventStore.append(target);
+        expenseEventStore.saveSnapshot(target, events);
+        publishSaved(target);
+        log.info("[事件存储] 迁移项目, projectId={}, members={}, records={}",
+                projectId, source.listAllMember().size(), source.listAllExpenseRecord().size());
+        return true;
+    }
+
+    /**
+     * 同一项目同一版本的并发重放合并为一次，每个调用方各自填充聚合
+     */
+    private ExpenseProject replay(ExpenseProject header) {
+        final ProjectVersionKey key = new ProjectVersionKey(header.getId(), header.getVersion());
+        replayFlight.execute(key, () -> expenseEventStore.load(header.getId()))
+                .ifPresent(state -> ExpenseEventStore.restore(header, state));
+        return header;
+    }
+}
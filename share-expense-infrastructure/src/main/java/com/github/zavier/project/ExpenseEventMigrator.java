@@ -0,0 +1,67 @@
+package com.github.zavier.project;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.Resource;
+
+/**
+ * 表存储项目迁移到事件存储
+ * <p>
+ * 按项目ID分页遍历全部项目，逐个在各自的事务中转换，已有事件的项目跳过，可重复执行。
+ * app.expense.event-store.migrate-on-startup=true 时在启动后执行一次。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.expense.persistence", havingValue = "event")
+public class ExpenseEventMigrator implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = 200;
+
+    @Resource
+    private ExpenseProjectRepository expenseProjectRepository;
+    @Resource
+    private EventSourcedExpenseProjectGateway eventSourcedExpenseProjectGateway;
+
+    @Value("${app.expense.event-store.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup) {
+            migrateAll();
+        }
+    }
+
+    /**
+     * @return 迁移的项目数
+     */
+    public int migrateAll() {
+        int migrated = 0;
+        int failed = 0;
+        Page<ExpenseProjectDO> page;
+        int pageNo = 0;
+        do {
+            page = expenseProjectRepository.findAll(PageRequest.of(pageNo++, PAGE_SIZE, Sort.by("id")));
+            for (ExpenseProjectDO projectDO : page) {
+                try {
+                    if (eventSourcedExpenseProjectGateway.migrate(projectDO.getId())) {
+                        migrated++;
+                    }
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.error("[事件存储] 项目迁移失败, projectId={}", projectDO.getId(), e);
+                }
+            }
+        } while (page.hasNext());
+        log.info("[事件存储] 迁移完成, migrated={}, failed={}", migrated, failed);
+        return migrated;
+    }
+}
@@ -4,6 +4,7 @@ import com.github.zavier.infrastructure.common.BaseEntity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.GenericGenerator;
 
 /**
  * 费用项目实体（聚合根）
@@ -16,6 +17,8 @@ import lombok.EqualsAndHashCode;
  * - 手动管理子实体生命周期，通过 Repository 直接操作
  * - 子实体保留 projectId 外键字段，支持独立查询和批量操作
  * - 这种设计避免了 JPA 级联操作的性能问题，提供了更精确的控制
+ * <p>
+ * 项目ID由 {@link ProjectIdAllocator} 从全局序列分配，分片后各分片的项目ID不重复
  */
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -23,7 +26,8 @@ import lombok.EqualsAndHashCode;
 @Table(name = "expense_project")
 public class ExpenseProjectDO extends BaseEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "projectId")
+    @GenericGenerator(name = "projectId", type = ProjectIdGenerator.class)
     @Column(name = "id")
     private Integer id;
 
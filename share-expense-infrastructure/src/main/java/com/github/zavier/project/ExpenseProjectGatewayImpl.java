@@ -9,34 +9,76 @@ import com.github.zavier.converter.ExpenseProjectConverter;
 import com.github.zavier.converter.ExpenseRecordDoConverter;
 import com.github.zavier.domain.expense.ExpenseProject;
 import com.github.zavier.domain.expense.ExpenseRecord;
+import com.github.zavier.domain.expense.ProjectDeletedEvent;
+import com.github.zavier.domain.expense.ProjectSavedEvent;
+import com.github.zavier.domain.expense.ProjectVersionKey;
 import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.domain.utils.SingleFlight;
+import com.github.zavier.domain.utils.SingleFlightOwner;
 import com.github.zavier.dto.ProjectListQry;
 import com.github.zavier.expense.ExpenseRecordConsumerDO;
 import com.github.zavier.expense.ExpenseRecordConsumerRepository;
 import com.github.zavier.expense.ExpenseRecordDO;
 import com.github.zavier.expense.ExpenseRecordRepository;
+import com.github.zavier.infrastructure.shard.ProjectShardRouter;
+import com.github.zavier.infrastructure.shard.ShardContext;
+import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.Predicate;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * 项目表存储：成员和费用记录保存在关联表中，每次保存删除重建
+ * <p>
+ * 成员带项目内编号（member_no），费用记录的消费人员以编号位图保存在记录行上，加载时不再关联消费人员表；
+ * 迁移前的记录（consumer_bits 为空）仍从消费人员表读取，下次保存时改写为位图。
+ * <p>
+ * app.expense.persistence=event 时改用 {@link EventSourcedExpenseProjectGateway}
+ * <p>
+ * 开启分片时（app.sharding.enabled=true），单个项目的读写在项目所在分片上执行，
+ * 项目列表在各分片上并行查询后归并（见 {@link ProjectShardRouter}）。
+ */
 @Slf4j
 @Repository
-public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
+@ConditionalOnProperty(name = "app.expense.persistence", havingValue = "table", matchIfMissing = true)
+public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway, SingleFlightOwner {
+
+    /**
+     * 费用记录分批写入的批次大小
+     */
+    private static final int RECORD_BATCH_SIZE = 500;
 
     @Resource
     private ExpenseProjectRepository expenseProjectRepository;
@@ -46,23 +88,78 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
     private ExpenseRecordRepository expenseRecordRepository;
     @Resource
     private ExpenseRecordConsumerRepository expenseRecordConsumerRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Resource
+    private ApplicationEventPublisher applicationEventPublisher;
+    @Resource
+    private ProjectShardRouter projectShardRouter;
+    @Resource
+    private ProjectIdAllocator projectIdAllocator;
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate saveTransaction;
+
+    private final SingleFlight<ProjectVersionKey, ProjectRows> projectLoadFlight = new SingleFlight<>("projectLoad");
+
+    /**
+     * 项目聚合的关联数据，只读，可在并发加载的调用方之间共享；consumers 只包含迁移前记录的消费人员
+     */
+    private record ProjectRows(List<ExpenseProjectMemberDO> members,
+                               List<ExpenseRecordDO> records,
+                               List<ExpenseRecordConsumerDO> consumers) {
+    }
+
+    @PostConstruct
+    public void init() {
+        saveTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public List<SingleFlight<?, ?>> singleFlights() {
+        return List.of(projectLoadFlight);
+    }
 
     @Override
-    @Transactional
     public void save(ExpenseProject expenseProject) {
         log.info("save project:{}", JSON.toJSONString(expenseProject));
 
-        saveProject(expenseProject);
+        // 新项目先分配ID和分片（各自的独立事务），再开启保存事务，保存事务持有连接期间不再需要第二个连接；
+        // 之后的语句（包括提交前的监听方）都在项目所在分片上
+        final Integer newProjectId = expenseProject.getId() == null ? reserveProjectId() : null;
+        final Integer projectId = newProjectId != null ? newProjectId : expenseProject.getId();
+        ShardContext.run(projectShardRouter.shardOf(projectId), () -> inSaveTransaction(() -> {
+            saveProject(expenseProject, newProjectId);
 
-        saveProjectMembers(expenseProject);
+            saveProjectMembers(expenseProject);
 
-        saveExpenseRecord(expenseProject);
+            saveExpenseRecord(expenseProject);
 
+            publishSaved(expenseProject);
+        }));
     }
 
     @Override
     @Transactional
     public void delete(Integer projectId) {
+        // 重新读取目录，避免按过期的位置在旧分片上删除
+        ShardContext.run(projectShardRouter.refresh(projectId), () -> deleteInShard(projectId));
+        if (projectShardRouter.isSharded()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    projectShardRouter.forget(projectId);
+                }
+            });
+        }
+    }
+
+    private void deleteInShard(Integer projectId) {
+        final Integer createUserId = expenseProjectRepository.findById(projectId)
+                .map(ExpenseProjectDO::getCreateUserId)
+                .orElse(null);
+
         // 删除关联记录（使用批量 DELETE 语句，不加载实体到内存）
         // 从子表开始删除，避免外键约束
         // 直接执行 DELETE SQL，避免 OutOfMemoryError
@@ -72,29 +169,76 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
 
         // 删除项目主记录
         expenseProjectRepository.deleteById(projectId);
+
+        applicationEventPublisher.publishEvent(new ProjectDeletedEvent(projectId, createUserId));
+    }
+
+    /**
+     * 在保存事务内通知监听方（读模型等），监听方的写入与项目保存一起提交或回滚
+     */
+    protected void publishSaved(ExpenseProject expenseProject) {
+        applicationEventPublisher.publishEvent(new ProjectSavedEvent(expenseProject));
     }
 
+    /**
+     * 命令加载聚合后会按版本号保存，始终读主库，从库的旧版本会造成误报的并发冲突
+     */
     @Override
     public Optional<ExpenseProject> getProjectById(@NotNull Integer expenseProjectId) {
+        return inProjectShard(expenseProjectId, () -> loadFromTables(expenseProjectId));
+    }
+
+    /**
+     * 在项目所在分片上读取；按缓存的目录找不到时重新读取目录，项目可能刚被其他节点迁移
+     */
+    protected <T> Optional<T> inProjectShard(Integer projectId, Supplier<Optional<T>> loader) {
+        final int shard = projectShardRouter.shardOf(projectId);
+        final Optional<T> result = ShardContext.call(shard, loader);
+        if (result.isEmpty() && projectShardRouter.isSharded()) {
+            final int current = projectShardRouter.refresh(projectId);
+            if (current != shard) {
+                return ShardContext.call(current, loader);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 从项目表和关联表加载聚合
+     */
+    protected Optional<ExpenseProject> loadFromTables(@NotNull Integer expenseProjectId) {
         final Optional<ExpenseProjectDO> expenseProjectDO = expenseProjectRepository.findById(expenseProjectId);
         if (!expenseProjectDO.isPresent()) {
             return Optional.empty();
         }
 
-        final List<ExpenseProjectMemberDO> expenseProjectMemberDOS = listProjectMembers(expenseProjectId);
-        final List<ExpenseRecordDO> recordDOList = listRecord(expenseProjectId);
-        final List<ExpenseRecordConsumerDO> recordConsumerDOList = listRecordConsumer(expenseProjectId);
+        // 同一项目同一版本的并发加载合并为一次查询，每个调用方各自构建聚合，互不影响
+        final ProjectVersionKey key = new ProjectVersionKey(expenseProjectId, expenseProjectDO.get().getVersion());
+        final ProjectRows rows = projectLoadFlight.execute(key, () -> {
+            final List<ExpenseRecordDO> records = listRecord(expenseProjectId);
+            return new ProjectRows(
+                    listProjectMembers(expenseProjectId),
+                    records,
+                    hasLegacyRecord(records) ? listRecordConsumer(expenseProjectId) : List.of());
+        });
 
         final ExpenseProject build = new ExpenseProjectBuilder()
                 .setExpenseProjectDO(expenseProjectDO.get())
-                .setMemberDOList(expenseProjectMemberDOS)
-                .setRecordDOList(recordDOList)
-                .setExpenseRecordConsumerDOList(recordConsumerDOList)
+                .setMemberDOList(rows.members())
+                .setRecordDOList(rows.records())
+                .setExpenseRecordConsumerDOList(rows.consumers())
                 .build();
         return Optional.of(build);
     }
 
     @Override
+    public Optional<ExpenseProject> getProjectHeaderById(@NotNull Integer expenseProjectId) {
+        return inProjectShard(expenseProjectId, () -> expenseProjectRepository.findById(expenseProjectId)
+                .map(projectDO -> new ExpenseProjectBuilder().setExpenseProjectDO(projectDO).build()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public PageResponse<ExpenseProject> pageProject(ProjectListQry projectListQry) {
         // 查询出全部自己创建+自己加入的项目
         if (projectListQry.getOperatorId() != null) {
@@ -104,15 +248,58 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
         return pageAllProject(projectListQry);
     }
 
-    private Integer saveProject(ExpenseProject expenseProject) {
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, String> listProjectNames(Integer createUserId) {
+        final Map<Integer, String> projectNames = new LinkedHashMap<>();
+        if (projectShardRouter.isSharded()) {
+            projectShardRouter.scatter(shard -> expenseProjectRepository.findByCreateUserIdOrderByCreatedAtDesc(createUserId))
+                    .stream()
+                    .flatMap(List::stream)
+                    .sorted(Comparator.comparing(ExpenseProjectDO::getCreatedAt).reversed())
+                    .forEach(projectDO -> projectNames.putIfAbsent(projectDO.getId(), projectDO.getName()));
+            return projectNames;
+        }
+        expenseProjectRepository.findByCreateUserIdOrderByCreatedAtDesc(createUserId)
+                .forEach(projectDO -> projectNames.put(projectDO.getId(), projectDO.getName()));
+        return projectNames;
+    }
+
+    protected Integer saveProject(ExpenseProject expenseProject) {
+        return saveProject(expenseProject, null);
+    }
+
+    /**
+     * 在保存事务中执行，已有事务时加入
+     */
+    protected void inSaveTransaction(Runnable action) {
+        saveTransaction.executeWithoutResult(status -> action.run());
+    }
+
+    /**
+     * 分配项目ID并确定所在分片，取号和写目录各自使用独立事务，需在开启保存事务之前调用
+     */
+    protected Integer reserveProjectId() {
+        final Integer projectId = projectIdAllocator.allocate();
+        projectShardRouter.assign(projectId);
+        return projectId;
+    }
+
+    /**
+     * @param reservedId 新项目预先分配的ID，为空时在这里分配
+     */
+    protected Integer saveProject(ExpenseProject expenseProject, Integer reservedId) {
         if (expenseProject.getId() == null) {
             // insert
             final ExpenseProjectDO projectDO = ExpenseProjectConverter.toInsertDO(expenseProject);
-            final ExpenseProjectDO saved = expenseProjectRepository.save(projectDO);
+            projectDO.setId(reservedId != null ? reservedId : reserveProjectId());
+            // 已带ID的实体用 save 会按已存在处理走 merge，这里直接 persist；版本号为空时由 Hibernate 初始化为 0
+            projectDO.setVersion(null);
+            entityManager.persist(projectDO);
             // Sync id and version back to expenseProject
-            expenseProject.setId(saved.getId());
-            expenseProject.setVersion(saved.getVersion());
-            return saved.getId();
+            expenseProject.setId(projectDO.getId());
+            expenseProject.setVersion(projectDO.getVersion());
+            return projectDO.getId();
         }
 
         // update
@@ -120,9 +307,15 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
         log.info("更新项目，ID: {}, 当前版本: {}", expenseProject.getId(), expenseProject.getVersion());
 
         final ExpenseProjectDO existingDO = expenseProjectRepository.findById(expenseProject.getId())
-                .orElseThrow(() -> new BizException("项目不存在"));
+                .orElseThrow(() -> projectNotFound(expenseProject.getId()));
 
-        log.info("数据库中的实体版本: {}", existingDO.getVersion());
+        final Integer loadedVersion = existingDO.getVersion();
+        log.info("数据库中的实体版本: {}", loadedVersion);
+
+        // 聚合加载后项目已被其他请求修改，拒绝覆盖
+        if (expenseProject.getVersion() != null && !Objects.equals(expenseProject.getVersion(), loadedVersion)) {
+            throw new BizException(VERSION_CONFLICT, "项目已被修改，请刷新后重试");
+        }
 
         // 修改字段值 - 确保值确实发生变化
         existingDO.setName(expenseProject.getName());
@@ -132,6 +325,11 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
         // 使用 saveAndFlush 强制立即执行 SQL 并刷新持久化上下文
         final ExpenseProjectDO updated = expenseProjectRepository.saveAndFlush(existingDO);
 
+        // 只改了成员/费用记录时项目行不脏，版本号不会自增；这里强制自增，让每次保存都推进聚合版本
+        if (Objects.equals(updated.getVersion(), loadedVersion)) {
+            entityManager.lock(updated, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+        }
+
         log.info("更新后实体版本: {}", updated.getVersion());
 
         // Sync version back to expenseProject
@@ -139,6 +337,17 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
         return expenseProject.getId();
     }
 
+    /**
+     * 按缓存的目录在分片上找不到项目时，项目可能已被迁移到其他分片：按版本冲突处理，重试时重新定位
+     */
+    private BizException projectNotFound(Integer projectId) {
+        final Integer shard = ShardContext.current();
+        if (projectShardRouter.isSharded() && shard != null && projectShardRouter.refresh(projectId) != shard) {
+            return new BizException(VERSION_CONFLICT, "项目已迁移，请刷新后重试");
+        }
+        return new BizException("项目不存在");
+    }
+
     private void saveProjectMembers(ExpenseProject expenseProject) {
         // 删除关联的人员
         expenseProjectMemberRepository.deleteByProjectId(expenseProject.getId());
@@ -147,41 +356,62 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
             final ExpenseProjectMemberDO expenseProjectMemberDO = new ExpenseProjectMemberDO();
             expenseProjectMemberDO.setProjectId(expenseProject.getId());
             expenseProjectMemberDO.setName(projectMember);
+            expenseProjectMemberDO.setMemberNo(expenseProject.memberIdOf(projectMember));
             expenseProjectMemberRepository.save(expenseProjectMemberDO);
         });
     }
 
     private void saveExpenseRecord(ExpenseProject project) {
-        // 删除关联的费用消费人员（子表）- 使用批量 DELETE 语句，不加载实体到内存
+        // 删除迁移前的费用消费人员（子表），保存后消费人员都在记录的位图中 - 使用批量 DELETE 语句，不加载实体到内存
         expenseRecordConsumerRepository.deleteByProjectId(project.getId());
         // 删除关联的费用（父表）- 使用批量 DELETE 语句，不加载实体到内存
         expenseRecordRepository.deleteByProjectId(project.getId());
 
         final List<ExpenseRecord> expenseRecords = project.listAllExpenseRecord();
-        expenseRecords.forEach(expenseRecord -> {
-            // Ensure projectId is set
-            if (expenseRecord.getProjectId() == null) {
-                expenseRecord.setProjectId(project.getId());
+        // 记录较多时（如批量导入）每批写入后清理持久化上下文，避免一级缓存随记录数线性增长
+        final boolean clearAfterBatch = expenseRecords.size() > RECORD_BATCH_SIZE;
+        Lists.partition(expenseRecords, RECORD_BATCH_SIZE).forEach(batch -> {
+            saveExpenseRecordBatch(project, batch);
+            if (clearAfterBatch) {
+                entityManager.flush();
+                entityManager.clear();
             }
-            final ExpenseRecordDO insertExpenseRecordDO = ExpenseRecordDoConverter.toInsertExpenseRecordDO(expenseRecord);
-            final ExpenseRecordDO savedRecord = expenseRecordRepository.save(insertExpenseRecordDO);
+        });
+    }
 
+    private void saveExpenseRecordBatch(ExpenseProject project, List<ExpenseRecord> batch) {
+        final List<ExpenseRecordDO> insertDOList = batch.stream()
+                .map(expenseRecord -> {
+                    // Ensure projectId is set
+                    if (expenseRecord.getProjectId() == null) {
+                        expenseRecord.setProjectId(project.getId());
+                    }
+                    return ExpenseRecordDoConverter.toInsertExpenseRecordDO(expenseRecord, toConsumerIds(project, expenseRecord));
+                })
+                .collect(Collectors.toList());
+        final List<ExpenseRecordDO> savedRecords = expenseRecordRepository.saveAll(insertDOList);
+
+        for (int i = 0; i < batch.size(); i++) {
             // Sync the generated ID back to the domain object
-            expenseRecord.setId(savedRecord.getId());
+            batch.get(i).setId(savedRecords.get(i).getId());
+        }
+    }
 
-            saveRecordMember(project, expenseRecord, savedRecord);
-        });
+    /**
+     * 消费人员换算成项目的成员编号；只有成员编号会持久化，不是成员的消费人员重新加载后无法还原，拒绝保存
+     */
+    private BitSet toConsumerIds(ExpenseProject project, ExpenseRecord expenseRecord) {
+        final BitSet consumerIds = new BitSet();
+        for (String consumer : expenseRecord.listAllConsumers()) {
+            final int memberId = project.memberIdOf(consumer);
+            Assert.isTrue(memberId >= 0, "消费人不是项目成员:" + consumer);
+            consumerIds.set(memberId);
+        }
+        return consumerIds;
     }
 
-    private void saveRecordMember(ExpenseProject project, ExpenseRecord expenseRecord, ExpenseRecordDO savedRecord) {
-        expenseRecord.listAllConsumers().forEach(consumer -> {
-            final ExpenseRecordConsumerDO consumerDO = new ExpenseRecordConsumerDO();
-            consumerDO.setProjectId(project.getId());
-            consumerDO.setRecordId(savedRecord.getId());
-            consumerDO.setMember(consumer);
-            // createdAt 和 updatedAt 由 BaseEntity 的 JPA Auditing 自动填充
-            expenseRecordConsumerRepository.save(consumerDO);
-        });
+    private static boolean hasLegacyRecord(List<ExpenseRecordDO> records) {
+        return records.stream().anyMatch(record -> record.getConsumerBits() == null);
     }
 
     private List<ExpenseRecordConsumerDO> listRecordConsumer(@NotNull Integer expenseProjectId) {
@@ -207,6 +437,10 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
 
+        if (projectShardRouter.isSharded()) {
+            return scatterPage(spec, projectListQry);
+        }
+
         // Create pageable
         Sort sort = Sort.by(Sort.Direction.DESC, "id");
         Pageable pageable = PageRequest.of(projectListQry.getPage() - 1, projectListQry.getSize(), sort);
@@ -241,6 +475,10 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
 
+        if (projectShardRouter.isSharded()) {
+            return scatterPage(spec, projectListQry);
+        }
+
         // Create pageable
         Sort sort = Sort.by(Sort.Direction.DESC, "id");
         Pageable pageable = PageRequest.of(projectListQry.getPage() - 1, projectListQry.getSize(), sort);
@@ -262,14 +500,64 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
         return PageResponse.of(expenseProjectList, (int) page.getTotalElements(), page.getSize(), projectListQry.getPage());
     }
 
-    private List<ExpenseProject> listProjectByIds(List<Integer> projectIdList) {
+    /**
+     * 分片后的分页：每个分片取按ID倒序的前 页码×每页条数 个项目，归并后截取当前页，再到各自分片加载聚合
+     * <p>
+     * 页码越深每个分片读取的行越多，适合只翻前几页的列表
+     */
+    private PageResponse<ExpenseProject> scatterPage(Specification<ExpenseProjectDO> spec, ProjectListQry projectListQry) {
+        final int pageNo = projectListQry.getPage();
+        final int pageSize = projectListQry.getSize();
+        final Pageable top = PageRequest.of(0, pageNo * pageSize, Sort.by(Sort.Direction.DESC, "id"));
+        final List<Page<ExpenseProjectDO>> shardPages = projectShardRouter.scatter(shard ->
+                expenseProjectRepository.findAll(spec, top));
+
+        long total = 0;
+        final Map<Integer, Integer> shardOfProject = new HashMap<>();
+        for (int shard = 0; shard < shardPages.size(); shard++) {
+            total += shardPages.get(shard).getTotalElements();
+            for (ExpenseProjectDO projectDO : shardPages.get(shard)) {
+                // 迁移过程中项目可能短暂同时出现在两个分片上
+                shardOfProject.putIfAbsent(projectDO.getId(), shard);
+            }
+        }
+
+        final List<Integer> pageIds = shardOfProject.keySet().stream()
+                .sorted(Comparator.reverseOrder())
+                .skip((long) (pageNo - 1) * pageSize)
+                .limit(pageSize)
+                .collect(Collectors.toList());
+        final Map<Integer, List<Integer>> idsByShard = pageIds.stream()
+                .collect(Collectors.groupingBy(shardOfProject::get));
+
+        final Map<Integer, ExpenseProject> loaded = new HashMap<>();
+        projectShardRouter.scatter(shard -> listProjectByIds(idsByShard.getOrDefault(shard, List.of())))
+                .forEach(projects -> projects.forEach(project -> loaded.put(project.getId(), project)));
+        final List<ExpenseProject> projectList = pageIds.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return PageResponse.of(projectList, (int) total, pageSize, pageNo);
+    }
+
+    /**
+     * 只查项目表，返回的项目不含成员和费用记录
+     */
+    protected List<ExpenseProject> listProjectHeadersByIds(List<Integer> projectIdList) {
+        return expenseProjectRepository.findAllById(projectIdList).stream()
+                .map(projectDO -> new ExpenseProjectBuilder().setExpenseProjectDO(projectDO).build())
+                .collect(Collectors.toList());
+    }
+
+    protected List<ExpenseProject> listProjectByIds(List<Integer> projectIdList) {
         if (CollectionUtils.isEmpty(projectIdList)) {
             return new ArrayList<>();
         }
 
         // 批量查询：一次性获取所有项目和关联数据，避免 N+1 查询问题
         // 原方案：N个项目需要 N×4 次查询
-        // 优化后：仅需 4 次查询，无论项目数量多少
+        // 优化后：最多 4 次查询，无论项目数量多少（没有迁移前的记录时 3 次）
 
         // 1. 批量查询所有项目
         final List<ExpenseProjectDO> projectDOList = expenseProjectRepository.findAllById(projectIdList);
@@ -280,8 +568,9 @@ public class ExpenseProjectGatewayImpl implements ExpenseProjectGateway {
         // 3. 批量查询所有费用记录
         final List<ExpenseRecordDO> allRecords = expenseRecordRepository.findByProjectIdInOrderByPayDateAsc(projectIdList);
 
-        // 4. 批量查询所有消费人员
+        // 4. 批量查询迁移前记录的消费人员，其余记录的消费人员在位图中
         final List<Integer> recordIdList = allRecords.stream()
+                .filter(record -> record.getConsumerBits() == null)
                 .map(ExpenseRecordDO::getId)
                 .collect(Collectors.toList());
         final List<ExpenseRecordConsumerDO> allConsumers = CollectionUtils.isEmpty(recordIdList)
@@ -26,4 +26,10 @@ public class ExpenseProjectMemberDO extends BaseEntity {
 
     @Column(name = "name")
     private String name;
+
+    /**
+     * 项目内的成员编号，从0开始，费用记录的消费人位图按此编号；为空表示迁移前的数据
+     */
+    @Column(name = "member_no")
+    private Integer memberNo;
 }
\ No newline at end of file
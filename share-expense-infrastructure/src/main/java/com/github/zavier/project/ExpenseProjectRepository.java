@@ -4,6 +4,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +16,7 @@ public interface ExpenseProjectRepository extends JpaRepository<ExpenseProjectDO
     List<ExpenseProjectDO> findByCreateUserIdOrderByCreatedAtDesc(Integer createUserId);
 
     Page<ExpenseProjectDO> findById(Integer id, Pageable pageable);
+
+    @Query("select coalesce(max(p.id), 0) from ExpenseProjectDO p")
+    Integer findMaxId();
 }
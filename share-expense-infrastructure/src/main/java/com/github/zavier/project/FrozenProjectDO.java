@@ -0,0 +1,30 @@
+package com.github.zavier.project;
+
+import com.github.zavier.infrastructure.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 已锁定项目的冻结快照实体
+ * <p>
+ * 锁定时写入一次，之后不再更新；内容与读模型相同，gzip 压缩后保存
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "expense_project_frozen")
+public class FrozenProjectDO extends BaseEntity {
+    @Id
+    @Column(name = "project_id")
+    private Integer projectId;
+
+    /**
+     * 锁定时的项目版本号
+     */
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @Column(name = "payload", nullable = false, length = 16777215)
+    private byte[] payload;
+}
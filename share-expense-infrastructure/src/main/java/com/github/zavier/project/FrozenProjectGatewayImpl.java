@@ -0,0 +1,86 @@
+package com.github.zavier.project;
+
+import com.alibaba.fastjson2.JSON;
+import com.github.zavier.domain.expense.gateway.FrozenProjectGateway;
+import com.github.zavier.dto.data.ProjectViewDTO;
+import com.github.zavier.infrastructure.shard.ProjectShardRouter;
+import com.github.zavier.infrastructure.shard.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.Resource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 冻结快照与项目保存在同一个分片上
+ */
+@Slf4j
+@Repository
+public class FrozenProjectGatewayImpl implements FrozenProjectGateway {
+
+    @Resource
+    private FrozenProjectRepository frozenProjectRepository;
+    @Resource
+    private ProjectShardRouter projectShardRouter;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ProjectViewDTO> getFrozenView(Integer projectId) {
+        return ShardContext.call(projectShardRouter.shardOf(projectId), () -> frozenProjectRepository.findById(projectId)
+                .map(frozenDO -> JSON.parseObject(decompress(frozenDO.getPayload()), ProjectViewDTO.class)));
+    }
+
+    @Override
+    public void saveFrozenView(ProjectViewDTO view) {
+        ShardContext.run(projectShardRouter.shardOf(view.getProjectId()), () -> saveInShard(view));
+    }
+
+    private void saveInShard(ProjectViewDTO view) {
+        if (frozenProjectRepository.existsById(view.getProjectId())) {
+            return;
+        }
+        final FrozenProjectDO frozenDO = new FrozenProjectDO();
+        frozenDO.setProjectId(view.getProjectId());
+        frozenDO.setVersion(view.getVersion());
+        frozenDO.setPayload(compress(JSON.toJSONBytes(view)));
+        try {
+            frozenProjectRepository.save(frozenDO);
+            log.info("[冻结快照] 写入快照, projectId={}, version={}, bytes={}",
+                    view.getProjectId(), view.getVersion(), frozenDO.getPayload().length);
+        } catch (DataIntegrityViolationException e) {
+            // 锁定后内容不再变化，并发补建时以先写入的为准
+            log.info("[冻结快照] 并发写入快照, projectId={}", view.getProjectId());
+        }
+    }
+
+    @Override
+    public void deleteFrozenView(Integer projectId) {
+        ShardContext.run(projectShardRouter.shardOf(projectId), () -> frozenProjectRepository.deleteById(projectId));
+    }
+
+    private static byte[] compress(byte[] data) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
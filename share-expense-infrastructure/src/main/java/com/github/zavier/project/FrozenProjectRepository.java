@@ -0,0 +1,8 @@
+package com.github.zavier.project;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FrozenProjectRepository extends JpaRepository<FrozenProjectDO, Integer> {
+}
@@ -0,0 +1,39 @@
+package com.github.zavier.project;
+
+import com.github.zavier.infrastructure.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.math.BigDecimal;
+
+/**
+ * 项目按费用类型的汇总实体，每个项目每种类型一行，项目保存时整体替换
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "expense_project_category", indexes = {
+        @Index(name = "idx_category_project", columnList = "project_id"),
+        @Index(name = "idx_category_user", columnList = "create_user_id")})
+public class ProjectCategorySummaryDO extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "project_id", nullable = false)
+    private Integer projectId;
+
+    @Column(name = "create_user_id", nullable = false)
+    private Integer createUserId;
+
+    @Column(name = "expense_type", nullable = false)
+    private String expenseType;
+
+    @Column(name = "record_count", nullable = false)
+    private Long recordCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+}
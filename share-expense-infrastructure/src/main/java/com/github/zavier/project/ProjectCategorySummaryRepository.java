@@ -0,0 +1,25 @@
+package com.github.zavier.project;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProjectCategorySummaryRepository extends JpaRepository<ProjectCategorySummaryDO, Integer> {
+
+    @Modifying
+    @Query("delete from ProjectCategorySummaryDO c where c.projectId = ?1")
+    void deleteByProjectId(Integer projectId);
+
+    /**
+     * 用户所有项目按费用类型求和
+     *
+     * @return 费用类型、笔数、金额
+     */
+    @Query("select c.expenseType, sum(c.recordCount), sum(c.totalAmount) from ProjectCategorySummaryDO c "
+            + "where c.createUserId = ?1 group by c.expenseType")
+    List<Object[]> sumByCreateUserId(Integer createUserId);
+}
@@ -0,0 +1,116 @@
+package com.github.zavier.project;
+
+import com.github.zavier.infrastructure.db.IdSequenceDO;
+import com.github.zavier.infrastructure.db.IdSequenceRepository;
+import com.github.zavier.infrastructure.shard.ShardContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 项目ID分配：从全局库的 id_sequence 按块取号，各分片上的项目ID互不重复
+ * <p>
+ * 每个节点一次取 id-block-size 个ID，用完再取，取号在独立事务中提交；
+ * 不同节点交替取块，ID 只保证唯一，不严格按创建时间递增。节点重启时未用完的ID丢弃。
+ * 序列第一次使用时从现有项目的最大ID之后开始。
+ */
+@Slf4j
+@Component
+public class ProjectIdAllocator {
+
+    private static final String SEQUENCE_NAME = "expense_project";
+
+    private static volatile ProjectIdAllocator instance;
+
+    @Resource
+    private IdSequenceRepository idSequenceRepository;
+
+    @Resource
+    private ExpenseProjectRepository expenseProjectRepository;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.project.id-block-size:10}")
+    private int blockSize;
+
+    private TransactionTemplate sequenceTransaction;
+
+    // 使用 ReentrantLock 而不是 synchronized，虚拟线程在锁上等待时不会占住载体线程
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextId;
+    private long blockEnd;
+
+    @PostConstruct
+    public void init() {
+        blockSize = Math.max(1, blockSize);
+        sequenceTransaction = new TransactionTemplate(transactionManager);
+        sequenceTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        instance = this;
+    }
+
+    /**
+     * 供 {@link ProjectIdGenerator} 使用，Hibernate 创建的生成器不能注入 Spring Bean
+     */
+    static ProjectIdAllocator current() {
+        if (instance == null) {
+            throw new IllegalStateException("ProjectIdAllocator 尚未初始化");
+        }
+        return instance;
+    }
+
+    public Integer allocate() {
+        lock.lock();
+        try {
+            if (nextId >= blockEnd) {
+                nextId = reserveBlock();
+                blockEnd = nextId + blockSize;
+            }
+            return Math.toIntExact(nextId++);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 本次取到的第一个ID
+     */
+    private long reserveBlock() {
+        return ShardContext.call(ShardContext.GLOBAL, () -> {
+            try {
+                return sequenceTransaction.execute(status -> takeBlock());
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                // 其他节点同时初始化了序列，重新按行锁取号
+                log.info("[项目ID] 序列已由其他节点初始化, 重试取号");
+                return sequenceTransaction.execute(status -> takeBlock());
+            }
+        });
+    }
+
+    private Long takeBlock() {
+        final Optional<IdSequenceDO> sequence = idSequenceRepository.findForUpdate(SEQUENCE_NAME);
+        if (sequence.isPresent()) {
+            final long start = sequence.get().getNextValue();
+            sequence.get().setNextValue(start + blockSize);
+            idSequenceRepository.save(sequence.get());
+            return start;
+        }
+        final long start = expenseProjectRepository.findMaxId() + 1L;
+        final IdSequenceDO created = new IdSequenceDO();
+        created.setName(SEQUENCE_NAME);
+        created.setNextValue(start + blockSize);
+        idSequenceRepository.saveAndFlush(created);
+        log.info("[项目ID] 初始化序列, start={}", start);
+        return start;
+    }
+}
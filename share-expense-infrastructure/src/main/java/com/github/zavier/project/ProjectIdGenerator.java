@@ -0,0 +1,16 @@
+package com.github.zavier.project;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * 项目ID生成器：已预先分配ID（需要在写入前确定分片）时沿用，否则从 {@link ProjectIdAllocator} 取号
+ */
+public class ProjectIdGenerator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        final Integer assigned = ((ExpenseProjectDO) object).getId();
+        return assigned != null ? assigned : ProjectIdAllocator.current().allocate();
+    }
+}
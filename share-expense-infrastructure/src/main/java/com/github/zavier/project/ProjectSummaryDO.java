@@ -0,0 +1,64 @@
+package com.github.zavier.project;
+
+import com.github.zavier.infrastructure.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 项目汇总实体：记录数、金额、成员净收支和最近记录，随项目保存一起更新
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "expense_project_summary", indexes = @Index(name = "idx_summary_user_activity", columnList = "create_user_id, last_activity_at"))
+public class ProjectSummaryDO extends BaseEntity {
+    @Id
+    @Column(name = "project_id")
+    private Integer projectId;
+
+    @Column(name = "create_user_id", nullable = false)
+    private Integer createUserId;
+
+    @Column(name = "project_name")
+    private String projectName;
+
+    /**
+     * 生成汇总时的项目版本号
+     */
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @Column(name = "locked")
+    private Boolean locked;
+
+    @Column(name = "member_count", nullable = false)
+    private Integer memberCount;
+
+    @Column(name = "record_count", nullable = false)
+    private Long recordCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "unsettled_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal unsettledAmount;
+
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt;
+
+    /**
+     * 成员净收支(JSON)
+     */
+    @Column(name = "balances", length = 65535)
+    private String balances;
+
+    /**
+     * 最近的费用记录(JSON)
+     */
+    @Column(name = "recent_records", length = 65535)
+    private String recentRecords;
+}
@@ -0,0 +1,192 @@
+package com.github.zavier.project;
+
+import com.alibaba.fastjson2.JSON;
+import com.github.zavier.domain.expense.gateway.ProjectSummaryGateway;
+import com.github.zavier.dto.data.ExpenseCategoryDTO;
+import com.github.zavier.dto.data.ExpenseRecordDTO;
+import com.github.zavier.dto.data.MemberBalanceDTO;
+import com.github.zavier.dto.data.ProjectSummaryDTO;
+import com.github.zavier.infrastructure.shard.ProjectShardRouter;
+import com.github.zavier.infrastructure.shard.ShardContext;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.Resource;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 项目汇总与项目保存在同一个分片上，按用户查询时在每个分片上查询后合并
+ */
+@Slf4j
+@Repository
+public class ProjectSummaryGatewayImpl implements ProjectSummaryGateway {
+
+    @Resource
+    private ProjectSummaryRepository projectSummaryRepository;
+    @Resource
+    private ProjectCategorySummaryRepository projectCategorySummaryRepository;
+    @Resource
+    private ProjectShardRouter projectShardRouter;
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate summaryTransaction;
+
+    @PostConstruct
+    public void init() {
+        // 保存项目时加入项目的事务；单独调用时（如补建）由调用方开启自己的事务
+        summaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void saveSummary(ProjectSummaryDTO summary) {
+        ShardContext.run(projectShardRouter.shardOf(summary.getProjectId()),
+                () -> summaryTransaction.executeWithoutResult(status -> saveInShard(summary)));
+    }
+
+    private void saveInShard(ProjectSummaryDTO summary) {
+        final LocalDateTime now = LocalDateTime.now();
+        final ProjectSummaryDO summaryDO = new ProjectSummaryDO();
+        summaryDO.setProjectId(summary.getProjectId());
+        summaryDO.setCreateUserId(summary.getCreateUserId());
+        summaryDO.setProjectName(summary.getProjectName());
+        summaryDO.setVersion(summary.getVersion());
+        summaryDO.setLocked(summary.getLocked());
+        summaryDO.setMemberCount(summary.getMemberCount());
+        summaryDO.setRecordCount(summary.getRecordCount());
+        summaryDO.setTotalAmount(summary.getTotalAmount());
+        summaryDO.setUnsettledAmount(summary.getUnsettledAmount());
+        summaryDO.setLastActivityAt(toLocalDateTime(summary.getLastActivityAt()));
+        summaryDO.setBalances(JSON.toJSONString(summary.getBalances()));
+        summaryDO.setRecentRecords(JSON.toJSONString(summary.getRecentRecords()));
+        summaryDO.setCreatedAt(now);
+        summaryDO.setUpdatedAt(now);
+        projectSummaryRepository.upsertIfNewer(summaryDO);
+
+        // 汇总行已被本事务锁住，读到的是已提交的最新版本；其他事务写入了更新的版本时，按类型汇总以它为准
+        final Integer current = projectSummaryRepository.lockVersion(summary.getProjectId());
+        if (current == null || current > summary.getVersion()) {
+            log.info("[项目汇总] 已有更新的汇总, projectId={}, version={}, current={}",
+                    summary.getProjectId(), summary.getVersion(), current);
+            return;
+        }
+        projectCategorySummaryRepository.deleteByProjectId(summary.getProjectId());
+        projectCategorySummaryRepository.saveAll(summary.getCategories().stream()
+                .map(category -> {
+                    final ProjectCategorySummaryDO categoryDO = new ProjectCategorySummaryDO();
+                    categoryDO.setProjectId(summary.getProjectId());
+                    categoryDO.setCreateUserId(summary.getCreateUserId());
+                    categoryDO.setExpenseType(StringUtils.defaultString(category.getExpenseType()));
+                    categoryDO.setRecordCount(category.getRecordCount());
+                    categoryDO.setTotalAmount(category.getTotalAmount());
+                    return categoryDO;
+                })
+                .toList());
+    }
+
+    @Override
+    public void deleteSummary(Integer projectId) {
+        ShardContext.run(projectShardRouter.shardOf(projectId), () -> summaryTransaction.executeWithoutResult(status -> {
+            projectCategorySummaryRepository.deleteByProjectId(projectId);
+            projectSummaryRepository.deleteById(projectId);
+        }));
+    }
+
+    @Override
+    public List<ProjectSummaryDTO> listSummaries(Integer createUserId) {
+        return projectShardRouter.scatter(shard -> projectSummaryRepository.findByCreateUserIdOrderByLastActivityAtDesc(createUserId))
+                .stream()
+                .flatMap(List::stream)
+                .map(ProjectSummaryGatewayImpl::toSummaryDTO)
+                .sorted(Comparator.comparing(ProjectSummaryDTO::getLastActivityAt, Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
+    }
+
+    @Override
+    public List<ExpenseCategoryDTO> sumCategories(Integer createUserId, int limit) {
+        // 分片上的分组合并后再排序截取，同一类型可能分布在多个分片上
+        final Map<String, ExpenseCategoryDTO> merged = new LinkedHashMap<>();
+        projectShardRouter.scatter(shard -> projectCategorySummaryRepository.sumByCreateUserId(createUserId))
+                .stream()
+                .flatMap(List::stream)
+                .forEach(row -> merged.merge((String) row[0],
+                        new ExpenseCategoryDTO((String) row[0], ((Number) row[1]).longValue(), toBigDecimal(row[2])),
+                        (a, b) -> new ExpenseCategoryDTO(a.getExpenseType(), a.getRecordCount() + b.getRecordCount(),
+                                a.getTotalAmount().add(b.getTotalAmount()))));
+        return merged.values().stream()
+                .sorted(Comparator.comparing(ExpenseCategoryDTO::getTotalAmount).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<ExpenseRecordDTO> listRecentRecords(Integer createUserId, int limit) {
+        // 只看最近变更的 limit 个项目（每个项目保存最近几条），很久没改过的项目里补录的未来日期记录不在其中
+        return projectShardRouter.scatter(shard -> projectSummaryRepository
+                        .findByCreateUserIdOrderByLastActivityAtDesc(createUserId, PageRequest.of(0, limit)))
+                .stream()
+                .flatMap(List::stream)
+                .flatMap(summaryDO -> parseList(summaryDO.getRecentRecords(), ExpenseRecordDTO.class).stream())
+                .sorted(Comparator.comparing(ExpenseRecordDTO::getDate)
+                        .thenComparing(ExpenseRecordDTO::getRecordId)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Integer> listUnsummarizedProjectIds(Integer afterProjectId, int limit) {
+        // 项目ID全局唯一，各分片取前 limit 个后合并
+        return projectShardRouter.scatter(shard -> projectSummaryRepository
+                        .findUnsummarizedProjectIds(afterProjectId, PageRequest.of(0, limit)))
+                .stream()
+                .flatMap(List::stream)
+                .sorted()
+                .limit(limit)
+                .toList();
+    }
+
+    private static ProjectSummaryDTO toSummaryDTO(ProjectSummaryDO summaryDO) {
+        final ProjectSummaryDTO dto = new ProjectSummaryDTO();
+        dto.setProjectId(summaryDO.getProjectId());
+        dto.setProjectName(summaryDO.getProjectName());
+        dto.setCreateUserId(summaryDO.getCreateUserId());
+        dto.setVersion(summaryDO.getVersion());
+        dto.setLocked(summaryDO.getLocked());
+        dto.setMemberCount(summaryDO.getMemberCount());
+        dto.setRecordCount(summaryDO.getRecordCount());
+        dto.setTotalAmount(summaryDO.getTotalAmount());
+        dto.setUnsettledAmount(summaryDO.getUnsettledAmount());
+        dto.setLastActivityAt(summaryDO.getLastActivityAt() == null
+                ? null : summaryDO.getLastActivityAt().atZone(ZoneId.systemDefault()).toEpochSecond());
+        dto.setBalances(parseList(summaryDO.getBalances(), MemberBalanceDTO.class));
+        return dto;
+    }
+
+    private static <T> List<T> parseList(String json, Class<T> type) {
+        return StringUtils.isBlank(json) ? List.of() : JSON.parseArray(json, type);
+    }
+
+    private static LocalDateTime toLocalDateTime(Long epochSecond) {
+        return epochSecond == null ? null : LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
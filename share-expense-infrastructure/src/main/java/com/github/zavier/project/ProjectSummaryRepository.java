@@ -0,0 +1,59 @@
+package com.github.zavier.project;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProjectSummaryRepository extends JpaRepository<ProjectSummaryDO, Integer> {
+
+    List<ProjectSummaryDO> findByCreateUserIdOrderByLastActivityAtDesc(Integer createUserId);
+
+    List<ProjectSummaryDO> findByCreateUserIdOrderByLastActivityAtDesc(Integer createUserId, Pageable pageable);
+
+    /**
+     * 插入汇总，已存在时只在传入的版本更新时覆盖
+     * <p>
+     * 一条语句完成判断和写入，并发写入同一项目时在行锁上排队，不会因主键冲突失败。
+     * version 必须最后赋值，前面的条件比较的是原来的版本号。
+     */
+    @Modifying
+    @Query(value = "insert into `expense_project_summary` (`project_id`, `create_user_id`, `project_name`, `version`, `locked`, "
+            + "`member_count`, `record_count`, `total_amount`, `unsettled_amount`, `last_activity_at`, `balances`, `recent_records`, "
+            + "`created_at`, `updated_at`) "
+            + "values (:#{#s.projectId}, :#{#s.createUserId}, :#{#s.projectName}, :#{#s.version}, :#{#s.locked}, "
+            + ":#{#s.memberCount}, :#{#s.recordCount}, :#{#s.totalAmount}, :#{#s.unsettledAmount}, :#{#s.lastActivityAt}, "
+            + ":#{#s.balances}, :#{#s.recentRecords}, :#{#s.createdAt}, :#{#s.updatedAt}) "
+            + "on duplicate key update "
+            + "`create_user_id` = case when `version` < values(`version`) then values(`create_user_id`) else `create_user_id` end, "
+            + "`project_name` = case when `version` < values(`version`) then values(`project_name`) else `project_name` end, "
+            + "`locked` = case when `version` < values(`version`) then values(`locked`) else `locked` end, "
+            + "`member_count` = case when `version` < values(`version`) then values(`member_count`) else `member_count` end, "
+            + "`record_count` = case when `version` < values(`version`) then values(`record_count`) else `record_count` end, "
+            + "`total_amount` = case when `version` < values(`version`) then values(`total_amount`) else `total_amount` end, "
+            + "`unsettled_amount` = case when `version` < values(`version`) then values(`unsettled_amount`) else `unsettled_amount` end, "
+            + "`last_activity_at` = case when `version` < values(`version`) then values(`last_activity_at`) else `last_activity_at` end, "
+            + "`balances` = case when `version` < values(`version`) then values(`balances`) else `balances` end, "
+            + "`recent_records` = case when `version` < values(`version`) then values(`recent_records`) else `recent_records` end, "
+            + "`updated_at` = case when `version` < values(`version`) then values(`updated_at`) else `updated_at` end, "
+            + "`version` = greatest(`version`, values(`version`))", nativeQuery = true)
+    void upsertIfNewer(@Param("s") ProjectSummaryDO summary);
+
+    /**
+     * 锁定汇总行并读取已提交的最新版本号，行锁保持到事务结束
+     */
+    @Query(value = "select `version` from `expense_project_summary` where `project_id` = ?1 for update", nativeQuery = true)
+    Integer lockVersion(Integer projectId);
+
+    /**
+     * 还没有汇总的项目ID（上线前已有的项目），按ID升序
+     */
+    @Query("select p.id from ExpenseProjectDO p where p.id > ?1 "
+            + "and not exists (select 1 from ProjectSummaryDO s where s.projectId = p.id) order by p.id")
+    List<Integer> findUnsummarizedProjectIds(Integer afterProjectId, Pageable pageable);
+}
@@ -0,0 +1,30 @@
+package com.github.zavier.project;
+
+import com.github.zavier.infrastructure.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 项目读模型实体
+ * <p>
+ * 成员、费用记录和结算结果序列化为一个 JSON 文档，查询接口按主键读取一行即可，不需要重建聚合
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "expense_project_view")
+public class ProjectViewDO extends BaseEntity {
+    @Id
+    @Column(name = "project_id")
+    private Integer projectId;
+
+    /**
+     * 生成读模型时的项目版本号
+     */
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @Column(name = "payload", nullable = false, length = 16777215)
+    private String payload;
+}
@@ -0,0 +1,47 @@
+package com.github.zavier.project;
+
+import com.alibaba.fastjson2.JSON;
+import com.github.zavier.domain.expense.gateway.ProjectViewGateway;
+import com.github.zavier.dto.data.ProjectViewDTO;
+import com.github.zavier.infrastructure.shard.ProjectShardRouter;
+import com.github.zavier.infrastructure.shard.ShardContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 读模型与项目保存在同一个分片上
+ */
+@Repository
+public class ProjectViewGatewayImpl implements ProjectViewGateway {
+
+    @Resource
+    private ProjectViewRepository projectViewRepository;
+    @Resource
+    private ProjectShardRouter projectShardRouter;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ProjectViewDTO> getProjectView(Integer projectId) {
+        return ShardContext.call(projectShardRouter.shardOf(projectId), () -> projectViewRepository.findById(projectId)
+                .map(viewDO -> JSON.parseObject(viewDO.getPayload(), ProjectViewDTO.class)));
+    }
+
+    @Override
+    public void saveProjectView(ProjectViewDTO view) {
+        ShardContext.run(projectShardRouter.shardOf(view.getProjectId()), () -> saveInShard(view));
+    }
+
+    private void saveInShard(ProjectViewDTO view) {
+        // 保存项目时加入项目的事务，读取时补建单独开启事务
+        projectViewRepository.upsertIfNewer(view.getProjectId(), view.getVersion(), JSON.toJSONString(view), LocalDateTime.now());
+    }
+
+    @Override
+    public void deleteProjectView(Integer projectId) {
+        ShardContext.run(projectShardRouter.shardOf(projectId), () -> projectViewRepository.deleteById(projectId));
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.zavier.project;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProjectViewRepository extends JpaRepository<ProjectViewDO, Integer> {
+
+    /**
+     * 插入读模型，已存在时只在传入的版本更新时覆盖
+     * <p>
+     * 一条语句完成判断和写入，项目保存与读取时补建并发写入时在行锁上排队，不会因主键冲突失败。
+     * version 必须最后赋值，前面的条件比较的是原来的版本号。
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into `expense_project_view` (`project_id`, `version`, `payload`, `created_at`, `updated_at`) "
+            + "values (?1, ?2, ?3, ?4, ?4) "
+            + "on duplicate key update "
+            + "`payload` = case when `version` < values(`version`) then values(`payload`) else `payload` end, "
+            + "`updated_at` = case when `version` < values(`version`) then values(`updated_at`) else `updated_at` end, "
+            + "`version` = greatest(`version`, values(`version`))", nativeQuery = true)
+    void upsertIfNewer(Integer projectId, Integer version, String payload, LocalDateTime now);
+}
@@ -0,0 +1,168 @@
+package com.github.zavier.project;
+
+import com.github.zavier.expense.ExpenseRecordConsumerDO;
+import com.github.zavier.expense.ExpenseRecordConsumerRepository;
+import com.github.zavier.expense.ExpenseRecordDO;
+import com.github.zavier.expense.ExpenseRecordRepository;
+import com.github.zavier.infrastructure.shard.ProjectShardRouter;
+import com.github.zavier.infrastructure.shard.ShardContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 迁移前的费用记录转换为消费人员位图
+ * <p>
+ * 按项目逐个在各自的事务中：给没有编号的成员补编号，按成员编号写入记录的 consumer_bits，删除已转换记录的消费人员行。
+ * 消费人员不是项目成员的记录无法用编号表示，保持原样（仍从关联表读取）。只改关联数据，不推进项目版本号。
+ * <p>
+ * 未转换的项目照常读取，下次保存时也会写成位图；app.expense.consumer-bits.migrate-on-startup=true 时在启动后一次转换全部。
+ */
+@Slf4j
+@Component
+public class RecordConsumerBitsMigrator implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = 200;
+
+    @Resource
+    private ExpenseProjectMemberRepository expenseProjectMemberRepository;
+    @Resource
+    private ExpenseRecordRepository expenseRecordRepository;
+    @Resource
+    private ExpenseRecordConsumerRepository expenseRecordConsumerRepository;
+    @Resource
+    private ProjectShardRouter projectShardRouter;
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.expense.consumer-bits.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    private TransactionTemplate projectTransaction;
+
+    @PostConstruct
+    public void init() {
+        projectTransaction = new TransactionTemplate(transactionManager);
+        projectTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup) {
+            migrateAll();
+        }
+    }
+
+    /**
+     * @return 转换的项目数
+     */
+    public int migrateAll() {
+        int migrated = 0;
+        for (int shard = 0; shard < projectShardRouter.shardCount(); shard++) {
+            migrated += ShardContext.call(shard, this::migrateShard);
+        }
+        return migrated;
+    }
+
+    private int migrateShard() {
+        int migrated = 0;
+        int failed = 0;
+        Integer afterProjectId = 0;
+        List<Integer> projectIds;
+        do {
+            projectIds = expenseRecordRepository.findLegacyConsumerProjectIds(afterProjectId, PageRequest.of(0, PAGE_SIZE));
+            for (Integer projectId : projectIds) {
+                try {
+                    final Boolean converted = projectTransaction.execute(status -> migrate(projectId));
+                    if (Boolean.TRUE.equals(converted)) {
+                        migrated++;
+                    }
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.error("[消费人位图] 项目转换失败, projectId={}", projectId, e);
+                }
+                afterProjectId = projectId;
+            }
+        } while (projectIds.size() == PAGE_SIZE);
+        log.info("[消费人位图] 转换完成, shard={}, migrated={}, failed={}", ShardContext.current(), migrated, failed);
+        return migrated;
+    }
+
+    /**
+     * 在调用方的事务中转换单个项目
+     *
+     * @return 是否有记录被转换
+     */
+    boolean migrate(Integer projectId) {
+        final Map<String, Integer> memberNos = numberMembers(projectId);
+
+        final Map<Integer, List<ExpenseRecordConsumerDO>> consumersByRecord = expenseRecordConsumerRepository.findByProjectId(projectId)
+                .stream()
+                .collect(Collectors.groupingBy(ExpenseRecordConsumerDO::getRecordId));
+        final List<ExpenseRecordConsumerDO> convertedConsumers = new ArrayList<>();
+        int converted = 0;
+        for (ExpenseRecordDO recordDO : expenseRecordRepository.findByProjectIdOrderByPayDateAsc(projectId)) {
+            if (recordDO.getConsumerBits() != null) {
+                continue;
+            }
+            final List<ExpenseRecordConsumerDO> consumers = consumersByRecord.getOrDefault(recordDO.getId(), List.of());
+            final BitSet consumerBits = new BitSet();
+            boolean allMembers = true;
+            for (ExpenseRecordConsumerDO consumer : consumers) {
+                final Integer memberNo = memberNos.get(consumer.getMember());
+                if (memberNo == null) {
+                    allMembers = false;
+                    break;
+                }
+                consumerBits.set(memberNo);
+            }
+            if (!allMembers) {
+                log.warn("[消费人位图] 消费人员不是项目成员，保留原数据, projectId={}, recordId={}", projectId, recordDO.getId());
+                continue;
+            }
+            recordDO.setConsumerBits(consumerBits.toByteArray());
+            convertedConsumers.addAll(consumers);
+            converted++;
+        }
+        expenseRecordConsumerRepository.deleteAllInBatch(convertedConsumers);
+        return converted > 0;
+    }
+
+    /**
+     * 没有编号的成员按加入顺序排在已有编号之后，与加载时的分配方式一致
+     *
+     * @return 成员名称 → 编号
+     */
+    private Map<String, Integer> numberMembers(Integer projectId) {
+        final List<ExpenseProjectMemberDO> members = expenseProjectMemberRepository.findByProjectId(projectId);
+        int nextMemberNo = members.stream()
+                .map(ExpenseProjectMemberDO::getMemberNo)
+                .filter(Objects::nonNull)
+                .max(Integer::compare)
+                .orElse(-1) + 1;
+        final Map<String, Integer> memberNos = new HashMap<>();
+        for (ExpenseProjectMemberDO member : members) {
+            if (member.getMemberNo() == null) {
+                member.setMemberNo(nextMemberNo++);
+            }
+            memberNos.put(member.getName(), member.getMemberNo());
+        }
+        return memberNos;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.annotation.Resource;
 import jakarta.annotation.Nullable;
@@ -66,6 +67,7 @@ public class UserGateWayImpl implements UserGateway {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<User> pageUser(UserListQry userListQry){
         // Build specification for dynamic query
         Specification<UserDO> spec = (root, query, cb) -> {
@@ -9,6 +9,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import jakarta.annotation.Resource;
@@ -28,8 +29,14 @@ public class WxGateWay {
     public String wxLogin(String code) {
         // 简单实现，直接调用微信接口
         final String url = "https://api.weixin.qq.com/sns/jscode2session?appid={1}&secret={2}&js_code={3}&grant_type=authorization_code";
-        final ResponseEntity<String> forEntity = restTemplate.getForEntity(url,
-                String.class, wxAppId, appSecret, code);
+        final ResponseEntity<String> forEntity;
+        try {
+            forEntity = restTemplate.getForEntity(url, String.class, wxAppId, appSecret, code);
+        } catch (RestClientException e) {
+            // 连接池已满、连接或读取超时等，快速失败，不占住请求线程
+            log.warn("调用微信登录接口失败", e);
+            throw new BizException("WX_LOGIN_FAILED", "微信登录失败，请稍后重试");
+        }
         if (!forEntity.getStatusCode().is2xxSuccessful()) {
             throw new BizException("WX_LOGIN_FAILED", "微信登录失败");
         }
@@ -36,6 +36,7 @@ CREATE TABLE expense_project_member (
     id INT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
     project_id INT NOT NULL COMMENT '所属费用项目ID',
     name VARCHAR(255) NOT NULL COMMENT '成员名称',
+    member_no INT DEFAULT NULL COMMENT '项目内成员编号，从0开始，消费人员位图按此编号',
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
 ) COMMENT='费用项目成员关联表';
@@ -49,11 +50,13 @@ CREATE TABLE expense_record (
     pay_date DATE NOT NULL COMMENT '支付日期',
     expense_type VARCHAR(30) NOT NULL COMMENT '费用类型',
     remark varchar(300) NOT NULL DEFAULT '' COMMENT '备注',
+    consumer_bits VARBINARY(4096) DEFAULT NULL COMMENT '消费人员成员编号位图，为空表示消费人员在 expense_record_consumer 中',
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    FULLTEXT INDEX ft_remark_type (remark, expense_type) WITH PARSER ngram
 ) COMMENT='费用记录信息表';
 
--- 费用记录消费人员表
+-- 费用记录消费人员表（迁移前的数据，新记录的消费人员保存在 expense_record.consumer_bits 中）
 CREATE TABLE expense_record_consumer (
     id INT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID',
     project_id INT NOT NULL COMMENT '费用项目ID',
@@ -63,21 +66,127 @@ CREATE TABLE expense_record_consumer (
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
 ) COMMENT='费用消费人员信息表';
 
+-- 费用事件表（事件存储模式），只追加不修改
+CREATE TABLE expense_event (
+    id INT AUTO_INCREMENT PRIMARY KEY COMMENT '事件ID，新增记录事件的ID同时作为费用记录ID',
+    project_id INT NOT NULL COMMENT '费用项目ID',
+    seq INT NOT NULL COMMENT '项目内事件序号，从1开始连续递增',
+    event_type VARCHAR(30) NOT NULL COMMENT '事件类型',
+    payload TEXT NOT NULL COMMENT '事件内容(JSON)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_project_seq (project_id, seq)
+) COMMENT='费用事件表';
+
+-- 费用项目快照表（事件存储模式），每个项目只保留最新一份
+CREATE TABLE expense_project_snapshot (
+    project_id INT PRIMARY KEY COMMENT '费用项目ID',
+    seq INT NOT NULL COMMENT '快照包含的最后一个事件序号',
+    payload MEDIUMTEXT NOT NULL COMMENT '成员和费用记录(JSON)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT='费用项目快照表';
+
+-- 费用项目读模型表：成员、费用记录和结算结果，随项目保存在同一事务内更新
+CREATE TABLE expense_project_view (
+    project_id INT PRIMARY KEY COMMENT '费用项目ID',
+    version INT NOT NULL COMMENT '生成读模型时的项目版本号',
+    payload MEDIUMTEXT NOT NULL COMMENT '读模型(JSON)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT='费用项目读模型表';
+
+-- 已锁定项目的冻结快照表：锁定时写入一次，之后不再修改
+CREATE TABLE expense_project_frozen (
+    project_id INT PRIMARY KEY COMMENT '费用项目ID',
+    version INT NOT NULL COMMENT '锁定时的项目版本号',
+    payload MEDIUMBLOB NOT NULL COMMENT '读模型(gzip压缩的JSON)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT='费用项目冻结快照表';
+
+-- 项目汇总表：记录数、金额、成员净收支和最近记录，随项目保存在同一事务内更新，用于跨项目统计
+CREATE TABLE expense_project_summary (
+    project_id INT PRIMARY KEY COMMENT '费用项目ID',
+    create_user_id INT NOT NULL COMMENT '创建者用户ID',
+    project_name VARCHAR(255) DEFAULT NULL COMMENT '项目名称',
+    version INT NOT NULL COMMENT '生成汇总时的项目版本号',
+    locked TINYINT(1) DEFAULT 0 COMMENT '是否已锁定',
+    member_count INT NOT NULL COMMENT '成员数',
+    record_count BIGINT NOT NULL COMMENT '费用记录数',
+    total_amount DECIMAL(14, 2) NOT NULL COMMENT '费用总金额',
+    unsettled_amount DECIMAL(14, 2) NOT NULL COMMENT '待结清金额',
+    last_activity_at DATETIME DEFAULT NULL COMMENT '最近变更时间',
+    balances TEXT COMMENT '成员净收支(JSON)',
+    recent_records TEXT COMMENT '最近的费用记录(JSON)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_summary_user_activity (create_user_id, last_activity_at)
+) COMMENT='费用项目汇总表';
+
+-- 项目按费用类型汇总表，项目保存时整体替换
+CREATE TABLE expense_project_category (
+    id INT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID',
+    project_id INT NOT NULL COMMENT '费用项目ID',
+    create_user_id INT NOT NULL COMMENT '创建者用户ID',
+    expense_type VARCHAR(30) NOT NULL COMMENT '费用类型',
+    record_count BIGINT NOT NULL COMMENT '费用记录数',
+    total_amount DECIMAL(14, 2) NOT NULL COMMENT '费用总金额',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_category_project (project_id),
+    INDEX idx_category_user (create_user_id)
+) COMMENT='费用项目类型汇总表';
+
+CREATE TABLE cache_invalidation (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID，各节点按ID递增拉取',
+    project_id INT NOT NULL COMMENT '费用项目ID',
+    owner_user_id INT DEFAULT NULL COMMENT '项目创建人',
+    source_node VARCHAR(64) NOT NULL COMMENT '写入节点',
+    published_at BIGINT NOT NULL COMMENT '写入时间(毫秒)，用于计算传播延迟',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_created_at (created_at)
+) COMMENT='缓存失效通知表（只追加）';
+
+CREATE TABLE db_heartbeat (
+    node_id VARCHAR(64) PRIMARY KEY COMMENT '节点ID',
+    beat_at BIGINT NOT NULL COMMENT '主库写入时间(毫秒)，从库读到该值说明之前的提交已复制'
+) COMMENT='主从复制心跳表';
+
+CREATE TABLE id_sequence (
+    name VARCHAR(64) PRIMARY KEY COMMENT '序列名称',
+    next_value BIGINT NOT NULL COMMENT '下一个未分配的ID，各节点按块取号',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT='全局ID序列表';
+
+CREATE TABLE project_shard (
+    project_id INT PRIMARY KEY COMMENT '费用项目ID',
+    shard_index INT NOT NULL COMMENT '项目所在分片，没有记录的项目在0号分片',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT='项目分片目录表';
+
 -- AI 对话历史表
+-- 按 created_at 按月分区，分区列需包含在主键中；月份分区由 AiLogPartitionMaintainer 启动后补齐，过期分区整块删除
 CREATE TABLE IF NOT EXISTS ai_conversation (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    id BIGINT NOT NULL AUTO_INCREMENT,
     conversation_id VARCHAR(64) NOT NULL COMMENT '会话ID',
     user_id INT NOT NULL COMMENT '用户ID',
     role VARCHAR(20) NOT NULL COMMENT '角色: user/assistant/system',
     content TEXT NOT NULL COMMENT '消息内容',
-    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     suggestions TEXT COMMENT '建议内容，JSON数组格式，存储序列化的 SuggestionItem 列表',
     suggestions_updated_at DATETIME COMMENT '建议更新时间',
     suggestions_generating TINYINT DEFAULT 0 COMMENT '是否正在生成建议 (0-否, 1-是)',
-    INDEX idx_conversation (conversation_id),
-    INDEX idx_user (user_id),
-    INDEX idx_created (created_at)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='AI对话历史';
+    PRIMARY KEY (id, created_at),
+    INDEX idx_conversation_created (conversation_id, created_at),
+    INDEX idx_user (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='AI对话历史'
+PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
 
 -- AI 会话元数据表
 CREATE TABLE IF NOT EXISTS ai_chat_session (
@@ -94,8 +203,29 @@ CREATE TABLE IF NOT EXISTS ai_chat_session (
     INDEX idx_conversation (conversation_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='AI会话元数据表';
 
+-- 分布式锁租约表（app.ai.lock.type=db 时使用）
+CREATE TABLE IF NOT EXISTS distributed_lock (
+    lock_key VARCHAR(128) PRIMARY KEY COMMENT '锁的键',
+    owner VARCHAR(128) NOT NULL COMMENT '持有者（节点+令牌）',
+    expires_at BIGINT NOT NULL COMMENT '租约到期时间(毫秒)',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='分布式锁租约表';
+
+-- AI 分布式限流计数表（app.ai.rate-limit.mode=distributed 时使用）
+CREATE TABLE IF NOT EXISTS ai_rate_limit_counter (
+    user_id INT NOT NULL COMMENT '用户ID',
+    window_start BIGINT NOT NULL COMMENT '固定窗口开始时间(秒)',
+    used INT NOT NULL COMMENT '各节点已租出的请求数',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (user_id, window_start),
+    INDEX idx_window_start (window_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='AI分布式限流计数表';
+
+-- 按 start_time 按月分区，分区维护同 ai_conversation；只保留查询用到的两个二级索引
 CREATE TABLE IF NOT EXISTS ai_monitoring_log (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    id BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
     conversation_id VARCHAR(64) NOT NULL COMMENT '会话ID',
     user_id INT NOT NULL COMMENT '用户ID',
     model_name VARCHAR(50) NOT NULL COMMENT '模型名称(deepseek-chat/LongCat-Flash-Chat)',
@@ -107,13 +237,18 @@ CREATE TABLE IF NOT EXISTS ai_monitoring_log (
     total_tokens INT DEFAULT NULL COMMENT '总token数',
     status VARCHAR(20) NOT NULL COMMENT '调用状态(SUCCESS/FAILURE/TIMEOUT)',
     error_message TEXT DEFAULT NULL COMMENT '错误详情',
+    saved_gateway_loads INT DEFAULT 0 COMMENT '工具调用命中轮次缓存省掉的查询次数',
+    render_cache_hits INT DEFAULT 0 COMMENT '工具输出命中渲染缓存的次数',
+    render_cache_misses INT DEFAULT 0 COMMENT '工具输出未命中渲染缓存的次数',
+    response_cache_status VARCHAR(10) DEFAULT NULL COMMENT '响应缓存状态(HIT/MISS)',
+    model_route VARCHAR(500) DEFAULT NULL COMMENT '模型路由过程(对冲/故障转移)',
     user_message_preview VARCHAR(500) DEFAULT NULL COMMENT '用户消息摘要',
     assistant_message_preview VARCHAR(500) DEFAULT NULL COMMENT 'AI响应摘要',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '记录创建时间',
-    INDEX idx_conversation_id (conversation_id),
-    INDEX idx_user_id (user_id),
-    INDEX idx_model_name (model_name),
-    INDEX idx_start_time (start_time),
-    INDEX idx_status (status),
+    PRIMARY KEY (id, start_time),
+    INDEX idx_conversation_time (conversation_id, start_time),
     INDEX idx_user_time (user_id, start_time)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='AI调用监控日志表';
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='AI调用监控日志表'
+PARTITION BY RANGE COLUMNS (start_time) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.github.zavier.config;
 
+import com.github.zavier.infrastructure.http.PooledHttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -8,7 +10,7 @@ import org.springframework.web.client.RestTemplate;
 public class ExpenseConfiguration {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(@Qualifier("wxHttpClient") PooledHttpClient wxHttpClient) {
+        return new RestTemplate(wxHttpClient.requestFactory());
     }
 }
@@ -0,0 +1,149 @@
+package com.github.zavier.ai;
+
+import com.github.zavier.Application;
+import com.github.zavier.ai.entity.AiSessionEntity;
+import com.github.zavier.ai.entity.ConversationEntity;
+import com.github.zavier.ai.monitoring.dto.AiMonitoringLogDto;
+import com.github.zavier.ai.monitoring.entity.AiMonitoringLogEntity;
+import com.github.zavier.ai.monitoring.repository.AiMonitoringRepository;
+import com.github.zavier.ai.monitoring.service.AiMonitoringService;
+import com.github.zavier.ai.partition.AiLogPartitionMaintainer;
+import com.github.zavier.ai.repository.AiSessionRepository;
+import com.github.zavier.ai.repository.ConversationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AI 日志保留期测试
+ * <p>
+ * H2 不支持分区，开启 allow-row-delete 后维护时走按行删除的兜底路径；时间下界对查询结果的影响与分区无关，同样可以验证
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:aipartitiondb;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        // 测试里手动触发维护
+        "app.ai.partition.enabled=false",
+        "app.ai.partition.retention-months=3",
+        "app.ai.partition.allow-row-delete=true",
+        "app.ai.monitoring.history-days=30"
+})
+class AiLogPartitionMaintainerTest {
+
+    private static final Integer USER_ID = 300;
+
+    @Autowired
+    private AiLogPartitionMaintainer maintainer;
+    @Autowired
+    private ConversationRepository conversationRepository;
+    @Autowired
+    private AiSessionRepository sessionRepository;
+    @Autowired
+    private AiMonitoringRepository monitoringRepository;
+    @Autowired
+    private AiMonitoringService monitoringService;
+
+    @BeforeEach
+    void setUp() {
+        conversationRepository.deleteAll();
+        sessionRepository.deleteAll();
+        monitoringRepository.deleteAll();
+    }
+
+    @Test
+    void maintainShouldDeleteRowsOlderThanRetention() throws Exception {
+        final LocalDateTime expired = maintainer.retentionCutoff().atStartOfDay().minusDays(1);
+        final LocalDateTime retained = maintainer.retentionCutoff().atStartOfDay().plusDays(1);
+        saveMessage("old-conv", expired);
+        saveMessage("kept-conv", retained);
+        saveMessage("kept-conv", LocalDateTime.now());
+        saveCall("old-conv", expired);
+        saveCall("kept-conv", retained);
+
+        maintainer.maintain();
+
+        assertEquals(0, conversationRepository.countByConversationId("old-conv"));
+        assertEquals(2, conversationRepository.countByConversationId("kept-conv"));
+        final List<AiMonitoringLogEntity> calls = monitoringRepository.findAll();
+        assertEquals(1, calls.size());
+        assertEquals("kept-conv", calls.get(0).getConversationId());
+    }
+
+    @Test
+    void maintainShouldKeepRowsOfUnpartitionedTableWithoutRowDelete() throws Exception {
+        final LocalDateTime expired = maintainer.retentionCutoff().atStartOfDay().minusDays(1);
+        saveMessage("old-conv", expired);
+        saveCall("old-conv", expired);
+
+        ReflectionTestUtils.setField(maintainer, "allowRowDelete", false);
+        try {
+            maintainer.maintain();
+        } finally {
+            ReflectionTestUtils.setField(maintainer, "allowRowDelete", true);
+        }
+
+        assertEquals(1, conversationRepository.countByConversationId("old-conv"));
+        assertEquals(1, monitoringRepository.count());
+    }
+
+    @Test
+    void historyQueriesShouldOnlyReadWithinTimeRange() {
+        final LocalDateTime sessionCreatedAt = LocalDateTime.now().minusDays(40);
+        sessionRepository.save(AiSessionEntity.builder()
+                .conversationId("range-conv")
+                .userId(USER_ID)
+                .title("时间范围")
+                .createdAt(sessionCreatedAt)
+                .updatedAt(sessionCreatedAt)
+                .build());
+        final LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
+        saveCall("range-conv", utcNow.minusDays(35));
+        saveCall("range-conv", utcNow.minusDays(1));
+        saveCall("other-conv", utcNow.minusHours(1));
+
+        // 不指定会话时只看最近 history-days 天
+        final List<AiMonitoringLogDto> recent = monitoringService.getCallHistory(null, USER_ID, PageRequest.of(0, 10));
+        assertEquals(2, recent.size());
+
+        // 指定会话时从会话创建时间开始，早于 history-days 的调用也能查到
+        final List<AiMonitoringLogDto> conversation =
+                monitoringService.getCallHistory("range-conv", USER_ID, PageRequest.of(0, 10));
+        assertEquals(2, conversation.size());
+    }
+
+    private void saveMessage(String conversationId, LocalDateTime createdAt) {
+        conversationRepository.save(ConversationEntity.builder()
+                .conversationId(conversationId)
+                .userId(USER_ID)
+                .role("user")
+                .content("消息")
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private void saveCall(String conversationId, LocalDateTime startTime) {
+        monitoringRepository.save(AiMonitoringLogEntity.builder()
+                .conversationId(conversationId)
+                .userId(USER_ID)
+                .modelName("test-model")
+                .startTime(startTime)
+                .endTime(startTime.plusSeconds(1))
+                .latencyMs(1000L)
+                .status("SUCCESS")
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
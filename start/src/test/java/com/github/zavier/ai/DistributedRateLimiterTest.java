@@ -0,0 +1,151 @@
+package com.github.zavier.ai;
+
+import com.github.zavier.Application;
+import com.github.zavier.ai.entity.RateLimitCounterEntity;
+import com.github.zavier.ai.repository.RateLimitCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分布式限流测试：多个 DistributedRateLimiter 实例模拟多个节点，共用同一个计数表
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ratelimitdb;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "app.ai.rate-limit.mode=distributed"
+})
+class DistributedRateLimiterTest {
+
+    private static final int LIMIT = 20;
+    private static final int BATCH = 5;
+    // 窗口取一小时，避免测试跨越窗口边界
+    private static final long WINDOW_SECONDS = 3600;
+
+    @Autowired
+    private RateLimitCounterRepository counterRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Test
+    void nodesShouldShareOneBudget() throws Exception {
+        int userId = 1001;
+        List<DistributedRateLimiter> nodes = newNodes(3);
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 90; i++) {
+            DistributedRateLimiter node = nodes.get(i % nodes.size());
+            futures.add(executor.submit(() -> {
+                start.await();
+                if (node.tryAcquire(userId, LIMIT, WINDOW_SECONDS)) {
+                    allowed.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // 每个节点都被请求到额度用完，本地令牌全部消耗，合计恰好等于上限
+        assertEquals(LIMIT, allowed.get(), "所有节点合计放行数应等于上限");
+        assertEquals(LIMIT, usedInDb(userId));
+    }
+
+    @Test
+    void idleNodeShouldStrandLessThanOneBatch() {
+        int userId = 1002;
+        List<DistributedRateLimiter> nodes = newNodes(2);
+        DistributedRateLimiter idle = nodes.get(0);
+        DistributedRateLimiter busy = nodes.get(1);
+
+        assertTrue(idle.tryAcquire(userId, LIMIT, WINDOW_SECONDS));
+        int busyAllowed = 0;
+        for (int i = 0; i < LIMIT * 2; i++) {
+            if (busy.tryAcquire(userId, LIMIT, WINDOW_SECONDS)) {
+                busyAllowed++;
+            }
+        }
+
+        // 空闲节点租了一批只用了一个，其余留在该节点本地
+        assertEquals(LIMIT - BATCH, busyAllowed);
+        assertEquals(LIMIT, usedInDb(userId));
+        // 少放行的数量不超过 批量大小 - 1，且这部分仍可由空闲节点放行
+        assertEquals(BATCH - 1, idle.getRemaining(userId, LIMIT, WINDOW_SECONDS));
+    }
+
+    @Test
+    void requestsShouldMostlyStayLocal() {
+        int userId = 1003;
+        DistributedRateLimiter node = newNodes(1).get(0);
+
+        for (int i = 0; i < LIMIT; i++) {
+            assertTrue(node.tryAcquire(userId, LIMIT, WINDOW_SECONDS));
+        }
+        assertFalse(node.tryAcquire(userId, LIMIT, WINDOW_SECONDS));
+        assertFalse(node.tryAcquire(userId, LIMIT, WINDOW_SECONDS));
+
+        // 4 批 + 1 次确认额度用完，之后在重查间隔内直接拒绝
+        assertEquals(LIMIT / BATCH + 1, node.getLeaseCount());
+    }
+
+    @Test
+    void resetShouldClearSharedCounter() {
+        int userId = 1004;
+        DistributedRateLimiter node = newNodes(1).get(0);
+        for (int i = 0; i < LIMIT; i++) {
+            node.tryAcquire(userId, LIMIT, WINDOW_SECONDS);
+        }
+        assertFalse(node.tryAcquire(userId, LIMIT, WINDOW_SECONDS));
+
+        node.reset(userId);
+
+        assertTrue(node.tryAcquire(userId, LIMIT, WINDOW_SECONDS));
+    }
+
+    @Test
+    void rateLimitServiceShouldUseDistributedMode() {
+        int userId = 1005;
+        int limit = rateLimitService.getRemainingRequests(userId);
+        for (int i = 0; i < limit; i++) {
+            assertTrue(rateLimitService.allowRequest(userId));
+        }
+        assertFalse(rateLimitService.allowRequest(userId));
+        assertTrue(counterRepository.findAll().stream().anyMatch(c -> c.getUserId() == userId),
+                "分布式模式应写入共享计数表");
+        assertTrue(rateLimitService.getSecondsUntilReset(userId) > 0);
+    }
+
+    private List<DistributedRateLimiter> newNodes(int count) {
+        List<DistributedRateLimiter> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(new DistributedRateLimiter(counterRepository, transactionManager, BATCH));
+        }
+        return nodes;
+    }
+
+    private int usedInDb(int userId) {
+        return counterRepository.findAll().stream()
+                .filter(c -> c.getUserId() == userId)
+                .mapToInt(RateLimitCounterEntity::getUsed)
+                .sum();
+    }
+}
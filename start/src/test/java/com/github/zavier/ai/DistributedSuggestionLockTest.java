@@ -0,0 +1,151 @@
+package com.github.zavier.ai;
+
+import com.github.zavier.Application;
+import com.github.zavier.ai.concurrent.DbLeaseLockManager;
+import com.github.zavier.ai.concurrent.LockContext;
+import com.github.zavier.ai.concurrent.LockManager;
+import com.github.zavier.ai.entity.AiSessionEntity;
+import com.github.zavier.ai.entity.ConversationEntity;
+import com.github.zavier.ai.repository.AiSessionRepository;
+import com.github.zavier.ai.repository.ConversationRepository;
+import com.github.zavier.ai.service.CachedSuggestionService;
+import com.github.zavier.ai.service.SuggestionGenerator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 数据库租约锁测试：两个 Spring 上下文模拟两个节点，共用同一个数据库
+ * <p>
+ * 两个节点同时为同一个会话请求建议，只应调用一次模型生成，其余请求等待并拿到同一份结果
+ */
+class DistributedSuggestionLockTest {
+
+    private static final Integer USER_ID = 1;
+    private static final String DB_URL = "jdbc:h2:mem:distributedlockdb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static final AtomicInteger generationCount = new AtomicInteger();
+
+    @BeforeAll
+    static void startNodes() {
+        // 先启动的节点建表，第二个节点不能再 create-drop，否则会清掉第一个节点的表
+        nodeA = startNode("create-drop");
+        nodeB = startNode("none");
+
+        SuggestionGenerator generator = mock(SuggestionGenerator.class);
+        when(generator.generate(any(), anyString())).thenAnswer(invocation -> {
+            generationCount.incrementAndGet();
+            // 模拟模型生成耗时
+            Thread.sleep(500);
+            return List.of(new SuggestionGenerator.SuggestionItem("分布式建议", null, 1.0));
+        });
+        for (ConfigurableApplicationContext node : List.of(nodeA, nodeB)) {
+            Object service = AopTestUtils.getUltimateTargetObject(node.getBean(CachedSuggestionService.class));
+            ReflectionTestUtils.setField(service, "suggestionGenerator", generator);
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void lockShouldBeExclusiveAcrossNodes() throws Exception {
+        LockManager lockA = nodeA.getBean(LockManager.class);
+        LockManager lockB = nodeB.getBean(LockManager.class);
+        assertInstanceOf(DbLeaseLockManager.class, lockA);
+
+        try (LockContext held = lockA.acquireLock("exclusive-key", 1, TimeUnit.SECONDS)) {
+            assertTrue(held.isAcquired());
+            assertTrue(lockB.isLocked("exclusive-key"));
+            try (LockContext other = lockB.tryLock("exclusive-key")) {
+                assertFalse(other.isAcquired());
+            }
+            assertThrows(TimeoutException.class, () -> lockB.acquireLock("exclusive-key", 100, TimeUnit.MILLISECONDS));
+        }
+
+        assertFalse(lockA.isLocked("exclusive-key"));
+        try (LockContext afterRelease = lockB.tryLock("exclusive-key")) {
+            assertTrue(afterRelease.isAcquired());
+        }
+    }
+
+    @Test
+    void onlyOneGenerationPerConversationAcrossNodes() throws Exception {
+        String conversationId = "dist-" + System.currentTimeMillis();
+        AiSessionRepository sessionRepository = nodeA.getBean(AiSessionRepository.class);
+        sessionRepository.save(AiSessionEntity.builder()
+                .conversationId(conversationId)
+                .userId(USER_ID)
+                .title("分布式锁测试")
+                .build());
+        nodeA.getBean(ConversationRepository.class).save(ConversationEntity.builder()
+                .conversationId(conversationId)
+                .userId(USER_ID)
+                .role("user")
+                .content("测试消息")
+                .createdAt(LocalDateTime.now())
+                .build());
+        int before = generationCount.get();
+
+        List<CachedSuggestionService> services = List.of(
+                nodeA.getBean(CachedSuggestionService.class), nodeB.getBean(CachedSuggestionService.class));
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<SuggestionGenerator.SuggestionItem>>> results = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            CachedSuggestionService service = services.get(i % 2);
+            results.add(executor.submit(() -> {
+                start.await();
+                return service.generateSuggestionsSync(conversationId);
+            }));
+        }
+        start.countDown();
+
+        for (Future<List<SuggestionGenerator.SuggestionItem>> result : results) {
+            List<SuggestionGenerator.SuggestionItem> suggestions = result.get(20, TimeUnit.SECONDS);
+            assertEquals("分布式建议", suggestions.get(0).text(), "所有节点的请求都应拿到生成的建议");
+        }
+        executor.shutdown();
+
+        assertEquals(before + 1, generationCount.get(), "同一会话在两个节点上只应生成一次");
+        AiSessionEntity session = sessionRepository.findByConversationId(conversationId).orElseThrow();
+        assertFalse(session.getSuggestionsGenerating());
+        assertNotNull(session.getLastSuggestions());
+        assertFalse(nodeB.getBean(LockManager.class).isLocked(conversationId));
+    }
+
+    private static ConfigurableApplicationContext startNode(String ddlAuto) {
+        // 命令行参数优先级高于 application.properties
+        return new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + DB_URL,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "--spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+                "--app.ai.lock.type=db");
+    }
+}
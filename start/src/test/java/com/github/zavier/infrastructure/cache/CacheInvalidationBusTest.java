@@ -0,0 +1,124 @@
+package com.github.zavier.infrastructure.cache;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.Application;
+import com.github.zavier.dto.ProjectAddCmd;
+import com.github.zavier.dto.data.CacheInvalidationStatsDTO;
+import com.github.zavier.project.ExpenseApplicationService;
+import com.github.zavier.project.ProjectNameIndex;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多节点缓存失效测试：两个 Spring 上下文模拟两个节点，共用同一个数据库
+ * <p>
+ * 节点A修改项目，节点B在拉取到通知后清理本地的项目名称索引，不用等索引过期
+ */
+public class CacheInvalidationBusTest {
+
+    private static final int USER_ID = 1;
+    private static final String DB_URL = "jdbc:h2:mem:cacheinvalidationdb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        // 先启动的节点建表，第二个节点不能再 create-drop，否则会清掉第一个节点的表
+        nodeA = startNode("create-drop");
+        nodeB = startNode("none");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void remoteChangesShouldEvictLocalIndex() {
+        ProjectNameIndex indexB = nodeB.getBean(ProjectNameIndex.class);
+        CacheInvalidationBus busB = nodeB.getBean(CacheInvalidationBus.class);
+        ExpenseApplicationService serviceA = nodeA.getBean(ExpenseApplicationService.class);
+        await(() -> busB.stats().getLastSeenId() >= 0, "节点B应完成首次拉取");
+
+        // 节点B建立用户索引，此时还没有该项目
+        assertTrue(indexB.search(USER_ID, "跨节点聚餐", 5, 0.9).isEmpty());
+
+        Integer projectId = createProject(serviceA, "跨节点聚餐");
+
+        await(() -> !indexB.search(USER_ID, "跨节点聚餐", 5, 0.9).isEmpty(), "节点B的索引应被节点A的修改失效");
+        CacheInvalidationStatsDTO stats = busB.stats();
+        assertTrue(stats.getRemoteReceived() >= 1);
+        assertTrue(stats.getMaxLagMs() >= stats.getLastLagMs());
+        assertEquals(0, stats.getPendingGaps());
+
+        assertTrue(serviceA.deleteProject(projectId, USER_ID).isSuccess());
+
+        await(() -> indexB.search(USER_ID, "跨节点聚餐", 5, 0.9).isEmpty(), "删除也应通知到节点B");
+    }
+
+    @Test
+    void localChangesShouldNotCountAsRemote() {
+        CacheInvalidationBus busA = nodeA.getBean(CacheInvalidationBus.class);
+        CacheInvalidationBus busB = nodeB.getBean(CacheInvalidationBus.class);
+        await(() -> busA.stats().getLastSeenId() >= 0 && busB.stats().getLastSeenId() >= 0, "两个节点应完成首次拉取");
+        long remoteBefore = busA.stats().getRemoteReceived();
+        long receivedBefore = busA.stats().getReceived();
+
+        createProject(nodeA.getBean(ExpenseApplicationService.class), "本节点项目");
+
+        await(() -> busA.stats().getReceived() > receivedBefore, "本节点也应处理自己的通知");
+        assertEquals(remoteBefore, busA.stats().getRemoteReceived());
+        assertNotEquals(busA.stats().getNodeId(), busB.stats().getNodeId());
+    }
+
+    private static ConfigurableApplicationContext startNode(String ddlAuto) {
+        // 命令行参数优先级高于 application.properties
+        return new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + DB_URL,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "--spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+                "--app.cache.invalidation.poll-interval-ms=100");
+    }
+
+    private static Integer createProject(ExpenseApplicationService service, String name) {
+        ProjectAddCmd cmd = new ProjectAddCmd();
+        cmd.setProjectName(name);
+        cmd.setProjectDesc("缓存失效");
+        cmd.setCreateUserId(USER_ID);
+        cmd.setMembers(List.of("张三", "李四"));
+        SingleResponse<Integer> response = service.createProject(cmd);
+        assertTrue(response.isSuccess(), response.getErrMessage());
+        return response.getData();
+    }
+
+    private static void await(BooleanSupplier condition, String message) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail(message);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.zavier.infrastructure.db;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("数据库连接配额测试")
+class BudgetedDataSourceTest {
+
+    @Test
+    @DisplayName("配额内的线程最多占用配额数的连接，关闭后释放")
+    void testBudgetLimitsConnections() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        BudgetedDataSource dataSource = new BudgetedDataSource(target);
+        ConnectionBudget budget = new ConnectionBudget("ai", 2, 50);
+
+        budget.call(() -> {
+            Connection first = dataSource.getConnection();
+            Connection second = dataSource.getConnection();
+            assertEquals(2, budget.getInUse());
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+            first.close();
+            // 重复关闭不会多释放配额
+            first.close();
+            assertEquals(1, budget.getInUse());
+            dataSource.getConnection().close();
+            second.close();
+            return null;
+        });
+
+        assertEquals(0, budget.getInUse());
+    }
+
+    @Test
+    @DisplayName("没有配额的线程不受限制")
+    void testNoBudgetUnlimited() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        BudgetedDataSource dataSource = new BudgetedDataSource(target);
+        new ConnectionBudget("ai", 1, 50);
+
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(dataSource.getConnection());
+        }
+        verify(target, times(5)).getConnection();
+    }
+
+    @Test
+    @DisplayName("获取底层连接失败时归还配额")
+    void testReleaseOnFailure() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+        BudgetedDataSource dataSource = new BudgetedDataSource(target);
+        ConnectionBudget budget = new ConnectionBudget("ai", 1, 50);
+
+        budget.call(() -> assertThrows(SQLTransientConnectionException.class, dataSource::getConnection));
+
+        assertEquals(0, budget.getInUse());
+    }
+}
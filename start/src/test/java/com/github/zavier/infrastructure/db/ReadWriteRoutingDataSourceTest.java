@@ -0,0 +1,172 @@
+package com.github.zavier.infrastructure.db;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.Application;
+import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.domain.user.User;
+import com.github.zavier.dto.ProjectAddCmd;
+import com.github.zavier.project.ExpenseApplicationService;
+import com.github.zavier.web.filter.UserHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 读写分离测试：主库、从库是两个独立的 H2 内存库，之间没有复制
+ * <p>
+ * 从库只复制表结构，主库写入的数据在从库永远看不到，据此判断查询落在哪个库；
+ * 复制进度通过手工写入从库心跳来模拟
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=" + ReadWriteRoutingDataSourceTest.PRIMARY_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=" + ReadWriteRoutingDataSourceTest.REPLICA_URL,
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.driver-class-name=org.h2.Driver",
+        // 测试中手工刷新复制进度
+        "app.datasource.replica.heartbeat-interval-ms=3600000",
+        "app.datasource.replica.max-lag-ms=60000"
+})
+public class ReadWriteRoutingDataSourceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:rwprimarydb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:rwreplicadb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static final int WRITER_ID = 1;
+    private static final int READER_ID = 2;
+
+    private static boolean schemaCopied = false;
+
+    @Autowired
+    private ExpenseApplicationService expenseApplicationService;
+    @Autowired
+    private ExpenseProjectGateway expenseProjectGateway;
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeEach
+    void copySchemaToReplica() throws SQLException {
+        if (schemaCopied) {
+            return;
+        }
+        final List<String> ddl = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Statement statement = primary.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT NODATA")) {
+            while (script.next()) {
+                final String sql = script.getString(1);
+                if (!sql.startsWith("CREATE USER") && !sql.startsWith("--")) {
+                    ddl.add(sql);
+                }
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            for (String sql : ddl) {
+                statement.execute(sql);
+            }
+        }
+        schemaCopied = true;
+    }
+
+    @AfterEach
+    void clearUser() {
+        UserHolder.clear();
+    }
+
+    @Test
+    void readOnlyQueriesShouldUseReplicaExceptForOwnRecentWrites() throws SQLException {
+        replicateUpTo(System.currentTimeMillis());
+        assertTrue(replicaLagMonitor.isHealthy());
+
+        login(WRITER_ID);
+        final Integer projectId = createProject("读写分离");
+
+        // 其他用户的只读查询走从库，从库没有这条数据
+        login(READER_ID);
+        assertFalse(listProjectNames().containsKey(projectId));
+
+        // 写入者自己读主库
+        login(WRITER_ID);
+        assertTrue(listProjectNames().containsKey(projectId));
+
+        // 从库复制进度越过写入时间后，写入者也改读从库
+        replicateUpTo(System.currentTimeMillis() + 10_000);
+        assertFalse(listProjectNames().containsKey(projectId));
+    }
+
+    @Test
+    void laggingReplicaShouldFallBackToPrimary() throws SQLException {
+        login(WRITER_ID);
+        final Integer projectId = createProject("从库延迟");
+
+        login(READER_ID);
+        replicateUpTo(System.currentTimeMillis() + 10_000);
+        assertFalse(listProjectNames().containsKey(projectId));
+
+        // 复制进度落后超过 max-lag-ms，所有只读查询回到主库
+        replicateUpTo(System.currentTimeMillis() - 120_000);
+        assertFalse(replicaLagMonitor.isHealthy());
+        assertTrue(listProjectNames().containsKey(projectId));
+    }
+
+    private Map<Integer, String> listProjectNames() {
+        return expenseProjectGateway.listProjectNames(WRITER_ID);
+    }
+
+    /**
+     * 模拟从库已复制到主库的某个时间点
+     */
+    private void replicateUpTo(long beatAt) throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            try (PreparedStatement delete = replica.prepareStatement("delete from `db_heartbeat` where `node_id` = ?")) {
+                delete.setString(1, replicaLagMonitor.getNodeId());
+                delete.executeUpdate();
+            }
+            try (PreparedStatement insert = replica.prepareStatement(
+                    "insert into `db_heartbeat` (`node_id`, `beat_at`) values (?, ?)")) {
+                insert.setString(1, replicaLagMonitor.getNodeId());
+                insert.setLong(2, beatAt);
+                insert.executeUpdate();
+            }
+        }
+        replicaLagMonitor.refresh();
+    }
+
+    private static void login(int userId) {
+        final User user = new User();
+        user.setUserId(userId);
+        UserHolder.setUser(user);
+    }
+
+    private Integer createProject(String name) {
+        final ProjectAddCmd cmd = new ProjectAddCmd();
+        cmd.setProjectName(name);
+        cmd.setProjectDesc("读写分离");
+        cmd.setCreateUserId(WRITER_ID);
+        cmd.setMembers(List.of("张三", "李四"));
+        final SingleResponse<Integer> response = expenseApplicationService.createProject(cmd);
+        assertTrue(response.isSuccess(), response.getErrMessage());
+        return response.getData();
+    }
+}
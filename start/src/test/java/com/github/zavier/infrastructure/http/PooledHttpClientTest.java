@@ -0,0 +1,164 @@
+package com.github.zavier.infrastructure.http;
+
+import com.github.zavier.dto.data.HttpPoolStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HTTP连接池测试")
+class PooledHttpClientTest {
+
+    private ServerSocket serverSocket;
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile boolean hang;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverSocket = new ServerSocket(0);
+        serverExecutor.submit(this::acceptLoop);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        serverSocket.close();
+        for (Socket socket : accepted) {
+            socket.close();
+        }
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("keep-alive连接在请求之间复用")
+    void testConnectionReuse() throws IOException {
+        try (PooledHttpClient client = new PooledHttpClient("test", settings(1000))) {
+            RestTemplate restTemplate = new RestTemplate(client.requestFactory());
+            for (int i = 0; i < 5; i++) {
+                assertEquals("ok", restTemplate.getForObject(url(), String.class));
+            }
+
+            assertEquals(1, connections.get(), "5次请求应复用同一个连接");
+            HttpPoolStatsDTO stats = client.stats();
+            assertEquals(0, stats.getLeased());
+            assertEquals(1, stats.getIdle());
+            assertEquals(4, stats.getMax());
+        }
+    }
+
+    @Test
+    @DisplayName("上游不响应时在响应超时内失败，不会一直占住调用线程")
+    void testHungUpstreamTimesOut() throws IOException {
+        hang = true;
+        try (PooledHttpClient client = new PooledHttpClient("test", settings(300))) {
+            RestTemplate restTemplate = new RestTemplate(client.requestFactory());
+
+            long start = System.currentTimeMillis();
+            assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url(), String.class));
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue(elapsed < 2_000, "elapsed=" + elapsed);
+            assertEquals(0, client.stats().getLeased(), "超时的连接应归还连接池");
+        }
+    }
+
+    @Test
+    @DisplayName("连接池占满时后续请求在获取连接超时内失败，并能看到等待中的请求")
+    void testPoolExhaustionFailsFast() throws Exception {
+        hang = true;
+        try (PooledHttpClient client = new PooledHttpClient("test",
+                new PooledHttpClient.Settings(1, 1, 1000, 3000, 300))) {
+            RestTemplate restTemplate = new RestTemplate(client.requestFactory());
+            ExecutorService callers = Executors.newFixedThreadPool(2);
+            try {
+                Future<?> first = callers.submit(() -> restTemplate.getForObject(url(), String.class));
+                waitUntil(() -> client.stats().getLeased() == 1);
+
+                long start = System.currentTimeMillis();
+                Future<?> second = callers.submit(() -> restTemplate.getForObject(url(), String.class));
+                waitUntil(() -> client.stats().getPending() == 1);
+                Exception e = assertThrows(Exception.class, () -> second.get(2, TimeUnit.SECONDS));
+                assertInstanceOf(ResourceAccessException.class, e.getCause());
+                assertTrue(System.currentTimeMillis() - start < 1_500);
+                first.cancel(true);
+            } finally {
+                callers.shutdownNow();
+            }
+        }
+    }
+
+    private static PooledHttpClient.Settings settings(long responseTimeoutMs) {
+        return new PooledHttpClient.Settings(4, 4, 1000, responseTimeoutMs, 1000);
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/ping";
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                accepted.add(socket);
+                connections.incrementAndGet();
+                serverExecutor.submit(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 极简 HTTP/1.1 服务：每个请求返回 ok 并保持连接；hang 为 true 时读到请求后不再响应
+     */
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            StringBuilder header = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1) {
+                header.append((char) b);
+                if (header.toString().endsWith("\r\n\r\n")) {
+                    if (hang) {
+                        Thread.sleep(Long.MAX_VALUE);
+                    }
+                    out.write("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: 2\r\n\r\nok"
+                            .getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                    header.setLength(0);
+                }
+            }
+        } catch (IOException | InterruptedException ignored) {
+            // 连接关闭或测试结束
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.github.zavier.infrastructure.project;
+
+import com.github.zavier.Application;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.ExpenseRecord;
+import com.github.zavier.domain.expense.MemberProjectFee;
+import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.expense.ExpenseEventRepository;
+import com.github.zavier.expense.ExpenseRecordConsumerDO;
+import com.github.zavier.expense.ExpenseRecordConsumerRepository;
+import com.github.zavier.expense.ExpenseRecordDO;
+import com.github.zavier.expense.ExpenseRecordRepository;
+import com.github.zavier.expense.ExpenseSnapshotDO;
+import com.github.zavier.expense.ExpenseSnapshotRepository;
+import com.github.zavier.project.EventSourcedExpenseProjectGateway;
+import com.github.zavier.project.ExpenseProjectDO;
+import com.github.zavier.project.ExpenseProjectMemberDO;
+import com.github.zavier.project.ExpenseProjectMemberRepository;
+import com.github.zavier.project.ExpenseProjectRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 事件存储测试：保存追加事件、加载重放、定期快照、表存储迁移
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+@Rollback
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:eventstoredb;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "app.expense.persistence=event",
+        "app.expense.event-store.snapshot-every=3"
+})
+public class EventSourcedExpenseProjectGatewayTest {
+
+    @Autowired
+    private ExpenseProjectGateway expenseProjectGateway;
+    @Autowired
+    private ExpenseEventRepository expenseEventRepository;
+    @Autowired
+    private ExpenseSnapshotRepository expenseSnapshotRepository;
+    @Autowired
+    private ExpenseProjectRepository expenseProjectRepository;
+    @Autowired
+    private ExpenseProjectMemberRepository expenseProjectMemberRepository;
+    @Autowired
+    private ExpenseRecordRepository expenseRecordRepository;
+    @Autowired
+    private ExpenseRecordConsumerRepository expenseRecordConsumerRepository;
+
+    @Test
+    void gatewayShouldBeEventSourced() {
+        assertInstanceOf(EventSourcedExpenseProjectGateway.class, expenseProjectGateway);
+    }
+
+    @Test
+    void saveShouldAppendEventsAndLoadShouldReplay() {
+        ExpenseProject project = createProject("周末聚餐");
+        project.addMembers(List.of("张三", "李四"));
+        expenseProjectGateway.save(project);
+        Integer projectId = project.getId();
+        assertEquals(2, expenseEventRepository.findByProjectIdAndSeqGreaterThanOrderBySeqAsc(projectId, 0).size());
+
+        ExpenseProject loaded = expenseProjectGateway.getProjectById(projectId).orElseThrow();
+        loaded.addExpenseRecord(record(projectId, "张三", "100"));
+        expenseProjectGateway.save(loaded);
+        Integer recordId = loaded.listAllExpenseRecord().get(0).getId();
+        assertNotNull(recordId, "新增记录应回填事件ID作为记录ID");
+
+        ExpenseProject reloaded = expenseProjectGateway.getProjectById(projectId).orElseThrow();
+        assertEquals(Set.of("张三", "李四"), Set.copyOf(reloaded.listAllMember()));
+        assertEquals(1, reloaded.listAllExpenseRecord().size());
+        ExpenseRecord saved = reloaded.listAllExpenseRecord().get(0);
+        assertEquals(recordId, saved.getId());
+        assertEquals(0, new BigDecimal("100").compareTo(saved.getAmount()));
+        assertEquals(Set.of("张三", "李四"), saved.listAllConsumers());
+        assertTrue(reloaded.listPendingEvents().isEmpty(), "重放不应产生待保存事件");
+
+        ExpenseRecord update = record(projectId, "李四", "80");
+        update.setId(recordId);
+        reloaded.updateExpenseRecord(update);
+        expenseProjectGateway.save(reloaded);
+
+        ExpenseProject afterUpdate = expenseProjectGateway.getProjectById(projectId).orElseThrow();
+        assertEquals("李四", afterUpdate.listAllExpenseRecord().get(0).getPayMember());
+        assertEquals(0, new BigDecimal("80").compareTo(afterUpdate.listAllExpenseRecord().get(0).getAmount()));
+
+        afterUpdate.removeRecord(recordId);
+        expenseProjectGateway.save(afterUpdate);
+
+        assertTrue(expenseProjectGateway.getProjectById(projectId).orElseThrow().listAllExpenseRecord().isEmpty());
+        assertEquals(5, expenseEventRepository.findByProjectIdAndSeqGreaterThanOrderBySeqAsc(projectId, 0).size(),
+                "每次变更追加一个事件，历史完整保留");
+    }
+
+    @Test
+    void snapshotShouldBeWrittenEveryNEvents() {
+        ExpenseProject project = createProject("旅行");
+        project.addMembers(List.of("张三", "李四"));
+        expenseProjectGateway.save(project);
+        Integer projectId = project.getId();
+        assertFalse(expenseSnapshotRepository.existsById(projectId));
+
+        ExpenseProject loaded = expenseProjectGateway.getProjectById(projectId).orElseThrow();
+        loaded.addExpenseRecord(record(projectId, "张三", "30"));
+        loaded.addExpenseRecord(record(projectId, "李四", "50"));
+        expenseProjectGateway.save(loaded);
+
+        ExpenseSnapshotDO snapshot = expenseSnapshotRepository.findById(projectId).orElseThrow();
+        assertEquals(4, snapshot.getSeq());
+
+        ExpenseProject afterSnapshot = expenseProjectGateway.getProjectById(projectId).orElseThrow();
+        afterSnapshot.addMember("王五");
+        expenseProjectGateway.save(afterSnapshot);
+
+        // 快照 + 1 个尾部事件
+        ExpenseProject replayed = expenseProjectGateway.getProjectById(projectId).orElseThrow();
+        assertEquals(Set.of("张三", "李四", "王五"), Set.copyOf(replayed.listAllMember()));
+        assertEquals(2, replayed.listAllExpenseRecord().size());
+        assertEquals(0, new BigDecimal("80").compareTo(replayed.calcMemberSharingFee().listMemberProjectFee().stream()
+                .map(MemberProjectFee::getPaidAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+
+    @Test
+    void deleteShouldRemoveEventsAndSnapshot() {
+        ExpenseProject project = createProject("删除");
+        project.addMembers(List.of("张三", "李四", "王五"));
+        expenseProjectGateway.save(project);
+        Integer projectId = project.getId();
+        assertTrue(expenseSnapshotRepository.existsById(projectId));
+
+        expenseProjectGateway.delete(projectId);
+
+        assertFalse(expenseProjectGateway.getProjectById(projectId).isPresent());
+        assertFalse(expenseEventRepository.existsByProjectId(projectId));
+        assertFalse(expenseSnapshotRepository.existsById(projectId));
+    }
+
+    @Test
+    void migrateShouldConvertTableProject() {
+        ExpenseProjectDO projectDO = new ExpenseProjectDO();
+        projectDO.setName("历史项目");
+        projectDO.setDescription("表存储");
+        projectDO.setCreateUserId(1);
+        projectDO.setLocked(false);
+        projectDO = expenseProjectRepository.save(projectDO);
+        Integer projectId = projectDO.getId();
+        for (String name : List.of("张三", "李四")) {
+            ExpenseProjectMemberDO memberDO = new ExpenseProjectMemberDO();
+            memberDO.setProjectId(projectId);
+            memberDO.setName(name);
+            expenseProjectMemberRepository.save(memberDO);
+        }
+        ExpenseRecordDO recordDO = new ExpenseRecordDO();
+        recordDO.setProjectId(projectId);
+        recordDO.setPayMember("张三");
+        recordDO.setAmount(new BigDecimal("60"));
+        recordDO.setPayDate(LocalDateTime.now());
+        recordDO.setExpenseType("餐饮");
+        recordDO.setRemark("午饭");
+        recordDO = expenseRecordRepository.save(recordDO);
+        for (String name : List.of("张三", "李四")) {
+            ExpenseRecordConsumerDO consumerDO = new ExpenseRecordConsumerDO();
+            consumerDO.setProjectId(projectId);
+            consumerDO.setRecordId(recordDO.getId());
+            consumerDO.setMember(name);
+            expenseRecordConsumerRepository.save(consumerDO);
+        }
+
+        EventSourcedExpenseProjectGateway gateway = (EventSourcedExpenseProjectGateway) expenseProjectGateway;
+        assertTrue(gateway.migrate(projectId));
+        assertFalse(gateway.migrate(projectId), "已有事件的项目不再迁移");
+
+        ExpenseProject migrated = expenseProjectGateway.getProjectById(projectId).orElseThrow();
+        assertEquals("历史项目", migrated.getName());
+        assertEquals(Set.of("张三", "李四"), Set.copyOf(migrated.listAllMember()));
+        assertEquals(1, migrated.listAllExpenseRecord().size());
+        ExpenseRecord record = migrated.listAllExpenseRecord().get(0);
+        assertEquals("午饭", record.getRemark());
+        assertEquals(Set.of("张三", "李四"), record.listAllConsumers());
+        assertEquals(3, expenseSnapshotRepository.findById(projectId).orElseThrow().getSeq());
+    }
+
+    private ExpenseProject createProject(String name) {
+        ExpenseProject project = new ExpenseProject();
+        project.setName(name);
+        project.setDescription("事件存储");
+        project.setCreateUserId(1);
+        project.setLocked(false);
+        return project;
+    }
+
+    private ExpenseRecord record(Integer projectId, String payMember, String amount) {
+        ExpenseRecord record = new ExpenseRecord();
+        record.setProjectId(projectId);
+        record.setPayMember(payMember);
+        record.setAmount(new BigDecimal(amount));
+        record.setDate(new Date());
+        record.setExpenseType("餐饮");
+        record.setRemark("测试");
+        record.addConsumers(List.of("张三", "李四"));
+        return record;
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.zavier.infrastructure.project;
+
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.utils.SingleFlight;
+import com.github.zavier.dto.data.SingleFlightStatsDTO;
+import com.github.zavier.expense.ExpenseRecordConsumerRepository;
+import com.github.zavier.expense.ExpenseRecordRepository;
+import com.github.zavier.infrastructure.shard.ProjectShardRouter;
+import com.github.zavier.project.ExpenseProjectDO;
+import com.github.zavier.project.ExpenseProjectGatewayImpl;
+import com.github.zavier.project.ExpenseProjectMemberDO;
+import com.github.zavier.project.ExpenseProjectMemberRepository;
+import com.github.zavier.project.ExpenseProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * 项目加载并发合并测试：同一项目同一版本的并发读取只查询一次关联数据
+ */
+class ExpenseProjectGatewaySingleFlightTest {
+
+    private static final int PROJECT_ID = 7;
+    private static final int READERS = 20;
+
+    private ExpenseProjectRepository expenseProjectRepository;
+    private ExpenseProjectMemberRepository expenseProjectMemberRepository;
+    private ExpenseRecordRepository expenseRecordRepository;
+    private ExpenseRecordConsumerRepository expenseRecordConsumerRepository;
+    private ExpenseProjectGatewayImpl gateway;
+
+    private final CountDownLatch releaseLoad = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        expenseProjectRepository = mock(ExpenseProjectRepository.class);
+        expenseProjectMemberRepository = mock(ExpenseProjectMemberRepository.class);
+        expenseRecordRepository = mock(ExpenseRecordRepository.class);
+        expenseRecordConsumerRepository = mock(ExpenseRecordConsumerRepository.class);
+
+        gateway = new ExpenseProjectGatewayImpl();
+        ReflectionTestUtils.setField(gateway, "expenseProjectRepository", expenseProjectRepository);
+        ReflectionTestUtils.setField(gateway, "expenseProjectMemberRepository", expenseProjectMemberRepository);
+        ReflectionTestUtils.setField(gateway, "expenseRecordRepository", expenseRecordRepository);
+        ReflectionTestUtils.setField(gateway, "expenseRecordConsumerRepository", expenseRecordConsumerRepository);
+        ReflectionTestUtils.setField(gateway, "projectShardRouter", new ProjectShardRouter());
+
+        when(expenseProjectRepository.findById(PROJECT_ID)).thenAnswer(invocation -> Optional.of(projectDO(3)));
+        when(expenseProjectMemberRepository.findByProjectId(anyInt())).thenAnswer(invocation -> {
+            // 第一个加载卡住，等所有读取方都到达
+            assertTrue(releaseLoad.await(5, TimeUnit.SECONDS));
+            return List.of(memberDO("张三"), memberDO("李四"));
+        });
+        when(expenseRecordRepository.findByProjectIdOrderByPayDateAsc(anyInt())).thenReturn(new ArrayList<>());
+        when(expenseRecordConsumerRepository.findByProjectId(anyInt())).thenReturn(new ArrayList<>());
+    }
+
+    @Test
+    void concurrentReaders_shouldShareOneLoad() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<Optional<ExpenseProject>>> futures = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                futures.add(executor.submit(() -> gateway.getProjectById(PROJECT_ID)));
+            }
+            awaitCoalesced(READERS - 1);
+            releaseLoad.countDown();
+
+            List<ExpenseProject> projects = new ArrayList<>();
+            for (Future<Optional<ExpenseProject>> future : futures) {
+                projects.add(future.get(5, TimeUnit.SECONDS).orElseThrow());
+            }
+
+            verify(expenseProjectMemberRepository, times(1)).findByProjectId(PROJECT_ID);
+            verify(expenseRecordRepository, times(1)).findByProjectIdOrderByPayDateAsc(PROJECT_ID);
+            // 没有迁移前的记录，不查消费人员关联表
+            verify(expenseRecordConsumerRepository, never()).findByProjectId(PROJECT_ID);
+
+            // 每个调用方拿到独立的聚合，修改互不影响
+            assertEquals(READERS, projects.stream().distinct().count());
+            projects.get(0).addMember("王五");
+            assertEquals(List.of("张三", "李四"), projects.get(1).listAllMember());
+
+            assertEquals(READERS - 1, stats().getCoalesced());
+            assertEquals(1, stats().getExecutions());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void differentVersion_shouldLoadAgain() {
+        releaseLoad.countDown();
+        gateway.getProjectById(PROJECT_ID);
+        when(expenseProjectRepository.findById(PROJECT_ID)).thenAnswer(invocation -> Optional.of(projectDO(4)));
+        gateway.getProjectById(PROJECT_ID);
+
+        verify(expenseProjectMemberRepository, times(2)).findByProjectId(PROJECT_ID);
+        assertEquals(0, stats().getCoalesced());
+    }
+
+    /**
+     * 等待其余读取方都已加入正在进行的加载
+     */
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (stats().getCoalesced() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, stats().getCoalesced());
+    }
+
+    @SuppressWarnings("unchecked")
+    private SingleFlightStatsDTO stats() {
+        return ((SingleFlight<Object, Object>) ReflectionTestUtils.getField(gateway, "projectLoadFlight")).stats();
+    }
+
+    private static ExpenseProjectDO projectDO(int version) {
+        ExpenseProjectDO projectDO = new ExpenseProjectDO();
+        projectDO.setId(PROJECT_ID);
+        projectDO.setName("周末聚餐");
+        projectDO.setCreateUserId(1);
+        projectDO.setVersion(version);
+        return projectDO;
+    }
+
+    private static ExpenseProjectMemberDO memberDO(String name) {
+        ExpenseProjectMemberDO memberDO = new ExpenseProjectMemberDO();
+        memberDO.setProjectId(PROJECT_ID);
+        memberDO.setName(name);
+        return memberDO;
+    }
+}
@@ -0,0 +1,156 @@
+package com.github.zavier.infrastructure.project;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.Application;
+import com.github.zavier.dto.ExpenseRecordAddCmd;
+import com.github.zavier.dto.ExpenseSearchQry;
+import com.github.zavier.dto.ProjectAddCmd;
+import com.github.zavier.dto.data.ExpenseSearchGroupDTO;
+import com.github.zavier.dto.data.ExpenseSearchResultDTO;
+import com.github.zavier.project.ExpenseApplicationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 跨项目费用记录搜索测试：H2 没有全文索引，走 LIKE 匹配，汇总和权限逻辑与 MySQL 相同
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:expensesearchdb;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+public class ExpenseSearchTest {
+
+    @Autowired
+    private ExpenseApplicationService expenseApplicationService;
+
+    @Test
+    void searchShouldSumMatchesAcrossProjects() {
+        int userId = 101;
+        Integer beijing = createProject(userId, "北京出差");
+        Integer shanghai = createProject(userId, "上海出差");
+        addRecord(userId, beijing, "交通", "机场打车", "120");
+        addRecord(userId, beijing, "交通", "打车回酒店", "30.5");
+        addRecord(userId, beijing, "餐饮", "烤鸭", "200");
+        addRecord(userId, shanghai, "打车", "", "45");
+
+        ExpenseSearchResultDTO result = search(userId, "打车", null);
+
+        assertEquals(3, result.getRecordCount());
+        assertEquals(0, new BigDecimal("195.5").compareTo(result.getTotalAmount()));
+        assertEquals(2, result.getProjects().size());
+        ExpenseSearchGroupDTO top = result.getProjects().get(0);
+        assertEquals(beijing, top.getProjectId());
+        assertEquals("北京出差", top.getProjectName());
+        assertEquals(0, new BigDecimal("150.5").compareTo(top.getTotalAmount()));
+        assertEquals(List.of("交通", "打车"), result.getExpenseTypes().stream().map(ExpenseSearchGroupDTO::getExpenseType).toList());
+        assertEquals(3, result.getRecords().size());
+        assertTrue(result.getRecords().stream().allMatch(hit -> hit.getProjectName() != null));
+    }
+
+    @Test
+    void searchShouldOnlyCoverOwnProjects() {
+        Integer own = createProject(201, "自己的项目");
+        Integer others = createProject(202, "别人的项目");
+        addRecord(201, own, "住宿", "酒店", "300");
+        addRecord(202, others, "住宿", "酒店", "500");
+
+        ExpenseSearchResultDTO result = search(201, "酒店", null);
+
+        assertEquals(1, result.getRecordCount());
+        assertEquals(own, result.getRecords().get(0).getProjectId());
+    }
+
+    @Test
+    void limitShouldOnlyTruncateRecords() {
+        int userId = 301;
+        Integer projectId = createProject(userId, "限制条数");
+        for (int i = 0; i < 5; i++) {
+            addRecord(userId, projectId, "餐饮", "午饭" + i, "10");
+        }
+
+        ExpenseSearchResultDTO result = search(userId, "午饭", 2);
+
+        assertEquals(5, result.getRecordCount());
+        assertEquals(0, new BigDecimal("50").compareTo(result.getTotalAmount()));
+        assertEquals(2, result.getRecords().size());
+    }
+
+    @Test
+    void wildcardKeywordShouldMatchLiterally() {
+        int userId = 401;
+        Integer projectId = createProject(userId, "通配符");
+        addRecord(userId, projectId, "其他", "打九折", "90");
+        addRecord(userId, projectId, "其他", "优惠100%", "10");
+
+        ExpenseSearchResultDTO result = search(userId, "%", null);
+
+        assertEquals(1, result.getRecordCount());
+        assertEquals("优惠100%", result.getRecords().get(0).getRemark());
+    }
+
+    @Test
+    void noMatchShouldReturnEmptyResult() {
+        int userId = 501;
+        createProject(userId, "空结果");
+
+        ExpenseSearchResultDTO result = search(userId, "不存在", null);
+
+        assertEquals(0, result.getRecordCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(result.getTotalAmount()));
+        assertTrue(result.getProjects().isEmpty());
+        assertTrue(result.getRecords().isEmpty());
+    }
+
+    @Test
+    void blankKeywordShouldFail() {
+        ExpenseSearchQry qry = new ExpenseSearchQry();
+        qry.setOperatorId(1);
+        qry.setKeyword("  ");
+
+        assertFalse(expenseApplicationService.searchExpenseRecords(qry).isSuccess());
+    }
+
+    private ExpenseSearchResultDTO search(int userId, String keyword, Integer limit) {
+        ExpenseSearchQry qry = new ExpenseSearchQry();
+        qry.setOperatorId(userId);
+        qry.setKeyword(keyword);
+        qry.setLimit(limit);
+        SingleResponse<ExpenseSearchResultDTO> response = expenseApplicationService.searchExpenseRecords(qry);
+        assertTrue(response.isSuccess(), response.getErrMessage());
+        return response.getData();
+    }
+
+    private Integer createProject(int userId, String name) {
+        ProjectAddCmd cmd = new ProjectAddCmd();
+        cmd.setProjectName(name);
+        cmd.setProjectDesc("搜索");
+        cmd.setCreateUserId(userId);
+        cmd.setMembers(List.of("张三", "李四"));
+        SingleResponse<Integer> response = expenseApplicationService.createProject(cmd);
+        assertTrue(response.isSuccess(), response.getErrMessage());
+        return response.getData();
+    }
+
+    private void addRecord(int userId, Integer projectId, String expenseType, String remark, String amount) {
+        ExpenseRecordAddCmd cmd = new ExpenseRecordAddCmd();
+        cmd.setProjectId(projectId);
+        cmd.setOperatorId(userId);
+        cmd.setPayMember("张三");
+        cmd.setAmount(new BigDecimal(amount));
+        cmd.setDate(System.currentTimeMillis() / 1000);
+        cmd.setExpenseType(expenseType);
+        cmd.setRemark(remark);
+        cmd.setConsumerMembers(List.of("张三", "李四"));
+        assertTrue(expenseApplicationService.addExpenseRecord(cmd).isSuccess());
+    }
+}
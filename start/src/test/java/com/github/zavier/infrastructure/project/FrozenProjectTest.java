@@ -0,0 +1,199 @@
+package com.github.zavier.infrastructure.project;
+
+import com.alibaba.cola.dto.Response;
+import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.Application;
+import com.github.zavier.dto.ExpenseRecordAddCmd;
+import com.github.zavier.dto.ExpenseRecordDeleteCmd;
+import com.github.zavier.dto.ExpenseRecordQry;
+import com.github.zavier.dto.ProjectAddCmd;
+import com.github.zavier.dto.ProjectLockCmd;
+import com.github.zavier.dto.ProjectMemberAddCmd;
+import com.github.zavier.dto.ProjectRenameCmd;
+import com.github.zavier.dto.ProjectSharingQry;
+import com.github.zavier.dto.data.ExpenseRecordDTO;
+import com.github.zavier.dto.data.UserSharingDTO;
+import com.github.zavier.expense.ExpenseRecordRepository;
+import com.github.zavier.project.ExpenseApplicationService;
+import com.github.zavier.project.FrozenProjectDO;
+import com.github.zavier.project.FrozenProjectRepository;
+import com.github.zavier.project.ProjectViewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 项目锁定测试：锁定时写入冻结快照，之后查询只读快照，修改命令全部拒绝
+ * <p>
+ * 快照在事务提交前写入，测试方法本身不能开启事务
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:frozenprojectdb;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+public class FrozenProjectTest {
+
+    private static final int USER_ID = 1;
+
+    @Autowired
+    private ExpenseApplicationService expenseApplicationService;
+    @Autowired
+    private FrozenProjectRepository frozenProjectRepository;
+    @Autowired
+    private ProjectViewRepository projectViewRepository;
+    @Autowired
+    private ExpenseRecordRepository expenseRecordRepository;
+
+    @Test
+    void lockShouldWriteFrozenSnapshotAndDropView() {
+        Integer projectId = createProject("结清");
+        expenseApplicationService.addExpenseRecord(addCmd(projectId, "100"));
+
+        assertTrue(expenseApplicationService.lockProject(lockCmd(projectId)).isSuccess());
+
+        FrozenProjectDO frozenDO = frozenProjectRepository.findById(projectId).orElseThrow();
+        assertEquals(2, frozenDO.getVersion());
+        // gzip 魔数
+        assertEquals((byte) 0x1f, frozenDO.getPayload()[0]);
+        assertEquals((byte) 0x8b, frozenDO.getPayload()[1]);
+        assertFalse(projectViewRepository.existsById(projectId));
+    }
+
+    @Test
+    void lockedProjectQueriesShouldReadSnapshot() {
+        Integer projectId = createProject("只读快照");
+        expenseApplicationService.addExpenseRecord(addCmd(projectId, "60"));
+        expenseApplicationService.lockProject(lockCmd(projectId));
+
+        // 删掉费用记录，查询结果不变，说明读的是快照
+        expenseRecordRepository.deleteAll(expenseRecordRepository.findByProjectIdOrderByPayDateAsc(projectId));
+
+        List<ExpenseRecordDTO> records = expenseApplicationService.listRecord(recordQry(projectId)).getData();
+        assertEquals(1, records.size());
+        assertEquals(0, new BigDecimal("60").compareTo(records.get(0).getAmount()));
+
+        List<UserSharingDTO> sharing = expenseApplicationService.getProjectSharingDetail(sharingQry(projectId)).getData();
+        assertEquals(2, sharing.size());
+        assertEquals(1, expenseApplicationService.exportRecords(projectId, USER_ID).getData().size());
+    }
+
+    @Test
+    void lockedProjectShouldRejectMutations() {
+        Integer projectId = createProject("拒绝修改");
+        expenseApplicationService.addExpenseRecord(addCmd(projectId, "10"));
+        Integer recordId = expenseApplicationService.listRecord(recordQry(projectId)).getData().get(0).getRecordId();
+        expenseApplicationService.lockProject(lockCmd(projectId));
+
+        assertRejected(expenseApplicationService.addExpenseRecord(addCmd(projectId, "20")));
+
+        ExpenseRecordDeleteCmd deleteCmd = new ExpenseRecordDeleteCmd();
+        deleteCmd.setProjectId(projectId);
+        deleteCmd.setRecordId(recordId);
+        deleteCmd.setOperatorId(USER_ID);
+        assertRejected(expenseApplicationService.deleteExpenseRecord(deleteCmd));
+
+        ProjectMemberAddCmd memberAddCmd = new ProjectMemberAddCmd();
+        memberAddCmd.setProjectId(projectId);
+        memberAddCmd.setOperatorId(USER_ID);
+        memberAddCmd.setMembers(List.of("王五"));
+        assertRejected(expenseApplicationService.addProjectMember(memberAddCmd));
+
+        ProjectRenameCmd renameCmd = new ProjectRenameCmd();
+        renameCmd.setProjectId(projectId);
+        renameCmd.setOperatorId(USER_ID);
+        renameCmd.setProjectName("改名");
+        assertRejected(expenseApplicationService.renameProject(renameCmd));
+
+        assertEquals(1, expenseApplicationService.listRecord(recordQry(projectId)).getData().size());
+    }
+
+    @Test
+    void lockTwiceShouldFail() {
+        Integer projectId = createProject("重复锁定");
+        assertTrue(expenseApplicationService.lockProject(lockCmd(projectId)).isSuccess());
+
+        Response response = expenseApplicationService.lockProject(lockCmd(projectId));
+
+        assertFalse(response.isSuccess());
+        assertEquals("项目已锁定", response.getErrMessage());
+    }
+
+    @Test
+    void otherUserShouldNotLock() {
+        Integer projectId = createProject("他人锁定");
+        ProjectLockCmd cmd = lockCmd(projectId);
+        cmd.setOperatorId(USER_ID + 1);
+
+        assertFalse(expenseApplicationService.lockProject(cmd).isSuccess());
+        assertFalse(frozenProjectRepository.existsById(projectId));
+    }
+
+    @Test
+    void deleteShouldRemoveSnapshot() {
+        Integer projectId = createProject("删除快照");
+        expenseApplicationService.lockProject(lockCmd(projectId));
+
+        assertTrue(expenseApplicationService.deleteProject(projectId, USER_ID).isSuccess());
+
+        assertFalse(frozenProjectRepository.existsById(projectId));
+    }
+
+    private static void assertRejected(Response response) {
+        assertFalse(response.isSuccess());
+        assertEquals("项目已锁定，不能修改", response.getErrMessage());
+    }
+
+    private Integer createProject(String name) {
+        ProjectAddCmd cmd = new ProjectAddCmd();
+        cmd.setProjectName(name);
+        cmd.setProjectDesc("锁定");
+        cmd.setCreateUserId(USER_ID);
+        cmd.setMembers(List.of("张三", "李四"));
+        SingleResponse<Integer> response = expenseApplicationService.createProject(cmd);
+        assertTrue(response.isSuccess(), response.getErrMessage());
+        return response.getData();
+    }
+
+    private static ProjectLockCmd lockCmd(Integer projectId) {
+        ProjectLockCmd cmd = new ProjectLockCmd();
+        cmd.setProjectId(projectId);
+        cmd.setOperatorId(USER_ID);
+        return cmd;
+    }
+
+    private static ExpenseRecordAddCmd addCmd(Integer projectId, String amount) {
+        ExpenseRecordAddCmd cmd = new ExpenseRecordAddCmd();
+        cmd.setProjectId(projectId);
+        cmd.setOperatorId(USER_ID);
+        cmd.setPayMember("张三");
+        cmd.setAmount(new BigDecimal(amount));
+        cmd.setDate(System.currentTimeMillis() / 1000);
+        cmd.setExpenseType("餐饮");
+        cmd.setRemark("测试");
+        cmd.setConsumerMembers(List.of("张三", "李四"));
+        return cmd;
+    }
+
+    private static ExpenseRecordQry recordQry(Integer projectId) {
+        ExpenseRecordQry qry = new ExpenseRecordQry();
+        qry.setProjectId(projectId);
+        qry.setOperatorId(USER_ID);
+        return qry;
+    }
+
+    private static ProjectSharingQry sharingQry(Integer projectId) {
+        ProjectSharingQry qry = new ProjectSharingQry();
+        qry.setProjectId(projectId);
+        qry.setOperatorId(USER_ID);
+        return qry;
+    }
+}
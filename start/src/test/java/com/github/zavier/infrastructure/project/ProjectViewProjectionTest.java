@@ -0,0 +1,171 @@
+package com.github.zavier.infrastructure.project;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.alibaba.fastjson2.JSON;
+import com.github.zavier.Application;
+import com.github.zavier.dto.ExpenseRecordAddCmd;
+import com.github.zavier.dto.ExpenseRecordQry;
+import com.github.zavier.dto.ProjectAddCmd;
+import com.github.zavier.dto.ProjectSharingQry;
+import com.github.zavier.dto.data.ExpenseRecordDTO;
+import com.github.zavier.dto.data.ProjectViewDTO;
+import com.github.zavier.dto.data.UserSharingDTO;
+import com.github.zavier.expense.ExpenseRecordConsumerRepository;
+import com.github.zavier.expense.ExpenseRecordRepository;
+import com.github.zavier.project.ExpenseApplicationService;
+import com.github.zavier.project.ProjectViewDO;
+import com.github.zavier.project.ProjectViewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 项目读模型测试：保存时在同一事务内更新，查询只读读模型，缺失时补建
+ * <p>
+ * 读模型在事务提交前写入，测试方法本身不能开启事务，否则保存不会提交
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:projectviewdb;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+public class ProjectViewProjectionTest {
+
+    private static final int USER_ID = 1;
+
+    @Autowired
+    private ExpenseApplicationService expenseApplicationService;
+    @Autowired
+    private ProjectViewRepository projectViewRepository;
+    @Autowired
+    private ExpenseRecordRepository expenseRecordRepository;
+    @Autowired
+    private ExpenseRecordConsumerRepository expenseRecordConsumerRepository;
+
+    @Test
+    void saveShouldUpdateViewInSameTransaction() {
+        Integer projectId = createProject("周末聚餐");
+        ProjectViewDO created = projectViewRepository.findById(projectId).orElseThrow();
+        assertEquals(0, created.getVersion());
+
+        assertTrue(expenseApplicationService.addExpenseRecord(addCmd(projectId, "100")).isSuccess());
+
+        ProjectViewDO viewDO = projectViewRepository.findById(projectId).orElseThrow();
+        assertEquals(1, viewDO.getVersion());
+        ProjectViewDTO view = JSON.parseObject(viewDO.getPayload(), ProjectViewDTO.class);
+        assertEquals("周末聚餐", view.getProjectName());
+        assertEquals(2, view.getMembers().size());
+        assertEquals(1, view.getRecords().size());
+        assertEquals(2, view.getSharing().size());
+
+        List<UserSharingDTO> sharing = expenseApplicationService.getProjectSharingDetail(sharingQry(projectId)).getData();
+        assertEquals(0, new BigDecimal("100").compareTo(sharing.stream()
+                .map(UserSharingDTO::getPaidAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+
+    @Test
+    void queriesShouldReadViewWithoutLoadingAggregate() {
+        Integer projectId = createProject("只读读模型");
+        expenseApplicationService.addExpenseRecord(addCmd(projectId, "30"));
+
+        // 直接删掉关联表数据，查询结果不变，说明没有走聚合
+        expenseRecordConsumerRepository.deleteAll(expenseRecordConsumerRepository.findByProjectId(projectId));
+        expenseRecordRepository.deleteAll(expenseRecordRepository.findByProjectIdOrderByPayDateAsc(projectId));
+
+        SingleResponse<List<ExpenseRecordDTO>> records = expenseApplicationService.listRecord(recordQry(projectId));
+        assertEquals(1, records.getData().size());
+        assertEquals(0, new BigDecimal("30").compareTo(records.getData().get(0).getAmount()));
+    }
+
+    @Test
+    void missingViewShouldBeBackfilled() {
+        Integer projectId = createProject("补建");
+        expenseApplicationService.addExpenseRecord(addCmd(projectId, "50"));
+        projectViewRepository.deleteById(projectId);
+
+        List<ExpenseRecordDTO> records = expenseApplicationService.listRecord(recordQry(projectId)).getData();
+
+        assertEquals(1, records.size());
+        assertEquals(1, projectViewRepository.findById(projectId).orElseThrow().getVersion());
+    }
+
+    @Test
+    void staleViewShouldNotOverwriteNewer() {
+        Integer projectId = createProject("版本");
+        expenseApplicationService.addExpenseRecord(addCmd(projectId, "40"));
+
+        projectViewRepository.upsertIfNewer(projectId, 0, "{}", LocalDateTime.now());
+
+        ProjectViewDO viewDO = projectViewRepository.findById(projectId).orElseThrow();
+        assertEquals(1, viewDO.getVersion());
+        assertEquals(1, JSON.parseObject(viewDO.getPayload(), ProjectViewDTO.class).getRecords().size());
+    }
+
+    @Test
+    void otherUserShouldNotSeeRecords() {
+        Integer projectId = createProject("权限");
+        expenseApplicationService.addExpenseRecord(addCmd(projectId, "20"));
+
+        ExpenseRecordQry qry = recordQry(projectId);
+        qry.setOperatorId(USER_ID + 1);
+        assertTrue(expenseApplicationService.listRecord(qry).getData().isEmpty());
+        assertFalse(expenseApplicationService.exportRecords(projectId, USER_ID + 1).isSuccess());
+    }
+
+    @Test
+    void deleteShouldRemoveView() {
+        Integer projectId = createProject("删除");
+
+        assertTrue(expenseApplicationService.deleteProject(projectId, USER_ID).isSuccess());
+
+        assertFalse(projectViewRepository.existsById(projectId));
+    }
+
+    private Integer createProject(String name) {
+        ProjectAddCmd cmd = new ProjectAddCmd();
+        cmd.setProjectName(name);
+        cmd.setProjectDesc("读模型");
+        cmd.setCreateUserId(USER_ID);
+        cmd.setMembers(List.of("张三", "李四"));
+        SingleResponse<Integer> response = expenseApplicationService.createProject(cmd);
+        assertTrue(response.isSuccess(), response.getErrMessage());
+        return response.getData();
+    }
+
+    private static ExpenseRecordAddCmd addCmd(Integer projectId, String amount) {
+        ExpenseRecordAddCmd cmd = new ExpenseRecordAddCmd();
+        cmd.setProjectId(projectId);
+        cmd.setOperatorId(USER_ID);
+        cmd.setPayMember("张三");
+        cmd.setAmount(new BigDecimal(amount));
+        cmd.setDate(System.currentTimeMillis() / 1000);
+        cmd.setExpenseType("餐饮");
+        cmd.setRemark("测试");
+        cmd.setConsumerMembers(List.of("张三", "李四"));
+        return cmd;
+    }
+
+    private static ExpenseRecordQry recordQry(Integer projectId) {
+        ExpenseRecordQry qry = new ExpenseRecordQry();
+        qry.setProjectId(projectId);
+        qry.setOperatorId(USER_ID);
+        return qry;
+    }
+
+    private static ProjectSharingQry sharingQry(Integer projectId) {
+        ProjectSharingQry qry = new ProjectSharingQry();
+        qry.setProjectId(projectId);
+        qry.setOperatorId(USER_ID);
+        return qry;
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.zavier.infrastructure.project;
+
+import com.github.zavier.Application;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.ExpenseRecord;
+import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.expense.ExpenseRecordConsumerDO;
+import com.github.zavier.expense.ExpenseRecordConsumerRepository;
+import com.github.zavier.expense.ExpenseRecordDO;
+import com.github.zavier.expense.ExpenseRecordRepository;
+import com.github.zavier.project.ExpenseProjectDO;
+import com.github.zavier.project.ExpenseProjectMemberDO;
+import com.github.zavier.project.ExpenseProjectMemberRepository;
+import com.github.zavier.project.ExpenseProjectRepository;
+import com.github.zavier.project.RecordConsumerBitsMigrator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 消费人员位图测试：迁移前的数据从关联表读取，转换后从位图读取，结果一致
+ * <p>
+ * 转换在独立事务中执行，测试方法本身不能开启事务，否则准备的数据对转换不可见
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:consumerbitsdb;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+public class RecordConsumerBitsMigratorTest {
+
+    @Autowired
+    private ExpenseProjectGateway expenseProjectGateway;
+    @Autowired
+    private RecordConsumerBitsMigrator recordConsumerBitsMigrator;
+    @Autowired
+    private ExpenseProjectRepository expenseProjectRepository;
+    @Autowired
+    private ExpenseProjectMemberRepository expenseProjectMemberRepository;
+    @Autowired
+    private ExpenseRecordRepository expenseRecordRepository;
+    @Autowired
+    private ExpenseRecordConsumerRepository expenseRecordConsumerRepository;
+
+    @Test
+    void saveShouldWriteBitsInsteadOfConsumerRows() {
+        ExpenseProject project = new ExpenseProject();
+        project.setName("位图");
+        project.setDescription("消费人员");
+        project.setCreateUserId(1);
+        project.setLocked(false);
+        project.addMembers(List.of("张三", "李四", "王五"));
+        ExpenseRecord record = new ExpenseRecord();
+        record.setPayMember("张三");
+        record.setAmount(new BigDecimal("90"));
+        record.setDate(new Date());
+        record.setExpenseType("餐饮");
+        record.setRemark("晚饭");
+        record.addConsumers(List.of("王五", "张三"));
+        project.addExpenseRecord(record);
+        expenseProjectGateway.save(project);
+
+        assertTrue(expenseRecordConsumerRepository.findByProjectId(project.getId()).isEmpty());
+        assertEquals(List.of(0, 1, 2), expenseProjectMemberRepository.findByProjectId(project.getId()).stream()
+                .map(ExpenseProjectMemberDO::getMemberNo)
+                .sorted()
+                .collect(Collectors.toList()));
+        ExpenseRecordDO recordDO = expenseRecordRepository.findByProjectIdOrderByPayDateAsc(project.getId()).get(0);
+        assertEquals(BitSet.valueOf(new long[]{0b101}), BitSet.valueOf(recordDO.getConsumerBits()));
+
+        ExpenseProject loaded = expenseProjectGateway.getProjectById(project.getId()).orElseThrow();
+        assertEquals(List.of("张三", "李四", "王五"), loaded.listAllMember());
+        assertEquals(Set.of("张三", "王五"), loaded.listAllExpenseRecord().get(0).listAllConsumers());
+    }
+
+    @Test
+    void migrateShouldConvertLegacyConsumerRows() {
+        Integer projectId = legacyProject();
+        ExpenseRecordDO memberRecord = legacyRecord(projectId, "60", List.of("张三", "李四"));
+        ExpenseRecordDO outsiderRecord = legacyRecord(projectId, "30", List.of("张三", "赵六"));
+
+        // 转换前从关联表读取
+        assertConsumers(projectId);
+
+        assertEquals(1, recordConsumerBitsMigrator.migrateAll());
+        assertEquals(0, recordConsumerBitsMigrator.migrateAll(), "不是成员的消费人员保留原数据，不会再次转换");
+
+        assertEquals(List.of(0, 1), expenseProjectMemberRepository.findByProjectId(projectId).stream()
+                .sorted(Comparator.comparing(ExpenseProjectMemberDO::getId))
+                .map(ExpenseProjectMemberDO::getMemberNo)
+                .collect(Collectors.toList()));
+        assertNotNull(expenseRecordRepository.findById(memberRecord.getId()).orElseThrow().getConsumerBits());
+        assertTrue(expenseRecordConsumerRepository.findByRecordId(memberRecord.getId()).isEmpty());
+        assertNull(expenseRecordRepository.findById(outsiderRecord.getId()).orElseThrow().getConsumerBits());
+        assertEquals(2, expenseRecordConsumerRepository.findByRecordId(outsiderRecord.getId()).size());
+
+        // 转换后位图与关联表混合读取，结果不变
+        assertConsumers(projectId);
+    }
+
+    private void assertConsumers(Integer projectId) {
+        ExpenseProject project = expenseProjectGateway.getProjectById(projectId).orElseThrow();
+        assertEquals(List.of("张三", "李四"), project.listAllMember());
+        assertEquals(Set.of(Set.of("张三", "李四"), Set.of("张三", "赵六")), project.listAllExpenseRecord().stream()
+                .map(ExpenseRecord::listAllConsumers)
+                .collect(Collectors.toSet()));
+    }
+
+    private Integer legacyProject() {
+        ExpenseProjectDO projectDO = new ExpenseProjectDO();
+        projectDO.setName("历史项目");
+        projectDO.setDescription("关联表");
+        projectDO.setCreateUserId(1);
+        projectDO.setLocked(false);
+        Integer projectId = expenseProjectRepository.save(projectDO).getId();
+        for (String name : List.of("张三", "李四")) {
+            ExpenseProjectMemberDO memberDO = new ExpenseProjectMemberDO();
+            memberDO.setProjectId(projectId);
+            memberDO.setName(name);
+            expenseProjectMemberRepository.save(memberDO);
+        }
+        return projectId;
+    }
+
+    private ExpenseRecordDO legacyRecord(Integer projectId, String amount, List<String> consumers) {
+        ExpenseRecordDO recordDO = new ExpenseRecordDO();
+        recordDO.setProjectId(projectId);
+        recordDO.setPayMember("张三");
+        recordDO.setAmount(new BigDecimal(amount));
+        recordDO.setPayDate(LocalDateTime.now());
+        recordDO.setExpenseType("餐饮");
+        recordDO.setRemark("历史");
+        recordDO = expenseRecordRepository.save(recordDO);
+        for (String name : consumers) {
+            ExpenseRecordConsumerDO consumerDO = new ExpenseRecordConsumerDO();
+            consumerDO.setProjectId(projectId);
+            consumerDO.setRecordId(recordDO.getId());
+            consumerDO.setMember(name);
+            expenseRecordConsumerRepository.save(consumerDO);
+        }
+        return recordDO;
+    }
+}
@@ -0,0 +1,213 @@
+package com.github.zavier.infrastructure.project;
+
+import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.Application;
+import com.github.zavier.domain.expense.gateway.ProjectSummaryGateway;
+import com.github.zavier.dto.ExpenseRecordAddCmd;
+import com.github.zavier.dto.ProjectAddCmd;
+import com.github.zavier.dto.data.ExpenseCategoryDTO;
+import com.github.zavier.dto.data.MemberBalanceDTO;
+import com.github.zavier.dto.data.ProjectSummaryDTO;
+import com.github.zavier.dto.data.UserDashboardDTO;
+import com.github.zavier.project.ExpenseApplicationService;
+import com.github.zavier.project.ProjectCategorySummaryRepository;
+import com.github.zavier.project.ProjectSummaryMigrator;
+import com.github.zavier.project.ProjectSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用户首页汇总测试：汇总随项目保存更新，首页只读汇总表；缺失的汇总由补建任务生成
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userdashboarddb;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+public class UserDashboardTest {
+
+    @Autowired
+    private ExpenseApplicationService expenseApplicationService;
+
+    @Autowired
+    private ProjectSummaryGateway projectSummaryGateway;
+
+    @Autowired
+    private ProjectSummaryMigrator projectSummaryMigrator;
+
+    @Autowired
+    private ProjectSummaryRepository projectSummaryRepository;
+
+    @Autowired
+    private ProjectCategorySummaryRepository projectCategorySummaryRepository;
+
+    @Test
+    void dashboardShouldSumAcrossProjects() {
+        int userId = 101;
+        Integer beijing = createProject(userId, "北京出差");
+        Integer shanghai = createProject(userId, "上海出差");
+        addRecord(userId, beijing, "交通", "打车", "100");
+        addRecord(userId, beijing, "餐饮", "烤鸭", "200");
+        addRecord(userId, shanghai, "交通", "地铁", "10.5");
+
+        UserDashboardDTO dashboard = getDashboard(userId);
+
+        assertEquals(2, dashboard.getProjectCount());
+        assertEquals(3, dashboard.getRecordCount());
+        assertEquals(0, new BigDecimal("310.5").compareTo(dashboard.getTotalAmount()));
+        // 张三付款、两人平摊：每个项目待结清金额为总额的一半
+        assertEquals(0, new BigDecimal("155.25").compareTo(dashboard.getUnsettledAmount()));
+
+        ProjectSummaryDTO summary = dashboard.getProjects().stream()
+                .filter(project -> beijing.equals(project.getProjectId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("北京出差", summary.getProjectName());
+        assertEquals(2, summary.getRecordCount());
+        Map<String, BigDecimal> balances = summary.getBalances().stream()
+                .collect(Collectors.toMap(MemberBalanceDTO::getMember, MemberBalanceDTO::getNetAmount));
+        assertEquals(0, new BigDecimal("150").compareTo(balances.get("张三")));
+        assertEquals(0, new BigDecimal("-150").compareTo(balances.get("李四")));
+
+        List<ExpenseCategoryDTO> categories = dashboard.getTopCategories();
+        assertEquals(List.of("餐饮", "交通"), categories.stream().map(ExpenseCategoryDTO::getExpenseType).toList());
+        assertEquals(2, categories.get(1).getRecordCount());
+        assertEquals(0, new BigDecimal("110.5").compareTo(categories.get(1).getTotalAmount()));
+
+        assertEquals(3, dashboard.getRecentRecords().size());
+    }
+
+    @Test
+    void dashboardShouldOnlyCoverOwnProjects() {
+        Integer own = createProject(201, "自己的项目");
+        Integer others = createProject(202, "别人的项目");
+        addRecord(201, own, "住宿", "酒店", "300");
+        addRecord(202, others, "住宿", "酒店", "500");
+
+        UserDashboardDTO dashboard = getDashboard(201);
+
+        assertEquals(1, dashboard.getProjectCount());
+        assertEquals(own, dashboard.getProjects().get(0).getProjectId());
+        assertEquals(0, new BigDecimal("300").compareTo(dashboard.getTotalAmount()));
+        assertEquals(1, dashboard.getRecentRecords().size());
+        assertEquals(own, dashboard.getRecentRecords().get(0).getExpenseProjectId());
+    }
+
+    @Test
+    void missingSummaryShouldBeBackfilled() {
+        int userId = 301;
+        Integer projectId = createProject(userId, "历史项目");
+        addRecord(userId, projectId, "门票", "博物馆", "80");
+        projectSummaryRepository.deleteById(projectId);
+        projectCategorySummaryRepository.deleteAll(projectCategorySummaryRepository.findAll().stream()
+                .filter(category -> projectId.equals(category.getProjectId()))
+                .toList());
+
+        // 查询不写入，补建前看不到该项目
+        assertEquals(0, getDashboard(userId).getProjectCount());
+
+        assertTrue(projectSummaryMigrator.migrateAll() >= 1);
+        UserDashboardDTO dashboard = getDashboard(userId);
+
+        assertEquals(1, dashboard.getProjectCount());
+        assertEquals(1, dashboard.getRecordCount());
+        assertEquals(0, new BigDecimal("80").compareTo(dashboard.getTotalAmount()));
+        assertEquals("门票", dashboard.getTopCategories().get(0).getExpenseType());
+        assertTrue(projectSummaryRepository.existsById(projectId));
+    }
+
+    @Test
+    void deletedProjectShouldLeaveDashboard() {
+        int userId = 401;
+        Integer kept = createProject(userId, "保留");
+        Integer deleted = createProject(userId, "删除");
+        addRecord(userId, kept, "餐饮", "午饭", "20");
+        addRecord(userId, deleted, "餐饮", "晚饭", "50");
+
+        assertTrue(expenseApplicationService.deleteProject(deleted, userId).isSuccess());
+        UserDashboardDTO dashboard = getDashboard(userId);
+
+        assertEquals(1, dashboard.getProjectCount());
+        assertEquals(kept, dashboard.getProjects().get(0).getProjectId());
+        assertEquals(0, new BigDecimal("20").compareTo(dashboard.getTopCategories().get(0).getTotalAmount()));
+        assertFalse(projectSummaryRepository.existsById(deleted));
+    }
+
+    @Test
+    void olderSummaryShouldNotOverwriteNewer() {
+        int userId = 601;
+        Integer projectId = createProject(userId, "版本");
+        addRecord(userId, projectId, "餐饮", "早饭", "12");
+        ProjectSummaryDTO current = getDashboard(userId).getProjects().get(0);
+
+        ProjectSummaryDTO stale = new ProjectSummaryDTO();
+        stale.setProjectId(projectId);
+        stale.setProjectName("旧名称");
+        stale.setCreateUserId(userId);
+        stale.setVersion(current.getVersion() - 1);
+        stale.setLocked(false);
+        stale.setMemberCount(2);
+        stale.setRecordCount(0L);
+        stale.setTotalAmount(BigDecimal.ZERO);
+        stale.setUnsettledAmount(BigDecimal.ZERO);
+        stale.setLastActivityAt(System.currentTimeMillis() / 1000);
+        projectSummaryGateway.saveSummary(stale);
+
+        UserDashboardDTO dashboard = getDashboard(userId);
+        assertEquals("版本", dashboard.getProjects().get(0).getProjectName());
+        assertEquals(current.getVersion(), dashboard.getProjects().get(0).getVersion());
+        assertEquals(0, new BigDecimal("12").compareTo(dashboard.getTotalAmount()));
+        assertEquals("餐饮", dashboard.getTopCategories().get(0).getExpenseType());
+    }
+
+    @Test
+    void emptyDashboard() {
+        UserDashboardDTO dashboard = getDashboard(501);
+
+        assertEquals(0, dashboard.getProjectCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(dashboard.getTotalAmount()));
+        assertTrue(dashboard.getTopCategories().isEmpty());
+        assertTrue(dashboard.getRecentRecords().isEmpty());
+    }
+
+    private UserDashboardDTO getDashboard(int userId) {
+        SingleResponse<UserDashboardDTO> response = expenseApplicationService.getUserDashboard(userId);
+        assertTrue(response.isSuccess(), response.getErrMessage());
+        return response.getData();
+    }
+
+    private Integer createProject(int userId, String name) {
+        ProjectAddCmd cmd = new ProjectAddCmd();
+        cmd.setProjectName(name);
+        cmd.setProjectDesc("首页汇总");
+        cmd.setCreateUserId(userId);
+        cmd.setMembers(List.of("张三", "李四"));
+        SingleResponse<Integer> response = expenseApplicationService.createProject(cmd);
+        assertTrue(response.isSuccess(), response.getErrMessage());
+        return response.getData();
+    }
+
+    private void addRecord(int userId, Integer projectId, String expenseType, String remark, String amount) {
+        ExpenseRecordAddCmd cmd = new ExpenseRecordAddCmd();
+        cmd.setProjectId(projectId);
+        cmd.setOperatorId(userId);
+        cmd.setPayMember("张三");
+        cmd.setAmount(new BigDecimal(amount));
+        cmd.setDate(System.currentTimeMillis() / 1000);
+        cmd.setExpenseType(expenseType);
+        cmd.setRemark(remark);
+        cmd.setConsumerMembers(List.of("张三", "李四"));
+        assertTrue(expenseApplicationService.addExpenseRecord(cmd).isSuccess());
+    }
+}
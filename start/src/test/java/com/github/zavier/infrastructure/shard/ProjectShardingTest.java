@@ -0,0 +1,243 @@
+package com.github.zavier.infrastructure.shard;
+
+import com.alibaba.cola.dto.PageResponse;
+import com.alibaba.cola.dto.SingleResponse;
+import com.github.zavier.Application;
+import com.github.zavier.domain.expense.ExpenseProject;
+import com.github.zavier.domain.expense.gateway.ExpenseProjectGateway;
+import com.github.zavier.dto.ExpenseRecordAddCmd;
+import com.github.zavier.dto.ProjectAddCmd;
+import com.github.zavier.dto.ProjectListQry;
+import com.github.zavier.project.ExpenseApplicationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 项目分片测试：三个独立的 H2 内存库作为 0、1、2 号分片
+ * <p>
+ * 0 号分片由 Hibernate 建表，其余分片复制表结构，并把子表的自增起始值错开，模拟各分片自增ID不重叠
+ */
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=" + ProjectShardingTest.SHARD0_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "app.sharding.enabled=true",
+        "app.sharding.shards[0].url=" + ProjectShardingTest.SHARD1_URL,
+        "app.sharding.shards[0].username=sa",
+        "app.sharding.shards[0].driver-class-name=org.h2.Driver",
+        "app.sharding.shards[1].url=" + ProjectShardingTest.SHARD2_URL,
+        "app.sharding.shards[1].username=sa",
+        "app.sharding.shards[1].driver-class-name=org.h2.Driver",
+        "app.project.id-block-size=5"
+})
+public class ProjectShardingTest {
+
+    static final String SHARD0_URL = "jdbc:h2:mem:shard0db;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    static final String SHARD1_URL = "jdbc:h2:mem:shard1db;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    static final String SHARD2_URL = "jdbc:h2:mem:shard2db;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static final List<String> SHARD_URLS = List.of(SHARD0_URL, SHARD1_URL, SHARD2_URL);
+
+    private static final List<String> CHILD_TABLES = List.of(
+            "expense_project_member", "expense_record", "expense_record_consumer");
+
+    private static boolean schemaCopied = false;
+
+    @Autowired
+    private ExpenseApplicationService expenseApplicationService;
+    @Autowired
+    private ExpenseProjectGateway expenseProjectGateway;
+    @Autowired
+    private ProjectShardRouter projectShardRouter;
+    @Autowired
+    private ProjectResharder projectResharder;
+
+    @BeforeEach
+    void copySchemaToShards() throws SQLException {
+        if (schemaCopied) {
+            return;
+        }
+        final List<String> ddl = new ArrayList<>();
+        try (Connection shard0 = connect(0);
+             Statement statement = shard0.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT NODATA")) {
+            while (script.next()) {
+                final String sql = script.getString(1);
+                if (!sql.startsWith("CREATE USER") && !sql.startsWith("--")) {
+                    ddl.add(sql);
+                }
+            }
+        }
+        for (int shard = 1; shard < SHARD_URLS.size(); shard++) {
+            try (Connection connection = connect(shard);
+                 Statement statement = connection.createStatement()) {
+                for (String sql : ddl) {
+                    statement.execute(sql);
+                }
+                for (String table : CHILD_TABLES) {
+                    statement.execute("alter table `" + table + "` alter column `id` restart with " + (shard * 1_000_000 + 1));
+                }
+            }
+        }
+        schemaCopied = true;
+    }
+
+    @Test
+    void projectsShouldBeStoredOnTheirPlacementShard() throws SQLException {
+        assertEquals(3, projectShardRouter.shardCount());
+        final int userId = 101;
+        final List<Integer> projectIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            final Integer projectId = createProject(userId, "分片项目" + i);
+            addRecord(projectId, userId, "10");
+            projectIds.add(projectId);
+        }
+
+        assertTrue(projectIds.stream().map(projectShardRouter::placementOf).distinct().count() > 1,
+                "连续的项目ID应分布在多个分片上");
+        for (Integer projectId : projectIds) {
+            final int shard = projectShardRouter.placementOf(projectId);
+            assertEquals(shard, projectShardRouter.refresh(projectId));
+            for (int other = 0; other < SHARD_URLS.size(); other++) {
+                final int expected = other == shard ? 1 : 0;
+                assertEquals(expected, count(other, "expense_project", "id", projectId));
+                assertEquals(expected, count(other, "expense_record", "project_id", projectId));
+                assertEquals(expected * 2, count(other, "expense_project_member", "project_id", projectId));
+            }
+
+            final ExpenseProject project = expenseProjectGateway.getProjectById(projectId).orElseThrow();
+            assertEquals(1, project.listAllExpenseRecord().size());
+            assertEquals(2, project.listAllMember().size());
+        }
+    }
+
+    @Test
+    void listingShouldGatherFromAllShards() {
+        final int userId = 102;
+        final List<Integer> projectIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            projectIds.add(createProject(userId, "列表项目" + i));
+        }
+        final List<Integer> expected = projectIds.stream()
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList());
+
+        final PageResponse<ExpenseProject> first = expenseProjectGateway.pageProject(listQry(userId, 1, 4));
+        final PageResponse<ExpenseProject> second = expenseProjectGateway.pageProject(listQry(userId, 2, 4));
+
+        assertEquals(7, first.getTotalCount());
+        assertEquals(4, first.getData().size());
+        assertEquals(3, second.getData().size());
+        final List<Integer> listed = Stream.concat(first.getData().stream(), second.getData().stream())
+                .map(ExpenseProject::getId)
+                .collect(Collectors.toList());
+        assertEquals(expected, listed);
+        assertTrue(first.getData().stream().allMatch(project -> project.listAllMember().size() == 2),
+                "每个项目应在各自分片上加载完整聚合");
+
+        assertEquals(7, expenseProjectGateway.listProjectNames(userId).size());
+        assertTrue(expenseProjectGateway.listProjectNames(userId).keySet().containsAll(projectIds));
+    }
+
+    @Test
+    void moveShouldRelocateProjectBetweenShards() throws SQLException {
+        final int userId = 103;
+        final Integer projectId = createProject(userId, "迁移项目");
+        addRecord(projectId, userId, "30");
+        final int source = projectShardRouter.shardOf(projectId);
+        final int target = (source + 1) % SHARD_URLS.size();
+
+        assertTrue(projectResharder.move(projectId, target));
+        assertFalse(projectResharder.move(projectId, target), "已在目标分片时不再迁移");
+
+        assertEquals(target, projectShardRouter.refresh(projectId));
+        assertEquals(0, count(source, "expense_project", "id", projectId));
+        assertEquals(0, count(source, "expense_record", "project_id", projectId));
+        assertEquals(0, count(source, "expense_project_view", "project_id", projectId));
+        assertEquals(1, count(target, "expense_project", "id", projectId));
+        assertEquals(2, count(target, "expense_project_member", "project_id", projectId));
+        assertEquals(1, count(target, "expense_record", "project_id", projectId));
+        assertEquals(1, count(target, "expense_project_view", "project_id", projectId));
+
+        // 迁移后继续在目标分片上读写
+        addRecord(projectId, userId, "20");
+        final ExpenseProject project = expenseProjectGateway.getProjectById(projectId).orElseThrow();
+        assertEquals(2, project.listAllExpenseRecord().size());
+        // 消费人员位图随记录行一起迁移
+        assertTrue(project.listAllExpenseRecord().stream()
+                .allMatch(expenseRecord -> expenseRecord.listAllConsumers().size() == 2));
+        assertEquals(0, new BigDecimal("50").compareTo(project.listAllExpenseRecord().stream()
+                .map(expenseRecord -> expenseRecord.getAmount())
+                .reduce(BigDecimal.ZERO, BigDecimal::add)));
+        assertEquals(2, count(target, "expense_record", "project_id", projectId));
+        assertEquals(0, count(source, "expense_record", "project_id", projectId));
+    }
+
+    private Integer createProject(int userId, String name) {
+        final ProjectAddCmd cmd = new ProjectAddCmd();
+        cmd.setProjectName(name);
+        cmd.setProjectDesc("分片");
+        cmd.setCreateUserId(userId);
+        cmd.setMembers(List.of("张三", "李四"));
+        final SingleResponse<Integer> response = expenseApplicationService.createProject(cmd);
+        assertTrue(response.isSuccess(), response.getErrMessage());
+        return response.getData();
+    }
+
+    private void addRecord(Integer projectId, int userId, String amount) {
+        final ExpenseRecordAddCmd cmd = new ExpenseRecordAddCmd();
+        cmd.setProjectId(projectId);
+        cmd.setOperatorId(userId);
+        cmd.setPayMember("张三");
+        cmd.setAmount(new BigDecimal(amount));
+        cmd.setDate(System.currentTimeMillis() / 1000);
+        cmd.setExpenseType("餐饮");
+        cmd.setRemark("分片");
+        cmd.setConsumerMembers(List.of("张三", "李四"));
+        assertTrue(expenseApplicationService.addExpenseRecord(cmd).isSuccess());
+    }
+
+    private static ProjectListQry listQry(int userId, int page, int size) {
+        final ProjectListQry qry = new ProjectListQry();
+        qry.setOperatorId(userId);
+        qry.setPage(page);
+        qry.setSize(size);
+        return qry;
+    }
+
+    private static int count(int shard, String table, String column, Integer projectId) throws SQLException {
+        try (Connection connection = connect(shard);
+             PreparedStatement select = connection.prepareStatement(
+                     "select count(*) from `" + table + "` where `" + column + "` = ?")) {
+            select.setInt(1, projectId);
+            try (ResultSet resultSet = select.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    private static Connection connect(int shard) throws SQLException {
+        return DriverManager.getConnection(SHARD_URLS.get(shard), "sa", "");
+    }
+}